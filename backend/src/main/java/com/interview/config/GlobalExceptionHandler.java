@@ -3,17 +3,22 @@ package com.interview.config;
 import com.interview.dto.ErrorResponse;
 import com.interview.dto.ValidationErrorResponse;
 import com.interview.exception.BusinessException;
+import com.interview.exception.OptimisticLockingException;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolationException;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 /**
  * Global exception handler for the application.
@@ -54,6 +59,20 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(ex.getStatus()).body(errorResponse);
     }
 
+    /**
+     * Handle a versioned entity written concurrently by another request (409), like {@link OptimisticLockingException}.
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(
+        ObjectOptimisticLockingFailureException ex, HttpServletRequest request) {
+
+        String entityName = ex.getPersistentClassName() == null ? "resource" : ClassUtils.getShortName(ex.getPersistentClassName());
+        OptimisticLockingException conflict = ex.getIdentifier() instanceof Long id
+            ? new OptimisticLockingException(entityName, id)
+            : new OptimisticLockingException("The " + entityName + " was modified by another user. Please refresh and try again.");
+        return handleBusinessException(conflict, request);
+    }
+
     /**
      * Handle validation errors from @Valid.
      */
@@ -85,6 +104,56 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
+    /**
+     * Handle validation errors raised by programmatic validation, e.g. of merge patch members.
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<ValidationErrorResponse> handleConstraintViolation(
+        ConstraintViolationException ex, HttpServletRequest request) {
+
+        log.warn("Validation failed: {}", ex.getMessage());
+
+        List<ValidationErrorResponse.ValidationError> validationErrors = ex.getConstraintViolations()
+            .stream()
+            .map(violation -> new ValidationErrorResponse.ValidationError(
+                violation.getPropertyPath().toString(),
+                violation.getInvalidValue(),
+                violation.getMessage()
+            ))
+            .toList();
+
+        ValidationErrorResponse errorResponse = ValidationErrorResponse.withValidationErrors(
+            VALIDATION_ERROR_CODE,
+            VALIDATION_ERROR_MESSAGE,
+            request.getRequestURI(),
+            HttpStatus.BAD_REQUEST.value(),
+            validationErrors
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    /**
+     * Handle request parameters that cannot be converted to their declared type (400).
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<ErrorResponse> handleTypeMismatch(
+        MethodArgumentTypeMismatchException ex, HttpServletRequest request) {
+
+        log.warn("Invalid value for parameter '{}': {}", ex.getName(), ex.getValue());
+
+        ErrorResponse errorResponse = ErrorResponse.of(
+            "BAD_REQUEST",
+            String.format("Invalid value '%s' for parameter '%s'", ex.getValue(), ex.getName()),
+            request.getRequestURI(),
+            HttpStatus.BAD_REQUEST.value()
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
     /**
      * Handle HTTP method not allowed (405).
      */
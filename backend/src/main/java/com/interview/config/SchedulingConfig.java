@@ -0,0 +1,12 @@
+package com.interview.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} maintenance jobs such as the subscriber count reconciliation.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,12 +1,14 @@
 package com.interview.config.auth;
 
 import com.interview.service.auth.JwtService;
+import com.interview.service.auth.TokenRevocationService;
 import com.interview.service.auth.UserService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
@@ -22,6 +24,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
  *
  * <p>Extracts JWT token from Authorization header, validates it, and sets
  * Spring Security authentication context for role-based access control.
+ * Revoked tokens are rejected; the revocation check needs no query for tokens that were never revoked.
  */
 @Slf4j
 @Component
@@ -30,14 +33,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserService userService;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
         throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String username;
 
         // Skip if no Authorization header or doesn't start with Bearer
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -46,17 +48,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         try {
-            // Extract token from header
-            jwt = authHeader.substring(7);
-            username = jwtService.extractUsername(jwt);
+            // Verify the token once and read its subject and role
+            var token = jwtService.verify(authHeader.substring(7));
+            String username = token.username();
 
-            // If username exists and no authentication in context
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null && userService.findByUsername(username).isPresent()
-                && jwtService.validateToken(jwt, username)) {
+            // Revoked tokens authenticate nobody
+            if (tokenRevocationService.isRevoked(token.tokenId())) {
+                log.debug("Rejected revoked JWT {} of user: {}", token.tokenId(), username);
 
-                // Extract role and create authorities
-                var role = jwtService.extractRole(jwt);
-                var authorities = java.util.List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+            // If the user still exists and no authentication in context
+            } else if (SecurityContextHolder.getContext().getAuthentication() == null && userService.findByUsername(username).isPresent()) {
+                var authorities = List.of(new SimpleGrantedAuthority("ROLE_" + token.role().name()));
 
                 // Create authentication token
                 var authToken = new UsernamePasswordAuthenticationToken(username, null, authorities);
@@ -65,7 +67,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 // Set authentication in security context
                 SecurityContextHolder.getContext().setAuthentication(authToken);
 
-                log.debug("JWT authentication successful for user: {} with role: {}", username, role);
+                log.debug("JWT authentication successful for user: {} with role: {}", username, token.role());
             }
 
         } catch (Exception ex) {
@@ -0,0 +1,24 @@
+package com.interview.config.auth;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Password hashing for stored user credentials.
+ *
+ * <p>Kept apart from {@link SecurityConfig}, which depends on the JWT filter and through it on the user store.
+ */
+@Configuration
+public class PasswordEncoderConfig {
+
+    /**
+     * BCrypt encoder; matching reads the cost from each stored hash, so raising the strength only affects new hashes.
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${app.auth.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
+    }
+}
@@ -0,0 +1,144 @@
+package com.interview.config.auth;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.dto.ErrorResponse;
+import com.interview.enums.Role;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Rate limiting filter, placed after {@link JwtAuthenticationFilter} in the security chain.
+ *
+ * <p>{@code POST /auth/login} is limited per client IP. {@code /api/v1/**} is limited per authenticated user
+ * (the JWT subject), with the tier picked by the user's role. Unauthenticated API requests are left to Spring
+ * Security, which rejects them without touching the database. The client IP is the connection's remote address;
+ * behind a proxy, {@code server.forward-headers-strategy} makes that the forwarded client address.
+ *
+ * <p>A refused request gets {@code 429} with {@code Retry-After} in whole seconds. Outcomes are counted in
+ * {@code app.rate_limit.requests} by tier and outcome, and {@code app.rate_limit.keys} tracks the buckets held.
+ */
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String LOGIN_PATH = "/auth/login";
+    private static final String API_PATH_PREFIX = "/api/v1/";
+    private static final String LOGIN_TIER = "login";
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final String REQUESTS_METRIC = "app.rate_limit.requests";
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final RateLimitProperties properties;
+    private final TokenBucketLimiter limiter;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Size the bucket map and its idle expiry from the configured tiers and register the key gauge.
+     */
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        long longestRefill = Stream.concat(Stream.of(properties.login()), properties.roles().values().stream())
+            .mapToLong(RateLimitProperties.Tier::refillNanos)
+            .max()
+            .orElse(0L);
+        this.limiter = new TokenBucketLimiter(properties.maxKeys(), Duration.ofNanos(longestRefill), System::nanoTime);
+        Gauge.builder("app.rate_limit.keys", limiter, TokenBucketLimiter::size)
+            .description("Principals and client addresses with a tracked rate limit bucket")
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !properties.enabled();
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+        throws ServletException, IOException {
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String key;
+        String tierName;
+        RateLimitProperties.Tier tier;
+
+        if (LOGIN_PATH.equals(path)) {
+            key = "ip:" + request.getRemoteAddr();
+            tierName = LOGIN_TIER;
+            tier = properties.login();
+        } else if (path.startsWith(API_PATH_PREFIX) && authenticatedRole() instanceof Role role && properties.roles().containsKey(role)) {
+            key = "user:" + SecurityContextHolder.getContext().getAuthentication().getName();
+            tierName = role.name();
+            tier = properties.roles().get(role);
+        } else {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = limiter.tryAcquire(key, tier);
+        meterRegistry.counter(REQUESTS_METRIC, "tier", tierName, "outcome", waitNanos == 0 ? "allowed" : "rejected").increment();
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfterSeconds = Math.max(1L, (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+        log.warn("Rate limit exceeded for {} on tier {}, retry after {}s", key, tierName, retryAfterSeconds);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getWriter(), ErrorResponse.of("TOO_MANY_REQUESTS",
+            "Rate limit exceeded, retry after " + retryAfterSeconds + " seconds", request.getRequestURI(), HttpStatus.TOO_MANY_REQUESTS.value()));
+    }
+
+    /**
+     * Role of the user authenticated by the JWT filter, or null for anonymous requests.
+     */
+    private static Role authenticatedRole() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .filter(authority -> authority.startsWith(ROLE_PREFIX))
+            .map(authority -> Role.valueOf(authority.substring(ROLE_PREFIX.length())))
+            .findFirst()
+            .orElse(null);
+    }
+
+    /**
+     * Disable auto-registration of this filter by Spring Boot.
+     * It is registered in SecurityConfig, after the JWT filter has authenticated the request.
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration() {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(this);
+        registration.setEnabled(false); // Disable auto-registration
+        return registration;
+    }
+}
@@ -0,0 +1,43 @@
+package com.interview.config.auth;
+
+import com.interview.enums.Role;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Rate limit tiers, bound from {@code app.rate-limit}.
+ *
+ * @param enabled whether {@link RateLimitFilter} limits requests at all
+ * @param maxKeys most principals and client addresses tracked at once; the least recently seen are dropped first
+ * @param login limit per client IP for {@code POST /auth/login}
+ * @param roles limit per authenticated user for {@code /api/v1/**}, by the user's role
+ */
+@ConfigurationProperties("app.rate-limit")
+public record RateLimitProperties(boolean enabled, long maxKeys, Tier login, Map<Role, Tier> roles) {
+
+    /**
+     * A token bucket holding up to {@code capacity} requests, refilled at {@code refillPerSecond}.
+     */
+    public record Tier(int capacity, double refillPerSecond) {
+
+        public Tier {
+            if (capacity < 1 || refillPerSecond <= 0) {
+                throw new IllegalArgumentException("A rate limit tier needs a capacity of at least 1 and a positive refill rate");
+            }
+        }
+
+        /**
+         * Nanoseconds it takes to refill one request.
+         */
+        public long emissionIntervalNanos() {
+            return Math.max(1L, Math.round(1_000_000_000L / refillPerSecond));
+        }
+
+        /**
+         * Nanoseconds it takes to refill an empty bucket.
+         */
+        public long refillNanos() {
+            return emissionIntervalNanos() * capacity;
+        }
+    }
+}
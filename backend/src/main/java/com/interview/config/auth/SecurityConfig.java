@@ -5,6 +5,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -22,16 +23,21 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
  *
  * <p><strong>Security Rules:</strong>
  * <ul>
- *   <li><strong>Public endpoints:</strong> /auth/login, /api/welcome, H2 console, Swagger UI</li>
+ *   <li><strong>Public endpoints:</strong> /auth/login, /auth/logout, /api/welcome, H2 console, Swagger UI</li>
+ *   <li><strong>POST /auth/revocations:</strong> Only ADMIN role can access</li>
  *   <li><strong>GET endpoints:</strong> Both ADMIN and USER roles can access</li>
- *   <li><strong>POST/PUT/DELETE:</strong> Only ADMIN role can access</li>
+ *   <li><strong>POST .../lookup:</strong> Read-only batch lookups, both ADMIN and USER roles can access</li>
+ *   <li><strong>POST/PUT/PATCH/DELETE:</strong> Only ADMIN role can access</li>
  * </ul>
  *
  * <p><strong>JWT Token:</strong> Required in Authorization header as "Bearer {token}"
+ *
+ * <p><strong>Rate Limits:</strong> {@link RateLimitFilter} limits logins per client IP and API calls per user.
  */
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
+@EnableConfigurationProperties(RateLimitProperties.class)
 @RequiredArgsConstructor
 public class SecurityConfig {
 
@@ -43,6 +49,7 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final CorrelationFilter correlationFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -63,6 +70,10 @@ public class SecurityConfig {
 
             // Configure authorization rules
             .authorizeHttpRequests(auth -> auth
+                // Revoking other users' tokens is reserved to administrators
+                .requestMatchers(HttpMethod.POST, "/auth/revocations")
+                .hasRole("ADMIN")
+
                 // Public endpoints - no authentication required
                 .requestMatchers("/auth/**")
                 .permitAll()
@@ -76,16 +87,22 @@ public class SecurityConfig {
                 // Customer API authorization rules
                 .requestMatchers(HttpMethod.GET, "/api/v1/customers/**")
                 .hasAnyRole("ADMIN", "USER")
+                .requestMatchers(HttpMethod.POST, "/api/v1/customers/lookup")
+                .hasAnyRole("ADMIN", "USER")
                 .requestMatchers(HttpMethod.POST, "/api/v1/customers/**")
                 .hasRole("ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/api/v1/customers/**")
                 .hasRole("ADMIN")
+                .requestMatchers(HttpMethod.PATCH, "/api/v1/customers/**")
+                .hasRole("ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/api/v1/customers/**")
                 .hasRole("ADMIN")
 
                 // Vehicle API authorization rules
                 .requestMatchers(HttpMethod.GET, "/api/v1/vehicles/**")
                 .hasAnyRole("ADMIN", "USER")
+                .requestMatchers(HttpMethod.POST, "/api/v1/vehicles/lookup")
+                .hasAnyRole("ADMIN", "USER")
                 .requestMatchers(HttpMethod.POST, "/api/v1/vehicles/**")
                 .hasRole("ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/api/v1/vehicles/**")
@@ -94,10 +111,12 @@ public class SecurityConfig {
                 .hasRole("ADMIN")
 
                 // ServicePackage API authorization rules
-                .requestMatchers(HttpMethod.GET, "/api/v1/service-packages/*/subscribers")
+                .requestMatchers(HttpMethod.GET, "/api/v1/service-packages/*/subscribers", "/api/v1/service-packages/*/subscribers/**")
                 .hasRole("ADMIN")
                 .requestMatchers(HttpMethod.GET, "/api/v1/service-packages/**")
                 .hasAnyRole("ADMIN", "USER")
+                .requestMatchers(HttpMethod.POST, "/api/v1/service-packages/lookup")
+                .hasAnyRole("ADMIN", "USER")
                 .requestMatchers(HttpMethod.POST, "/api/v1/service-packages/**")
                 .hasRole("ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/api/v1/service-packages/**")
@@ -107,6 +126,10 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.DELETE, "/api/v1/service-packages/**")
                 .hasRole("ADMIN")
 
+                // Report API authorization rules
+                .requestMatchers("/api/v1/reports/**")
+                .hasRole("ADMIN")
+
                 // All other endpoints require authentication
                 .anyRequest()
                 .authenticated())
@@ -117,6 +140,9 @@ public class SecurityConfig {
             // Add JWT filter AFTER correlation filter
             .addFilterAfter(jwtAuthenticationFilter, CorrelationFilter.class)
 
+            // Rate limit AFTER the JWT filter, which identifies the user to limit
+            .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class)
+
             // Configure frame options based on profile
             .headers(headers -> {
                 if (DEV_PROFILE.equals(activeProfile) || TEST_PROFILE.equals(activeProfile)) {
@@ -0,0 +1,67 @@
+package com.interview.config.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token buckets keyed by an arbitrary string such as a username or client address.
+ *
+ * <p>Each bucket is a single {@code long}: the time at which it will be full again (the theoretical arrival time
+ * of the generic cell rate algorithm). A request is allowed when that time lies less than one bucket's refill
+ * window ahead, and then pushes it forward by one request's refill interval with a compare-and-set. This behaves
+ * exactly like a token bucket, with no refill task and no lock.
+ *
+ * <p>Buckets live in a bounded map and are dropped once idle long enough to have refilled completely, since a
+ * missing bucket and a full one are the same. Under key pressure the least recently used are dropped first,
+ * which can only hand an idle key a full bucket early.
+ */
+public class TokenBucketLimiter {
+
+    private final Cache<String, AtomicLong> buckets;
+    private final LongSupplier nanoClock;
+
+    /**
+     * Track up to {@code maxKeys} buckets, each kept for {@code idleExpiry} after its last use.
+     */
+    public TokenBucketLimiter(long maxKeys, Duration idleExpiry, LongSupplier nanoClock) {
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(maxKeys)
+            .expireAfterAccess(idleExpiry)
+            .build();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Take one request from the bucket of {@code key}.
+     *
+     * @return 0 if the request is allowed, otherwise the nanoseconds until the bucket holds a request again
+     */
+    public long tryAcquire(String key, RateLimitProperties.Tier tier) {
+        long now = nanoClock.getAsLong();
+        long interval = tier.emissionIntervalNanos();
+        long tolerance = tier.refillNanos() - interval;
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong(now));
+
+        while (true) {
+            long fullAt = bucket.get();
+            long start = Math.max(fullAt, now);
+            long ahead = start - now;
+            if (ahead > tolerance) {
+                return ahead - tolerance;
+            }
+            if (bucket.compareAndSet(fullAt, start + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Approximate number of buckets currently tracked.
+     */
+    public long size() {
+        return buckets.estimatedSize();
+    }
+}
@@ -4,6 +4,8 @@ import com.interview.dto.ErrorResponse;
 import com.interview.dto.ValidationErrorResponse;
 import com.interview.dto.auth.LoginRequest;
 import com.interview.dto.auth.LoginResponse;
+import com.interview.dto.auth.TokenRevocationRequest;
+import com.interview.exception.UnauthorizedException;
 import com.interview.service.auth.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,18 +14,21 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
  * REST controller for authentication operations.
  *
- * <p>Provides endpoints for user login and JWT token generation.
+ * <p>Provides endpoints for user login, JWT token generation and token revocation.
  * Supports role-based authentication for ADMIN and USER roles.
  *
  * <p><strong>Demo Credentials:</strong>
@@ -39,6 +44,8 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "Authentication", description = "User authentication and authorization endpoints")
 public class AuthController {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
     private final AuthService authService;
 
     /**
@@ -51,13 +58,48 @@ public class AuthController {
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ValidationErrorResponse.class))),
         @ApiResponse(responseCode = "401", description = "Invalid credentials",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "503", description = "Too many sign-in attempts in progress, retry later",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
         @ApiResponse(responseCode = "500", description = "Internal server error",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))})
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(@Valid @RequestBody LoginRequest loginRequest) {
         log.info("Login attempt for user: {}", loginRequest.username());
 
-        LoginResponse response = authService.authenticate(loginRequest);
-        return ResponseEntity.ok(response);
+        // Completes on the password verification pool, releasing the request thread while the hash is checked
+        return authService.authenticate(loginRequest)
+            .thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Revoke the caller's JWT token.
+     */
+    @Operation(summary = "User logout", description = "Revoke the JWT access token sent in the Authorization header until it expires")
+    @ApiResponses(value = {@ApiResponse(responseCode = "204", description = "Token revoked"),
+        @ApiResponse(responseCode = "401", description = "Missing, invalid or expired token",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))})
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(name = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            throw UnauthorizedException.missingToken();
+        }
+
+        authService.logout(authorization.substring(BEARER_PREFIX.length()));
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Revoke any JWT token (ADMIN only).
+     */
+    @Operation(summary = "Revoke token", description = "Revoke a JWT access token, e.g. a leaked one, until it expires (ADMIN only)")
+    @ApiResponses(value = {@ApiResponse(responseCode = "204", description = "Token revoked"),
+        @ApiResponse(responseCode = "400", description = "Token is invalid, expired or cannot be revoked",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "403", description = "Access denied - ADMIN role required",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))})
+    @PostMapping("/revocations")
+    public ResponseEntity<Void> revokeToken(@Valid @RequestBody TokenRevocationRequest request) {
+        authService.revokeToken(request.token());
+        return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+}
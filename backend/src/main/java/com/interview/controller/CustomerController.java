@@ -1,10 +1,18 @@
 package com.interview.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.dto.BatchResult;
+import com.interview.dto.CursorPage;
 import com.interview.dto.CustomerRequest;
 import com.interview.dto.CustomerResponse;
 import com.interview.dto.ErrorResponse;
+import com.interview.dto.IdsRequest;
+import com.interview.dto.Tagged;
 import com.interview.dto.ValidationErrorResponse;
 import com.interview.service.CustomerService;
+import com.interview.util.EntityTags;
+import com.interview.util.NdjsonWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -17,16 +25,22 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * REST controller for managing customer operations.
@@ -47,8 +61,13 @@ import org.springframework.web.bind.annotation.RestController;
  *   <li>POST /api/v1/customers - Create a new customer with optional profile</li>
  *   <li>GET /api/v1/customers/{id} - Retrieve a customer by ID</li>
  *   <li>GET /api/v1/customers - Retrieve all customers</li>
+ *   <li>GET /api/v1/customers?ids=1,2,3 - Retrieve customers by IDs in request order</li>
+ *   <li>POST /api/v1/customers/lookup - Retrieve customers by IDs sent in the body</li>
+ *   <li>GET /api/v1/customers (Accept: application/x-ndjson) - Stream all customers as NDJSON</li>
  *   <li>GET /api/v1/customers/paginated?page=0&size=10&sort=firstName,asc - Retrieve customers with pagination</li>
+ *   <li>GET /api/v1/customers/paginated?limit=20&after={cursor}&sortBy=email - Retrieve customers with cursor pagination</li>
  *   <li>PUT /api/v1/customers/{id} - Update customer and profile information</li>
+ *   <li>PATCH /api/v1/customers/{id} - Partially update customer and profile with a JSON Merge Patch</li>
  *   <li>DELETE /api/v1/customers/{id} - Delete customer and associated profile</li>
  * </ul>
  *
@@ -69,7 +88,10 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/v1/customers")
 public class CustomerController {
 
+    public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
     private final CustomerService customerService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Create a new customer with profile.
@@ -99,11 +121,13 @@ public class CustomerController {
 
     /**
      * Get customer by ID (includes profile data).
+     * Returns the version as a strong ETag and answers a matching If-None-Match with 304 and no body.
      */
     @Operation(summary = "Get customer by ID", description = "Retrieves a customer by their unique identifier, including profile information")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Customer found successfully",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = CustomerResponse.class))),
+        @ApiResponse(responseCode = "304", description = "Not modified - If-None-Match matches the current ETag"),
         @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
         @ApiResponse(responseCode = "404", description = "Customer not found",
@@ -112,58 +136,170 @@ public class CustomerController {
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping("/{id}")
-    public ResponseEntity<CustomerResponse> getCustomerById(@PathVariable Long id) {
+    public ResponseEntity<CustomerResponse> getCustomerById(
+        @PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Fetching customer with ID: {}", id);
 
-        CustomerResponse response = customerService.getCustomerById(id);
+        Tagged<CustomerResponse> response = customerService.getCustomerIfNoneMatch(id, ifNoneMatch);
+        if (response.isNotModified()) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(response.etag()).build();
+        }
+        return ResponseEntity.ok().eTag(response.etag()).body(response.body());
+    }
+
+    /**
+     * Get customers by IDs in request order (includes profile data).
+     * IDs that do not exist are listed in {@code missingIds} instead of failing the batch.
+     */
+    @Operation(summary = "Get customers by IDs",
+               description = "Retrieves up to 1000 customers in one request, e.g. '?ids=1,2,3', in the order the IDs were given. "
+                   + "Unknown IDs are reported in missingIds")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Customers retrieved successfully",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = BatchResult.class))),
+        @ApiResponse(responseCode = "400", description = "No IDs, a null ID or more than 1000 IDs requested",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(params = "ids")
+    public ResponseEntity<BatchResult<CustomerResponse>> getCustomersByIds(@RequestParam List<Long> ids) {
+        log.info("Fetching {} customers by IDs", ids.size());
+
+        BatchResult<CustomerResponse> response = customerService.getCustomersByIds(ids);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get customers by IDs sent in the request body, for ID lists too long for a query string.
+     */
+    @Operation(summary = "Get customers by IDs (POST)",
+               description = "Same as GET with '?ids=' but takes the IDs in the request body. Read-only; open to USER and ADMIN")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Customers retrieved successfully",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = BatchResult.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input data or more than 1000 IDs requested",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ValidationErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/lookup")
+    public ResponseEntity<BatchResult<CustomerResponse>> lookupCustomers(@Valid @RequestBody IdsRequest request) {
+        log.info("Looking up {} customers by IDs", request.ids().size());
+
+        BatchResult<CustomerResponse> response = customerService.getCustomersByIds(request.ids());
         return ResponseEntity.ok(response);
     }
 
     /**
      * Get all customers (includes profile data).
+     * {@code fields} limits the response to a sparse fieldset selected by a projection query.
+     * Also matches any media type so requests without an explicit Accept header keep receiving a JSON array.
      */
-    @Operation(summary = "Get all customers", description = "Retrieves all customers with their profile information")
+    @Operation(summary = "Get all customers", description = "Retrieves all customers with their profile information."
+                   + " Pass 'fields=id,email' to select only those properties")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Customers retrieved successfully",
                      content = @Content(mediaType = "application/json",
                                         array = @ArraySchema(schema = @Schema(implementation = CustomerResponse.class)))),
+        @ApiResponse(responseCode = "400", description = "Unknown field in fields",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
         @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
         @ApiResponse(responseCode = "500", description = "Internal server error",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-    @GetMapping
-    public ResponseEntity<List<CustomerResponse>> getAllCustomers() {
-        log.info("Fetching all customers");
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.ALL_VALUE})
+    public ResponseEntity<List<CustomerResponse>> getAllCustomers(@RequestParam(required = false) String fields) {
+        log.info("Fetching all customers with fields: {}", fields);
 
-        List<CustomerResponse> response = customerService.getAllCustomers();
+        List<CustomerResponse> response = customerService.getAllCustomers(fields);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Stream all customers as newline-delimited JSON.
+     */
+    @Operation(summary = "Stream all customers",
+               description = "Streams every customer as one JSON object per line when requested with 'Accept: application/x-ndjson'. "
+                   + "Memory use stays flat regardless of the number of rows")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Customers streamed successfully",
+                     content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = CustomerResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllCustomers() {
+        log.info("Streaming all customers");
+
+        StreamingResponseBody body = outputStream -> customerService.streamAllCustomers(new NdjsonWriter<>(objectMapper, outputStream));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     /**
      * Get customers with pagination (includes profile data).
      */
-    @Operation(summary = "Get customers with pagination", description = "Retrieves customers with pagination support, including profile information")
+    @Operation(summary = "Get customers with pagination", description = "Retrieves customers with pagination support, including profile information."
+                   + " Pass 'fields=id,email' to select only those properties")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Customers retrieved successfully with pagination",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class))),
+        @ApiResponse(responseCode = "400", description = "Unknown field in fields",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
         @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
         @ApiResponse(responseCode = "500", description = "Internal server error",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping("/paginated")
-    public ResponseEntity<Page<CustomerResponse>> getCustomersWithPagination(Pageable pageable) {
-        log.info("Fetching customers with pagination: {}", pageable);
+    public ResponseEntity<Page<CustomerResponse>> getCustomersWithPagination(
+        @RequestParam(required = false) String fields,
+        Pageable pageable) {
+        log.info("Fetching customers with pagination: {}, fields: {}", pageable, fields);
 
-        Page<CustomerResponse> response = customerService.getCustomersWithPagination(pageable);
+        Page<CustomerResponse> response = customerService.getCustomersWithPagination(fields, pageable);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get customers with keyset (cursor) pagination.
+     */
+    @Operation(summary = "Get customers with cursor pagination",
+               description = "Retrieves customers after an opaque cursor. Pass nextCursor from the previous page as 'after'. "
+                   + "Page cost does not grow with depth. Supported sortBy keys: id, email")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Customer page retrieved successfully",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPage.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor, limit or sort key",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(value = "/paginated", params = "limit")
+    public ResponseEntity<CursorPage<CustomerResponse>> getCustomersWithCursor(
+        @RequestParam(required = false) String after,
+        @RequestParam Integer limit,
+        @RequestParam(required = false) String sortBy) {
+        log.info("Fetching customers with cursor pagination - after: {}, limit: {}, sortBy: {}", after, limit, sortBy);
+
+        CursorPage<CustomerResponse> response = customerService.getCustomersWithCursor(after, limit, sortBy);
         return ResponseEntity.ok(response);
     }
 
     /**
      * Update customer and profile.
+     * The current version may be sent as an If-Match ETag instead of the body {@code version}.
      */
-    @Operation(summary = "Update customer", description = "Updates customer information and profile data")
+    @Operation(summary = "Update customer",
+               description = "Updates customer information and profile data. The version may be sent in the body or as an If-Match ETag")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Customer updated successfully",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = CustomerResponse.class))),
@@ -175,17 +311,58 @@ public class CustomerController {
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
         @ApiResponse(responseCode = "404", description = "Customer not found",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
-        @ApiResponse(responseCode = "409", description = "Customer with email already exists",
+        @ApiResponse(responseCode = "409", description = "Customer with email already exists or version conflict",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current ETag",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
         @ApiResponse(responseCode = "500", description = "Internal server error",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
     @PutMapping("/{id}")
-    public ResponseEntity<CustomerResponse> updateCustomer(@PathVariable Long id, @Valid @RequestBody CustomerRequest request) {
+    public ResponseEntity<CustomerResponse> updateCustomer(
+        @PathVariable Long id,
+        @Valid @RequestBody CustomerRequest request,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Updating customer with ID: {}", id);
 
-        customerService.updateCustomer(id, request);
-        return ResponseEntity.ok(customerService.getCustomerById(id));
+        customerService.updateCustomer(id, request, ifMatch);
+        CustomerResponse response = customerService.getCustomerById(id);
+        return ResponseEntity.ok().eTag(EntityTags.of(response.version())).body(response);
+    }
+
+    /**
+     * Partially update customer and profile with a JSON Merge Patch.
+     * Applied as a single conditional UPDATE without reading the customer, so no body is returned; the ETag carries the new version.
+     */
+    @Operation(summary = "Patch customer",
+               description = "Applies a JSON Merge Patch (RFC 7396) to customer and profile fields; null clears a field. "
+                   + "The expected version is sent as an If-Match ETag or as 'version' in the patch")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Customer patched successfully; ETag holds the new version"),
+        @ApiResponse(responseCode = "400", description = "Invalid patch, unknown field or missing version",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ValidationErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "403", description = "Access denied - ADMIN role required",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Customer not found",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "409", description = "Customer with email already exists or version conflict",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current ETag",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Void> patchCustomer(
+        @PathVariable Long id,
+        @RequestBody JsonNode patch,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.info("Patching customer with ID: {}", id);
+
+        long version = customerService.patchCustomer(id, patch, ifMatch);
+        return ResponseEntity.noContent().eTag(EntityTags.of(version)).build();
     }
 
     /**
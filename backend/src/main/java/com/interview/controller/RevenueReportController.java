@@ -0,0 +1,115 @@
+package com.interview.controller;
+
+import com.interview.dto.ErrorResponse;
+import com.interview.dto.MonthlyChurn;
+import com.interview.dto.RecurringRevenueReport;
+import com.interview.dto.RecurringRevenueVerification;
+import com.interview.service.RecurringRevenueService;
+import com.interview.service.SubscriptionHistoryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import java.time.YearMonth;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for revenue and retention reports.
+ *
+ * <p><strong>Authentication & Authorization:</strong> all endpoints require the ADMIN role.
+ *
+ * <p>Supported operations:
+ * <ul>
+ *   <li>GET /api/v1/reports/mrr?from=2026-01&to=2026-12 - Monthly recurring revenue overall, per package and per month</li>
+ *   <li>POST /api/v1/reports/mrr/verification - Recompute the MRR from the subscriptions and correct any drift</li>
+ *   <li>GET /api/v1/reports/churn?from=2026-01&to=2026-12 - Subscription churn and retention per month</li>
+ * </ul>
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/reports")
+public class RevenueReportController {
+
+    private final RecurringRevenueService recurringRevenueService;
+    private final SubscriptionHistoryService subscriptionHistoryService;
+
+    /**
+     * Get the monthly recurring revenue report.
+     */
+    @Operation(summary = "Get monthly recurring revenue",
+               description = "Returns the current MRR over active packages, its breakdown per package and the MRR at the end of each month "
+                   + "from 'from' to 'to' (yyyy-MM, default the last 12 months). Read from incrementally maintained aggregates")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Report generated successfully",
+                                        content = @Content(mediaType = "application/json",
+                                                           schema = @Schema(implementation = RecurringRevenueReport.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid month range",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "403", description = "Access denied - ADMIN role required",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))})
+    @GetMapping("/mrr")
+    public ResponseEntity<RecurringRevenueReport> getRecurringRevenue(@RequestParam(required = false) YearMonth from,
+                                                                      @RequestParam(required = false) YearMonth to) {
+        log.info("Fetching recurring revenue report from {} to {}", from, to);
+
+        RecurringRevenueReport response = recurringRevenueService.getReport(from, to);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Recompute the monthly recurring revenue and correct the maintained aggregate if it drifted.
+     */
+    @Operation(summary = "Verify monthly recurring revenue",
+               description = "Recomputes the MRR from all subscriptions of active packages, compares it with the maintained total "
+                   + "and replaces the total when they differ")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Verification completed",
+                                        content = @Content(mediaType = "application/json",
+                                                           schema = @Schema(implementation = RecurringRevenueVerification.class))),
+        @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "403", description = "Access denied - ADMIN role required",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))})
+    @PostMapping("/mrr/verification")
+    public ResponseEntity<RecurringRevenueVerification> verifyRecurringRevenue() {
+        log.info("Verifying recurring revenue");
+
+        RecurringRevenueVerification response = recurringRevenueService.verify();
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get the subscription churn and retention of each month.
+     */
+    @Operation(summary = "Get subscription churn",
+               description = "Returns, per month from 'from' to 'to' (yyyy-MM, default the last 12 months), the subscriptions running at its "
+                   + "start, started and ended in it, and the share of the starting ones that ended (churn) or did not (retention)")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Report generated successfully",
+                                        content = @Content(mediaType = "application/json",
+                                                           array = @ArraySchema(schema = @Schema(implementation = MonthlyChurn.class)))),
+        @ApiResponse(responseCode = "400", description = "Invalid month range",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "403", description = "Access denied - ADMIN role required",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))})
+    @GetMapping("/churn")
+    public ResponseEntity<List<MonthlyChurn>> getChurn(@RequestParam(required = false) YearMonth from,
+                                                       @RequestParam(required = false) YearMonth to) {
+        log.info("Fetching subscription churn from {} to {}", from, to);
+
+        List<MonthlyChurn> response = subscriptionHistoryService.getChurn(from, to);
+        return ResponseEntity.ok(response);
+    }
+}
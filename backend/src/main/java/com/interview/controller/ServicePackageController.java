@@ -1,13 +1,27 @@
 package com.interview.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.dto.BatchResult;
+import com.interview.dto.BatchSubscriptionRequest;
+import com.interview.dto.BatchSubscriptionResult;
+import com.interview.dto.CursorPage;
 import com.interview.dto.ErrorResponse;
+import com.interview.dto.IdsRequest;
 import com.interview.dto.ServicePackageRequest;
 import com.interview.dto.ServicePackageResponse;
 import com.interview.dto.StatusUpdateRequest;
+import com.interview.dto.SubscriberDto;
 import com.interview.dto.SubscribersResponse;
+import com.interview.dto.SubscriptionMembership;
 import com.interview.dto.SubscriptionRequest;
+import com.interview.dto.Tagged;
 import com.interview.dto.ValidationErrorResponse;
+import com.interview.service.BulkSubscriptionService;
+import com.interview.service.ServicePackageCatalog;
 import com.interview.service.ServicePackageService;
+import com.interview.service.SubscriptionHistoryService;
+import com.interview.util.EntityTags;
+import com.interview.util.NdjsonWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,12 +29,15 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import java.time.Instant;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -29,9 +46,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * REST controller for managing service package operations.
@@ -51,13 +70,20 @@ import org.springframework.web.bind.annotation.RestController;
  * <ul>
  *   <li>POST /api/v1/service-packages - Create a new service package</li>
  *   <li>GET /api/v1/service-packages/{id} - Retrieve a service package by ID</li>
+ *   <li>GET /api/v1/service-packages?ids=1,2,3 - Retrieve service packages by IDs in request order</li>
+ *   <li>POST /api/v1/service-packages/lookup - Retrieve service packages by IDs sent in the body</li>
  *   <li>PUT /api/v1/service-packages/{id} - Update service package information</li>
- *   <li>GET /api/v1/service-packages?active=true - Retrieve service packages with filtering</li>
+ *   <li>GET /api/v1/service-packages?active=true - Retrieve service packages with filtering, from the cached catalog</li>
  *   <li>GET /api/v1/service-packages/paginated?active=true - Retrieve service packages with pagination</li>
+ *   <li>GET /api/v1/service-packages/paginated?limit=20&after={cursor}&sortBy=name - Retrieve service packages with cursor pagination</li>
  *   <li>PATCH /api/v1/service-packages/{id}/status - Activate/deactivate service package</li>
+ *   <li>POST /api/v1/service-packages/{id}/subscribers:batch - Subscribe or unsubscribe many customers</li>
  *   <li>POST /api/v1/service-packages/{id}/subscribe - Subscribe customer to package</li>
  *   <li>DELETE /api/v1/service-packages/{id}/unsubscribe - Unsubscribe customer from package</li>
  *   <li>GET /api/v1/service-packages/{id}/subscribers - Get package subscribers</li>
+ *   <li>GET /api/v1/service-packages/{id}/subscribers?limit=100&after={cursor} - Retrieve subscribers with cursor pagination</li>
+ *   <li>GET /api/v1/service-packages/{id}/subscribers (Accept: application/x-ndjson) - Stream subscribers as NDJSON</li>
+ *   <li>GET /api/v1/service-packages/{id}/subscribers/as-of?at=2026-03-01T00:00:00Z - Subscribers at a point in time</li>
  * </ul>
  *
  * <p>All endpoints include validation and proper error handling through the global exception handler.
@@ -68,7 +94,13 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/v1/service-packages")
 public class ServicePackageController {
 
+    private static final String GZIP_ENCODING = "gzip";
+
     private final ServicePackageService servicePackageService;
+    private final BulkSubscriptionService bulkSubscriptionService;
+    private final ServicePackageCatalog servicePackageCatalog;
+    private final SubscriptionHistoryService subscriptionHistoryService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Create a new service package.
@@ -95,12 +127,14 @@ public class ServicePackageController {
 
     /**
      * Get service package by ID (includes subscriber data).
+     * Returns a strong ETag and answers a matching If-None-Match with 304 and no body.
      */
     @Operation(summary = "Get service package by ID",
                description = "Retrieves a service package by its unique identifier, including subscriber information")
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Service package found successfully",
                                         content = @Content(mediaType = "application/json",
                                                            schema = @Schema(implementation = ServicePackageResponse.class))),
+        @ApiResponse(responseCode = "304", description = "Not modified - If-None-Match matches the current ETag"),
         @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
         @ApiResponse(responseCode = "404", description = "Service package not found",
@@ -108,10 +142,63 @@ public class ServicePackageController {
         @ApiResponse(responseCode = "500", description = "Internal server error",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))})
     @GetMapping("/{id}")
-    public ResponseEntity<ServicePackageResponse> getServicePackageById(@PathVariable Long id) {
+    public ResponseEntity<ServicePackageResponse> getServicePackageById(
+        @PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Fetching service package with ID: {}", id);
 
-        ServicePackageResponse response = servicePackageService.getServicePackageById(id);
+        Tagged<ServicePackageResponse> response = servicePackageService.getServicePackageIfNoneMatch(id, ifNoneMatch);
+        if (response.isNotModified()) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(response.etag()).build();
+        }
+        return ResponseEntity.ok().eTag(response.etag()).body(response.body());
+    }
+
+    /**
+     * Get service packages by IDs in request order (with subscriber counts).
+     * IDs that do not exist are listed in {@code missingIds} instead of failing the batch.
+     */
+    @Operation(summary = "Get service packages by IDs",
+               description = "Retrieves up to 1000 service packages in one request, e.g. '?ids=1,2,3', in the order the IDs were given. "
+                   + "Unknown IDs are reported in missingIds")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Service packages retrieved successfully",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = BatchResult.class))),
+        @ApiResponse(responseCode = "400", description = "No IDs, a null ID or more than 1000 IDs requested",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(params = "ids")
+    public ResponseEntity<BatchResult<ServicePackageResponse>> getServicePackagesByIds(@RequestParam List<Long> ids) {
+        log.info("Fetching {} service packages by IDs", ids.size());
+
+        BatchResult<ServicePackageResponse> response = servicePackageService.getServicePackagesByIds(ids);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get service packages by IDs sent in the request body, for ID lists too long for a query string.
+     */
+    @Operation(summary = "Get service packages by IDs (POST)",
+               description = "Same as GET with '?ids=' but takes the IDs in the request body. Read-only; open to USER and ADMIN")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Service packages retrieved successfully",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = BatchResult.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input data or more than 1000 IDs requested",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ValidationErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/lookup")
+    public ResponseEntity<BatchResult<ServicePackageResponse>> lookupServicePackages(@Valid @RequestBody IdsRequest request) {
+        log.info("Looking up {} service packages by IDs", request.ids().size());
+
+        BatchResult<ServicePackageResponse> response = servicePackageService.getServicePackagesByIds(request.ids());
         return ResponseEntity.ok(response);
     }
 
@@ -142,28 +229,49 @@ public class ServicePackageController {
 
     /**
      * Get all service packages with optional active filter.
+     * Served from the pre-serialized catalog snapshot, gzip-encoded when the client accepts it, with a strong ETag;
+     * a matching If-None-Match is answered with 304 and no body.
      */
-    @Operation(summary = "Get all service packages", description = "Retrieves all service packages with optional active status filtering")
+    @Operation(summary = "Get all service packages",
+               description = "Retrieves all service packages with optional active status filtering. "
+                   + "Served from an in-memory catalog snapshot; subscriber counts may lag subscriptions by up to 30 seconds")
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Service packages retrieved successfully",
                                         content = @Content(mediaType = "application/json",
                                                            array = @ArraySchema(schema = @Schema(implementation = ServicePackageResponse.class)))),
+        @ApiResponse(responseCode = "304", description = "Not modified - If-None-Match matches the current ETag"),
         @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
         @ApiResponse(responseCode = "500", description = "Internal server error",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))})
     @GetMapping
-    public ResponseEntity<List<ServicePackageResponse>> getAllServicePackages(@RequestParam(required = false) Boolean active) {
+    public ResponseEntity<byte[]> getAllServicePackages(
+        @RequestParam(required = false) Boolean active,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("Fetching all service packages with active filter: {}", active);
 
-        List<ServicePackageResponse> response = servicePackageService.getAllServicePackages(active);
-        return ResponseEntity.ok(response);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        ServicePackageCatalog.Representation catalog = servicePackageCatalog.get(active, gzip);
+        if (EntityTags.matchesNoneMatch(ifNoneMatch, catalog.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(catalog.etag()).varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .eTag(catalog.etag())
+            .varyBy(HttpHeaders.ACCEPT_ENCODING)
+            .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP_ENCODING);
+        }
+        return response.body(catalog.body());
     }
 
     /**
      * Get service packages with pagination and optional active filter.
      */
     @Operation(summary = "Get service packages with pagination",
-               description = "Retrieves service packages with pagination support and optional active status filtering")
+               description = "Retrieves service packages with pagination support and optional active status filtering. "
+                   + "Sort by popularity with sort=subscriberCount,desc, which reads the indexed subscriber_count column")
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Service packages retrieved successfully with pagination",
                                         content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class))),
         @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
@@ -179,6 +287,30 @@ public class ServicePackageController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get service packages with keyset (cursor) pagination and optional active filter.
+     */
+    @Operation(summary = "Get service packages with cursor pagination",
+               description = "Retrieves service packages after an opaque cursor. Pass nextCursor from the previous page as 'after'. "
+                   + "Page cost does not grow with depth. Supported sortBy keys: id, name")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Service package page retrieved successfully",
+                                        content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPage.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor, limit or sort key",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))})
+    @GetMapping(value = "/paginated", params = "limit")
+    public ResponseEntity<CursorPage<ServicePackageResponse>> getServicePackagesWithCursor(@RequestParam(required = false) Boolean active,
+        @RequestParam(required = false) String after, @RequestParam Integer limit, @RequestParam(required = false) String sortBy) {
+        log.info("Fetching service packages with cursor pagination - after: {}, limit: {}, sortBy: {}, active filter: {}",
+            after, limit, sortBy, active);
+
+        CursorPage<ServicePackageResponse> response = servicePackageService.getServicePackagesWithCursor(active, after, limit, sortBy);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Activate or deactivate a service package (soft delete).
      */
@@ -227,6 +359,34 @@ public class ServicePackageController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Subscribe or unsubscribe many customers to a service package in one request.
+     */
+    @Operation(summary = "Batch subscribe or unsubscribe customers",
+               description = "Applies SUBSCRIBE (default) or UNSUBSCRIBE to up to 10000 customers, in chunks of 500 that each commit "
+                   + "on their own. Returns one outcome per customer: SUBSCRIBED, ALREADY_SUBSCRIBED, UNSUBSCRIBED, NOT_SUBSCRIBED "
+                   + "or CUSTOMER_NOT_FOUND")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Batch applied; see the per-customer outcomes",
+                                        content = @Content(mediaType = "application/json",
+                                                           schema = @Schema(implementation = BatchSubscriptionResult.class))),
+        @ApiResponse(responseCode = "400", description = "No customer IDs, a null ID or more than 10000 IDs",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ValidationErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "403", description = "Access denied - ADMIN role required",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Service package not found",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))})
+    @PostMapping("/{id}/subscribers:batch")
+    public ResponseEntity<BatchSubscriptionResult> batchSubscribers(@PathVariable Long id, @Valid @RequestBody BatchSubscriptionRequest request) {
+        log.info("Applying {} to {} customers for service package {}", request.action(), request.customerIds().size(), id);
+
+        BatchSubscriptionResult response = bulkSubscriptionService.apply(id, request.action(), request.customerIds());
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Unsubscribe a customer from a service package.
      */
@@ -264,11 +424,111 @@ public class ServicePackageController {
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
         @ApiResponse(responseCode = "500", description = "Internal server error",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))})
-    @GetMapping("/{id}/subscribers")
+    @GetMapping(value = "/{id}/subscribers", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.ALL_VALUE})
     public ResponseEntity<SubscribersResponse> getServicePackageSubscribers(@PathVariable Long id) {
         log.info("Fetching subscribers for service package {}", id);
 
         SubscribersResponse response = servicePackageService.getServicePackageSubscribers(id);
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Get subscribers of a service package with keyset (cursor) pagination.
+     */
+    @Operation(summary = "Get service package subscribers with cursor pagination",
+               description = "Retrieves subscribers by customer ID after an opaque cursor. Pass nextCursor from the previous page as 'after'. "
+                   + "Page cost does not grow with depth or with the number of subscribers")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Subscriber page retrieved successfully",
+                                        content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPage.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or limit",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Service package not found",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))})
+    @GetMapping(value = "/{id}/subscribers", params = "limit", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.ALL_VALUE})
+    public ResponseEntity<CursorPage<SubscriberDto>> getServicePackageSubscribersWithCursor(@PathVariable Long id,
+        @RequestParam(required = false) String after, @RequestParam Integer limit) {
+        log.info("Fetching subscribers for service package {} with cursor pagination - after: {}, limit: {}", id, after, limit);
+
+        CursorPage<SubscriberDto> response = servicePackageService.getServicePackageSubscribersWithCursor(id, after, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Stream all subscribers of a service package as newline-delimited JSON.
+     */
+    @Operation(summary = "Stream service package subscribers",
+               description = "Streams every subscriber as one JSON object per line when requested with 'Accept: application/x-ndjson'. "
+                   + "Memory use stays flat regardless of the number of subscribers. Errors are JSON, so clients should also accept application/json")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Subscribers streamed successfully",
+                     content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = SubscriberDto.class))),
+        @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Service package not found",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(value = "/{id}/subscribers", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamServicePackageSubscribers(@PathVariable Long id) {
+        log.info("Streaming subscribers for service package {}", id);
+
+        // Checked up front so a missing package is a 404 rather than an empty stream
+        servicePackageService.requireServicePackage(id);
+        StreamingResponseBody body = outputStream ->
+            servicePackageService.streamServicePackageSubscribers(id, new NdjsonWriter<>(objectMapper, outputStream));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Get the customers subscribed to a service package at a past moment.
+     */
+    @Operation(summary = "Get service package subscribers at a point in time",
+               description = "Retrieves the IDs of the customers subscribed at 'at' (ISO-8601 instant) from the subscription history, "
+                   + "by customer ID after an opaque cursor, and whether the package was active then")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Subscribers retrieved successfully",
+                                        content = @Content(mediaType = "application/json",
+                                                           schema = @Schema(implementation = SubscriptionMembership.class))),
+        @ApiResponse(responseCode = "400", description = "Missing or future point in time, invalid cursor or limit",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "403", description = "Access denied - ADMIN role required",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Service package not found",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))})
+    @GetMapping("/{id}/subscribers/as-of")
+    public ResponseEntity<SubscriptionMembership> getServicePackageSubscribersAt(@PathVariable Long id, @RequestParam Instant at,
+        @RequestParam(required = false) String after, @RequestParam(required = false) Integer limit) {
+        log.info("Fetching subscribers for service package {} at {} - after: {}, limit: {}", id, at, after, limit);
+
+        SubscriptionMembership response = subscriptionHistoryService.getSubscribersAt(id, at, after, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Whether an Accept-Encoding header allows gzip: listed with a non-zero quality, or covered by {@code *}
+     * when gzip itself is not listed.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        Boolean wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            boolean accepted = parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            if (GZIP_ENCODING.equalsIgnoreCase(name)) {
+                return accepted;
+            }
+            if ("*".equals(name)) {
+                wildcard = accepted;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+}
@@ -1,11 +1,21 @@
 package com.interview.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.dto.BatchResult;
+import com.interview.dto.CursorPage;
 import com.interview.dto.ErrorResponse;
+import com.interview.dto.IdsRequest;
+import com.interview.dto.Suggestion;
+import com.interview.dto.Tagged;
 import com.interview.dto.ValidationErrorResponse;
 import com.interview.dto.VehicleRequest;
 import com.interview.dto.VehicleResponse;
+import com.interview.dto.VehicleSearchResponse;
 import com.interview.dto.filter.VehicleFilter;
+import com.interview.enums.MatchMode;
 import com.interview.service.VehicleService;
+import com.interview.service.VehicleSuggestionService;
+import com.interview.util.NdjsonWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -18,7 +28,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -26,9 +38,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * REST controller for managing vehicle operations.
@@ -49,7 +63,12 @@ import org.springframework.web.bind.annotation.RestController;
  *   <li>POST /api/v1/vehicles - Create a new vehicle</li>
  *   <li>GET /api/v1/vehicles/{id} - Retrieve a vehicle by ID</li>
  *   <li>GET /api/v1/vehicles - Retrieve all vehicles</li>
+ *   <li>GET /api/v1/vehicles?ids=1,2,3 - Retrieve vehicles by IDs in request order</li>
+ *   <li>POST /api/v1/vehicles/lookup - Retrieve vehicles by IDs sent in the body</li>
+ *   <li>GET /api/v1/vehicles (Accept: application/x-ndjson) - Stream all vehicles as NDJSON</li>
  *   <li>GET /api/v1/vehicles?page=0&size=10&sort=year,desc - Retrieve vehicles with pagination</li>
+ *   <li>GET /api/v1/vehicles/paginated?limit=20&after={cursor}&sortBy=vin - Retrieve vehicles with cursor pagination</li>
+ *   <li>GET /api/v1/vehicles/suggest?field=make&prefix=To - Suggest makes or models by prefix</li>
  *   <li>PUT /api/v1/vehicles/{id} - Update vehicle information</li>
  *   <li>DELETE /api/v1/vehicles/{id} - Delete vehicle</li>
  * </ul>
@@ -63,6 +82,8 @@ import org.springframework.web.bind.annotation.RestController;
 public class VehicleController {
 
     private final VehicleService vehicleService;
+    private final VehicleSuggestionService vehicleSuggestionService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Create a new vehicle.
@@ -92,11 +113,13 @@ public class VehicleController {
 
     /**
      * Get vehicle by ID (includes customer data).
+     * Returns a strong ETag and answers a matching If-None-Match with 304 and no body.
      */
     @Operation(summary = "Get vehicle by ID", description = "Retrieves a vehicle by its unique identifier, including customer information")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Vehicle found successfully",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = VehicleResponse.class))),
+        @ApiResponse(responseCode = "304", description = "Not modified - If-None-Match matches the current ETag"),
         @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
         @ApiResponse(responseCode = "404", description = "Vehicle not found",
@@ -105,76 +128,199 @@ public class VehicleController {
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping("/{id}")
-    public ResponseEntity<VehicleResponse> getVehicleById(@PathVariable Long id) {
+    public ResponseEntity<VehicleResponse> getVehicleById(
+        @PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Fetching vehicle with ID: {}", id);
 
-        VehicleResponse response = vehicleService.getVehicleById(id);
+        Tagged<VehicleResponse> response = vehicleService.getVehicleIfNoneMatch(id, ifNoneMatch);
+        if (response.isNotModified()) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(response.etag()).build();
+        }
+        return ResponseEntity.ok().eTag(response.etag()).body(response.body());
+    }
+
+    /**
+     * Get vehicles by IDs in request order (includes customer data).
+     * IDs that do not exist are listed in {@code missingIds} instead of failing the batch.
+     */
+    @Operation(summary = "Get vehicles by IDs",
+               description = "Retrieves up to 1000 vehicles in one request, e.g. '?ids=1,2,3', in the order the IDs were given. "
+                   + "Unknown IDs are reported in missingIds")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Vehicles retrieved successfully",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = BatchResult.class))),
+        @ApiResponse(responseCode = "400", description = "No IDs, a null ID or more than 1000 IDs requested",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(params = "ids")
+    public ResponseEntity<BatchResult<VehicleResponse>> getVehiclesByIds(@RequestParam List<Long> ids) {
+        log.info("Fetching {} vehicles by IDs", ids.size());
+
+        BatchResult<VehicleResponse> response = vehicleService.getVehiclesByIds(ids);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get vehicles by IDs sent in the request body, for ID lists too long for a query string.
+     */
+    @Operation(summary = "Get vehicles by IDs (POST)",
+               description = "Same as GET with '?ids=' but takes the IDs in the request body. Read-only; open to USER and ADMIN")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Vehicles retrieved successfully",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = BatchResult.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input data or more than 1000 IDs requested",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ValidationErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/lookup")
+    public ResponseEntity<BatchResult<VehicleResponse>> lookupVehicles(@Valid @RequestBody IdsRequest request) {
+        log.info("Looking up {} vehicles by IDs", request.ids().size());
+
+        BatchResult<VehicleResponse> response = vehicleService.getVehiclesByIds(request.ids());
         return ResponseEntity.ok(response);
     }
 
     /**
      * Get all vehicles (includes customer data).
+     * Also matches any media type so requests without an explicit Accept header keep receiving a JSON array.
      */
-    @Operation(summary = "Get all vehicles", description = "Retrieves all vehicles with their customer information")
+    @Operation(summary = "Get all vehicles", description = "Retrieves all vehicles with their customer information."
+                   + " Pass 'fields=id,vin' to select only those properties, and 'facets=true' to add make, model and year bucket counts"
+                   + " over all matching vehicles")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Vehicles retrieved successfully",
                      content = @Content(mediaType = "application/json",
                                         array = @ArraySchema(schema = @Schema(implementation = VehicleResponse.class)))),
+        @ApiResponse(responseCode = "400", description = "Unknown field in fields",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
         @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
         @ApiResponse(responseCode = "500", description = "Internal server error",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-    @GetMapping
-    public ResponseEntity<List<VehicleResponse>> getAllVehicles() {
-        log.info("Fetching all vehicles");
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.ALL_VALUE})
+    public ResponseEntity<List<VehicleResponse>> getAllVehicles(@RequestParam(required = false) String fields) {
+        log.info("Fetching all vehicles with fields: {}", fields);
 
-        List<VehicleResponse> response = vehicleService.getAllVehicles();
+        List<VehicleResponse> response = vehicleService.getAllVehicles(fields);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Stream all vehicles as newline-delimited JSON.
+     */
+    @Operation(summary = "Stream all vehicles",
+               description = "Streams every vehicle as one JSON object per line when requested with 'Accept: application/x-ndjson'. "
+                   + "Memory use stays flat regardless of the number of rows")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Vehicles streamed successfully",
+                     content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = VehicleResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllVehicles() {
+        log.info("Streaming all vehicles");
+
+        StreamingResponseBody body = outputStream -> vehicleService.streamAllVehicles(new NdjsonWriter<>(objectMapper, outputStream));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     /**
      * Get vehicles with pagination (includes customer data).
      */
-    @Operation(summary = "Get vehicles with pagination", description = "Retrieves vehicles with pagination support, including customer information")
+    @Operation(summary = "Get vehicles with pagination", description = "Retrieves vehicles with pagination support, including customer information."
+                   + " Pass 'fields=id,vin' to select only those properties, and 'facets=true' to add make, model and year bucket counts"
+                   + " over all matching vehicles")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Vehicles retrieved successfully with pagination",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class))),
+        @ApiResponse(responseCode = "400", description = "Unknown field in fields",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
         @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
         @ApiResponse(responseCode = "500", description = "Internal server error",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping("/paginated")
-    public ResponseEntity<Page<VehicleResponse>> getVehiclesWithPagination(Pageable pageable) {
-        log.info("Fetching vehicles with pagination: {}", pageable);
+    public ResponseEntity<Page<VehicleResponse>> getVehiclesWithPagination(
+        @RequestParam(required = false) String fields,
+        Pageable pageable) {
+        log.info("Fetching vehicles with pagination: {}, fields: {}", pageable, fields);
 
-        Page<VehicleResponse> response = vehicleService.getVehiclesWithPagination(pageable);
+        Page<VehicleResponse> response = vehicleService.getVehiclesWithPagination(fields, pageable);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get vehicles with keyset (cursor) pagination.
+     */
+    @Operation(summary = "Get vehicles with cursor pagination",
+               description = "Retrieves vehicles after an opaque cursor. Pass nextCursor from the previous page as 'after'. "
+                   + "Page cost does not grow with depth. Supported sortBy keys: id, vin")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Vehicle page retrieved successfully",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPage.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor, limit or sort key",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(value = "/paginated", params = "limit")
+    public ResponseEntity<CursorPage<VehicleResponse>> getVehiclesWithCursor(
+        @RequestParam(required = false) String after,
+        @RequestParam Integer limit,
+        @RequestParam(required = false) String sortBy) {
+        log.info("Fetching vehicles with cursor pagination - after: {}, limit: {}, sortBy: {}", after, limit, sortBy);
+
+        CursorPage<VehicleResponse> response = vehicleService.getVehiclesWithCursor(after, limit, sortBy);
         return ResponseEntity.ok(response);
     }
 
     /**
      * Search vehicles with filters and pagination (includes customer data).
      */
-    @Operation(summary = "Search vehicles with filters", description = "Search vehicles using various filters with pagination support")
+    @Operation(summary = "Search vehicles with filters", description = "Search vehicles using various filters with pagination support."
+                   + " Text filters are case-insensitive; make, model and customerName match by prefix and customerEmail exactly"
+                   + " unless overridden with makeMatch, modelMatch, customerNameMatch or customerEmailMatch (EXACT, PREFIX, CONTAINS)."
+                   + " Pass 'fields=id,vin' to select only those properties, and 'facets=true' to add make, model and year bucket counts"
+                   + " over all matching vehicles")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Vehicles search completed successfully",
-                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class))),
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = VehicleSearchResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Unknown field in fields or invalid match mode",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
         @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
         @ApiResponse(responseCode = "500", description = "Internal server error",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping("/search")
-    public ResponseEntity<Page<VehicleResponse>> searchVehicles(
+    public ResponseEntity<VehicleSearchResponse> searchVehicles(
         @RequestParam(required = false) Long customerId,
         @RequestParam(required = false) String vin,
         @RequestParam(required = false) String make,
+        @RequestParam(required = false) MatchMode makeMatch,
         @RequestParam(required = false) String model,
+        @RequestParam(required = false) MatchMode modelMatch,
         @RequestParam(required = false) Integer minYear,
         @RequestParam(required = false) Integer maxYear,
         @RequestParam(required = false) String customerEmail,
+        @RequestParam(required = false) MatchMode customerEmailMatch,
         @RequestParam(required = false) String customerName,
+        @RequestParam(required = false) MatchMode customerNameMatch,
+        @RequestParam(required = false) String fields,
+        @RequestParam(defaultValue = "false") boolean facets,
         Pageable pageable) {
 
         log.info("Searching vehicles with filters - customerId: {}, vin: {}, make: {}, model: {}",
@@ -184,17 +330,47 @@ public class VehicleController {
             .customerId(customerId)
             .vin(vin)
             .make(make)
+            .makeMatch(makeMatch)
             .model(model)
+            .modelMatch(modelMatch)
             .minYear(minYear)
             .maxYear(maxYear)
             .customerEmail(customerEmail)
+            .customerEmailMatch(customerEmailMatch)
             .customerName(customerName)
+            .customerNameMatch(customerNameMatch)
             .build();
 
-        Page<VehicleResponse> response = vehicleService.searchVehicles(filter, pageable);
+        VehicleSearchResponse response = vehicleService.searchVehicles(filter, fields, facets, pageable);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Suggest makes or models starting with a prefix, most common first.
+     */
+    @Operation(summary = "Suggest vehicle makes or models", description = "Typeahead suggestions for 'make' or 'model' starting with"
+                   + " the case-insensitive prefix, ranked by how many vehicles carry each value. Served from memory without a"
+                   + " database query; limit is 1-" + VehicleSuggestionService.MAX_LIMIT)
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully",
+                     content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = Suggestion.class)))),
+        @ApiResponse(responseCode = "400", description = "Unknown field or invalid limit",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Authentication required - missing or invalid JWT token",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/suggest")
+    public ResponseEntity<List<Suggestion>> suggest(
+        @RequestParam(required = false) String field,
+        @RequestParam(defaultValue = "") String prefix,
+        @RequestParam(defaultValue = "10") int limit) {
+        log.info("Suggesting vehicle {} values for prefix: {}, limit: {}", field, prefix, limit);
+
+        return ResponseEntity.ok(vehicleSuggestionService.suggest(field, prefix, limit));
+    }
+
     /**
      * Update vehicle.
      */
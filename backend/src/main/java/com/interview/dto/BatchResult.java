@@ -0,0 +1,14 @@
+package com.interview.dto;
+
+import java.util.List;
+
+/**
+ * Result of a batch lookup by ids.
+ *
+ * <p>{@code content} follows the order of the requested ids (duplicates collapsed), and ids that
+ * matched no row are listed in {@code missingIds} instead of failing the whole batch.
+ */
+public record BatchResult<T>(
+    List<T> content,
+    List<Long> missingIds
+) {}
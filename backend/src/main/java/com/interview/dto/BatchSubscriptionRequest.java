@@ -0,0 +1,15 @@
+package com.interview.dto;
+
+import com.interview.enums.SubscriptionAction;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+
+/**
+ * Request DTO for subscribing or unsubscribing many customers at once; {@code action} defaults to SUBSCRIBE.
+ */
+public record BatchSubscriptionRequest(
+    SubscriptionAction action,
+    @NotEmpty(message = "At least one customer ID is required")
+    List<@NotNull(message = "Customer IDs must not be null") Long> customerIds
+) {}
@@ -0,0 +1,25 @@
+package com.interview.dto;
+
+import com.interview.enums.SubscriptionAction;
+import com.interview.enums.SubscriptionOutcome;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a batch subscription request.
+ *
+ * <p>{@code results} holds one outcome per requested customer in request order (duplicates collapsed), and
+ * {@code totals} counts them per outcome.
+ */
+public record BatchSubscriptionResult(
+    Long servicePackageId,
+    SubscriptionAction action,
+    Map<SubscriptionOutcome, Integer> totals,
+    List<CustomerOutcome> results
+) {
+
+    /**
+     * The outcome for one customer.
+     */
+    public record CustomerOutcome(Long customerId, SubscriptionOutcome outcome) {}
+}
@@ -0,0 +1,31 @@
+package com.interview.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Page of results for keyset (cursor) pagination.
+ *
+ * <p>Pass {@code nextCursor} as the {@code after} parameter to fetch the following page.
+ * No total count is returned because counting would require scanning the whole table.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CursorPage<T>(
+    List<T> content,
+    Integer size,
+    Boolean hasNext,
+    String nextCursor
+) {
+
+    /**
+     * Build a page from {@code limit + 1} fetched rows; the extra row only signals that a next page exists.
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int limit, Function<E, T> mapper, Function<E, String> cursorOf) {
+        boolean hasNext = rows.size() > limit;
+        List<E> pageRows = hasNext ? rows.subList(0, limit) : rows;
+        List<T> content = pageRows.stream().map(mapper).toList();
+        String nextCursor = hasNext ? cursorOf.apply(pageRows.get(pageRows.size() - 1)) : null;
+        return new CursorPage<>(content, content.size(), hasNext, nextCursor);
+    }
+}
@@ -0,0 +1,9 @@
+package com.interview.dto;
+
+/**
+ * Number of search results sharing one facet value.
+ */
+public record FacetCount(
+    String value,
+    long count
+) {}
@@ -0,0 +1,13 @@
+package com.interview.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+
+/**
+ * Request DTO for batch lookups whose id list is too long for a query string.
+ */
+public record IdsRequest(
+    @NotEmpty(message = "At least one ID is required")
+    List<@NotNull(message = "IDs must not be null") Long> ids
+) {}
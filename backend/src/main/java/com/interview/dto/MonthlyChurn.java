@@ -0,0 +1,21 @@
+package com.interview.dto;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * Subscription churn over all packages in one month.
+ *
+ * <p>{@code churnRate} is the share of the subscriptions running at the start of the month that ended within it,
+ * and {@code retentionRate} its complement; both are null when no subscription was running at the start.
+ * Subscriptions started and ended within the month count in {@code ended} but not in the rates.
+ */
+public record MonthlyChurn(
+    YearMonth month,
+    Long subscriptionsAtStart,
+    Long started,
+    Long ended,
+    Long subscriptionsAtEnd,
+    BigDecimal churnRate,
+    BigDecimal retentionRate
+) {}
@@ -0,0 +1,20 @@
+package com.interview.dto;
+
+import com.interview.dto.projection.MonthlyRecurringRevenue;
+import com.interview.dto.projection.PackageRecurringRevenue;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Monthly recurring revenue (MRR) report.
+ *
+ * <p>{@code mrr} and {@code subscriptions} are the current totals over active packages, {@code packages} breaks
+ * them down per active package (highest MRR first) and {@code months} holds the MRR at the end of each requested
+ * month, the current month being the current total. Months before the first recorded change are omitted.
+ */
+public record RecurringRevenueReport(
+    BigDecimal mrr,
+    Long subscriptions,
+    List<PackageRecurringRevenue> packages,
+    List<MonthlyRecurringRevenue> months
+) {}
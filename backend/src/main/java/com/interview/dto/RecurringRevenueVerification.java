@@ -0,0 +1,15 @@
+package com.interview.dto;
+
+import com.interview.dto.projection.RecurringRevenue;
+
+/**
+ * Result of recomputing the monthly recurring revenue from the subscriptions and comparing it with the total
+ * summed from the packages' subscriber counts; {@code corrected} is true when {@code correctedPackages} packages
+ * had a drifted count that was recounted.
+ */
+public record RecurringRevenueVerification(
+    RecurringRevenue stored,
+    RecurringRevenue recomputed,
+    boolean corrected,
+    int correctedPackages
+) {}
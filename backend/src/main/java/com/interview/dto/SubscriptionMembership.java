@@ -0,0 +1,14 @@
+package com.interview.dto;
+
+import java.time.Instant;
+
+/**
+ * Customers subscribed to a service package at a past moment, as a keyset page of customer ids, and whether
+ * the package was active then. Ids of customers deleted since are included.
+ */
+public record SubscriptionMembership(
+    Long servicePackageId,
+    Instant at,
+    boolean packageActive,
+    CursorPage<Long> customerIds
+) {}
@@ -0,0 +1,9 @@
+package com.interview.dto;
+
+/**
+ * Typeahead suggestion: a distinct value and how many records carry it.
+ */
+public record Suggestion(
+    String value,
+    long count
+) {}
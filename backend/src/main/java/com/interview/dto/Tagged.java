@@ -0,0 +1,21 @@
+package com.interview.dto;
+
+/**
+ * Response body paired with its entity tag for conditional GET handling.
+ *
+ * <p>{@code body} is null when the client's If-None-Match already matched {@code etag},
+ * in which case the entity was never mapped and a 304 should be returned.
+ */
+public record Tagged<T>(
+    String etag,
+    T body
+) {
+
+    public static <T> Tagged<T> notModified(String etag) {
+        return new Tagged<>(etag, null);
+    }
+
+    public boolean isNotModified() {
+        return body == null;
+    }
+}
@@ -0,0 +1,53 @@
+package com.interview.dto;
+
+import com.interview.dto.projection.VehicleFacetCount;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Facet counts over all vehicles matching a search, not just the returned page.
+ *
+ * <p>Values are ordered by count, most frequent first. Years are grouped into buckets of
+ * {@value #YEAR_BUCKET_SIZE} model years labelled like {@code 2020-2024}, ordered newest first.
+ */
+public record VehicleFacets(
+    List<FacetCount> make,
+    List<FacetCount> model,
+    List<FacetCount> year
+) {
+
+    public static final int YEAR_BUCKET_SIZE = 5;
+
+    private static final Comparator<FacetCount> BY_COUNT = Comparator.comparingLong(FacetCount::count).reversed()
+        .thenComparing(FacetCount::value);
+
+    /**
+     * Roll the per make, model and year counts of a single grouped query up into the three facets.
+     */
+    public static VehicleFacets of(List<VehicleFacetCount> counts) {
+        List<FacetCount> years = sum(counts, row -> Math.floorDiv(row.year(), YEAR_BUCKET_SIZE) * YEAR_BUCKET_SIZE,
+            () -> new TreeMap<Integer, Long>(Comparator.reverseOrder())).entrySet().stream()
+            .map(entry -> new FacetCount(entry.getKey() + "-" + (entry.getKey() + YEAR_BUCKET_SIZE - 1), entry.getValue()))
+            .toList();
+
+        return new VehicleFacets(byCount(sum(counts, VehicleFacetCount::make, TreeMap::new)),
+            byCount(sum(counts, VehicleFacetCount::model, TreeMap::new)), years);
+    }
+
+    private static <K> Map<K, Long> sum(List<VehicleFacetCount> counts, Function<VehicleFacetCount, K> key,
+                                        Supplier<TreeMap<K, Long>> mapFactory) {
+        return counts.stream().collect(Collectors.groupingBy(key, mapFactory, Collectors.summingLong(VehicleFacetCount::count)));
+    }
+
+    private static List<FacetCount> byCount(Map<String, Long> counts) {
+        return counts.entrySet().stream()
+            .map(entry -> new FacetCount(entry.getKey(), entry.getValue()))
+            .sorted(BY_COUNT)
+            .toList();
+    }
+}
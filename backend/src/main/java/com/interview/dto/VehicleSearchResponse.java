@@ -0,0 +1,26 @@
+package com.interview.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.web.PagedModel;
+
+/**
+ * One page of vehicle search results, serialized like any other page ({@code content} and {@code page}),
+ * plus the facet counts over the whole result when they were requested.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record VehicleSearchResponse(
+    List<VehicleResponse> content,
+    PagedModel.PageMetadata page,
+    VehicleFacets facets
+) {
+
+    /**
+     * Wrap a page of results and optional facets.
+     */
+    public static VehicleSearchResponse of(Page<VehicleResponse> page, VehicleFacets facets) {
+        return new VehicleSearchResponse(page.getContent(),
+            new PagedModel.PageMetadata(page.getSize(), page.getNumber(), page.getTotalElements(), page.getTotalPages()), facets);
+    }
+}
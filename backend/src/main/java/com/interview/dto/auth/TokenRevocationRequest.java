@@ -0,0 +1,8 @@
+package com.interview.dto.auth;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record TokenRevocationRequest(
+    @NotBlank(message = "Token is required")
+    String token
+) {}
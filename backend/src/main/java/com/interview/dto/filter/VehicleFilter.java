@@ -1,5 +1,6 @@
 package com.interview.dto.filter;
 
+import com.interview.enums.MatchMode;
 import lombok.Builder;
 
 /**
@@ -7,16 +8,21 @@ import lombok.Builder;
  *
  * <p>Encapsulates all possible filter criteria for vehicle searches.
  * Used with JPA Specifications to build dynamic queries in a type-safe manner.
+ * Each text filter has a match mode; a null mode falls back to the default in {@code VehicleSpecs}.
  */
 @Builder
 public record VehicleFilter(
     Long customerId,
     String vin,
     String make,
+    MatchMode makeMatch,
     String model,
+    MatchMode modelMatch,
     Integer minYear,
     Integer maxYear,
     String customerEmail,
-    String customerName
+    MatchMode customerEmailMatch,
+    String customerName,
+    MatchMode customerNameMatch
 ) {
-}
\ No newline at end of file
+}
@@ -0,0 +1,13 @@
+package com.interview.dto.projection;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * Projection of the recurring revenue recorded at the last change within a month.
+ */
+public record MonthlyRecurringRevenue(
+    YearMonth month,
+    BigDecimal mrr,
+    Long subscriptions
+) {}
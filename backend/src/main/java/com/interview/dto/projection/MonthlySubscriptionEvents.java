@@ -0,0 +1,14 @@
+package com.interview.dto.projection;
+
+import java.time.YearMonth;
+
+/**
+ * Projection of the subscriptions started and ended within a month; {@code endedFromEarlierMonths} counts the
+ * ended ones that were started before the month.
+ */
+public record MonthlySubscriptionEvents(
+    YearMonth month,
+    Long started,
+    Long ended,
+    Long endedFromEarlierMonths
+) {}
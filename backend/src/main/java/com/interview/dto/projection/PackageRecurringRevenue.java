@@ -0,0 +1,14 @@
+package com.interview.dto.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of the recurring revenue of one active package, from its price and materialized subscriber count.
+ */
+public record PackageRecurringRevenue(
+    Long servicePackageId,
+    String name,
+    BigDecimal monthlyPrice,
+    Integer subscribers,
+    BigDecimal mrr
+) {}
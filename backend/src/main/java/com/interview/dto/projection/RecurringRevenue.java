@@ -0,0 +1,11 @@
+package com.interview.dto.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of monthly recurring revenue: the sum of the monthly prices of all subscriptions to active packages.
+ */
+public record RecurringRevenue(
+    BigDecimal mrr,
+    Long subscriptions
+) {}
@@ -0,0 +1,11 @@
+package com.interview.dto.projection;
+
+/**
+ * Projection of the number of vehicles per make, model and year, produced by a grouped COUNT query.
+ */
+public record VehicleFacetCount(
+    String make,
+    String model,
+    Integer year,
+    Long count
+) {}
@@ -0,0 +1,20 @@
+package com.interview.entity;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Names of the Hibernate second-level cache regions.
+ *
+ * <p>Each region must have a matching entry in {@code caffeine.conf}, which sets its maximum
+ * size and time to live.
+ */
+@UtilityClass
+public class CacheRegions {
+
+    public static final String CUSTOMERS = "customers";
+    public static final String CUSTOMER_PROFILES = "customer-profiles";
+    public static final String VEHICLES = "vehicles";
+    public static final String USERS = "users";
+    public static final String USER_BY_USERNAME = "user-by-username";
+    public static final String VEHICLE_FACETS = "vehicle-facets";
+}
@@ -1,5 +1,6 @@
 package com.interview.entity;
 
+import com.interview.util.SearchTerms;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -12,17 +13,22 @@ import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import jakarta.persistence.Version;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Entity representing a customer with basic contact information.
@@ -34,18 +40,21 @@ import lombok.Setter;
  *   <li>ServicePackage (many-to-many) - Subscribed service packages</li>
  * </ul>
  *
- * <p>Inherits audit fields from BaseEntity.
+ * <p>Name and email are mirrored into upper-cased search columns so vehicle searches can use an index.
+ * Inherits audit fields from BaseEntity.
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.CUSTOMERS)
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 @Table(name = "customers")
 public class Customer extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "customers_id")
+    @TableGenerator(name = "customers_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.PK_COLUMN,
+        valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "customers", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @Version
@@ -63,6 +72,18 @@ public class Customer extends BaseEntity {
     @Column(name = "phone", length = 20)
     private String phone;
 
+    @Setter(AccessLevel.NONE)
+    @Column(name = "first_name_search", nullable = false, length = 100)
+    private String firstNameSearch;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "last_name_search", nullable = false, length = 100)
+    private String lastNameSearch;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "email_search", nullable = false, length = 255)
+    private String emailSearch;
+
     @OneToOne(mappedBy = "customer", cascade = {CascadeType.PERSIST, CascadeType.MERGE}, fetch = FetchType.LAZY, orphanRemoval = true)
     private CustomerProfile customerProfile;
 
@@ -74,6 +95,33 @@ public class Customer extends BaseEntity {
                inverseJoinColumns = @JoinColumn(name = "service_package_id", referencedColumnName = "id"))
     private Set<ServicePackage> subscribedPackages = new HashSet<>();
 
+    /**
+     * All-fields constructor; the search columns are derived from the name and email when the entity is written.
+     */
+    public Customer(Long id, Long version, String firstName, String lastName, String email, String phone,
+        CustomerProfile customerProfile, List<Vehicle> vehicles, Set<ServicePackage> subscribedPackages) {
+        this.id = id;
+        this.version = version;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.phone = phone;
+        this.customerProfile = customerProfile;
+        this.vehicles = vehicles;
+        this.subscribedPackages = subscribedPackages;
+    }
+
+    /**
+     * Keep the upper-cased search columns in step with the name and email.
+     */
+    @PrePersist
+    @PreUpdate
+    void normalizeSearchColumns() {
+        firstNameSearch = SearchTerms.normalize(firstName);
+        lastNameSearch = SearchTerms.normalize(lastName);
+        emailSearch = SearchTerms.normalize(email);
+    }
+
     public void addServicePackage(ServicePackage servicePackage) {
         if (servicePackage != null) {
             this.subscribedPackages.add(servicePackage);
@@ -0,0 +1,20 @@
+package com.interview.entity;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Shared settings for the table-backed ID generators declared on each entity.
+ *
+ * <p>Hibernate reserves {@link #ALLOCATION_SIZE} ids per round trip to {@code id_generators}
+ * (pooled optimizer), so new rows get their keys without touching the target table and
+ * inserts can be sent as JDBC batches. The allocation size must match the offset used when
+ * seeding the table in {@code V9__Create_id_generators_table.sql}.
+ */
+@UtilityClass
+public class IdGenerators {
+
+    public static final String TABLE = "id_generators";
+    public static final String PK_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+}
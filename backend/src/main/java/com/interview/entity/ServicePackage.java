@@ -8,10 +8,13 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Version;
 import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -37,9 +40,14 @@ import lombok.Setter;
 public class ServicePackage extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "service_packages_id")
+    @TableGenerator(name = "service_packages_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.PK_COLUMN,
+        valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "service_packages", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
+    @Version
+    private Long version;
+
     @Column(name = "name", nullable = false, length = 100)
     private String name;
 
@@ -52,6 +60,14 @@ public class ServicePackage extends BaseEntity {
     @Column(name = "active", nullable = false)
     private Boolean active = true;
 
+    /**
+     * Materialized size of {@link #subscribers}. Adjusted atomically in the database by the subscription
+     * paths through {@link com.interview.repository.ServicePackageRepository}, so it is never written from this entity.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "subscriber_count", nullable = false, insertable = false, updatable = false)
+    private int subscriberCount;
+
     @ManyToMany(mappedBy = "subscribedPackages", fetch = FetchType.LAZY)
     private Set<Customer> subscribers = new HashSet<>();
 
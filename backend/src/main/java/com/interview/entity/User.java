@@ -1,21 +1,30 @@
 package com.interview.entity;
 
 import com.interview.enums.Role;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
- * Simple user entity for authentication and authorization.
+ * User entity for authentication and authorization.
  *
- * <p>This is a lightweight implementation for demonstration purposes.
+ * <p>Passwords are stored as BCrypt hashes only; the raw password never leaves the login request.
+ * Users are cached in the second-level cache because every authenticated request looks its user up.
  *
  * <p><strong>Production Considerations:</strong>
  * <ul>
- *   <li><strong>Database Storage:</strong> Users would be persisted in database with proper JPA annotations</li>
- *   <li><strong>Password Security:</strong> Passwords would be hashed using BCrypt or Argon2</li>
  *   <li><strong>Identity Providers:</strong> Could integrate with external identity management:
  *     <ul>
  *       <li>Keycloak for enterprise SSO and user federation</li>
@@ -26,14 +35,27 @@ import lombok.Setter;
  *   </li>
  * </ul>
  */
+@Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USERS)
 @Getter
 @Setter
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class User {
+@Table(name = "users")
+public class User extends BaseEntity {
 
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "username", nullable = false, unique = true, length = 50)
     private String username;
-    private String password;
+
+    @Column(name = "password_hash", nullable = false, length = 100)
+    private String passwordHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role", nullable = false, length = 20)
     private Role role;
-}
\ No newline at end of file
+}
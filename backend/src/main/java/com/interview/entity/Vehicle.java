@@ -1,5 +1,6 @@
 package com.interview.entity;
 
+import com.interview.util.SearchTerms;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -8,31 +9,43 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Version;
 import java.util.Objects;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Entity representing a vehicle belonging to a customer.
  *
  * <p>Contains vehicle identification and basic information.
  * Has a many-to-one relationship with Customer entity (one customer can have multiple vehicles).
+ * Make and model are mirrored into upper-cased search columns so searches can use an index.
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.VEHICLES)
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 @Table(name = "vehicles")
 public class Vehicle extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "vehicles_id")
+    @TableGenerator(name = "vehicles_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.PK_COLUMN,
+        valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "vehicles", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
+    @Version
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false)
     private Customer customer;
@@ -49,6 +62,36 @@ public class Vehicle extends BaseEntity {
     @Column(name = "vehicle_year", nullable = false)
     private Integer year;
 
+    @Setter(AccessLevel.NONE)
+    @Column(name = "make_search", nullable = false, length = 50)
+    private String makeSearch;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "model_search", nullable = false, length = 50)
+    private String modelSearch;
+
+    /**
+     * All-fields constructor; the search columns are derived from make and model when the entity is written.
+     */
+    public Vehicle(Long id, Customer customer, String vin, String make, String model, Integer year) {
+        this.id = id;
+        this.customer = customer;
+        this.vin = vin;
+        this.make = make;
+        this.model = model;
+        this.year = year;
+    }
+
+    /**
+     * Keep the upper-cased search columns in step with make and model.
+     */
+    @PrePersist
+    @PreUpdate
+    void normalizeSearchColumns() {
+        makeSearch = SearchTerms.normalize(make);
+        modelSearch = SearchTerms.normalize(model);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -0,0 +1,13 @@
+package com.interview.enums;
+
+/**
+ * How a text search filter is matched against its normalized search column.
+ *
+ * <p>{@link #EXACT} and {@link #PREFIX} can use a B-tree index on the column; {@link #CONTAINS}
+ * needs a leading wildcard and always scans.
+ */
+public enum MatchMode {
+    EXACT,
+    PREFIX,
+    CONTAINS
+}
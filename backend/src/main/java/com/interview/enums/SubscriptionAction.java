@@ -0,0 +1,9 @@
+package com.interview.enums;
+
+/**
+ * What a batch subscription request does to each listed customer.
+ */
+public enum SubscriptionAction {
+    SUBSCRIBE,
+    UNSUBSCRIBE
+}
@@ -0,0 +1,14 @@
+package com.interview.enums;
+
+/**
+ * Kind of an entry in the subscription history.
+ *
+ * <p>{@link #PACKAGE_ACTIVATED} and {@link #PACKAGE_DEACTIVATED} concern the whole package and carry no customer;
+ * deactivating a package keeps its subscriptions.
+ */
+public enum SubscriptionEventType {
+    SUBSCRIBED,
+    UNSUBSCRIBED,
+    PACKAGE_ACTIVATED,
+    PACKAGE_DEACTIVATED
+}
@@ -0,0 +1,15 @@
+package com.interview.enums;
+
+/**
+ * What a batch subscription request did for one customer.
+ *
+ * <p>{@link #ALREADY_SUBSCRIBED} and {@link #NOT_SUBSCRIBED} mean the request found nothing to change,
+ * not that it failed.
+ */
+public enum SubscriptionOutcome {
+    SUBSCRIBED,
+    ALREADY_SUBSCRIBED,
+    UNSUBSCRIBED,
+    NOT_SUBSCRIBED,
+    CUSTOMER_NOT_FOUND
+}
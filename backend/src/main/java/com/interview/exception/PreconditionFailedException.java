@@ -0,0 +1,18 @@
+package com.interview.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Exception thrown when an If-Match precondition does not match the current entity tag.
+ */
+public class PreconditionFailedException extends BusinessException {
+
+    public PreconditionFailedException(String entityName, Long entityId) {
+        super(
+            String.format("The %s (ID: %d) does not match the If-Match ETag. Please refresh and try again.",
+                entityName, entityId),
+            HttpStatus.PRECONDITION_FAILED,
+            "PRECONDITION_FAILED"
+        );
+    }
+}
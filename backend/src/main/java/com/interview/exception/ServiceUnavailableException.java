@@ -0,0 +1,18 @@
+package com.interview.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Exception thrown when a request cannot be served right now because a bounded resource is saturated.
+ * Results in HTTP 503 Service Unavailable response; the client may retry later.
+ */
+public class ServiceUnavailableException extends BusinessException {
+
+    public ServiceUnavailableException(String message) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE, "SERVICE_UNAVAILABLE");
+    }
+
+    public ServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause, HttpStatus.SERVICE_UNAVAILABLE, "SERVICE_UNAVAILABLE");
+    }
+}
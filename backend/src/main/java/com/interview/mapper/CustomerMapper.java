@@ -76,5 +76,9 @@ public interface CustomerMapper {
      */
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "customer", ignore = true)
+    @Mapping(target = "createdDate", ignore = true)
+    @Mapping(target = "updatedDate", ignore = true)
+    @Mapping(target = "createdBy", ignore = true)
+    @Mapping(target = "updatedBy", ignore = true)
     void updateProfileEntity(@MappingTarget CustomerProfile existingProfile, CustomerRequest request);
 }
\ No newline at end of file
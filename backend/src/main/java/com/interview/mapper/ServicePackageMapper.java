@@ -23,6 +23,7 @@ public interface ServicePackageMapper {
      * Active field will be set to true by default in entity.
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "active", ignore = true)
     @Mapping(target = "subscribers", ignore = true)
     @Mapping(target = "createdDate", ignore = true)
@@ -31,14 +32,6 @@ public interface ServicePackageMapper {
     @Mapping(target = "updatedBy", ignore = true)
     ServicePackage toEntity(ServicePackageRequest request);
 
-    /**
-     * Convert ServicePackage entity to ServicePackageResponse.
-     * Includes subscriber count for business insights.
-     */
-    @Named("toResponseWithSubscribers")
-    @Mapping(target = "subscriberCount", expression = "java(getSubscriberCount(servicePackage))")
-    ServicePackageResponse toResponse(ServicePackage servicePackage);
-
     /**
      * Convert ServicePackage entity to ServicePackageResponse (without subscriber count).
      * Used for operations where subscribers are not loaded to avoid N+1 queries.
@@ -47,6 +40,14 @@ public interface ServicePackageMapper {
     @Mapping(target = "subscriberCount", ignore = true)
     ServicePackageResponse toResponseWithoutSubscribers(ServicePackage servicePackage);
 
+    /**
+     * Convert ServicePackage entity to ServicePackageResponse with a precomputed subscriber count.
+     * Used when counts come from an aggregate query instead of a loaded subscribers collection.
+     */
+    @Named("toResponseWithSubscriberCount")
+    @Mapping(target = "subscriberCount", source = "subscriberCount")
+    ServicePackageResponse toResponseWithSubscriberCount(ServicePackage servicePackage, Integer subscriberCount);
+
     /**
      * Convert list of ServicePackage entities to list of ServicePackageResponse.
      */
@@ -57,6 +58,7 @@ public interface ServicePackageMapper {
      * Preserves ID, active status, subscribers, and audit fields.
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "active", ignore = true)
     @Mapping(target = "subscribers", ignore = true)
     @Mapping(target = "createdDate", ignore = true)
@@ -64,15 +66,4 @@ public interface ServicePackageMapper {
     @Mapping(target = "createdBy", ignore = true)
     @Mapping(target = "updatedBy", ignore = true)
     void updateEntity(@MappingTarget ServicePackage existingServicePackage, ServicePackageRequest request);
-
-    /**
-     * Helper method to calculate subscriber count.
-     * Returns 0 if subscribers collection is null (lazy loading not triggered).
-     */
-    default Integer getSubscriberCount(ServicePackage servicePackage) {
-        if (servicePackage.getSubscribers() == null) {
-            return null; // Indicates subscribers not loaded
-        }
-        return servicePackage.getSubscribers().size();
-    }
 }
\ No newline at end of file
@@ -23,6 +23,7 @@ public interface VehicleMapper {
      * Customer will be set separately in service layer.
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "customer", ignore = true)
     @Mapping(target = "createdDate", ignore = true)
     @Mapping(target = "updatedDate", ignore = true)
@@ -60,6 +61,7 @@ public interface VehicleMapper {
      * Customer updates will be handled separately in service layer.
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "customer", ignore = true)
     @Mapping(target = "createdDate", ignore = true)
     @Mapping(target = "updatedDate", ignore = true)
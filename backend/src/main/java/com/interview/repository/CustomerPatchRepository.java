@@ -0,0 +1,28 @@
+package com.interview.repository;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Read-free partial updates for customers, mixed into {@link CustomerRepository}.
+ *
+ * <p>Each method compiles the changed attributes into a single bulk {@code UPDATE} without loading the
+ * entity. Bulk statements bypass the persistence context, so Hibernate evicts the affected second-level
+ * cache regions and invalidates cached queries over the updated table instead.
+ */
+public interface CustomerPatchRepository {
+
+    /**
+     * Set the given customer attributes and bump the version, but only while the row still has {@code expectedVersion}.
+     * There is no unconditional variant: callers must resolve a concrete version first.
+     *
+     * @return the number of updated rows: 0 when the customer does not exist or its version moved on
+     */
+    int updateIfVersion(Long id, long expectedVersion, Map<String, Object> changes, String updatedBy, LocalDateTime updatedDate);
+
+    /**
+     * Set the given profile attributes of a customer and its audit fields, inserting the profile when the customer
+     * has none yet.
+     */
+    void upsertProfile(Long customerId, Map<String, Object> changes, String updatedBy, LocalDateTime updatedDate);
+}
@@ -0,0 +1,85 @@
+package com.interview.repository;
+
+import com.interview.entity.Customer;
+import com.interview.entity.CustomerProfile;
+import com.interview.enums.ContactMethod;
+import com.interview.util.SearchTerms;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Criteria implementation of {@link CustomerPatchRepository}.
+ */
+@RequiredArgsConstructor
+class CustomerPatchRepositoryImpl implements CustomerPatchRepository {
+
+    /** Search columns derived from patchable fields; a bulk UPDATE skips the entity callbacks that maintain them. */
+    private static final Map<String, String> SEARCH_COLUMNS = Map.of(
+        "firstName", "firstNameSearch",
+        "lastName", "lastNameSearch",
+        "email", "emailSearch");
+
+    private final EntityManager entityManager;
+
+    /**
+     * Trade-off: a bulk UPDATE on the cached {@code Customer} entity makes Hibernate clear the whole {@code customers}
+     * and {@code customer-profiles} regions (and the queries over the table) on commit, not just this customer's entry.
+     * A managed-entity write would evict a single entry but costs a SELECT per PATCH; patches are rare next to reads by
+     * id, so the regions refill from the next lookups. Use PUT, which writes through the entity, for hot customers.
+     */
+    @Override
+    public int updateIfVersion(Long id, long expectedVersion, Map<String, Object> changes, String updatedBy, LocalDateTime updatedDate) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Customer> update = cb.createCriteriaUpdate(Customer.class);
+        Root<Customer> root = update.from(Customer.class);
+
+        changes.forEach(update::set);
+        SEARCH_COLUMNS.forEach((field, searchField) -> {
+            if (changes.containsKey(field)) {
+                update.set(searchField, SearchTerms.normalize((String) changes.get(field)));
+            }
+        });
+        Path<Long> version = root.get("version");
+        update.set(version, cb.sum(version, 1L));
+        update.set(root.<LocalDateTime>get("updatedDate"), updatedDate);
+        update.set(root.<String>get("updatedBy"), updatedBy);
+
+        update.where(cb.equal(root.get("id"), id), cb.equal(version, expectedVersion));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public void upsertProfile(Long customerId, Map<String, Object> changes, String updatedBy, LocalDateTime updatedDate) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<CustomerProfile> update = cb.createCriteriaUpdate(CustomerProfile.class);
+        Root<CustomerProfile> root = update.from(CustomerProfile.class);
+
+        changes.forEach(update::set);
+        update.set(root.<LocalDateTime>get("updatedDate"), updatedDate);
+        update.set(root.<String>get("updatedBy"), updatedBy);
+        update.where(cb.equal(root.get("customer").get("id"), customerId));
+
+        if (entityManager.createQuery(update).executeUpdate() == 0) {
+            CustomerProfile profile = new CustomerProfile();
+            profile.setCustomer(entityManager.getReference(Customer.class, customerId));
+            if (changes.containsKey("address")) {
+                profile.setAddress((String) changes.get("address"));
+            }
+            if (changes.containsKey("dateOfBirth")) {
+                profile.setDateOfBirth((LocalDate) changes.get("dateOfBirth"));
+            }
+            if (changes.containsKey("preferredContactMethod")) {
+                profile.setPreferredContactMethod((ContactMethod) changes.get("preferredContactMethod"));
+            }
+            entityManager.persist(profile);
+        }
+    }
+}
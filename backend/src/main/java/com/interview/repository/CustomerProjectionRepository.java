@@ -0,0 +1,20 @@
+package com.interview.repository;
+
+import com.interview.dto.CustomerResponse;
+import java.util.List;
+import java.util.Set;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Sparse fieldset queries for customers, mixed into {@link CustomerRepository}.
+ *
+ * <p>Only the requested columns are selected and the customer_profiles join is added only when a
+ * profile field is requested. Fields that were not requested are null in the returned responses.
+ */
+public interface CustomerProjectionRepository {
+
+    List<CustomerResponse> findAllProjected(Set<String> fields);
+
+    Page<CustomerResponse> findAllProjected(Set<String> fields, Pageable pageable);
+}
@@ -0,0 +1,76 @@
+package com.interview.repository;
+
+import com.interview.dto.CustomerResponse;
+import com.interview.entity.Customer;
+import com.interview.entity.CustomerProfile;
+import com.interview.enums.ContactMethod;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import static com.interview.repository.SparseFieldQueries.value;
+
+/**
+ * Criteria implementation of {@link CustomerProjectionRepository}.
+ */
+@RequiredArgsConstructor
+class CustomerProjectionRepositoryImpl implements CustomerProjectionRepository {
+
+    private static final Set<String> PROFILE_FIELDS = Set.of("address", "dateOfBirth", "preferredContactMethod");
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<CustomerResponse> findAllProjected(Set<String> fields) {
+        return SparseFieldQueries.list(entityManager, Customer.class, (root, cb) -> select(root, fields), null, Sort.unsorted(),
+            tuple -> toResponse(tuple, fields));
+    }
+
+    @Override
+    public Page<CustomerResponse> findAllProjected(Set<String> fields, Pageable pageable) {
+        return SparseFieldQueries.page(entityManager, Customer.class, (root, cb) -> select(root, fields), null, pageable,
+            tuple -> toResponse(tuple, fields));
+    }
+
+    private static Map<String, Expression<?>> select(Root<Customer> root, Set<String> fields) {
+        Join<Customer, CustomerProfile> profile = fields.stream().anyMatch(PROFILE_FIELDS::contains)
+            ? root.join("customerProfile", JoinType.LEFT)
+            : null;
+
+        Map<String, Expression<?>> selections = new LinkedHashMap<>();
+        for (String field : fields) {
+            selections.put(field, PROFILE_FIELDS.contains(field) ? profile.get(field) : root.get(field));
+        }
+        return selections;
+    }
+
+    private static CustomerResponse toResponse(Tuple tuple, Set<String> fields) {
+        return new CustomerResponse(
+            value(tuple, fields, "id", Long.class),
+            value(tuple, fields, "version", Long.class),
+            value(tuple, fields, "firstName", String.class),
+            value(tuple, fields, "lastName", String.class),
+            value(tuple, fields, "email", String.class),
+            value(tuple, fields, "phone", String.class),
+            value(tuple, fields, "address", String.class),
+            value(tuple, fields, "dateOfBirth", LocalDate.class),
+            value(tuple, fields, "preferredContactMethod", ContactMethod.class),
+            value(tuple, fields, "createdDate", LocalDateTime.class),
+            value(tuple, fields, "updatedDate", LocalDateTime.class),
+            value(tuple, fields, "createdBy", String.class),
+            value(tuple, fields, "updatedBy", String.class));
+    }
+}
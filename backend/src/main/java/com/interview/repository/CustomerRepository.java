@@ -1,14 +1,19 @@
 package com.interview.repository;
 
 import com.interview.entity.Customer;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -17,17 +22,24 @@ import org.springframework.stereotype.Repository;
  *
  * <p>Provides standard CRUD operations plus custom queries for finding
  * customers by email and fetching customers with their profiles.
+ *
+ * <p>Lookups by id go through {@link #findById}, which is served from the customers entity cache; the
+ * profile shares the customer's id and is resolved from its own entity cache, so a write to another
+ * customer never invalidates it.
+ *
+ * <p>Sparse fieldset ({@code ?fields=}) queries come from {@link CustomerProjectionRepository} and read-free
+ * partial updates from {@link CustomerPatchRepository}.
+ *
+ * <p>Keyset page queries seek on {@code (sort key, id)} so they are served by an index range scan
+ * ({@code PRIMARY} or {@code idx_customers_email}, which carries the primary key) at any depth.
  */
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, Long> {
+public interface CustomerRepository extends JpaRepository<Customer, Long>, CustomerProjectionRepository, CustomerPatchRepository {
 
     boolean existsByEmail(String email);
 
-    @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.customerProfile WHERE c.id = :id")
-    Optional<Customer> findByIdWithProfile(@Param("id") Long id);
-
-    @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.customerProfile LEFT JOIN FETCH c.subscribedPackages WHERE c.id = :id")
-    Optional<Customer> findByIdWithSubscriptions(@Param("id") Long id);
+    @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.customerProfile WHERE c.id IN :ids")
+    List<Customer> findAllByIdWithProfiles(@Param("ids") Collection<Long> ids);
 
     @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.customerProfile")
     List<Customer> findAllWithProfiles();
@@ -36,6 +48,20 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
            countQuery = "SELECT count(c) FROM Customer c")
     Page<Customer> findAllWithProfiles(Pageable pageable);
 
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingHints.FETCH_SIZE_VALUE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.customerProfile ORDER BY c.id")
+    Stream<Customer> streamAllWithProfiles();
+
+    @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.customerProfile WHERE c.id > :afterId ORDER BY c.id")
+    List<Customer> findWithProfilesAfterId(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.customerProfile "
+        + "WHERE c.email >= :afterEmail AND (c.email > :afterEmail OR c.id > :afterId) "
+        + "ORDER BY c.email, c.id")
+    List<Customer> findWithProfilesAfterEmail(@Param("afterEmail") String afterEmail, @Param("afterId") Long afterId, Limit limit);
+
     @Modifying
     @Query("DELETE FROM Customer c WHERE c.id = :id")
     int deleteByCustomerId(@Param("id") Long id);
@@ -50,7 +76,4 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
         + "LEFT JOIN FETCH c.customerProfile "
         + "LEFT JOIN FETCH c.subscribedPackages")
     List<Customer> findAllWithProfilesAndServicePackages();
-
-    @EntityGraph(attributePaths = {"customerProfile", "servicePackages"})
-    Page<Customer> findAll(Pageable pageable);
 }
@@ -0,0 +1,47 @@
+package com.interview.repository;
+
+import com.interview.dto.projection.MonthlyRecurringRevenue;
+import com.interview.dto.projection.RecurringRevenue;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Monthly recurring revenue (MRR), mixed into {@link ServicePackageRepository}.
+ *
+ * <p>A package contributes its materialized subscriber count at its monthly price while it is active, so the current
+ * MRR is summed from the service_packages rows and costs one row per package, however many subscriptions there are.
+ * Every write that changes a package's contribution then copies it into the package's row for the current month in
+ * package_monthly_recurring_revenue. Writes to different packages touch different rows, so they never wait on each
+ * other; writes to the same package already serialize on its subscriber count.
+ */
+public interface RecurringRevenueRepository {
+
+    /**
+     * Record a package's current contribution as its value for the current month. Call after its subscriber count,
+     * price or status change has been written (flushed), so the package row is locked and read as changed.
+     */
+    void recordPackageRevenue(Long servicePackageId);
+
+    /**
+     * Record the current contribution of every package a customer subscribes to. Call after their subscriber counts
+     * were decremented and before the subscription rows are deleted.
+     */
+    void recordCustomerPackagesRevenue(Long customerId);
+
+    /**
+     * The current total over active packages, summed from their subscriber counts.
+     */
+    RecurringRevenue findRecurringRevenue();
+
+    /**
+     * The total recomputed from the subscription rows and package prices.
+     */
+    RecurringRevenue recomputeRecurringRevenue();
+
+    /**
+     * The total at the end of each month between {@code from} and {@code to} inclusive in which a package changed,
+     * preceded by the total carried into {@code from} (reported as the month before it) when anything was recorded
+     * earlier, in month order.
+     */
+    List<MonthlyRecurringRevenue> findMonthlyRecurringRevenue(YearMonth from, YearMonth to);
+}
@@ -0,0 +1,166 @@
+package com.interview.repository;
+
+import com.interview.dto.projection.MonthlyRecurringRevenue;
+import com.interview.dto.projection.RecurringRevenue;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
+
+/**
+ * Native SQL implementation of {@link RecurringRevenueRepository}.
+ *
+ * <p>Statements declare only the revenue table as query space, so they never invalidate second-level cache
+ * entries. Months are keyed by their first day in UTC. A package's row for the current month is updated, or
+ * inserted on its first change of the month; no other transaction can insert it in between, since every caller
+ * already holds the lock on the package row taken by the change it records. Package id 0 holds the totals
+ * recorded before months were kept per package.
+ */
+@RequiredArgsConstructor
+class RecurringRevenueRepositoryImpl implements RecurringRevenueRepository {
+
+    static final String TABLE = "package_monthly_recurring_revenue";
+
+    private static final String PACKAGE_MRR = "CASE WHEN sp.active = TRUE THEN sp.monthly_price * sp.subscriber_count ELSE 0 END";
+    private static final String PACKAGE_SUBSCRIPTIONS = "CASE WHEN sp.active = TRUE THEN sp.subscriber_count ELSE 0 END";
+
+    private static final String PACKAGE_IDS = ":servicePackageId";
+    private static final String CUSTOMER_PACKAGE_IDS = "SELECT csp.service_package_id FROM customer_service_packages csp "
+        + "WHERE csp.customer_id = :customerId";
+
+    private static final String UPDATE_PACKAGE_MONTH = updateMonth(PACKAGE_IDS);
+    private static final String INSERT_PACKAGE_MONTH = insertMonth(PACKAGE_IDS);
+    private static final String UPDATE_CUSTOMER_MONTH = updateMonth(CUSTOMER_PACKAGE_IDS);
+    private static final String INSERT_CUSTOMER_MONTH = insertMonth(CUSTOMER_PACKAGE_IDS);
+
+    private static final String CURRENT = "SELECT COALESCE(SUM(sp.monthly_price * sp.subscriber_count), 0), "
+        + "COALESCE(SUM(sp.subscriber_count), 0) FROM service_packages sp WHERE sp.active = TRUE";
+
+    private static final String RECOMPUTE = "SELECT COALESCE(SUM(sp.monthly_price), 0), COUNT(*) FROM customer_service_packages csp "
+        + "JOIN service_packages sp ON sp.id = csp.service_package_id WHERE sp.active = TRUE";
+
+    /** Each package's last month before the range, then every month recorded in it. */
+    private static final String MONTHS = "SELECT r.revenue_month, r.service_package_id, r.mrr, r.subscriptions FROM " + TABLE + " r "
+        + "JOIN (SELECT service_package_id, MAX(revenue_month) AS revenue_month FROM " + TABLE + " WHERE revenue_month < :from "
+        + "GROUP BY service_package_id) c ON c.service_package_id = r.service_package_id AND c.revenue_month = r.revenue_month "
+        + "UNION ALL SELECT revenue_month, service_package_id, mrr, subscriptions FROM " + TABLE
+        + " WHERE revenue_month >= :from AND revenue_month <= :to ORDER BY 1";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public void recordPackageRevenue(Long servicePackageId) {
+        Date month = currentMonth();
+        if (update(UPDATE_PACKAGE_MONTH).setParameter("month", month).setParameter("servicePackageId", servicePackageId).executeUpdate() == 0) {
+            update(INSERT_PACKAGE_MONTH).setParameter("month", month).setParameter("servicePackageId", servicePackageId).executeUpdate();
+        }
+    }
+
+    @Override
+    public void recordCustomerPackagesRevenue(Long customerId) {
+        Date month = currentMonth();
+        update(UPDATE_CUSTOMER_MONTH).setParameter("month", month).setParameter("customerId", customerId).executeUpdate();
+        update(INSERT_CUSTOMER_MONTH).setParameter("month", month).setParameter("customerId", customerId).executeUpdate();
+    }
+
+    @Override
+    public RecurringRevenue findRecurringRevenue() {
+        return toRevenue(entityManager.createNativeQuery(CURRENT).getSingleResult());
+    }
+
+    @Override
+    public RecurringRevenue recomputeRecurringRevenue() {
+        return toRevenue(entityManager.createNativeQuery(RECOMPUTE).getSingleResult());
+    }
+
+    @Override
+    public List<MonthlyRecurringRevenue> findMonthlyRecurringRevenue(YearMonth from, YearMonth to) {
+        List<?> rows = entityManager.createNativeQuery(MONTHS)
+            .setParameter("from", firstDay(from))
+            .setParameter("to", firstDay(to))
+            .getResultList();
+        return sumPerMonth(rows, from);
+    }
+
+    /**
+     * Sum the packages' values at the end of each month, each package carrying its last value forward.
+     */
+    private static List<MonthlyRecurringRevenue> sumPerMonth(List<?> rows, YearMonth from) {
+        Map<Long, Object[]> latest = new HashMap<>();
+        BigDecimal mrr = BigDecimal.ZERO;
+        long subscriptions = 0;
+        List<MonthlyRecurringRevenue> months = new ArrayList<>();
+        YearMonth month = null;
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            YearMonth rowMonth = YearMonth.from(toLocalDate(columns[0]));
+            if (rowMonth.isBefore(from)) {
+                rowMonth = from.minusMonths(1);
+            }
+            if (month != null && !rowMonth.equals(month)) {
+                months.add(new MonthlyRecurringRevenue(month, mrr, subscriptions));
+            }
+            month = rowMonth;
+            Object[] previous = latest.put(((Number) columns[1]).longValue(), columns);
+            if (previous != null) {
+                mrr = mrr.subtract(toDecimal(previous[2]));
+                subscriptions -= ((Number) previous[3]).longValue();
+            }
+            mrr = mrr.add(toDecimal(columns[2]));
+            subscriptions += ((Number) columns[3]).longValue();
+        }
+        if (month != null) {
+            months.add(new MonthlyRecurringRevenue(month, mrr, subscriptions));
+        }
+        return months;
+    }
+
+    private static String updateMonth(String packageIds) {
+        return "UPDATE " + TABLE + " r SET "
+            + "mrr = (SELECT " + PACKAGE_MRR + " FROM service_packages sp WHERE sp.id = r.service_package_id), "
+            + "subscriptions = (SELECT " + PACKAGE_SUBSCRIPTIONS + " FROM service_packages sp WHERE sp.id = r.service_package_id) "
+            + "WHERE r.revenue_month = :month AND r.service_package_id IN (" + packageIds + ")";
+    }
+
+    private static String insertMonth(String packageIds) {
+        return "INSERT INTO " + TABLE + " (revenue_month, service_package_id, mrr, subscriptions) "
+            + "SELECT :month, sp.id, " + PACKAGE_MRR + ", " + PACKAGE_SUBSCRIPTIONS + " FROM service_packages sp "
+            + "WHERE sp.id IN (" + packageIds + ") AND NOT EXISTS "
+            + "(SELECT 1 FROM " + TABLE + " r WHERE r.revenue_month = :month AND r.service_package_id = sp.id)";
+    }
+
+    private NativeQuery<?> update(String sql) {
+        return entityManager.createNativeQuery(sql)
+            .unwrap(NativeQuery.class)
+            .addSynchronizedQuerySpace(TABLE);
+    }
+
+    private static RecurringRevenue toRevenue(Object row) {
+        Object[] columns = (Object[]) row;
+        return new RecurringRevenue(toDecimal(columns[0]), ((Number) columns[1]).longValue());
+    }
+
+    private static BigDecimal toDecimal(Object value) {
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    private static Date currentMonth() {
+        return firstDay(YearMonth.now(ZoneOffset.UTC));
+    }
+
+    private static Date firstDay(YearMonth month) {
+        return Date.valueOf(month.atDay(1));
+    }
+}
@@ -1,11 +1,12 @@
 package com.interview.repository;
 
+import com.interview.dto.projection.PackageRecurringRevenue;
 import com.interview.entity.ServicePackage;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -17,34 +18,68 @@ import org.springframework.stereotype.Repository;
  *
  * <p>Provides standard CRUD operations plus custom queries for finding
  * service packages with their customer relationships properly loaded.
- * Uses JOIN FETCH and EntityGraph to prevent N+1 queries and empty collections.
+ * Uses JOIN FETCH to prevent N+1 queries and empty collections.
+ *
+ * <p>List, page and keyset page queries never fetch-join subscribers; callers read the materialized
+ * {@code subscriber_count} of the packages returned instead. Keyset page queries seek on
+ * {@code (sort key, id)}. Subscriptions are written row by row through {@link SubscriptionRepository}.
+ *
+ * <p>{@code subscriber_count} is only changed by the bulk updates here: a single-statement increment or
+ * decrement per subscription change, which is atomic under concurrent subscriptions, and a recount of a
+ * chunk of packages from customer_service_packages that corrects any drift.
+ *
+ * <p>Monthly recurring revenue is maintained alongside it by {@link RecurringRevenueRepository}; per package it is
+ * the price times the materialized subscriber count, so it is read without touching subscriptions.
+ *
+ * <p>Subscription changes are also appended to the history kept by {@link SubscriptionEventRepository}, which
+ * answers who was subscribed at a given moment and how many subscriptions ended in a month.
  */
 @Repository
-public interface ServicePackageRepository extends JpaRepository<ServicePackage, Long> {
+public interface ServicePackageRepository extends JpaRepository<ServicePackage, Long>, SubscriptionRepository, RecurringRevenueRepository,
+    SubscriptionEventRepository {
 
     boolean existsByName(String name);
 
-    @Query("SELECT DISTINCT sp FROM ServicePackage sp "
-        + "LEFT JOIN FETCH sp.subscribers s "
-        + "LEFT JOIN FETCH s.customerProfile "
-        + "WHERE sp.id = :id")
-    Optional<ServicePackage> findByIdWithSubscribers(@Param("id") Long id);
+    @Query("SELECT sp FROM ServicePackage sp WHERE (:active IS NULL OR sp.active = :active) ORDER BY sp.id")
+    List<ServicePackage> findAllByActive(@Param("active") Boolean active);
+
+    @Query("SELECT sp FROM ServicePackage sp WHERE (:active IS NULL OR sp.active = :active)")
+    Page<ServicePackage> findAllByActive(@Param("active") Boolean active, Pageable pageable);
+
+    @Query("SELECT sp FROM ServicePackage sp "
+        + "WHERE (:active IS NULL OR sp.active = :active) AND sp.id > :afterId "
+        + "ORDER BY sp.id")
+    List<ServicePackage> findAfterId(@Param("active") Boolean active, @Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT sp FROM ServicePackage sp "
+        + "WHERE (:active IS NULL OR sp.active = :active) "
+        + "AND sp.name >= :afterName AND (sp.name > :afterName OR sp.id > :afterId) "
+        + "ORDER BY sp.name, sp.id")
+    List<ServicePackage> findAfterName(@Param("active") Boolean active, @Param("afterName") String afterName,
+        @Param("afterId") Long afterId, Limit limit);
+
+    @Modifying
+    @Query("UPDATE ServicePackage sp SET sp.subscriberCount = sp.subscriberCount + :delta WHERE sp.id = :id")
+    int adjustSubscriberCount(@Param("id") Long id, @Param("delta") int delta);
 
-    @Query("SELECT DISTINCT sp FROM ServicePackage sp LEFT JOIN FETCH sp.subscribers s LEFT JOIN FETCH s.customerProfile WHERE sp.active = true")
-    List<ServicePackage> findAllActiveWithSubscribers();
+    @Modifying
+    @Query("UPDATE ServicePackage sp SET sp.subscriberCount = sp.subscriberCount - 1 "
+        + "WHERE sp.id IN (SELECT p.id FROM Customer c JOIN c.subscribedPackages p WHERE c.id = :customerId)")
+    int decrementSubscriberCountsOfCustomer(@Param("customerId") Long customerId);
 
-    @EntityGraph(attributePaths = {"subscribers", "subscribers.customerProfile"})
-    @Query("SELECT sp FROM ServicePackage sp WHERE sp.active = true")
-    Page<ServicePackage> findAllActiveWithSubscribers(Pageable pageable);
+    @Query("SELECT new com.interview.dto.projection.PackageRecurringRevenue("
+        + "sp.id, sp.name, sp.monthlyPrice, sp.subscriberCount, sp.monthlyPrice * sp.subscriberCount) "
+        + "FROM ServicePackage sp WHERE sp.active = true ORDER BY sp.monthlyPrice * sp.subscriberCount DESC, sp.id")
+    List<PackageRecurringRevenue> findPackageRecurringRevenue();
 
-    @EntityGraph(attributePaths = {"subscribers", "subscribers.customerProfile"})
-    @Query("SELECT sp FROM ServicePackage sp WHERE sp.active = false")
-    Page<ServicePackage> findAllInactiveWithSubscribers(Pageable pageable);
+    @Query("SELECT sp.id FROM ServicePackage sp WHERE sp.id > :afterId ORDER BY sp.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
 
-    @Query("SELECT DISTINCT sp FROM ServicePackage sp LEFT JOIN FETCH sp.subscribers s LEFT JOIN FETCH s.customerProfile")
-    List<ServicePackage> findAllWithSubscribers();
+    @Query("SELECT sp.id FROM ServicePackage sp WHERE sp.id IN :ids AND sp.subscriberCount <> SIZE(sp.subscribers)")
+    List<Long> findIdsWithStaleSubscriberCount(@Param("ids") Collection<Long> ids);
 
-    @EntityGraph(attributePaths = {"subscribers", "subscribers.customerProfile"})
-    @Query("SELECT sp FROM ServicePackage sp")
-    Page<ServicePackage> findAllWithSubscribers(Pageable pageable);
-}
\ No newline at end of file
+    @Modifying
+    @Query("UPDATE ServicePackage sp SET sp.subscriberCount = SIZE(sp.subscribers) "
+        + "WHERE sp.id IN :ids AND sp.subscriberCount <> SIZE(sp.subscribers)")
+    int reconcileSubscriberCounts(@Param("ids") Collection<Long> ids);
+}
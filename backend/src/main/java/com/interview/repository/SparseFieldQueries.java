@@ -0,0 +1,105 @@
+package com.interview.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import lombok.experimental.UtilityClass;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+/**
+ * Criteria tuple queries that select only the requested response fields.
+ *
+ * <p>Rows come back as scalar tuples, so no entity is instantiated, attached to the persistence
+ * context or dirty checked, and a join is only added when one of its columns is selected.
+ */
+@UtilityClass
+class SparseFieldQueries {
+
+    /**
+     * Builds the aliased expressions for the requested fields, adding joins only where needed.
+     */
+    @FunctionalInterface
+    interface Selector<E> {
+
+        Map<String, Expression<?>> select(Root<E> root, CriteriaBuilder cb);
+    }
+
+    /**
+     * Run the projection over all rows matching {@code spec}, ordered by {@code sort} (by id when unsorted).
+     */
+    static <E, R> List<R> list(EntityManager entityManager, Class<E> entityType, Selector<E> selector,
+                               Specification<E> spec, Sort sort, Function<Tuple, R> mapper) {
+        return createQuery(entityManager, entityType, selector, spec, sort).getResultStream().map(mapper).toList();
+    }
+
+    /**
+     * Run the projection for one page of rows matching {@code spec}; the count query is skipped when the page size makes it unnecessary.
+     */
+    static <E, R> Page<R> page(EntityManager entityManager, Class<E> entityType, Selector<E> selector,
+                               Specification<E> spec, Pageable pageable, Function<Tuple, R> mapper) {
+        TypedQuery<Tuple> query = createQuery(entityManager, entityType, selector, spec, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult(Math.toIntExact(pageable.getOffset()));
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<R> content = query.getResultStream().map(mapper).toList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(entityManager, entityType, spec));
+    }
+
+    /**
+     * Read a selected field from the tuple, or null when it was not requested.
+     */
+    static <T> T value(Tuple tuple, Set<String> fields, String field, Class<T> type) {
+        return fields.contains(field) ? tuple.get(field, type) : null;
+    }
+
+    private static <E> TypedQuery<Tuple> createQuery(EntityManager entityManager, Class<E> entityType, Selector<E> selector,
+                                                     Specification<E> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(entityType);
+
+        List<Selection<?>> selections = selector.select(root, cb).entrySet().stream()
+            .<Selection<?>>map(entry -> entry.getValue().alias(entry.getKey()))
+            .toList();
+        query.multiselect(selections);
+        applySpecification(query, root, cb, spec);
+        query.orderBy(QueryUtils.toOrders(sort.isSorted() ? sort : Sort.by("id"), root, cb));
+
+        return entityManager.createQuery(query);
+    }
+
+    private static <E> long count(EntityManager entityManager, Class<E> entityType, Specification<E> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<E> root = query.from(entityType);
+        query.select(cb.count(root));
+        applySpecification(query, root, cb, spec);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static <E> void applySpecification(CriteriaQuery<?> query, Root<E> root, CriteriaBuilder cb, Specification<E> spec) {
+        if (spec == null) {
+            return;
+        }
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
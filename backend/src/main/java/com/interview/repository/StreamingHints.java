@@ -0,0 +1,17 @@
+package com.interview.repository;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Shared settings for repository queries that stream results through a forward-only JDBC cursor.
+ *
+ * <p>The fetch size bounds how many rows the driver buffers per round trip. On MySQL this only
+ * takes effect with {@code useCursorFetch=true} on the connection URL; otherwise Connector/J
+ * reads the full result set into memory before the first row is returned.
+ */
+@UtilityClass
+public class StreamingHints {
+
+    public static final int FETCH_SIZE = 500;
+    public static final String FETCH_SIZE_VALUE = "" + FETCH_SIZE;
+}
@@ -0,0 +1,59 @@
+package com.interview.repository;
+
+import com.interview.dto.projection.MonthlySubscriptionEvents;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Append-only subscription history, mixed into {@link ServicePackageRepository}.
+ *
+ * <p>Every subscription change is recorded in the caller's transaction next to the change to the join table: a
+ * SUBSCRIBED event when a subscription starts, and an UNSUBSCRIBED event carrying the start time when it ends.
+ * Each subscription is therefore the interval between the two, and questions about the past are answered with
+ * index range scans over event times instead of replaying the history. Times are UTC.
+ */
+public interface SubscriptionEventRepository {
+
+    /**
+     * Record that the customers' subscriptions to the package started.
+     */
+    void recordSubscribed(Long servicePackageId, List<Long> customerIds, LocalDateTime occurredAt);
+
+    /**
+     * Record that the customers' subscriptions to the package ended.
+     */
+    void recordUnsubscribed(Long servicePackageId, List<Long> customerIds, LocalDateTime occurredAt);
+
+    /**
+     * Record that every subscription of the customer ended; call before the subscription rows are deleted.
+     */
+    void recordCustomerUnsubscribed(Long customerId, LocalDateTime occurredAt);
+
+    /**
+     * Record that the package was activated or deactivated.
+     */
+    void recordPackageStatus(Long servicePackageId, boolean active, LocalDateTime occurredAt);
+
+    /**
+     * Up to {@code limit} ids of the customers subscribed to the package at {@code at} with an id above
+     * {@code afterCustomerId}, by customer id.
+     */
+    List<Long> findSubscriberIdsAt(Long servicePackageId, LocalDateTime at, long afterCustomerId, int limit);
+
+    /**
+     * Whether the package was active at {@code at}, judged by the last status change before it; packages start active.
+     */
+    boolean wasPackageActiveAt(Long servicePackageId, LocalDateTime at);
+
+    /**
+     * Number of subscriptions, over all packages, running just before {@code at}.
+     */
+    long countSubscriptionsBefore(LocalDateTime at);
+
+    /**
+     * Subscriptions started and ended in each month from {@code from} to {@code to} inclusive, in month order.
+     * Months without any are absent.
+     */
+    List<MonthlySubscriptionEvents> countSubscriptionEventsByMonth(YearMonth from, YearMonth to);
+}
@@ -0,0 +1,142 @@
+package com.interview.repository;
+
+import com.interview.dto.projection.MonthlySubscriptionEvents;
+import com.interview.enums.SubscriptionEventType;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Native SQL implementation of {@link SubscriptionEventRepository}.
+ *
+ * <p>Events are written through {@link JdbcTemplate}, which joins the surrounding JPA transaction; nothing in the
+ * second-level cache is built from the history, so Hibernate has nothing to invalidate. An end event looks up its
+ * start as the latest SUBSCRIBED event of the customer and package, which is the running subscription since a
+ * customer holds at most one subscription per package at a time.
+ */
+@RequiredArgsConstructor
+class SubscriptionEventRepositoryImpl implements SubscriptionEventRepository {
+
+    static final String TABLE = "subscription_events";
+
+    private static final String INSERT_SUBSCRIBED = "INSERT INTO " + TABLE
+        + " (service_package_id, customer_id, event_type, occurred_at) VALUES (?, ?, 'SUBSCRIBED', ?)";
+
+    private static final String INSERT_UNSUBSCRIBED = "INSERT INTO " + TABLE
+        + " (service_package_id, customer_id, event_type, occurred_at, subscribed_at) "
+        + "SELECT ?, ?, 'UNSUBSCRIBED', ?, MAX(s.occurred_at) FROM " + TABLE + " s "
+        + "WHERE s.customer_id = ? AND s.service_package_id = ? AND s.event_type = 'SUBSCRIBED'";
+
+    private static final String INSERT_CUSTOMER_UNSUBSCRIBED = "INSERT INTO " + TABLE
+        + " (service_package_id, customer_id, event_type, occurred_at, subscribed_at) "
+        + "SELECT csp.service_package_id, csp.customer_id, 'UNSUBSCRIBED', ?, (SELECT MAX(s.occurred_at) FROM " + TABLE + " s "
+        + "WHERE s.customer_id = csp.customer_id AND s.service_package_id = csp.service_package_id AND s.event_type = 'SUBSCRIBED') "
+        + "FROM customer_service_packages csp WHERE csp.customer_id = ?";
+
+    private static final String INSERT_PACKAGE_STATUS = "INSERT INTO " + TABLE
+        + " (service_package_id, event_type, occurred_at) VALUES (?, ?, ?)";
+
+    /**
+     * Subscriptions started by {@code at} whose end, if any, lies after it. The constant equality columns are repeated
+     * in the ORDER BY so the order matches the (service_package_id, event_type, customer_id) index and a page stops
+     * after {@code limit} index entries instead of sorting everything past the cursor.
+     */
+    private static final String SUBSCRIBERS_AT = "SELECT s.customer_id FROM " + TABLE + " s "
+        + "WHERE s.service_package_id = :servicePackageId AND s.event_type = 'SUBSCRIBED' AND s.occurred_at <= :at "
+        + "AND s.customer_id > :afterCustomerId AND NOT EXISTS (SELECT 1 FROM " + TABLE + " e "
+        + "WHERE e.customer_id = s.customer_id AND e.service_package_id = s.service_package_id AND e.event_type = 'UNSUBSCRIBED' "
+        + "AND e.subscribed_at = s.occurred_at AND e.occurred_at <= :at) "
+        + "ORDER BY s.service_package_id, s.event_type, s.customer_id";
+
+    private static final String PACKAGE_STATUS_AT = "SELECT event_type FROM " + TABLE
+        + " WHERE service_package_id = :servicePackageId AND event_type IN ('PACKAGE_ACTIVATED', 'PACKAGE_DEACTIVATED') "
+        + "AND occurred_at <= :at ORDER BY occurred_at DESC, id DESC";
+
+    private static final String SUBSCRIPTIONS_BEFORE = "SELECT "
+        + "(SELECT COUNT(*) FROM " + TABLE + " WHERE event_type = 'SUBSCRIBED' AND occurred_at < :at) - "
+        + "(SELECT COUNT(*) FROM " + TABLE + " WHERE event_type = 'UNSUBSCRIBED' AND occurred_at < :at)";
+
+    /** An end without a recorded start belongs to a subscription from before the history began. */
+    private static final String EVENTS_BY_MONTH = "SELECT YEAR(occurred_at), MONTH(occurred_at), "
+        + "SUM(CASE WHEN event_type = 'SUBSCRIBED' THEN 1 ELSE 0 END), "
+        + "SUM(CASE WHEN event_type = 'UNSUBSCRIBED' THEN 1 ELSE 0 END), "
+        + "SUM(CASE WHEN event_type = 'UNSUBSCRIBED' AND (subscribed_at IS NULL "
+        + "OR YEAR(subscribed_at) * 12 + MONTH(subscribed_at) < YEAR(occurred_at) * 12 + MONTH(occurred_at)) THEN 1 ELSE 0 END) "
+        + "FROM " + TABLE + " WHERE event_type IN ('SUBSCRIBED', 'UNSUBSCRIBED') AND occurred_at >= :from AND occurred_at < :to "
+        + "GROUP BY YEAR(occurred_at), MONTH(occurred_at) ORDER BY YEAR(occurred_at), MONTH(occurred_at)";
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void recordSubscribed(Long servicePackageId, List<Long> customerIds, LocalDateTime occurredAt) {
+        jdbcTemplate.batchUpdate(INSERT_SUBSCRIBED, customerIds.stream()
+            .map(customerId -> new Object[] {servicePackageId, customerId, occurredAt})
+            .toList());
+    }
+
+    @Override
+    public void recordUnsubscribed(Long servicePackageId, List<Long> customerIds, LocalDateTime occurredAt) {
+        jdbcTemplate.batchUpdate(INSERT_UNSUBSCRIBED, customerIds.stream()
+            .map(customerId -> new Object[] {servicePackageId, customerId, occurredAt, customerId, servicePackageId})
+            .toList());
+    }
+
+    @Override
+    public void recordCustomerUnsubscribed(Long customerId, LocalDateTime occurredAt) {
+        jdbcTemplate.update(INSERT_CUSTOMER_UNSUBSCRIBED, occurredAt, customerId);
+    }
+
+    @Override
+    public void recordPackageStatus(Long servicePackageId, boolean active, LocalDateTime occurredAt) {
+        SubscriptionEventType type = active ? SubscriptionEventType.PACKAGE_ACTIVATED : SubscriptionEventType.PACKAGE_DEACTIVATED;
+        jdbcTemplate.update(INSERT_PACKAGE_STATUS, servicePackageId, type.name(), occurredAt);
+    }
+
+    @Override
+    public List<Long> findSubscriberIdsAt(Long servicePackageId, LocalDateTime at, long afterCustomerId, int limit) {
+        List<?> rows = entityManager.createNativeQuery(SUBSCRIBERS_AT)
+            .setParameter("servicePackageId", servicePackageId)
+            .setParameter("at", at)
+            .setParameter("afterCustomerId", afterCustomerId)
+            .setMaxResults(limit)
+            .getResultList();
+        return rows.stream()
+            .map(id -> ((Number) id).longValue())
+            .toList();
+    }
+
+    @Override
+    public boolean wasPackageActiveAt(Long servicePackageId, LocalDateTime at) {
+        List<?> rows = entityManager.createNativeQuery(PACKAGE_STATUS_AT)
+            .setParameter("servicePackageId", servicePackageId)
+            .setParameter("at", at)
+            .setMaxResults(1)
+            .getResultList();
+        return rows.isEmpty() || !SubscriptionEventType.PACKAGE_DEACTIVATED.name().equals(rows.getFirst());
+    }
+
+    @Override
+    public long countSubscriptionsBefore(LocalDateTime at) {
+        Object count = entityManager.createNativeQuery(SUBSCRIPTIONS_BEFORE)
+            .setParameter("at", at)
+            .getSingleResult();
+        return ((Number) count).longValue();
+    }
+
+    @Override
+    public List<MonthlySubscriptionEvents> countSubscriptionEventsByMonth(YearMonth from, YearMonth to) {
+        List<?> rows = entityManager.createNativeQuery(EVENTS_BY_MONTH)
+            .setParameter("from", from.atDay(1).atStartOfDay())
+            .setParameter("to", to.plusMonths(1).atDay(1).atStartOfDay())
+            .getResultList();
+        return rows.stream()
+            .map(row -> (Object[]) row)
+            .map(columns -> new MonthlySubscriptionEvents(YearMonth.of(((Number) columns[0]).intValue(), ((Number) columns[1]).intValue()),
+                ((Number) columns[2]).longValue(), ((Number) columns[3]).longValue(), ((Number) columns[4]).longValue()))
+            .toList();
+    }
+}
@@ -0,0 +1,57 @@
+package com.interview.repository;
+
+import com.interview.dto.SubscriberDto;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Single-row writes to the customer_service_packages join table, mixed into {@link ServicePackageRepository}.
+ *
+ * <p>Subscribing or unsubscribing touches exactly one row by its composite primary key, so neither the
+ * customer's packages nor the package's subscribers are loaded and the cost does not grow with either.
+ * Batches of customers are checked with one set-based query and written with one JDBC batch per chunk.
+ *
+ * <p>Subscribers are read as narrow rows from the join table and customers only, ordered by the join table's
+ * customer id, so the {@code (service_package_id)} index (which carries the primary key) serves both the filter
+ * and the order and no entity or profile is loaded.
+ */
+public interface SubscriptionRepository {
+
+    /**
+     * Insert the subscription row, returning 0 instead when it already exists or the customer or package does not.
+     */
+    int insertSubscription(Long customerId, Long servicePackageId);
+
+    /**
+     * Delete the subscription row, returning 0 when there was none.
+     */
+    int deleteSubscription(Long customerId, Long servicePackageId);
+
+    /**
+     * Whether each customer among the ids is subscribed to the package; customers that do not exist are absent.
+     */
+    Map<Long, Boolean> findSubscriptionStates(Long servicePackageId, Collection<Long> customerIds);
+
+    /**
+     * Insert the subscription rows as one JDBC batch, returning the row count of each insert in order.
+     * As with {@link #insertSubscription}, a row that already exists yields 0, including one a concurrent request inserts mid-batch.
+     */
+    int[] insertSubscriptions(Long servicePackageId, List<Long> customerIds);
+
+    /**
+     * Delete the subscription rows as one JDBC batch, returning the row count of each delete in order.
+     */
+    int[] deleteSubscriptions(Long servicePackageId, List<Long> customerIds);
+
+    /**
+     * Up to {@code limit} subscribers of the package with a customer id above {@code afterCustomerId}, by customer id.
+     */
+    List<SubscriberDto> findSubscribersAfter(Long servicePackageId, long afterCustomerId, int limit);
+
+    /**
+     * Every subscriber of the package by customer id, read through a forward-only cursor; close the stream when done.
+     */
+    Stream<SubscriberDto> streamSubscribers(Long servicePackageId);
+}
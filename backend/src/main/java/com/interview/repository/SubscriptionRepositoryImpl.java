@@ -0,0 +1,209 @@
+package com.interview.repository;
+
+import com.interview.dto.SubscriberDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import java.sql.BatchUpdateException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Native SQL implementation of {@link SubscriptionRepository}.
+ *
+ * <p>Each statement declares customer_service_packages as its only query space, so Hibernate invalidates
+ * just the cached queries over that table rather than the whole second-level cache. Batch writes go through
+ * {@link JdbcTemplate}, which joins the surrounding JPA transaction; nothing in the second-level cache is built
+ * from this table, so Hibernate has nothing to invalidate for them.
+ */
+@RequiredArgsConstructor
+class SubscriptionRepositoryImpl implements SubscriptionRepository {
+
+    static final String TABLE = "customer_service_packages";
+
+    /** Inserts nothing unless both rows exist and the pair is new; the primary key still rejects a concurrent twin. */
+    private static final String INSERT = "INSERT INTO " + TABLE + " (customer_id, service_package_id) "
+        + "SELECT c.id, sp.id FROM customers c JOIN service_packages sp ON sp.id = :servicePackageId "
+        + "WHERE c.id = :customerId AND NOT EXISTS ("
+        + "SELECT 1 FROM " + TABLE + " csp WHERE csp.customer_id = c.id AND csp.service_package_id = sp.id)";
+
+    private static final String DELETE = "DELETE FROM " + TABLE
+        + " WHERE customer_id = :customerId AND service_package_id = :servicePackageId";
+
+    private static final String BATCH_INSERT = "INSERT INTO " + TABLE + " (customer_id, service_package_id) "
+        + "SELECT c.id, sp.id FROM customers c JOIN service_packages sp ON sp.id = ? "
+        + "WHERE c.id = ? AND NOT EXISTS ("
+        + "SELECT 1 FROM " + TABLE + " csp WHERE csp.customer_id = c.id AND csp.service_package_id = sp.id)";
+
+    private static final String BATCH_DELETE = "DELETE FROM " + TABLE + " WHERE service_package_id = ? AND customer_id = ?";
+
+    private static final String SUBSCRIPTION_STATES = "SELECT c.id, CASE WHEN csp.customer_id IS NULL THEN 0 ELSE 1 END "
+        + "FROM customers c LEFT JOIN " + TABLE + " csp ON csp.customer_id = c.id AND csp.service_package_id = :servicePackageId "
+        + "WHERE c.id IN (:customerIds)";
+
+    private static final String SUBSCRIBERS = "SELECT c.id, c.first_name, c.last_name, c.email FROM " + TABLE + " csp "
+        + "JOIN customers c ON c.id = csp.customer_id "
+        + "WHERE csp.service_package_id = :servicePackageId AND csp.customer_id > :afterCustomerId "
+        + "ORDER BY csp.customer_id";
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int insertSubscription(Long customerId, Long servicePackageId) {
+        try {
+            return execute(INSERT, customerId, servicePackageId);
+        } catch (PersistenceException e) {
+            if (isDuplicateKey(e)) {
+                return 0;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public int deleteSubscription(Long customerId, Long servicePackageId) {
+        return execute(DELETE, customerId, servicePackageId);
+    }
+
+    @Override
+    public Map<Long, Boolean> findSubscriptionStates(Long servicePackageId, Collection<Long> customerIds) {
+        List<?> rows = entityManager.createNativeQuery(SUBSCRIPTION_STATES)
+            .setParameter("servicePackageId", servicePackageId)
+            .setParameter("customerIds", customerIds)
+            .getResultList();
+
+        Map<Long, Boolean> states = new HashMap<>(rows.size());
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            states.put(((Number) columns[0]).longValue(), ((Number) columns[1]).intValue() == 1);
+        }
+        return states;
+    }
+
+    /**
+     * A concurrent single subscribe can insert one of the pairs after the batch's NOT EXISTS check; the primary key then
+     * fails just that statement and the chunk carries on. Statements the driver ran keep their counts, the failed ones
+     * count as already subscribed, and any the driver skipped after the failure are inserted one at a time.
+     */
+    @Override
+    public int[] insertSubscriptions(Long servicePackageId, List<Long> customerIds) {
+        if (customerIds.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.execute(BATCH_INSERT, (PreparedStatement statement) -> {
+            for (Long customerId : customerIds) {
+                bind(statement, servicePackageId, customerId);
+                statement.addBatch();
+            }
+            try {
+                return statement.executeBatch();
+            } catch (BatchUpdateException e) {
+                if (!isKeyViolation(e)) {
+                    throw e;
+                }
+                return insertRemaining(statement, e.getUpdateCounts(), servicePackageId, customerIds);
+            }
+        });
+    }
+
+    @Override
+    public int[] deleteSubscriptions(Long servicePackageId, List<Long> customerIds) {
+        return batch(BATCH_DELETE, servicePackageId, customerIds);
+    }
+
+    @Override
+    public List<SubscriberDto> findSubscribersAfter(Long servicePackageId, long afterCustomerId, int limit) {
+        return entityManager.createNativeQuery(SUBSCRIBERS)
+            .setParameter("servicePackageId", servicePackageId)
+            .setParameter("afterCustomerId", afterCustomerId)
+            .setMaxResults(limit)
+            .getResultList()
+            .stream()
+            .map(SubscriptionRepositoryImpl::toSubscriber)
+            .toList();
+    }
+
+    @Override
+    public Stream<SubscriberDto> streamSubscribers(Long servicePackageId) {
+        Stream<?> rows = entityManager.createNativeQuery(SUBSCRIBERS)
+            .setParameter("servicePackageId", servicePackageId)
+            .setParameter("afterCustomerId", 0L)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, StreamingHints.FETCH_SIZE)
+            .getResultStream();
+        return rows.map(SubscriptionRepositoryImpl::toSubscriber);
+    }
+
+    private static SubscriberDto toSubscriber(Object row) {
+        Object[] columns = (Object[]) row;
+        return SubscriberDto.of(((Number) columns[0]).longValue(), (String) columns[1], (String) columns[2], (String) columns[3]);
+    }
+
+    private int[] batch(String sql, Long servicePackageId, List<Long> customerIds) {
+        if (customerIds.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(sql, customerIds.stream()
+            .map(customerId -> new Object[] {servicePackageId, customerId})
+            .toList());
+    }
+
+    private int[] insertRemaining(PreparedStatement statement, int[] executed, Long servicePackageId, List<Long> customerIds)
+        throws SQLException {
+        statement.clearBatch();
+        int[] rowCounts = new int[customerIds.size()];
+        for (int i = 0; i < rowCounts.length; i++) {
+            if (i < executed.length) {
+                rowCounts[i] = executed[i] == Statement.EXECUTE_FAILED ? 0 : executed[i];
+                continue;
+            }
+            bind(statement, servicePackageId, customerIds.get(i));
+            try {
+                rowCounts[i] = statement.executeUpdate();
+            } catch (SQLException e) {
+                if (!isKeyViolation(e)) {
+                    throw e;
+                }
+            }
+        }
+        return rowCounts;
+    }
+
+    private static void bind(PreparedStatement statement, Long servicePackageId, Long customerId) throws SQLException {
+        statement.setLong(1, servicePackageId);
+        statement.setLong(2, customerId);
+    }
+
+    private boolean isKeyViolation(SQLException e) {
+        return jdbcTemplate.getExceptionTranslator().translate("insertSubscriptions", BATCH_INSERT, e) instanceof DuplicateKeyException;
+    }
+
+    private int execute(String sql, Long customerId, Long servicePackageId) {
+        return entityManager.createNativeQuery(sql)
+            .unwrap(NativeQuery.class)
+            .addSynchronizedQuerySpace(TABLE)
+            .setParameter("customerId", customerId)
+            .setParameter("servicePackageId", servicePackageId)
+            .executeUpdate();
+    }
+
+    private static boolean isDuplicateKey(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE;
+            }
+        }
+        return false;
+    }
+}
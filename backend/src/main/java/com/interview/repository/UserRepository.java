@@ -0,0 +1,25 @@
+package com.interview.repository;
+
+import com.interview.entity.CacheRegions;
+import com.interview.entity.User;
+import jakarta.persistence.QueryHint;
+import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for User entity operations.
+ *
+ * <p>{@link #findByUsername} runs for every authenticated request, so it is served from the second-level
+ * query cache; Hibernate drops its cached results whenever the users table changes.
+ */
+@Repository
+public interface UserRepository extends JpaRepository<User, Long> {
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.USER_BY_USERNAME)})
+    Optional<User> findByUsername(String username);
+}
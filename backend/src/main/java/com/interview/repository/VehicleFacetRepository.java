@@ -0,0 +1,18 @@
+package com.interview.repository;
+
+import com.interview.dto.projection.VehicleFacetCount;
+import com.interview.entity.Vehicle;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Facet count queries for vehicle search, mixed into {@link VehicleRepository}.
+ *
+ * <p>Counts are grouped by make, model and year in one query, so every facet comes from a single round trip.
+ * Results go to the {@code vehicle-facets} query cache region, keyed by the generated SQL and its bound
+ * filter values, and are invalidated whenever the vehicles or customers tables change.
+ */
+public interface VehicleFacetRepository {
+
+    List<VehicleFacetCount> countFacets(Specification<Vehicle> spec);
+}
@@ -0,0 +1,42 @@
+package com.interview.repository;
+
+import com.interview.dto.projection.VehicleFacetCount;
+import com.interview.entity.CacheRegions;
+import com.interview.entity.Vehicle;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Criteria implementation of {@link VehicleFacetRepository}.
+ */
+@RequiredArgsConstructor
+class VehicleFacetRepositoryImpl implements VehicleFacetRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<VehicleFacetCount> countFacets(Specification<Vehicle> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<VehicleFacetCount> query = cb.createQuery(VehicleFacetCount.class);
+        Root<Vehicle> root = query.from(Vehicle.class);
+
+        query.select(cb.construct(VehicleFacetCount.class, root.get("make"), root.get("model"), root.get("year"), cb.count(root)));
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.groupBy(root.get("make"), root.get("model"), root.get("year"));
+
+        return entityManager.createQuery(query)
+            .setHint(HibernateHints.HINT_CACHEABLE, true)
+            .setHint(HibernateHints.HINT_CACHE_REGION, CacheRegions.VEHICLE_FACETS)
+            .getResultList();
+    }
+}
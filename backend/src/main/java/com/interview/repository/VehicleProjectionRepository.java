@@ -0,0 +1,23 @@
+package com.interview.repository;
+
+import com.interview.dto.VehicleResponse;
+import com.interview.entity.Vehicle;
+import java.util.List;
+import java.util.Set;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Sparse fieldset queries for vehicles, mixed into {@link VehicleRepository}.
+ *
+ * <p>Only the requested columns are selected. {@code customerId} is read from the vehicle's foreign key,
+ * so the customers join is added only when {@code customerName} or {@code customerEmail} is requested.
+ * Fields that were not requested are null in the returned responses.
+ */
+public interface VehicleProjectionRepository {
+
+    List<VehicleResponse> findAllProjected(Set<String> fields);
+
+    Page<VehicleResponse> findAllProjected(Specification<Vehicle> spec, Set<String> fields, Pageable pageable);
+}
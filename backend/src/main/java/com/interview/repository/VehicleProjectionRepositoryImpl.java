@@ -0,0 +1,80 @@
+package com.interview.repository;
+
+import com.interview.dto.VehicleResponse;
+import com.interview.entity.Customer;
+import com.interview.entity.Vehicle;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import static com.interview.repository.SparseFieldQueries.value;
+
+/**
+ * Criteria implementation of {@link VehicleProjectionRepository}.
+ */
+@RequiredArgsConstructor
+class VehicleProjectionRepositoryImpl implements VehicleProjectionRepository {
+
+    private static final Set<String> CUSTOMER_JOIN_FIELDS = Set.of("customerName", "customerEmail");
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<VehicleResponse> findAllProjected(Set<String> fields) {
+        return SparseFieldQueries.list(entityManager, Vehicle.class, (root, cb) -> select(root, cb, fields), null, Sort.unsorted(),
+            tuple -> toResponse(tuple, fields));
+    }
+
+    @Override
+    public Page<VehicleResponse> findAllProjected(Specification<Vehicle> spec, Set<String> fields, Pageable pageable) {
+        return SparseFieldQueries.page(entityManager, Vehicle.class, (root, cb) -> select(root, cb, fields), spec, pageable,
+            tuple -> toResponse(tuple, fields));
+    }
+
+    private static Map<String, Expression<?>> select(Root<Vehicle> root, CriteriaBuilder cb, Set<String> fields) {
+        Join<Vehicle, Customer> customer = fields.stream().anyMatch(CUSTOMER_JOIN_FIELDS::contains)
+            ? root.join("customer", JoinType.LEFT)
+            : null;
+
+        Map<String, Expression<?>> selections = new LinkedHashMap<>();
+        for (String field : fields) {
+            selections.put(field, switch (field) {
+                case "customerId" -> root.get("customer").get("id");
+                case "customerName" -> cb.concat(cb.concat(customer.get("firstName"), " "), customer.get("lastName"));
+                case "customerEmail" -> customer.get("email");
+                default -> root.get(field);
+            });
+        }
+        return selections;
+    }
+
+    private static VehicleResponse toResponse(Tuple tuple, Set<String> fields) {
+        return new VehicleResponse(
+            value(tuple, fields, "id", Long.class),
+            value(tuple, fields, "customerId", Long.class),
+            value(tuple, fields, "customerName", String.class),
+            value(tuple, fields, "customerEmail", String.class),
+            value(tuple, fields, "vin", String.class),
+            value(tuple, fields, "make", String.class),
+            value(tuple, fields, "model", String.class),
+            value(tuple, fields, "year", Integer.class),
+            value(tuple, fields, "createdDate", LocalDateTime.class),
+            value(tuple, fields, "updatedDate", LocalDateTime.class),
+            value(tuple, fields, "createdBy", String.class),
+            value(tuple, fields, "updatedBy", String.class));
+    }
+}
@@ -1,8 +1,13 @@
 package com.interview.repository;
 
 import com.interview.entity.Vehicle;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -11,6 +16,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -20,14 +26,25 @@ import org.springframework.stereotype.Repository;
  * <p>Provides standard CRUD operations plus custom queries for finding
  * vehicles by customer, VIN, and fetching vehicles with their customer data.
  * Supports JPA Specifications for complex filtering with @EntityGraph for performance.
+ *
+ * <p>Lookups by id go through {@link #findById}, which is served from the vehicles entity cache; the
+ * customer and its profile are resolved from their own entity caches, so a write to another vehicle or
+ * customer never invalidates them.
+ *
+ * <p>Entity searches come from {@link VehicleSearchRepository}, sparse fieldset ({@code ?fields=}) queries
+ * from {@link VehicleProjectionRepository}, and search facet counts from {@link VehicleFacetRepository}.
+ *
+ * <p>Keyset page queries seek on {@code (sort key, id)} so they are served by an index range scan
+ * ({@code PRIMARY} or the unique VIN index, which carries the primary key) at any depth.
  */
 @Repository
-public interface VehicleRepository extends JpaRepository<Vehicle, Long>, JpaSpecificationExecutor<Vehicle> {
+public interface VehicleRepository extends JpaRepository<Vehicle, Long>, JpaSpecificationExecutor<Vehicle>, VehicleProjectionRepository,
+    VehicleFacetRepository, VehicleSearchRepository {
 
     boolean existsByVin(String vin);
 
-    @Query("SELECT v FROM Vehicle v LEFT JOIN FETCH v.customer c LEFT JOIN FETCH c.customerProfile WHERE v.id = :id")
-    Optional<Vehicle> findByIdWithCustomer(@Param("id") Long id);
+    @Query("SELECT v FROM Vehicle v LEFT JOIN FETCH v.customer c LEFT JOIN FETCH c.customerProfile WHERE v.id IN :ids")
+    List<Vehicle> findAllByIdWithCustomers(@Param("ids") Collection<Long> ids);
 
     @Query("SELECT v FROM Vehicle v LEFT JOIN FETCH v.customer c LEFT JOIN FETCH c.customerProfile")
     List<Vehicle> findAllWithCustomers();
@@ -36,6 +53,20 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long>, JpaSpec
            countQuery = "SELECT count(v) FROM Vehicle v")
     Page<Vehicle> findAllWithCustomers(Pageable pageable);
 
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingHints.FETCH_SIZE_VALUE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT v FROM Vehicle v LEFT JOIN FETCH v.customer c LEFT JOIN FETCH c.customerProfile ORDER BY v.id")
+    Stream<Vehicle> streamAllWithCustomers();
+
+    @Query("SELECT v FROM Vehicle v LEFT JOIN FETCH v.customer c LEFT JOIN FETCH c.customerProfile WHERE v.id > :afterId ORDER BY v.id")
+    List<Vehicle> findWithCustomersAfterId(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT v FROM Vehicle v LEFT JOIN FETCH v.customer c LEFT JOIN FETCH c.customerProfile "
+        + "WHERE v.vin >= :afterVin AND (v.vin > :afterVin OR v.id > :afterId) "
+        + "ORDER BY v.vin, v.id")
+    List<Vehicle> findWithCustomersAfterVin(@Param("afterVin") String afterVin, @Param("afterId") Long afterId, Limit limit);
+
     @EntityGraph(attributePaths = {"customer", "customer.customerProfile"})
     Page<Vehicle> findAll(Specification<Vehicle> spec, Pageable pageable);
 
@@ -0,0 +1,192 @@
+package com.interview.repository;
+
+import com.interview.dto.filter.VehicleFilter;
+import com.interview.enums.MatchMode;
+import com.interview.exception.BadRequestException;
+import com.interview.specification.VehicleSpecs;
+import com.interview.util.SearchTerms;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Compiled JPQL for one vehicle search shape: which filters are set, their match modes and the sort.
+ *
+ * <p>Only the filters that are set become predicates, every customer predicate uses the one fetch-joined
+ * customer, and all values are bound as parameters. Searches of the same shape therefore share identical
+ * statement text, so it is built once and cached here, Hibernate reuses the parsed query from its query plan
+ * cache, and the driver and database can reuse the prepared statement.
+ */
+record VehicleSearchQuery(String select, String count) {
+
+    /** Sortable properties and the path each one orders by. */
+    static final Map<String, String> SORT_PATHS = Map.of(
+        "id", "v.id",
+        "vin", "v.vin",
+        "make", "v.make",
+        "model", "v.model",
+        "year", "v.year",
+        "createdDate", "v.createdDate",
+        "updatedDate", "v.updatedDate",
+        "customerId", "v.customer.id",
+        "customerEmail", "c.email");
+
+    /** Shapes are bounded by the filter combinations and sort keys, but the cache is capped in case sorts multiply. */
+    private static final int MAX_CACHED_SHAPES = 1024;
+    private static final Map<Shape, VehicleSearchQuery> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Which filters of a search are set (with their effective match mode) and how it is sorted.
+     */
+    record Shape(
+        boolean customerId,
+        boolean vin,
+        MatchMode make,
+        MatchMode model,
+        boolean minYear,
+        boolean maxYear,
+        MatchMode customerEmail,
+        MatchMode customerName,
+        Sort sort
+    ) {
+
+        static Shape of(VehicleFilter filter, Sort sort) {
+            return new Shape(
+                filter.customerId() != null,
+                !VehicleSpecs.isBlank(filter.vin()),
+                mode(filter.make(), filter.makeMatch(), VehicleSpecs.DEFAULT_MAKE_MATCH),
+                mode(filter.model(), filter.modelMatch(), VehicleSpecs.DEFAULT_MODEL_MATCH),
+                filter.minYear() != null,
+                filter.maxYear() != null,
+                mode(filter.customerEmail(), filter.customerEmailMatch(), VehicleSpecs.DEFAULT_CUSTOMER_EMAIL_MATCH),
+                mode(filter.customerName(), filter.customerNameMatch(), VehicleSpecs.DEFAULT_CUSTOMER_NAME_MATCH),
+                sort);
+        }
+
+        private static MatchMode mode(String term, MatchMode mode, MatchMode defaultMode) {
+            if (VehicleSpecs.isBlank(term)) {
+                return null;
+            }
+            return mode == null ? defaultMode : mode;
+        }
+    }
+
+    /**
+     * The compiled statements for the shape of this filter and sort, built on first use.
+     */
+    static VehicleSearchQuery of(VehicleFilter filter, Sort sort) {
+        Shape shape = Shape.of(filter, sort);
+        VehicleSearchQuery cached = CACHE.get(shape);
+        if (cached != null) {
+            return cached;
+        }
+
+        VehicleSearchQuery compiled = compile(shape);
+        if (CACHE.size() < MAX_CACHED_SHAPES) {
+            CACHE.putIfAbsent(shape, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Parameter values for the filters that are set, named as in the compiled statements.
+     */
+    static Map<String, Object> parameters(VehicleFilter filter) {
+        Shape shape = Shape.of(filter, Sort.unsorted());
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (shape.customerId()) {
+            parameters.put("customerId", filter.customerId());
+        }
+        if (shape.vin()) {
+            parameters.put("vin", SearchTerms.normalize(filter.vin()));
+        }
+        if (shape.make() != null) {
+            parameters.put("make", SearchTerms.pattern(filter.make(), shape.make()));
+        }
+        if (shape.model() != null) {
+            parameters.put("model", SearchTerms.pattern(filter.model(), shape.model()));
+        }
+        if (shape.minYear()) {
+            parameters.put("minYear", filter.minYear());
+        }
+        if (shape.maxYear()) {
+            parameters.put("maxYear", filter.maxYear());
+        }
+        if (shape.customerEmail() != null) {
+            parameters.put("customerEmail", SearchTerms.pattern(filter.customerEmail(), shape.customerEmail()));
+        }
+        if (shape.customerName() != null) {
+            parameters.put("customerName", SearchTerms.pattern(filter.customerName(), shape.customerName()));
+        }
+        return parameters;
+    }
+
+    /**
+     * Number of shapes compiled and cached so far.
+     */
+    static int cachedShapes() {
+        return CACHE.size();
+    }
+
+    private static VehicleSearchQuery compile(Shape shape) {
+        List<String> predicates = new ArrayList<>();
+        if (shape.customerId()) {
+            predicates.add("v.customer.id = :customerId");
+        }
+        if (shape.vin()) {
+            predicates.add("v.vin = :vin");
+        }
+        if (shape.make() != null) {
+            predicates.add(match("v.makeSearch", "make", shape.make()));
+        }
+        if (shape.model() != null) {
+            predicates.add(match("v.modelSearch", "model", shape.model()));
+        }
+        if (shape.minYear()) {
+            predicates.add("v.year >= :minYear");
+        }
+        if (shape.maxYear()) {
+            predicates.add("v.year <= :maxYear");
+        }
+        if (shape.customerEmail() != null) {
+            predicates.add(match("c.emailSearch", "customerEmail", shape.customerEmail()));
+        }
+        if (shape.customerName() != null) {
+            predicates.add("(" + match("c.firstNameSearch", "customerName", shape.customerName())
+                + " OR " + match("c.lastNameSearch", "customerName", shape.customerName()) + ")");
+        }
+
+        String where = predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+        boolean filtersOnCustomer = shape.customerEmail() != null || shape.customerName() != null;
+
+        String select = "SELECT v FROM Vehicle v JOIN FETCH v.customer c LEFT JOIN FETCH c.customerProfile" + where + orderBy(shape.sort());
+        String count = "SELECT COUNT(v) FROM Vehicle v" + (filtersOnCustomer ? " JOIN v.customer c" : "") + where;
+        return new VehicleSearchQuery(select, count);
+    }
+
+    private static String match(String column, String parameter, MatchMode mode) {
+        return mode == MatchMode.EXACT
+            ? column + " = :" + parameter
+            : column + " LIKE :" + parameter + " ESCAPE '" + SearchTerms.LIKE_ESCAPE + "'";
+    }
+
+    private static String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return "";
+        }
+
+        List<String> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            String path = SORT_PATHS.get(order.getProperty());
+            if (path == null) {
+                throw new BadRequestException("Cannot sort vehicles by '" + order.getProperty() + "'. Sortable properties: "
+                    + SORT_PATHS.keySet().stream().sorted().toList());
+            }
+            orders.add(path + (order.isAscending() ? " ASC" : " DESC"));
+        }
+        return " ORDER BY " + String.join(", ", orders);
+    }
+}
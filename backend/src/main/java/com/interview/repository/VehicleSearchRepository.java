@@ -0,0 +1,18 @@
+package com.interview.repository;
+
+import com.interview.dto.filter.VehicleFilter;
+import com.interview.entity.Vehicle;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Vehicle search with statements compiled once per filter shape, mixed into {@link VehicleRepository}.
+ *
+ * <p>Vehicles come back with their customer and customer profile fetched by the same join the customer
+ * filters use. The count query is skipped when the page size makes it unnecessary, and joins customers only
+ * when a customer filter is set.
+ */
+public interface VehicleSearchRepository {
+
+    Page<Vehicle> search(VehicleFilter filter, Pageable pageable);
+}
@@ -0,0 +1,41 @@
+package com.interview.repository;
+
+import com.interview.dto.filter.VehicleFilter;
+import com.interview.entity.Vehicle;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+
+/**
+ * JPQL implementation of {@link VehicleSearchRepository}, backed by {@link VehicleSearchQuery}.
+ */
+@RequiredArgsConstructor
+class VehicleSearchRepositoryImpl implements VehicleSearchRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<Vehicle> search(VehicleFilter filter, Pageable pageable) {
+        VehicleSearchQuery compiled = VehicleSearchQuery.of(filter, pageable.getSort());
+        Map<String, Object> parameters = VehicleSearchQuery.parameters(filter);
+
+        TypedQuery<Vehicle> query = entityManager.createQuery(compiled.select(), Vehicle.class);
+        parameters.forEach(query::setParameter);
+        if (pageable.isPaged()) {
+            query.setFirstResult(Math.toIntExact(pageable.getOffset()));
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<Vehicle> content = query.getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> {
+            TypedQuery<Long> count = entityManager.createQuery(compiled.count(), Long.class);
+            parameters.forEach(count::setParameter);
+            return count.getSingleResult();
+        });
+    }
+}
@@ -0,0 +1,146 @@
+package com.interview.service;
+
+import com.interview.dto.BatchSubscriptionResult;
+import com.interview.dto.BatchSubscriptionResult.CustomerOutcome;
+import com.interview.enums.SubscriptionAction;
+import com.interview.enums.SubscriptionOutcome;
+import com.interview.exception.BadRequestException;
+import com.interview.exception.ServicePackageNotFoundException;
+import com.interview.repository.ServicePackageRepository;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Subscribes or unsubscribes many customers to one service package.
+ *
+ * <p>Customer ids are deduplicated and processed in chunks of {@value #CHUNK_SIZE}. Each chunk runs in its own
+ * transaction: one set-based query finds which customers exist and which are already subscribed, one JDBC batch
+ * inserts or deletes only the rows that change, the package's subscriber counter moves once by the number of
+ * rows written, and one more batch appends those changes to the subscription history. A large batch therefore
+ * commits progressively, holds locks only for one chunk at a time, and logs its progress after every chunk.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkSubscriptionService {
+
+    public static final int MAX_CUSTOMER_IDS = 10_000;
+    public static final int CHUNK_SIZE = 500;
+
+    private final ServicePackageRepository servicePackageRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Apply {@code action} (SUBSCRIBE when null) to every customer and report the outcome for each.
+     *
+     * @throws BadRequestException if no ids are given, an id is null, or more than {@value #MAX_CUSTOMER_IDS} are given
+     * @throws ServicePackageNotFoundException if the package does not exist
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BatchSubscriptionResult apply(Long servicePackageId, SubscriptionAction action, List<Long> customerIds) {
+        SubscriptionAction effectiveAction = action == null ? SubscriptionAction.SUBSCRIBE : action;
+        List<Long> uniqueIds = validate(customerIds);
+        if (!servicePackageRepository.existsById(servicePackageId)) {
+            throw new ServicePackageNotFoundException(servicePackageId);
+        }
+        log.debug("Applying {} to {} customers for service package {}", effectiveAction, uniqueIds.size(), servicePackageId);
+
+        List<CustomerOutcome> results = new ArrayList<>(uniqueIds.size());
+        for (int from = 0; from < uniqueIds.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = uniqueIds.subList(from, Math.min(from + CHUNK_SIZE, uniqueIds.size()));
+            results.addAll(transactionTemplate.execute(status -> applyToChunk(servicePackageId, effectiveAction, chunk)));
+            if (uniqueIds.size() > CHUNK_SIZE) {
+                log.info("{} service package {}: {}/{} customers processed", effectiveAction, servicePackageId, results.size(),
+                    uniqueIds.size());
+            }
+        }
+
+        Map<SubscriptionOutcome, Integer> totals = new EnumMap<>(SubscriptionOutcome.class);
+        results.forEach(result -> totals.merge(result.outcome(), 1, Integer::sum));
+        log.info("Applied {} to {} customers for service package {}: {}", effectiveAction, uniqueIds.size(), servicePackageId, totals);
+        return new BatchSubscriptionResult(servicePackageId, effectiveAction, totals, results);
+    }
+
+    private List<CustomerOutcome> applyToChunk(Long servicePackageId, SubscriptionAction action, List<Long> chunk) {
+        Map<Long, Boolean> subscribed = servicePackageRepository.findSubscriptionStates(servicePackageId, chunk);
+        boolean subscribing = action == SubscriptionAction.SUBSCRIBE;
+
+        // Subscribing writes the customers not yet subscribed; unsubscribing writes the ones that are
+        List<Long> toWrite = chunk.stream()
+            .filter(id -> subscribed.containsKey(id) && subscribed.get(id) != subscribing)
+            .toList();
+        int[] rowCounts = subscribing
+            ? servicePackageRepository.insertSubscriptions(servicePackageId, toWrite)
+            : servicePackageRepository.deleteSubscriptions(servicePackageId, toWrite);
+
+        Map<Long, SubscriptionOutcome> written = new HashMap<>(toWrite.size());
+        List<Long> changed = new ArrayList<>(toWrite.size());
+        for (int i = 0; i < toWrite.size(); i++) {
+            // A concurrent request may have written the same row since the states were read
+            boolean rowChanged = rowCounts[i] > 0 || rowCounts[i] == Statement.SUCCESS_NO_INFO;
+            if (rowChanged) {
+                changed.add(toWrite.get(i));
+            }
+            written.put(toWrite.get(i), outcome(subscribing, rowChanged));
+        }
+        if (!changed.isEmpty()) {
+            int delta = subscribing ? changed.size() : -changed.size();
+            servicePackageRepository.adjustSubscriberCount(servicePackageId, delta);
+            servicePackageRepository.recordPackageRevenue(servicePackageId);
+            recordHistory(servicePackageId, subscribing, changed);
+        }
+
+        return chunk.stream()
+            .map(id -> new CustomerOutcome(id, !subscribed.containsKey(id)
+                ? SubscriptionOutcome.CUSTOMER_NOT_FOUND
+                : written.getOrDefault(id, outcome(subscribing, false))))
+            .toList();
+    }
+
+    private void recordHistory(Long servicePackageId, boolean subscribing, List<Long> customerIds) {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        if (subscribing) {
+            servicePackageRepository.recordSubscribed(servicePackageId, customerIds, now);
+        } else {
+            servicePackageRepository.recordUnsubscribed(servicePackageId, customerIds, now);
+        }
+    }
+
+    private static SubscriptionOutcome outcome(boolean subscribing, boolean changed) {
+        if (subscribing) {
+            return changed ? SubscriptionOutcome.SUBSCRIBED : SubscriptionOutcome.ALREADY_SUBSCRIBED;
+        }
+        return changed ? SubscriptionOutcome.UNSUBSCRIBED : SubscriptionOutcome.NOT_SUBSCRIBED;
+    }
+
+    /**
+     * Validate the requested ids and collapse duplicates, keeping first-occurrence order.
+     */
+    private static List<Long> validate(List<Long> customerIds) {
+        if (customerIds == null || customerIds.isEmpty()) {
+            throw new BadRequestException("At least one customer ID is required");
+        }
+        if (customerIds.stream().anyMatch(Objects::isNull)) {
+            throw new BadRequestException("Customer IDs must not be null");
+        }
+        List<Long> uniqueIds = List.copyOf(new LinkedHashSet<>(customerIds));
+        if (uniqueIds.size() > MAX_CUSTOMER_IDS) {
+            throw new BadRequestException("At most " + MAX_CUSTOMER_IDS + " customer IDs can be submitted at once");
+        }
+        return uniqueIds;
+    }
+}
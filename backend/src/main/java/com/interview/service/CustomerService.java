@@ -1,18 +1,51 @@
 package com.interview.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.dto.BatchResult;
+import com.interview.dto.CursorPage;
 import com.interview.dto.CustomerRequest;
 import com.interview.dto.CustomerResponse;
+import com.interview.dto.Tagged;
 import com.interview.entity.Customer;
 import com.interview.entity.CustomerProfile;
+import com.interview.enums.ContactMethod;
 import com.interview.exception.BadRequestException;
+import com.interview.exception.BusinessException;
 import com.interview.exception.CustomerAlreadyExistsException;
 import com.interview.exception.CustomerNotFoundException;
 import com.interview.exception.OptimisticLockingException;
+import com.interview.exception.PreconditionFailedException;
 import com.interview.mapper.CustomerMapper;
 import com.interview.repository.CustomerRepository;
+import com.interview.repository.ServicePackageRepository;
+import com.interview.repository.StreamingHints;
+import com.interview.util.BatchLookup;
+import com.interview.util.EntityTags;
+import com.interview.util.KeysetCursor;
+import com.interview.util.SparseFields;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -24,8 +57,10 @@ import org.springframework.transaction.annotation.Transactional;
  * <p>This service handles the business logic for customer management, including:
  * <ul>
  *   <li>Creating customers with optional profile data</li>
- *   <li>Retrieving customers by ID, listing all customers or paginated list of customers</li>
- *   <li>Updating customer information and profiles</li>
+ *   <li>Retrieving customers by ID (with conditional GET support) or in batches of IDs</li>
+ *   <li>Listing all customers or paginated list of customers (offset or cursor based), optionally as a sparse fieldset</li>
+ *   <li>Streaming all customers for large exports with constant memory</li>
+ *   <li>Updating customer information and profiles, in full or as a read-free merge patch</li>
  *   <li>Deleting customers (cascades to profiles)</li>
  * </ul>
  *
@@ -39,10 +74,29 @@ import org.springframework.transaction.annotation.Transactional;
 public class CustomerService {
 
     public static final String CUSTOMER = "Customer";
-    public static final String VERSION_IS_REQUIRED = "Version is required for updates. Please include the current version from GET response.";
+    public static final String VERSION_IS_REQUIRED =
+        "Version is required for updates. Please include the current version from GET response, in the body or as If-Match.";
+    public static final Set<String> CURSOR_SORT_KEYS = Set.of(KeysetCursor.ID_SORT_KEY, "email");
+    public static final Set<String> SPARSE_FIELDS = SparseFields.fieldsOf(CustomerResponse.class);
+
+    private static final Map<String, Class<?>> PATCHABLE_FIELDS = Map.of(
+        "firstName", String.class,
+        "lastName", String.class,
+        "email", String.class,
+        "phone", String.class,
+        "address", String.class,
+        "dateOfBirth", LocalDate.class,
+        "preferredContactMethod", ContactMethod.class);
+    private static final Set<String> PROFILE_FIELDS = Set.of("address", "dateOfBirth", "preferredContactMethod");
 
     private final CustomerRepository customerRepository;
     private final CustomerMapper customerMapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final AuditorAware<String> auditorAware;
+    private final VehicleSuggestionService vehicleSuggestionService;
+    private final ServicePackageRepository servicePackageRepository;
 
     /**
      * Create a new customer with profile.
@@ -78,11 +132,36 @@ public class CustomerService {
     public CustomerResponse getCustomerById(Long id) {
         log.debug("Fetching customer with ID: {}", id);
 
-        Customer customer = customerRepository.findByIdWithProfile(id).orElseThrow(() -> new CustomerNotFoundException(id));
+        Customer customer = customerRepository.findById(id).orElseThrow(() -> new CustomerNotFoundException(id));
 
         return customerMapper.toResponse(customer);
     }
 
+    /**
+     * Get customer by ID unless the client's If-None-Match still matches its version ETag.
+     * The ETag is checked before mapping, so an unchanged customer costs only the (cached) lookup.
+     */
+    public Tagged<CustomerResponse> getCustomerIfNoneMatch(Long id, String ifNoneMatch) {
+        log.debug("Fetching customer with ID: {} if none match: {}", id, ifNoneMatch);
+
+        Customer customer = customerRepository.findById(id).orElseThrow(() -> new CustomerNotFoundException(id));
+
+        String etag = EntityTags.of(customer.getVersion());
+        if (EntityTags.matchesNoneMatch(ifNoneMatch, etag)) {
+            return Tagged.notModified(etag);
+        }
+        return new Tagged<>(etag, customerMapper.toResponse(customer));
+    }
+
+    /**
+     * Get customers by IDs in request order (always includes profile data), reporting IDs that do not exist.
+     */
+    public BatchResult<CustomerResponse> getCustomersByIds(List<Long> ids) {
+        log.debug("Fetching {} customers by IDs", ids == null ? 0 : ids.size());
+
+        return BatchLookup.fetch(ids, customerRepository::findAllByIdWithProfiles, Customer::getId, customerMapper::toResponseList);
+    }
+
     /**
      * Get all customers (always includes profile data).
      */
@@ -93,6 +172,42 @@ public class CustomerService {
         return customerMapper.toResponseList(customers);
     }
 
+    /**
+     * Get all customers with only the requested fields, or with every field when {@code fields} is absent.
+     * A fieldset is served by a tuple projection, so no entity is loaded and profiles are joined only when needed.
+     */
+    public List<CustomerResponse> getAllCustomers(String fields) {
+        Set<String> requestedFields = SparseFields.parse(fields, SPARSE_FIELDS);
+        if (requestedFields == null) {
+            return getAllCustomers();
+        }
+        log.debug("Fetching all customers with fields: {}", requestedFields);
+
+        return customerRepository.findAllProjected(requestedFields);
+    }
+
+    /**
+     * Stream all customers (always includes profile data) to the given consumer.
+     * Rows are read through a forward-only cursor and the persistence context is cleared
+     * every fetch batch, so heap use stays flat regardless of the number of customers.
+     */
+    public void streamAllCustomers(Consumer<CustomerResponse> consumer) {
+        log.debug("Streaming all customers");
+
+        long count = 0;
+        try (Stream<Customer> customers = customerRepository.streamAllWithProfiles()) {
+            Iterator<Customer> iterator = customers.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(customerMapper.toResponse(iterator.next()));
+                if (++count % StreamingHints.FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+
+        log.debug("Streamed {} customers", count);
+    }
+
     /**
      * Get customers with pagination (always includes profile data).
      */
@@ -103,19 +218,54 @@ public class CustomerService {
         return customerPage.map(customerMapper::toResponse);
     }
 
+    /**
+     * Get customers with pagination and only the requested fields, or with every field when {@code fields} is absent.
+     */
+    public Page<CustomerResponse> getCustomersWithPagination(String fields, Pageable pageable) {
+        Set<String> requestedFields = SparseFields.parse(fields, SPARSE_FIELDS);
+        if (requestedFields == null) {
+            return getCustomersWithPagination(pageable);
+        }
+        log.debug("Fetching customers with pagination: {}, fields: {}", pageable, requestedFields);
+
+        return customerRepository.findAllProjected(requestedFields, pageable);
+    }
+
+    /**
+     * Get customers with keyset (cursor) pagination (always includes profile data).
+     * Seeks past the cursor position instead of using OFFSET, so deep pages cost the same as the first.
+     */
+    public CursorPage<CustomerResponse> getCustomersWithCursor(String after, Integer limit, String sortBy) {
+        KeysetCursor cursor = KeysetCursor.resolve(after, sortBy, CURSOR_SORT_KEYS);
+        int pageSize = KeysetCursor.validateLimit(limit);
+        log.debug("Fetching customers after cursor: {}, limit: {}", cursor, pageSize);
+
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<Customer> customers = cursor.isIdSort()
+            ? customerRepository.findWithProfilesAfterId(cursor.id(), fetchLimit)
+            : customerRepository.findWithProfilesAfterEmail(cursor.value(), cursor.id(), fetchLimit);
+
+        return CursorPage.of(customers, pageSize, customerMapper::toResponse,
+            last -> cursor.next(cursor.isIdSort() ? null : last.getEmail(), last.getId()).encode());
+    }
+
     /**
      * Update customer and profile.
+     * The expected version comes from the body {@code version} or, as an alternative, from an If-Match ETag.
      */
     @Transactional
-    public void updateCustomer(Long customerId, CustomerRequest request) {
-        log.debug("Updating customer with ID: {} with version: {}", customerId, request.version());
+    public void updateCustomer(Long customerId, CustomerRequest request, String ifMatch) {
+        log.debug("Updating customer with ID: {} with version: {}, if match: {}", customerId, request.version(), ifMatch);
 
-        validateUpdateRequest(request);
+        validateUpdateRequest(request, ifMatch);
 
-        Customer existingCustomer = customerRepository.findByIdWithProfile(customerId)
+        Customer existingCustomer = customerRepository.findById(customerId)
             .orElseThrow(() -> new CustomerNotFoundException(customerId));
 
-        validateOptimisticLocking(customerId, request.version(), existingCustomer.getVersion());
+        validateIfMatch(customerId, ifMatch, existingCustomer.getVersion());
+        if (request.version() != null) {
+            validateOptimisticLocking(customerId, request.version(), existingCustomer.getVersion());
+        }
         validateEmailUniqueness(request.email(), existingCustomer.getEmail());
 
         // Update customer fields
@@ -123,6 +273,7 @@ public class CustomerService {
 
         // Update or create profile
         if (hasProfileData(request)) {
+            List<Object> profileBefore = profileState(existingCustomer.getCustomerProfile());
             if (existingCustomer.getCustomerProfile() != null) {
                 // Update existing profile
                 customerMapper.updateProfileEntity(existingCustomer.getCustomerProfile(), request);
@@ -132,6 +283,11 @@ public class CustomerService {
                 profile.setCustomer(existingCustomer);
                 existingCustomer.setCustomerProfile(profile);
             }
+            // The profile owns the relationship, so a profile-only change would leave the customer's version (its ETag) as is.
+            // Touching the customer makes it dirty, giving exactly one version bump through the regular (cache-aware) update.
+            if (!profileBefore.equals(profileState(existingCustomer.getCustomerProfile()))) {
+                existingCustomer.setUpdatedDate(LocalDateTime.now());
+            }
         }
 
         try {
@@ -144,30 +300,173 @@ public class CustomerService {
     }
 
     /**
-     * Delete customer (profile will be deleted automatically due to cascade).
+     * Apply a JSON Merge Patch (RFC 7396) to a customer and its profile without loading them.
+     * The customer columns and version bump compile into one {@code UPDATE ... WHERE id = ? AND version = ?}; zero
+     * updated rows means a conflict (or a missing customer). Profile fields are then applied with an update or insert.
+     *
+     * <p>The bulk update clears the customers' second-level cache regions; see {@code CustomerPatchRepositoryImpl}.
+     *
+     * @return the new version
+     */
+    @Transactional
+    public long patchCustomer(Long customerId, JsonNode patch, String ifMatch) {
+        log.debug("Patching customer with ID: {}, if match: {}", customerId, ifMatch);
+
+        if (patch == null || !patch.isObject()) {
+            throw new BadRequestException("Merge patch must be a JSON object");
+        }
+        long expectedVersion = resolveExpectedVersion(customerId, patch.get("version"), ifMatch);
+
+        Map<String, Object> customerChanges = new LinkedHashMap<>();
+        Map<String, Object> profileChanges = new LinkedHashMap<>();
+        readPatchChanges(patch, customerChanges, profileChanges);
+
+        String updatedBy = auditorAware.getCurrentAuditor().orElse(null);
+        LocalDateTime updatedDate = LocalDateTime.now();
+        int updated;
+        try {
+            updated = customerRepository.updateIfVersion(customerId, expectedVersion, customerChanges, updatedBy, updatedDate);
+        } catch (DataIntegrityViolationException ex) {
+            throw new CustomerAlreadyExistsException(String.valueOf(customerChanges.get("email")));
+        }
+        if (updated == 0) {
+            throw patchConflict(customerId, expectedVersion, ifMatch);
+        }
+        if (!profileChanges.isEmpty()) {
+            customerRepository.upsertProfile(customerId, profileChanges, updatedBy, updatedDate);
+        }
+
+        long newVersion = expectedVersion + 1;
+        log.info("Patched customer with ID: {} to version: {}", customerId, newVersion);
+        return newVersion;
+    }
+
+    /**
+     * Delete customer (profile and vehicles are removed through orphan removal).
+     * Removes the loaded entity rather than issuing a bulk DELETE, so only the cache entries of this
+     * customer and its dependents are evicted instead of the whole second-level cache region.
      */
     @Transactional
     public void deleteCustomer(Long id) {
         log.debug("Deleting customer with ID: {}", id);
 
-        int deletedCount = customerRepository.deleteByCustomerId(id);
+        Customer customer = customerRepository.findById(id).orElseThrow(() -> new CustomerNotFoundException(id));
+        customer.getVehicles().forEach(vehicle -> vehicleSuggestionService.recordChange(vehicle.getMake(), vehicle.getModel(), null, null));
+        // The subscriptions go with the customer through the join table's ON DELETE CASCADE
+        servicePackageRepository.recordCustomerUnsubscribed(id, LocalDateTime.now(ZoneOffset.UTC));
+        servicePackageRepository.decrementSubscriberCountsOfCustomer(id);
+        servicePackageRepository.recordCustomerPackagesRevenue(id);
+        customerRepository.delete(customer);
 
-        if (deletedCount == 0) {
-            throw new CustomerNotFoundException(id);
+        log.info("Deleted customer with ID: {}", id);
+    }
+
+    /**
+     * Resolve the version a patch must match, from If-Match or the patch's {@code version} member.
+     * {@code If-Match: *} carries no version, so it requires the body version.
+     */
+    private long resolveExpectedVersion(Long customerId, JsonNode versionNode, String ifMatch) {
+        Long bodyVersion = null;
+        if (versionNode != null && !versionNode.isNull()) {
+            if (!versionNode.canConvertToExactIntegral() || versionNode.asLong() < 0) {
+                throw new BadRequestException("Version must be a non-negative integer");
+            }
+            bodyVersion = versionNode.asLong();
         }
 
-        log.info("Deleted customer with ID: {}", id);
+        if (ifMatch == null || ifMatch.isBlank()) {
+            if (bodyVersion == null) {
+                throw new BadRequestException(VERSION_IS_REQUIRED);
+            }
+            return bodyVersion;
+        }
+        if (EntityTags.isAny(ifMatch)) {
+            // "*" only asserts that the customer exists; the read-free update still needs a version to compare against
+            if (bodyVersion == null) {
+                throw new BadRequestException(VERSION_IS_REQUIRED);
+            }
+            return bodyVersion;
+        }
+
+        Long tagVersion = EntityTags.parseVersion(ifMatch);
+        if (tagVersion == null) {
+            log.warn("If-Match precondition failed for customer ID: {}. If-Match: {} is not a version tag", customerId, ifMatch);
+            throw new PreconditionFailedException(CUSTOMER, customerId);
+        }
+        if (bodyVersion != null && !bodyVersion.equals(tagVersion)) {
+            throw new BadRequestException("Version in the patch does not match If-Match");
+        }
+        return tagVersion;
     }
 
     /**
-     * Validate version on update request.
+     * Convert and validate the members of a merge patch, splitting them into customer and profile columns.
+     * A null member clears the column; members that are not customer fields are rejected.
      */
-    private void validateUpdateRequest(CustomerRequest request) {
-        if (request.version() == null) {
+    private void readPatchChanges(JsonNode patch, Map<String, Object> customerChanges, Map<String, Object> profileChanges) {
+        Set<ConstraintViolation<CustomerRequest>> violations = new LinkedHashSet<>();
+        for (Map.Entry<String, JsonNode> member : patch.properties()) {
+            String field = member.getKey();
+            if ("version".equals(field)) {
+                continue;
+            }
+            Class<?> type = PATCHABLE_FIELDS.get(field);
+            if (type == null) {
+                throw new BadRequestException("Field '" + field + "' cannot be patched. Patchable fields: " + PATCHABLE_FIELDS.keySet());
+            }
+
+            Object value;
+            try {
+                value = objectMapper.treeToValue(member.getValue(), type);
+            } catch (JsonProcessingException | IllegalArgumentException ex) {
+                throw new BadRequestException("Invalid value for field '" + field + "'");
+            }
+            violations.addAll(validator.validateValue(CustomerRequest.class, field, value));
+            (PROFILE_FIELDS.contains(field) ? profileChanges : customerChanges).put(field, value);
+        }
+
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        if (customerChanges.isEmpty() && profileChanges.isEmpty()) {
+            throw new BadRequestException("Merge patch contains no changes");
+        }
+    }
+
+    /**
+     * Explain why a conditional patch updated no row; only this failure path reads the customer.
+     */
+    private BusinessException patchConflict(Long customerId, Long expectedVersion, String ifMatch) {
+        if (!customerRepository.existsById(customerId)) {
+            return new CustomerNotFoundException(customerId);
+        }
+        log.warn("Conditional patch failed for customer ID: {}. Expected version: {}", customerId, expectedVersion);
+        if (ifMatch != null && !ifMatch.isBlank()) {
+            return new PreconditionFailedException(CUSTOMER, customerId);
+        }
+        return new OptimisticLockingException(CUSTOMER, customerId);
+    }
+
+    /**
+     * Validate that the update request carries a version, in the body or as an If-Match ETag.
+     */
+    private void validateUpdateRequest(CustomerRequest request, String ifMatch) {
+        if (request.version() == null && (ifMatch == null || ifMatch.isBlank())) {
             throw new BadRequestException(VERSION_IS_REQUIRED);
         }
     }
 
+    /**
+     * Validate the If-Match ETag against the current version.
+     */
+    private void validateIfMatch(Long customerId, String ifMatch, Long currentVersion) {
+        if (!EntityTags.matchesIfMatch(ifMatch, EntityTags.of(currentVersion))) {
+            log.warn("If-Match precondition failed for customer ID: {}. If-Match: {}, but current version: {}",
+                customerId, ifMatch, currentVersion);
+            throw new PreconditionFailedException(CUSTOMER, customerId);
+        }
+    }
+
     /**
      * Validate optimistic locking version.
      */
@@ -191,6 +490,10 @@ public class CustomerService {
     /**
      * Check if request contains any profile data.
      */
+    private static List<Object> profileState(CustomerProfile profile) {
+        return profile == null ? List.of() : Arrays.asList(profile.getAddress(), profile.getDateOfBirth(), profile.getPreferredContactMethod());
+    }
+
     private boolean hasProfileData(CustomerRequest request) {
         return request.address() != null || request.dateOfBirth() != null || request.preferredContactMethod() != null;
     }
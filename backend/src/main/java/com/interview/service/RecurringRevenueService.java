@@ -0,0 +1,98 @@
+package com.interview.service;
+
+import com.interview.dto.RecurringRevenueReport;
+import com.interview.dto.RecurringRevenueVerification;
+import com.interview.dto.projection.MonthlyRecurringRevenue;
+import com.interview.dto.projection.RecurringRevenue;
+import com.interview.repository.ServicePackageRepository;
+import com.interview.util.MonthRange;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for monthly recurring revenue (MRR) reporting.
+ *
+ * <p>The report is read from the aggregates that subscription, price and status changes maintain in
+ * {@link com.interview.repository.RecurringRevenueRepository}: the materialized subscriber count of each active
+ * package and one row per package and month, so it never aggregates subscriptions. Verification recomputes the
+ * total from the subscriptions and corrects the packages' subscriber counts if they drifted.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class RecurringRevenueService {
+
+    public static final int DEFAULT_MONTHS = 12;
+    public static final int MAX_MONTHS = 120;
+
+    private final ServicePackageRepository servicePackageRepository;
+    private final SubscriberCountReconciler subscriberCountReconciler;
+
+    /**
+     * Get the current MRR with its breakdown per active package and the MRR of each month from {@code from} to
+     * {@code to} (defaults: the last 12 months up to the current one).
+     */
+    public RecurringRevenueReport getReport(YearMonth from, YearMonth to) {
+        MonthRange range = MonthRange.resolve(from, to, DEFAULT_MONTHS, MAX_MONTHS);
+        log.debug("Fetching recurring revenue report from {} to {}", range.from(), range.to());
+
+        RecurringRevenue total = servicePackageRepository.findRecurringRevenue();
+        List<MonthlyRecurringRevenue> months = fillMonths(range, MonthRange.currentMonth(), total,
+            servicePackageRepository.findMonthlyRecurringRevenue(range.from(), range.to()));
+
+        return new RecurringRevenueReport(total.mrr(), total.subscriptions(), servicePackageRepository.findPackageRecurringRevenue(), months);
+    }
+
+    /**
+     * Recount the subscribers of every package through {@link SubscriberCountReconciler}, correcting the counts the
+     * MRR is summed from, and recompute the MRR from the subscriptions of active packages. Runs outside a transaction
+     * so each chunk of packages is recounted in its own.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public RecurringRevenueVerification verify() {
+        log.debug("Verifying recurring revenue against the subscriptions");
+
+        RecurringRevenue stored = servicePackageRepository.findRecurringRevenue();
+        int correctedPackages = subscriberCountReconciler.reconcile();
+        RecurringRevenue recomputed = servicePackageRepository.recomputeRecurringRevenue();
+        if (correctedPackages > 0) {
+            log.warn("Corrected recurring revenue from {} ({} subscriptions) to {} ({} subscriptions) in {} packages",
+                stored.mrr(), stored.subscriptions(), recomputed.mrr(), recomputed.subscriptions(), correctedPackages);
+        } else {
+            log.info("Verified recurring revenue of {} ({} subscriptions)", stored.mrr(), stored.subscriptions());
+        }
+        return new RecurringRevenueVerification(stored, recomputed, correctedPackages > 0, correctedPackages);
+    }
+
+    /**
+     * One entry per month in the range, carrying each recorded month forward through the months without a change.
+     * The current month is always the current total.
+     */
+    private static List<MonthlyRecurringRevenue> fillMonths(MonthRange range, YearMonth currentMonth, RecurringRevenue total,
+        List<MonthlyRecurringRevenue> recorded) {
+        List<MonthlyRecurringRevenue> months = new ArrayList<>();
+        Iterator<MonthlyRecurringRevenue> rows = recorded.iterator();
+        MonthlyRecurringRevenue next = rows.hasNext() ? rows.next() : null;
+        MonthlyRecurringRevenue carried = null;
+        for (YearMonth month = range.from(); !month.isAfter(range.to()); month = month.plusMonths(1)) {
+            while (next != null && !next.month().isAfter(month)) {
+                carried = next;
+                next = rows.hasNext() ? rows.next() : null;
+            }
+            if (month.equals(currentMonth)) {
+                months.add(new MonthlyRecurringRevenue(month, total.mrr(), total.subscriptions()));
+            } else if (carried != null) {
+                months.add(new MonthlyRecurringRevenue(month, carried.mrr(), carried.subscriptions()));
+            }
+        }
+        return months;
+    }
+}
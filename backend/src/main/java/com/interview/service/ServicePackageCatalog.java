@@ -0,0 +1,169 @@
+package com.interview.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.dto.ServicePackageResponse;
+import com.interview.util.EntityTags;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Read-mostly snapshot of the service package catalog as ready-to-send response bodies.
+ *
+ * <p>The package list is read on every shop screen but changes a few times a day, so each variant of it
+ * (all, active and inactive packages) is serialized to JSON and gzip once and held behind one volatile
+ * reference with a content-derived ETag. A read costs a volatile read and a copy of the bytes into the response.
+ *
+ * <p>Package writes publish {@link Changed}; the snapshot is dropped when their transaction commits and
+ * rebuilt by the next read. Subscriber counts are part of the snapshot and may lag subscriptions by up to
+ * {@code app.service-packages.catalog-max-age}, after which one reader rebuilds it while the others keep
+ * being served the previous one.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ServicePackageCatalog {
+
+    private static final Duration DEFAULT_MAX_AGE = Duration.ofSeconds(30);
+    private static final int ETAG_HASH_BYTES = 8;
+
+    private final ServicePackageService servicePackageService;
+    private final ObjectMapper objectMapper;
+    private final Lock rebuildLock = new ReentrantLock();
+
+    @Value("${app.service-packages.catalog-max-age:30s}")
+    private Duration maxAge = DEFAULT_MAX_AGE;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Published by package writes that change the catalog.
+     */
+    public record Changed(Long servicePackageId) {}
+
+    /**
+     * One encoding of a catalog variant with its strong entity tag.
+     */
+    public record Representation(byte[] body, String etag) {}
+
+    private record Variant(Representation json, Representation gzip) {}
+
+    private record Snapshot(Variant all, Variant active, Variant inactive, long builtAtNanos) {
+
+        Variant select(Boolean activeFilter) {
+            if (activeFilter == null) {
+                return all;
+            }
+            return activeFilter ? active : inactive;
+        }
+    }
+
+    /**
+     * The catalog filtered by active status (all packages when null), gzip-encoded if requested.
+     */
+    public Representation get(Boolean active, boolean gzip) {
+        Snapshot current = snapshot;
+        if (current == null || System.nanoTime() - current.builtAtNanos() > maxAge.toNanos()) {
+            current = refresh(current);
+        }
+        Variant variant = current.select(active);
+        return gzip ? variant.gzip() : variant.json();
+    }
+
+    /**
+     * Drop the snapshot once the transaction of a package write commits, or immediately outside of one.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChanged(Changed event) {
+        log.debug("Service package {} changed, dropping catalog snapshot", event.servicePackageId());
+        invalidate();
+    }
+
+    /**
+     * Drop the snapshot so the next read rebuilds it, e.g. after packages were written outside the service.
+     * Waits for a rebuild in progress, which may have read the packages before the change.
+     */
+    public void invalidate() {
+        rebuildLock.lock();
+        try {
+            snapshot = null;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Rebuild the snapshot unless another reader already did. Without a snapshot readers wait for the rebuild;
+     * with an expired one only a single reader rebuilds and the others return the snapshot they saw.
+     */
+    private Snapshot refresh(Snapshot seen) {
+        if (seen == null) {
+            rebuildLock.lock();
+        } else if (!rebuildLock.tryLock()) {
+            return seen;
+        }
+
+        try {
+            Snapshot current = snapshot;
+            if (current != null && current != seen) {
+                return current;
+            }
+            Snapshot built = build();
+            snapshot = built;
+            return built;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private Snapshot build() {
+        List<ServicePackageResponse> packages = servicePackageService.getAllServicePackages(null);
+        Map<Boolean, List<ServicePackageResponse>> byActive = packages.stream()
+            .collect(Collectors.partitioningBy(servicePackage -> Boolean.TRUE.equals(servicePackage.active())));
+
+        Snapshot built = new Snapshot(serialize(packages), serialize(byActive.get(true)), serialize(byActive.get(false)), System.nanoTime());
+        log.info("Built service package catalog with {} packages ({} active)", packages.size(), byActive.get(true).size());
+        return built;
+    }
+
+    private Variant serialize(List<ServicePackageResponse> packages) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(packages);
+            ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+                gzip.write(json);
+            }
+
+            String hash = hash(json);
+            return new Variant(new Representation(json, EntityTags.of(hash)),
+                new Representation(gzipped.toByteArray(), EntityTags.of(hash, "gzip")));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to serialize service package catalog", ex);
+        }
+    }
+
+    private static String hash(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(Arrays.copyOf(digest, ETAG_HASH_BYTES));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
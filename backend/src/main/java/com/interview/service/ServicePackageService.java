@@ -1,11 +1,13 @@
 package com.interview.service;
 
+import com.interview.dto.BatchResult;
+import com.interview.dto.CursorPage;
 import com.interview.dto.CustomerResponse;
 import com.interview.dto.ServicePackageRequest;
 import com.interview.dto.ServicePackageResponse;
 import com.interview.dto.SubscriberDto;
 import com.interview.dto.SubscribersResponse;
-import com.interview.entity.Customer;
+import com.interview.dto.Tagged;
 import com.interview.entity.ServicePackage;
 import com.interview.exception.BadRequestException;
 import com.interview.exception.CustomerNotFoundException;
@@ -14,11 +16,24 @@ import com.interview.mapper.CustomerMapper;
 import com.interview.mapper.ServicePackageMapper;
 import com.interview.repository.CustomerRepository;
 import com.interview.repository.ServicePackageRepository;
+import com.interview.util.BatchLookup;
+import com.interview.util.EntityTags;
+import com.interview.util.KeysetCursor;
 import jakarta.persistence.EntityNotFoundException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.orm.jpa.JpaObjectRetrievalFailureException;
@@ -31,13 +46,16 @@ import org.springframework.transaction.annotation.Transactional;
  * <p>This service handles the business logic for service package management, including:
  * <ul>
  *   <li>Creating and updating service packages</li>
- *   <li>Retrieving packages by ID, listing all packages with filtering</li>
+ *   <li>Retrieving packages by ID or in batches of IDs, listing all packages with filtering (offset or cursor based)</li>
  *   <li>Soft delete operations (activate/deactivate)</li>
  *   <li>Customer subscription management</li>
+ *   <li>Keeping the recurring revenue aggregates current on subscription, price and status changes</li>
+ *   <li>Appending subscription and status changes to the subscription history</li>
  * </ul>
  *
  * <p>All read operations are performed within read-only transactions for optimal performance.
- * Write operations use full transactions with proper exception handling.
+ * Write operations use full transactions with proper exception handling. Writes that change the package
+ * catalog publish {@link ServicePackageCatalog.Changed} so its cached snapshot is rebuilt.
  */
 @Slf4j
 @Service
@@ -45,10 +63,14 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional(readOnly = true)
 public class ServicePackageService {
 
+    public static final Set<String> CURSOR_SORT_KEYS = Set.of(KeysetCursor.ID_SORT_KEY, "name");
+    private static final Set<String> SUBSCRIBER_CURSOR_SORT_KEYS = Set.of(KeysetCursor.ID_SORT_KEY);
+
     private final ServicePackageRepository servicePackageRepository;
     private final CustomerRepository customerRepository;
     private final ServicePackageMapper servicePackageMapper;
     private final CustomerMapper customerMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Create a new service package.
@@ -66,25 +88,58 @@ public class ServicePackageService {
         ServicePackage servicePackage = servicePackageMapper.toEntity(request);
 
         ServicePackage savedPackage = servicePackageRepository.save(servicePackage);
+        eventPublisher.publishEvent(new ServicePackageCatalog.Changed(savedPackage.getId()));
 
         log.info("Created service package with ID: {} and name: {}", savedPackage.getId(), savedPackage.getName());
         return servicePackageMapper.toResponseWithoutSubscribers(savedPackage);
     }
 
     /**
-     * Get service package by ID (includes subscriber data).
+     * Get service package by ID with its materialized subscriber count.
      */
     public ServicePackageResponse getServicePackageById(Long id) {
         log.debug("Fetching service package with ID: {}", id);
 
-        ServicePackage servicePackage = servicePackageRepository.findByIdWithSubscribers(id)
+        ServicePackage servicePackage = servicePackageRepository.findById(id)
+            .orElseThrow(() -> new ServicePackageNotFoundException(id));
+
+        return toResponseWithSubscriberCount(servicePackage);
+    }
+
+    /**
+     * Get service package by ID unless the client's If-None-Match still matches its ETag.
+     * The ETag combines the version with the materialized subscriber count, since subscriptions only bump the counter.
+     */
+    public Tagged<ServicePackageResponse> getServicePackageIfNoneMatch(Long id, String ifNoneMatch) {
+        log.debug("Fetching service package with ID: {} if none match: {}", id, ifNoneMatch);
+
+        ServicePackage servicePackage = servicePackageRepository.findById(id)
             .orElseThrow(() -> new ServicePackageNotFoundException(id));
 
-        return servicePackageMapper.toResponse(servicePackage);
+        String etag = EntityTags.of(servicePackage.getVersion(), servicePackage.getSubscriberCount());
+        if (EntityTags.matchesNoneMatch(ifNoneMatch, etag)) {
+            return Tagged.notModified(etag);
+        }
+        return new Tagged<>(etag, toResponseWithSubscriberCount(servicePackage));
+    }
+
+    /**
+     * Get service packages by IDs in request order, reporting IDs that do not exist.
+     * Each chunk of IDs costs one package query; subscriber counts are read from the package rows.
+     */
+    public BatchResult<ServicePackageResponse> getServicePackagesByIds(List<Long> ids) {
+        log.debug("Fetching {} service packages by IDs", ids == null ? 0 : ids.size());
+
+        return BatchLookup.fetch(ids,
+            servicePackageRepository::findAllById,
+            ServicePackage::getId,
+            packages -> packages.stream().map(this::toResponseWithSubscriberCount).toList());
     }
 
     /**
      * Update service package.
+     * A price change is flushed before the package's revenue is recorded, so the package row stays locked while
+     * its revenue is computed in SQL from the new price and its current subscriber count.
      */
     @Transactional
     public ServicePackageResponse updateServicePackage(Long id, ServicePackageRequest request) {
@@ -100,9 +155,17 @@ public class ServicePackageService {
         }
 
         // Update package fields
+        BigDecimal previousPrice = existingPackage.getMonthlyPrice();
         servicePackageMapper.updateEntity(existingPackage, request);
 
-        ServicePackage updatedPackage = servicePackageRepository.save(existingPackage);
+        ServicePackage updatedPackage;
+        if (previousPrice.compareTo(existingPackage.getMonthlyPrice()) != 0) {
+            updatedPackage = servicePackageRepository.saveAndFlush(existingPackage);
+            servicePackageRepository.recordPackageRevenue(id);
+        } else {
+            updatedPackage = servicePackageRepository.save(existingPackage);
+        }
+        eventPublisher.publishEvent(new ServicePackageCatalog.Changed(id));
 
         log.info("Updated service package with ID: {} and name: {}", updatedPackage.getId(), updatedPackage.getName());
         return servicePackageMapper.toResponseWithoutSubscribers(updatedPackage);
@@ -110,44 +173,43 @@ public class ServicePackageService {
 
     /**
      * Get all service packages with optional active filter.
+     * The filter runs in the database and subscriber counts are read from the package rows, so no subscriber is loaded.
      */
     public List<ServicePackageResponse> getAllServicePackages(Boolean active) {
         log.debug("Fetching all service packages with active filter: {}", active);
 
-        List<ServicePackage> packages;
-        if (Boolean.TRUE.equals(active)) {
-            packages = servicePackageRepository.findAllActiveWithSubscribers();
-        } else if (Boolean.FALSE.equals(active)) {
-            // Get inactive packages only
-            packages = servicePackageRepository.findAllWithSubscribers().stream()
-                .filter(pkg -> !pkg.isActive())
-                .toList();
-        } else {
-            // Get all packages (active + inactive)
-            packages = servicePackageRepository.findAllWithSubscribers();
-        }
-
-        return servicePackageMapper.toResponseList(packages);
+        return servicePackageRepository.findAllByActive(active).stream()
+            .map(this::toResponseWithSubscriberCount)
+            .toList();
     }
 
     /**
      * Get service packages with pagination and optional active filter.
+     * Subscriber counts are read from the package rows instead of loading or counting subscribers.
      */
     public Page<ServicePackageResponse> getServicePackagesWithPagination(Boolean active, Pageable pageable) {
         log.debug("Fetching service packages with pagination: {}, active filter: {}", pageable, active);
 
-        Page<ServicePackage> packagePage;
-        if (Boolean.TRUE.equals(active)) {
-            packagePage = servicePackageRepository.findAllActiveWithSubscribers(pageable);
-        } else if (Boolean.FALSE.equals(active)) {
-            // Get inactive packages only
-            packagePage = servicePackageRepository.findAllInactiveWithSubscribers(pageable);
-        } else {
-            // Get all packages (active + inactive)
-            packagePage = servicePackageRepository.findAllWithSubscribers(pageable);
-        }
+        return servicePackageRepository.findAllByActive(active, pageable).map(this::toResponseWithSubscriberCount);
+    }
 
-        return packagePage.map(servicePackageMapper::toResponse);
+    /**
+     * Get service packages with keyset (cursor) pagination and optional active filter.
+     * Subscriber counts are read from the package rows instead of loading or counting subscribers.
+     */
+    public CursorPage<ServicePackageResponse> getServicePackagesWithCursor(Boolean active, String after, Integer limit, String sortBy) {
+        KeysetCursor cursor = KeysetCursor.resolve(after, sortBy, CURSOR_SORT_KEYS);
+        int pageSize = KeysetCursor.validateLimit(limit);
+        log.debug("Fetching service packages after cursor: {}, limit: {}, active filter: {}", cursor, pageSize, active);
+
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<ServicePackage> packages = cursor.isIdSort()
+            ? servicePackageRepository.findAfterId(active, cursor.id(), fetchLimit)
+            : servicePackageRepository.findAfterName(active, cursor.value(), cursor.id(), fetchLimit);
+
+        return CursorPage.of(packages, pageSize,
+            this::toResponseWithSubscriberCount,
+            last -> cursor.next(cursor.isIdSort() ? null : last.getName(), last.getId()).encode());
     }
 
     /**
@@ -157,12 +219,12 @@ public class ServicePackageService {
     public ServicePackageResponse updateServicePackageStatus(Long id, boolean active) {
         log.debug("Updating service package {} status to: {}", id, active);
 
-        ServicePackage servicePackage = servicePackageRepository.findByIdWithSubscribers(id)
+        ServicePackage servicePackage = servicePackageRepository.findById(id)
             .orElseThrow(() -> new ServicePackageNotFoundException(id));
 
         if (servicePackage.isActive() == active) {
             log.warn("Service package {} is already {}", id, active ? "active" : "inactive");
-            return servicePackageMapper.toResponse(servicePackage);
+            return toResponseWithSubscriberCount(servicePackage);
         }
 
         if (active) {
@@ -173,34 +235,30 @@ public class ServicePackageService {
             log.info("Deactivated service package with ID: {}", id);
         }
 
-        ServicePackage updatedPackage = servicePackageRepository.save(servicePackage);
-        return servicePackageMapper.toResponse(updatedPackage);
+        // Flushed first so the revenue is computed from the locked row's current subscriber count
+        final ServicePackage updatedPackage = servicePackageRepository.saveAndFlush(servicePackage);
+        servicePackageRepository.recordPackageRevenue(id);
+        servicePackageRepository.recordPackageStatus(id, active, LocalDateTime.now(ZoneOffset.UTC));
+        eventPublisher.publishEvent(new ServicePackageCatalog.Changed(id));
+        return toResponseWithSubscriberCount(updatedPackage);
     }
 
     /**
      * Subscribe a customer to a service package.
+     * Inserts the one join row by its key without loading either side's collection; the customer and package
+     * are only looked up to explain why nothing was inserted. The start is appended to the subscription history.
      */
     @Transactional
     public void subscribeCustomerToPackage(Long servicePackageId, Long customerId) {
         log.debug("Subscribing customer {} to service package {}", customerId, servicePackageId);
 
-        // Load entities with their collections
-        Customer customer = customerRepository.findByIdWithSubscriptions(customerId)
-            .orElseThrow(() -> new CustomerNotFoundException(customerId));
-
-        ServicePackage servicePackage = servicePackageRepository.findByIdWithSubscribers(servicePackageId)
-            .orElseThrow(() -> new ServicePackageNotFoundException(servicePackageId));
-
-        // Check if already subscribed
-        if (customer.getSubscribedPackages().contains(servicePackage)) {
+        if (servicePackageRepository.insertSubscription(customerId, servicePackageId) == 0) {
+            requireCustomerAndPackage(customerId, servicePackageId);
             throw new BadRequestException("Customer is already subscribed to this service package");
         }
-
-        // Use bidirectional synchronization helper method
-        customer.addServicePackage(servicePackage);
-
-        // Save from the owning side (Customer)
-        customerRepository.save(customer);
+        servicePackageRepository.adjustSubscriberCount(servicePackageId, 1);
+        servicePackageRepository.recordPackageRevenue(servicePackageId);
+        servicePackageRepository.recordSubscribed(servicePackageId, List.of(customerId), LocalDateTime.now(ZoneOffset.UTC));
 
         log.info("Successfully subscribed customer {} to service package {}",
             customerId, servicePackageId);
@@ -208,27 +266,20 @@ public class ServicePackageService {
 
     /**
      * Unsubscribe a customer from a service package.
+     * Deletes the one join row by its key without loading either side's collection and appends the end to the
+     * subscription history.
      */
     @Transactional
     public void unsubscribeCustomerFromPackage(Long servicePackageId, Long customerId) {
         log.debug("Unsubscribing customer {} from service package {}", customerId, servicePackageId);
 
-        Customer customer = customerRepository.findByIdWithSubscriptions(customerId)
-            .orElseThrow(() -> new CustomerNotFoundException(customerId));
-
-        ServicePackage servicePackage = servicePackageRepository.findByIdWithSubscribers(servicePackageId)
-            .orElseThrow(() -> new ServicePackageNotFoundException(servicePackageId));
-
-        // Check if actually subscribed
-        if (!customer.getSubscribedPackages().contains(servicePackage)) {
+        if (servicePackageRepository.deleteSubscription(customerId, servicePackageId) == 0) {
+            requireCustomerAndPackage(customerId, servicePackageId);
             throw new BadRequestException("Customer is not subscribed to this service package");
         }
-
-        // Use bidirectional synchronization helper method
-        customer.removeServicePackage(servicePackage);
-
-        // Save from the owning side (Customer)
-        customerRepository.save(customer);
+        servicePackageRepository.adjustSubscriberCount(servicePackageId, -1);
+        servicePackageRepository.recordPackageRevenue(servicePackageId);
+        servicePackageRepository.recordUnsubscribed(servicePackageId, List.of(customerId), LocalDateTime.now(ZoneOffset.UTC));
 
         log.info("Successfully unsubscribed customer {} from service package {}",
             customerId, servicePackageId);
@@ -236,24 +287,82 @@ public class ServicePackageService {
 
     /**
      * Get all subscribers of a service package.
+     * Reads only the subscriber columns from the join table and customers; no customer or profile entity is loaded.
      */
     public SubscribersResponse getServicePackageSubscribers(Long servicePackageId) {
         log.debug("Fetching subscribers for service package {}", servicePackageId);
 
-        ServicePackage servicePackage = servicePackageRepository.findByIdWithSubscribers(servicePackageId)
-            .orElseThrow(() -> new ServicePackageNotFoundException(servicePackageId));
-
-        List<SubscriberDto> subscribers = servicePackage.getSubscribers().stream()
-            .map(customer -> SubscriberDto.of(
-                customer.getId(),
-                customer.getFirstName(),
-                customer.getLastName(),
-                customer.getEmail()
-            ))
-            .toList();
+        requireServicePackage(servicePackageId);
+        List<SubscriberDto> subscribers;
+        try (Stream<SubscriberDto> rows = servicePackageRepository.streamSubscribers(servicePackageId)) {
+            subscribers = rows.toList();
+        }
 
         log.debug("Found {} subscribers for service package {}", subscribers.size(), servicePackageId);
 
         return SubscribersResponse.of(subscribers);
     }
-}
\ No newline at end of file
+
+    /**
+     * Get subscribers of a service package with keyset (cursor) pagination by customer ID.
+     * Each page is one index range scan over the join table, so its cost does not grow with depth or package size.
+     */
+    public CursorPage<SubscriberDto> getServicePackageSubscribersWithCursor(Long servicePackageId, String after, Integer limit) {
+        KeysetCursor cursor = KeysetCursor.resolve(after, null, SUBSCRIBER_CURSOR_SORT_KEYS);
+        int pageSize = KeysetCursor.validateLimit(limit);
+        log.debug("Fetching subscribers for service package {} after cursor: {}, limit: {}", servicePackageId, cursor, pageSize);
+
+        requireServicePackage(servicePackageId);
+        List<SubscriberDto> subscribers = servicePackageRepository.findSubscribersAfter(servicePackageId, cursor.id(), pageSize + 1);
+
+        return CursorPage.of(subscribers, pageSize, Function.identity(), last -> cursor.next(null, last.id()).encode());
+    }
+
+    /**
+     * Stream all subscribers of a service package to the given consumer.
+     * Rows are read through a forward-only cursor as plain projections, so heap use stays flat however many there are.
+     * Call {@link #requireServicePackage} first when the response must fail with 404 before streaming starts.
+     */
+    public void streamServicePackageSubscribers(Long servicePackageId, Consumer<SubscriberDto> consumer) {
+        log.debug("Streaming subscribers for service package {}", servicePackageId);
+
+        long count = 0;
+        try (Stream<SubscriberDto> subscribers = servicePackageRepository.streamSubscribers(servicePackageId)) {
+            Iterator<SubscriberDto> iterator = subscribers.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                count++;
+            }
+        }
+
+        log.debug("Streamed {} subscribers for service package {}", count, servicePackageId);
+    }
+
+    /**
+     * Check that a service package exists.
+     *
+     * @throws ServicePackageNotFoundException if it does not
+     */
+    public void requireServicePackage(Long servicePackageId) {
+        if (!servicePackageRepository.existsById(servicePackageId)) {
+            throw new ServicePackageNotFoundException(servicePackageId);
+        }
+    }
+
+    /**
+     * Throw the not-found exception for whichever of the customer and package is missing, customer first.
+     */
+    private void requireCustomerAndPackage(Long customerId, Long servicePackageId) {
+        if (!customerRepository.existsById(customerId)) {
+            throw new CustomerNotFoundException(customerId);
+        }
+        requireServicePackage(servicePackageId);
+    }
+
+    /**
+     * Map a package with its materialized subscriber count.
+     */
+    private ServicePackageResponse toResponseWithSubscriberCount(ServicePackage servicePackage) {
+        return servicePackageMapper.toResponseWithSubscriberCount(servicePackage, servicePackage.getSubscriberCount());
+    }
+}
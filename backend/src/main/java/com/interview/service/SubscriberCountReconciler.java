@@ -0,0 +1,64 @@
+package com.interview.service;
+
+import com.interview.repository.ServicePackageRepository;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Rebuilds the materialized {@code subscriber_count} of service packages from customer_service_packages.
+ *
+ * <p>Subscriptions keep the counter current as they happen; this job corrects drift from anything that bypasses
+ * them, such as manual SQL. Packages are walked by id in chunks, each recounted in its own short transaction, so
+ * the job never locks the whole table and a failure only loses the current chunk. A corrected package's revenue is
+ * recorded for the current month, since it changed with the count.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SubscriberCountReconciler {
+
+    static final int CHUNK_SIZE = 500;
+
+    private final ServicePackageRepository servicePackageRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Recount every package's subscribers chunk by chunk, returning how many counters were corrected.
+     */
+    @Scheduled(cron = "${app.service-packages.subscriber-count-reconcile-cron:0 30 3 * * *}")
+    public int reconcile() {
+        log.debug("Reconciling service package subscriber counts in chunks of {}", CHUNK_SIZE);
+
+        int corrected = 0;
+        Long afterId = 0L;
+        List<Long> ids = servicePackageRepository.findIdsAfter(afterId, Limit.of(CHUNK_SIZE));
+        while (!ids.isEmpty()) {
+            List<Long> chunk = ids;
+            corrected += transactionTemplate.execute(status -> reconcileChunk(chunk));
+            afterId = ids.getLast();
+            ids = ids.size() < CHUNK_SIZE ? List.of() : servicePackageRepository.findIdsAfter(afterId, Limit.of(CHUNK_SIZE));
+        }
+
+        if (corrected > 0) {
+            log.warn("Corrected subscriber count of {} service packages", corrected);
+        } else {
+            log.info("Service package subscriber counts are consistent");
+        }
+        return corrected;
+    }
+
+    private int reconcileChunk(List<Long> ids) {
+        List<Long> stale = servicePackageRepository.findIdsWithStaleSubscriberCount(ids);
+        if (stale.isEmpty()) {
+            return 0;
+        }
+        int corrected = servicePackageRepository.reconcileSubscriberCounts(stale);
+        stale.forEach(servicePackageRepository::recordPackageRevenue);
+        return corrected;
+    }
+}
@@ -0,0 +1,99 @@
+package com.interview.service;
+
+import com.interview.dto.CursorPage;
+import com.interview.dto.MonthlyChurn;
+import com.interview.dto.SubscriptionMembership;
+import com.interview.dto.projection.MonthlySubscriptionEvents;
+import com.interview.exception.BadRequestException;
+import com.interview.exception.ServicePackageNotFoundException;
+import com.interview.repository.ServicePackageRepository;
+import com.interview.util.KeysetCursor;
+import com.interview.util.MonthRange;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for questions about past subscriptions, answered from the append-only subscription history.
+ *
+ * <p>Point-in-time membership reads the subscriptions of one package started by the requested moment and drops
+ * those ended by it. Churn counts the subscriptions running before the first requested month once, then reads the
+ * starts and ends of the requested months with one grouped query and carries the running count forward.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class SubscriptionHistoryService {
+
+    public static final int DEFAULT_MONTHS = 12;
+    public static final int MAX_MONTHS = 120;
+
+    private static final Set<String> MEMBER_CURSOR_SORT_KEYS = Set.of(KeysetCursor.ID_SORT_KEY);
+    private static final int RATE_SCALE = 4;
+
+    private final ServicePackageRepository servicePackageRepository;
+
+    /**
+     * Get the ids of the customers subscribed to a package at {@code at}, with keyset pagination by customer ID.
+     *
+     * @throws BadRequestException if {@code at} is missing or in the future, or the cursor or limit is invalid
+     * @throws ServicePackageNotFoundException if the package does not exist
+     */
+    public SubscriptionMembership getSubscribersAt(Long servicePackageId, Instant at, String after, Integer limit) {
+        if (at == null || at.isAfter(Instant.now())) {
+            throw new BadRequestException("A point in time that is not in the future is required");
+        }
+        KeysetCursor cursor = KeysetCursor.resolve(after, null, MEMBER_CURSOR_SORT_KEYS);
+        int pageSize = KeysetCursor.validateLimit(limit);
+        log.debug("Fetching subscribers of service package {} at {} after cursor: {}, limit: {}", servicePackageId, at, cursor, pageSize);
+
+        if (!servicePackageRepository.existsById(servicePackageId)) {
+            throw new ServicePackageNotFoundException(servicePackageId);
+        }
+        LocalDateTime time = LocalDateTime.ofInstant(at, ZoneOffset.UTC);
+        List<Long> customerIds = servicePackageRepository.findSubscriberIdsAt(servicePackageId, time, cursor.id(), pageSize + 1);
+
+        return new SubscriptionMembership(servicePackageId, at, servicePackageRepository.wasPackageActiveAt(servicePackageId, time),
+            CursorPage.of(customerIds, pageSize, Function.identity(), last -> cursor.next(null, last).encode()));
+    }
+
+    /**
+     * Get the subscription churn and retention of each month from {@code from} to {@code to} (defaults: the last
+     * 12 months up to the current one, which is counted up to now).
+     */
+    public List<MonthlyChurn> getChurn(YearMonth from, YearMonth to) {
+        MonthRange range = MonthRange.resolve(from, to, DEFAULT_MONTHS, MAX_MONTHS);
+        log.debug("Fetching subscription churn from {} to {}", range.from(), range.to());
+
+        long running = servicePackageRepository.countSubscriptionsBefore(range.from().atDay(1).atStartOfDay());
+        Map<YearMonth, MonthlySubscriptionEvents> eventsByMonth = servicePackageRepository
+            .countSubscriptionEventsByMonth(range.from(), range.to()).stream()
+            .collect(Collectors.toMap(MonthlySubscriptionEvents::month, Function.identity()));
+
+        List<MonthlyChurn> months = new ArrayList<>();
+        for (YearMonth month = range.from(); !month.isAfter(range.to()); month = month.plusMonths(1)) {
+            MonthlySubscriptionEvents events = eventsByMonth.getOrDefault(month, new MonthlySubscriptionEvents(month, 0L, 0L, 0L));
+            long atEnd = running + events.started() - events.ended();
+            BigDecimal churnRate = running == 0 ? null
+                : BigDecimal.valueOf(events.endedFromEarlierMonths()).divide(BigDecimal.valueOf(running), RATE_SCALE, RoundingMode.HALF_UP);
+            months.add(new MonthlyChurn(month, running, events.started(), events.ended(), atEnd, churnRate,
+                churnRate == null ? null : BigDecimal.ONE.subtract(churnRate)));
+            running = atEnd;
+        }
+        return months;
+    }
+}
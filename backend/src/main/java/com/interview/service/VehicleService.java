@@ -1,7 +1,12 @@
 package com.interview.service;
 
+import com.interview.dto.BatchResult;
+import com.interview.dto.CursorPage;
+import com.interview.dto.Tagged;
+import com.interview.dto.VehicleFacets;
 import com.interview.dto.VehicleRequest;
 import com.interview.dto.VehicleResponse;
+import com.interview.dto.VehicleSearchResponse;
 import com.interview.dto.filter.VehicleFilter;
 import com.interview.entity.Customer;
 import com.interview.entity.Vehicle;
@@ -10,14 +15,24 @@ import com.interview.exception.CustomerNotFoundException;
 import com.interview.exception.VehicleNotFoundException;
 import com.interview.mapper.VehicleMapper;
 import com.interview.repository.CustomerRepository;
+import com.interview.repository.StreamingHints;
 import com.interview.repository.VehicleRepository;
 import com.interview.specification.VehicleSpecs;
+import com.interview.util.BatchLookup;
+import com.interview.util.EntityTags;
+import com.interview.util.KeysetCursor;
+import com.interview.util.SparseFields;
+import jakarta.persistence.EntityManager;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,7 +42,10 @@ import org.springframework.transaction.annotation.Transactional;
  * <p>This service handles the business logic for vehicle management, including:
  * <ul>
  *   <li>Creating vehicles with customer validation</li>
- *   <li>Retrieving vehicles by ID, listing all vehicles or paginated list of vehicles</li>
+ *   <li>Retrieving vehicles by ID or in batches of IDs</li>
+ *   <li>Listing all, paginated (offset or cursor based) or searched vehicles, optionally as a sparse fieldset</li>
+ *   <li>Counting search results per make, model and year for facets</li>
+ *   <li>Streaming all vehicles for large exports with constant memory</li>
  *   <li>Updating vehicle information</li>
  *   <li>Deleting vehicles</li>
  * </ul>
@@ -41,9 +59,14 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional(readOnly = true)
 public class VehicleService {
 
+    public static final Set<String> CURSOR_SORT_KEYS = Set.of(KeysetCursor.ID_SORT_KEY, "vin");
+    public static final Set<String> SPARSE_FIELDS = SparseFields.fieldsOf(VehicleResponse.class);
+
     private final VehicleRepository vehicleRepository;
     private final CustomerRepository customerRepository;
     private final VehicleMapper vehicleMapper;
+    private final EntityManager entityManager;
+    private final VehicleSuggestionService vehicleSuggestionService;
 
     /**
      * Create a new vehicle for a customer.
@@ -68,6 +91,7 @@ public class VehicleService {
         vehicle.setCustomer(customerRef);
 
         Vehicle savedVehicle = vehicleRepository.save(vehicle);
+        vehicleSuggestionService.recordChange(null, null, savedVehicle.getMake(), savedVehicle.getModel());
 
         log.info("Created vehicle with ID: {} and VIN: {} for customer ID: {}", savedVehicle.getId(), savedVehicle.getVin(), request.customerId());
 
@@ -80,11 +104,37 @@ public class VehicleService {
     public VehicleResponse getVehicleById(Long id) {
         log.debug("Fetching vehicle with ID: {}", id);
 
-        Vehicle vehicle = vehicleRepository.findByIdWithCustomer(id).orElseThrow(() -> new VehicleNotFoundException(id));
+        Vehicle vehicle = vehicleRepository.findById(id).orElseThrow(() -> new VehicleNotFoundException(id));
 
         return vehicleMapper.toResponse(vehicle);
     }
 
+    /**
+     * Get vehicle by ID unless the client's If-None-Match still matches its ETag.
+     * The ETag combines the vehicle's version with the owner's version, since the response embeds customer fields.
+     */
+    public Tagged<VehicleResponse> getVehicleIfNoneMatch(Long id, String ifNoneMatch) {
+        log.debug("Fetching vehicle with ID: {} if none match: {}", id, ifNoneMatch);
+
+        Vehicle vehicle = vehicleRepository.findById(id).orElseThrow(() -> new VehicleNotFoundException(id));
+
+        String etag = EntityTags.of(vehicle.getVersion(), vehicle.getCustomer().getVersion());
+        if (EntityTags.matchesNoneMatch(ifNoneMatch, etag)) {
+            return Tagged.notModified(etag);
+        }
+        return new Tagged<>(etag, vehicleMapper.toResponse(vehicle));
+    }
+
+    /**
+     * Get vehicles by IDs in request order (includes customer data), reporting IDs that do not exist.
+     */
+    public BatchResult<VehicleResponse> getVehiclesByIds(List<Long> ids) {
+        log.debug("Fetching {} vehicles by IDs", ids == null ? 0 : ids.size());
+
+        return BatchLookup.fetch(ids, vehicleRepository::findAllByIdWithCustomers, Vehicle::getId,
+            vehicles -> vehicles.stream().map(vehicleMapper::toResponse).toList());
+    }
+
     /**
      * Get all vehicles (includes customer data).
      */
@@ -95,6 +145,42 @@ public class VehicleService {
         return vehicleMapper.toResponseList(vehicles);
     }
 
+    /**
+     * Get all vehicles with only the requested fields, or with every field when {@code fields} is absent.
+     * A fieldset is served by a tuple projection, so no entity is loaded and customers are joined only when needed.
+     */
+    public List<VehicleResponse> getAllVehicles(String fields) {
+        Set<String> requestedFields = SparseFields.parse(fields, SPARSE_FIELDS);
+        if (requestedFields == null) {
+            return getAllVehicles();
+        }
+        log.debug("Fetching all vehicles with fields: {}", requestedFields);
+
+        return vehicleRepository.findAllProjected(requestedFields);
+    }
+
+    /**
+     * Stream all vehicles (includes customer data) to the given consumer.
+     * Rows are read through a forward-only cursor and the persistence context is cleared
+     * every fetch batch, so heap use stays flat regardless of the number of vehicles.
+     */
+    public void streamAllVehicles(Consumer<VehicleResponse> consumer) {
+        log.debug("Streaming all vehicles");
+
+        long count = 0;
+        try (Stream<Vehicle> vehicles = vehicleRepository.streamAllWithCustomers()) {
+            Iterator<Vehicle> iterator = vehicles.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(vehicleMapper.toResponse(iterator.next()));
+                if (++count % StreamingHints.FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+
+        log.debug("Streamed {} vehicles", count);
+    }
+
     /**
      * Get vehicles with pagination (includes customer data).
      */
@@ -105,6 +191,37 @@ public class VehicleService {
         return vehiclePage.map(vehicleMapper::toResponse);
     }
 
+    /**
+     * Get vehicles with pagination and only the requested fields, or with every field when {@code fields} is absent.
+     */
+    public Page<VehicleResponse> getVehiclesWithPagination(String fields, Pageable pageable) {
+        Set<String> requestedFields = SparseFields.parse(fields, SPARSE_FIELDS);
+        if (requestedFields == null) {
+            return getVehiclesWithPagination(pageable);
+        }
+        log.debug("Fetching vehicles with pagination: {}, fields: {}", pageable, requestedFields);
+
+        return vehicleRepository.findAllProjected(null, requestedFields, pageable);
+    }
+
+    /**
+     * Get vehicles with keyset (cursor) pagination (includes customer data).
+     * Seeks past the cursor position instead of using OFFSET, so deep pages cost the same as the first.
+     */
+    public CursorPage<VehicleResponse> getVehiclesWithCursor(String after, Integer limit, String sortBy) {
+        KeysetCursor cursor = KeysetCursor.resolve(after, sortBy, CURSOR_SORT_KEYS);
+        int pageSize = KeysetCursor.validateLimit(limit);
+        log.debug("Fetching vehicles after cursor: {}, limit: {}", cursor, pageSize);
+
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<Vehicle> vehicles = cursor.isIdSort()
+            ? vehicleRepository.findWithCustomersAfterId(cursor.id(), fetchLimit)
+            : vehicleRepository.findWithCustomersAfterVin(cursor.value(), cursor.id(), fetchLimit);
+
+        return CursorPage.of(vehicles, pageSize, vehicleMapper::toResponse,
+            last -> cursor.next(cursor.isIdSort() ? null : last.getVin(), last.getId()).encode());
+    }
+
     /**
      * Update vehicle.
      */
@@ -112,7 +229,7 @@ public class VehicleService {
     public VehicleResponse updateVehicle(Long id, VehicleRequest request) {
         log.debug("Updating vehicle with ID: {}", id);
 
-        Vehicle existingVehicle = vehicleRepository.findByIdWithCustomer(id).orElseThrow(() -> new VehicleNotFoundException(id));
+        Vehicle existingVehicle = vehicleRepository.findById(id).orElseThrow(() -> new VehicleNotFoundException(id));
 
         // Check if VIN is changing and new VIN already exists
         if (!existingVehicle.getVin().equals(request.vin()) && vehicleRepository.existsByVin(request.vin())) {
@@ -133,9 +250,12 @@ public class VehicleService {
         }
 
         // Update vehicle fields
+        String oldMake = existingVehicle.getMake();
+        String oldModel = existingVehicle.getModel();
         vehicleMapper.updateEntity(existingVehicle, request);
 
         Vehicle updatedVehicle = vehicleRepository.save(existingVehicle);
+        vehicleSuggestionService.recordChange(oldMake, oldModel, updatedVehicle.getMake(), updatedVehicle.getModel());
 
         log.info("Updated vehicle with ID: {} and VIN: {}", updatedVehicle.getId(), updatedVehicle.getVin());
         return vehicleMapper.toResponse(updatedVehicle);
@@ -143,28 +263,58 @@ public class VehicleService {
 
     /**
      * Search vehicles using filters with pagination (includes customer data).
-     * Uses JPA Specifications for type-safe filtering and @EntityGraph to prevent N+1 queries.
+     * Runs a statement compiled once per filter shape, fetching customers in the join the customer filters use.
      */
     public Page<VehicleResponse> searchVehicles(VehicleFilter filter, Pageable pageable) {
         log.debug("Searching vehicles with filter: {}, pagination: {}", filter, pageable);
 
-        Specification<Vehicle> spec = VehicleSpecs.getVehiclesByFilters(filter);
-        Page<Vehicle> vehiclePage = vehicleRepository.findAll(spec, pageable);
+        Page<Vehicle> vehiclePage = vehicleRepository.search(filter, pageable);
         return vehiclePage.map(vehicleMapper::toResponse);
     }
 
+    /**
+     * Search vehicles using filters with pagination and only the requested fields, or with every field when {@code fields} is absent.
+     */
+    public Page<VehicleResponse> searchVehicles(VehicleFilter filter, String fields, Pageable pageable) {
+        Set<String> requestedFields = SparseFields.parse(fields, SPARSE_FIELDS);
+        if (requestedFields == null) {
+            return searchVehicles(filter, pageable);
+        }
+        log.debug("Searching vehicles with filter: {}, pagination: {}, fields: {}", filter, pageable, requestedFields);
+
+        return vehicleRepository.findAllProjected(VehicleSpecs.getVehiclesByFilters(filter), requestedFields, pageable);
+    }
+
+    /**
+     * Search vehicles like {@link #searchVehicles(VehicleFilter, String, Pageable)}, adding facet counts over every
+     * matching vehicle when {@code facets} is set.
+     */
+    public VehicleSearchResponse searchVehicles(VehicleFilter filter, String fields, boolean facets, Pageable pageable) {
+        Page<VehicleResponse> page = searchVehicles(filter, fields, pageable);
+        return VehicleSearchResponse.of(page, facets ? getVehicleFacets(filter) : null);
+    }
+
+    /**
+     * Count vehicles matching the filter per make, model and year bucket, from one grouped query cached per filter.
+     */
+    public VehicleFacets getVehicleFacets(VehicleFilter filter) {
+        log.debug("Counting vehicle facets with filter: {}", filter);
+
+        return VehicleFacets.of(vehicleRepository.countFacets(VehicleSpecs.getVehiclesByFilters(filter)));
+    }
+
     /**
      * Delete vehicle.
+     * Removes the loaded entity rather than issuing a bulk DELETE, so only this vehicle's cache entry
+     * is evicted instead of the whole second-level cache region.
      */
     @Transactional
     public void deleteVehicle(Long id) {
         log.debug("Deleting vehicle with ID: {}", id);
 
-        int deletedCount = vehicleRepository.deleteByVehicleId(id);
-
-        if (deletedCount == 0) {
-            throw new VehicleNotFoundException(id);
-        }
+        Vehicle vehicle = vehicleRepository.findById(id).orElseThrow(() -> new VehicleNotFoundException(id));
+        vehicleRepository.delete(vehicle);
+        vehicleSuggestionService.recordChange(vehicle.getMake(), vehicle.getModel(), null, null);
 
         log.info("Deleted vehicle with ID: {}", id);
     }
@@ -0,0 +1,115 @@
+package com.interview.service;
+
+import com.interview.dto.Suggestion;
+import com.interview.dto.projection.VehicleFacetCount;
+import com.interview.exception.BadRequestException;
+import com.interview.repository.VehicleRepository;
+import com.interview.util.PrefixTrie;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service for typeahead suggestions of vehicle makes and models.
+ *
+ * <p>Suggestions are served from in-memory prefix tries holding every distinct make and model with the
+ * number of vehicles carrying it, so a lookup never touches the database. The tries are built from one
+ * grouped query when the application starts and kept current by the vehicle write paths, which report each
+ * change here. Changes are applied only once their transaction commits, so rolled back writes never show up.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VehicleSuggestionService {
+
+    public static final String MAKE_FIELD = "make";
+    public static final String MODEL_FIELD = "model";
+    public static final Set<String> FIELDS = Set.of(MAKE_FIELD, MODEL_FIELD);
+    public static final int MAX_LIMIT = 50;
+
+    private final VehicleRepository vehicleRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private PrefixTrie makes = new PrefixTrie();
+    private PrefixTrie models = new PrefixTrie();
+
+    /**
+     * Rebuild both tries from the vehicles table, replacing their current contents.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<VehicleFacetCount> rows = vehicleRepository.countFacets(null);
+
+        PrefixTrie builtMakes = new PrefixTrie();
+        PrefixTrie builtModels = new PrefixTrie();
+        for (VehicleFacetCount row : rows) {
+            builtMakes.add(row.make(), row.count());
+            builtModels.add(row.model(), row.count());
+        }
+
+        lock.writeLock().lock();
+        try {
+            makes = builtMakes;
+            models = builtModels;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Built vehicle suggestions with {} makes and {} models", builtMakes.size(), builtModels.size());
+    }
+
+    /**
+     * The most common makes or models starting with {@code prefix} (case-insensitive), most common first.
+     */
+    public List<Suggestion> suggest(String field, String prefix, int limit) {
+        if (field == null || !FIELDS.contains(field)) {
+            throw new BadRequestException("Unknown suggestion field '" + field + "'. Supported fields: " + FIELDS.stream().sorted().toList());
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        lock.readLock().lock();
+        try {
+            return (MAKE_FIELD.equals(field) ? makes : models).top(prefix, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Record a vehicle write by its make and model before (null when created) and after (null when deleted).
+     * Applied when the current transaction commits, or immediately outside of one.
+     */
+    public void recordChange(String oldMake, String oldModel, String newMake, String newModel) {
+        Runnable apply = () -> apply(oldMake, oldModel, newMake, newModel);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private void apply(String oldMake, String oldModel, String newMake, String newModel) {
+        lock.writeLock().lock();
+        try {
+            makes.remove(oldMake, 1);
+            models.remove(oldModel, 1);
+            makes.add(newMake, 1);
+            models.add(newModel, 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -3,7 +3,15 @@ package com.interview.service.auth;
 import com.interview.dto.auth.LoginRequest;
 import com.interview.dto.auth.LoginResponse;
 import com.interview.enums.Role;
+import com.interview.exception.BadRequestException;
+import com.interview.exception.BusinessException;
+import com.interview.exception.ServiceUnavailableException;
 import com.interview.exception.UnauthorizedException;
+import io.jsonwebtoken.JwtException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,7 +20,7 @@ import org.springframework.stereotype.Service;
 /**
  * Service for handling authentication operations.
  *
- * <p>Orchestrates user credential validation and JWT token generation.
+ * <p>Orchestrates user credential validation, JWT token generation and token revocation.
  * In production, this would integrate with proper authentication providers.
  */
 @Slf4j
@@ -22,6 +30,7 @@ public class AuthService {
 
     private final UserService userService;
     private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
 
     @Value("${app.jwt.expiration:86400000}")
     private Long jwtExpiration;
@@ -30,32 +39,64 @@ public class AuthService {
      * Authenticate user and generate JWT token.
      *
      * @param loginRequest user credentials
-     * @return JWT token with user information
-     * @throws UnauthorizedException if credentials are invalid
+     * @return JWT token with user information, completing exceptionally with {@link UnauthorizedException}
+     *     if credentials are invalid
+     * @throws ServiceUnavailableException if too many password checks are already in progress
      */
-    public LoginResponse authenticate(LoginRequest loginRequest) {
+    public CompletableFuture<LoginResponse> authenticate(LoginRequest loginRequest) {
         log.debug("Authenticating user: {}", loginRequest.username());
 
-        // Validate credentials
-        if (!userService.validateCredentials(loginRequest.username(), loginRequest.password())) {
-            log.warn("Failed authentication attempt for user: {}", loginRequest.username());
-            throw UnauthorizedException.invalidCredentials();
-        }
+        return userService.verifyCredentials(loginRequest.username(), loginRequest.password())
+            .thenApply(user -> {
+                // Validate credentials
+                if (user.isEmpty()) {
+                    log.warn("Failed authentication attempt for user: {}", loginRequest.username());
+                    throw UnauthorizedException.invalidCredentials();
+                }
+
+                // Generate JWT token
+                Role userRole = user.get().getRole();
+                String token = jwtService.generateToken(loginRequest.username(), userRole);
 
-        // Get user role
-        Role userRole = userService.getUserRole(loginRequest.username())
-            .orElseThrow(UnauthorizedException::invalidCredentials);
+                log.info("Successfully authenticated user: {} with role: {}", loginRequest.username(), userRole);
+
+                return LoginResponse.of(
+                    token,
+                    loginRequest.username(),
+                    userRole,
+                    jwtExpiration / 1000 // Convert to seconds
+                );
+            });
+    }
 
-        // Generate JWT token
-        String token = jwtService.generateToken(loginRequest.username(), userRole);
+    /**
+     * Revoke the caller's own token.
+     *
+     * @throws UnauthorizedException if the token is invalid, expired or has no ID
+     */
+    public void logout(String token) {
+        revoke(token, UnauthorizedException::invalidToken);
+    }
 
-        log.info("Successfully authenticated user: {} with role: {}", loginRequest.username(), userRole);
+    /**
+     * Revoke any token issued by this service, e.g. a leaked one, until it expires.
+     *
+     * @throws BadRequestException if the token is invalid, expired or has no ID
+     */
+    public void revokeToken(String token) {
+        revoke(token, () -> new BadRequestException("Token is invalid, already expired or cannot be revoked"));
+    }
 
-        return LoginResponse.of(
-            token,
-            loginRequest.username(),
-            userRole,
-            jwtExpiration / 1000 // Convert to seconds
-        );
+    private void revoke(String token, Supplier<? extends BusinessException> invalid) {
+        JwtService.VerifiedToken verified;
+        try {
+            verified = jwtService.verify(token);
+        } catch (JwtException | IllegalArgumentException ex) {
+            throw invalid.get();
+        }
+        if (verified.tokenId() == null) {
+            throw invalid.get();
+        }
+        tokenRevocationService.revoke(verified.tokenId(), verified.username(), LocalDateTime.ofInstant(verified.expiresAt(), ZoneOffset.UTC));
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,22 @@
 package com.interview.service.auth;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.interview.enums.Role;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
-import java.security.Key;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.UUID;
 import java.util.function.Function;
 import javax.crypto.SecretKey;
 import lombok.extern.slf4j.Slf4j;
@@ -18,6 +29,10 @@ import org.springframework.stereotype.Service;
  * <p>Handles creation, parsing, and validation of JWT tokens for authentication.
  * Includes user role information in token claims for authorization.
  *
+ * <p>The signing key and parser are built once. {@link #verify} parses and verifies a token a single time and
+ * keeps the result in a bounded cache keyed by the token's SHA-256 digest until the token expires, so a client
+ * reusing its token costs one hash per request instead of a signature check and claims parse.
+ *
  * <p><strong>Production Considerations:</strong>
  * <ul>
  *   <li><strong>Secret Management:</strong> Use AWS Secrets Manager, Azure Key Vault, or HashiCorp Vault</li>
@@ -30,11 +45,33 @@ import org.springframework.stereotype.Service;
 @Service
 public class JwtService {
 
-    @Value("${app.jwt.secret}")
-    private String jwtSecret;
+    private static final String ROLE_CLAIM = "role";
+
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final Long jwtExpiration;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    /**
+     * ID ({@code jti}, null for tokens issued without one), subject, role and expiry of a token whose signature and
+     * expiry have been verified.
+     */
+    public record VerifiedToken(String tokenId, String username, Role role, Instant expiresAt) {}
 
-    @Value("${app.jwt.expiration}") // 24 hours in milliseconds
-    private Long jwtExpiration;
+    /**
+     * Build the signing key, parser and verified-token cache once from the configured secret.
+     */
+    public JwtService(@Value("${app.jwt.secret}") String jwtSecret,
+                      @Value("${app.jwt.expiration}") Long jwtExpiration, // 24 hours in milliseconds
+                      @Value("${app.jwt.verified-token-cache-size:10000}") long verifiedTokenCacheSize) {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.jwtExpiration = jwtExpiration;
+        this.verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(verifiedTokenCacheSize)
+            .expireAfter(Expiry.creating((String digest, VerifiedToken token) -> Duration.between(Instant.now(), token.expiresAt())))
+            .build();
+    }
 
     /**
      * Generate JWT token for authenticated user.
@@ -46,34 +83,55 @@ public class JwtService {
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
         return Jwts.builder()
+            .id(UUID.randomUUID().toString())
             .subject(username)
-            .claim("role", role.name())
+            .claim(ROLE_CLAIM, role.name())
             .issuedAt(now)
             .expiration(expiryDate)
-            .signWith(getSigningKey())
+            .signWith(signingKey)
             .compact();
     }
 
+    /**
+     * Verify the token's signature and expiry and read its subject and role, parsing it at most once while it is valid.
+     *
+     * @throws JwtException if the token is malformed, not signed with our key, expired, or carries no known role
+     */
+    public VerifiedToken verify(String token) {
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return cached;
+        }
+
+        Claims claims = extractAllClaims(token);
+        if (claims.getSubject() == null || claims.getExpiration() == null) {
+            throw new JwtException("Token must carry a subject and an expiration");
+        }
+        VerifiedToken verified = new VerifiedToken(claims.getId(), claims.getSubject(), role(claims), claims.getExpiration().toInstant());
+        verifiedTokens.put(digest, verified);
+        return verified;
+    }
+
     /**
      * Extract username from JWT token.
      */
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).username();
     }
 
     /**
      * Extract user role from JWT token.
      */
     public Role extractRole(String token) {
-        String roleString = extractClaim(token, claims -> claims.get("role", String.class));
-        return Role.valueOf(roleString);
+        return verify(token).role();
     }
 
     /**
      * Extract expiration date from JWT token.
      */
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return Date.from(verify(token).expiresAt());
     }
 
     /**
@@ -84,37 +142,44 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
-    /**
-     * Check if JWT token is expired.
-     */
-    public Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
     /**
      * Validate JWT token against username and expiration.
      */
     public Boolean validateToken(String token, String username) {
-        final String tokenUsername = extractUsername(token);
-        return (tokenUsername.equals(username) && !isTokenExpired(token));
+        try {
+            return verify(token).username().equals(username);
+        } catch (JwtException | IllegalArgumentException ex) {
+            return false;
+        }
     }
 
     /**
-     * Extract all claims from JWT token.
+     * Extract all claims from JWT token, verifying its signature and expiry.
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-            .verifyWith((SecretKey) getSigningKey())
-            .build()
-            .parseSignedClaims(token)
-            .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     /**
-     * Get signing key for JWT operations.
+     * Read the role claim, rejecting a signed token that lacks one or names a role we do not have.
      */
-    private Key getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static Role role(Claims claims) {
+        Object role = claims.get(ROLE_CLAIM);
+        if (role instanceof String name) {
+            for (Role candidate : Role.values()) {
+                if (candidate.name().equals(name)) {
+                    return candidate;
+                }
+            }
+        }
+        throw new JwtException("Token must carry a known role");
+    }
+
+    private static String digest(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+package com.interview.service.auth;
+
+import com.interview.exception.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Checks passwords against their stored hashes on a small dedicated thread pool.
+ *
+ * <p>BCrypt is deliberately slow, so hashing on request threads would let a burst of logins occupy every
+ * Tomcat thread. The pool has a fixed number of threads and a bounded queue; when both are full a check is
+ * refused at once with {@link ServiceUnavailableException} instead of waiting.
+ *
+ * <p>A check for an unknown user still hashes the password, against a placeholder hash, so response times do
+ * not reveal which usernames exist.
+ */
+@Slf4j
+@Service
+public class PasswordVerifier {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final String unknownUserHash;
+
+    /**
+     * Start the fixed pool of {@code threads} workers with room for {@code queueCapacity} waiting checks.
+     */
+    public PasswordVerifier(PasswordEncoder passwordEncoder,
+                            @Value("${app.auth.password-verification.threads:4}") int threads,
+                            @Value("${app.auth.password-verification.queue-capacity:64}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        this.unknownUserHash = passwordEncoder.encode("unknown-user-placeholder");
+        BlockingQueue<Runnable> queue = queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, queue,
+            Thread.ofPlatform().name("password-verification-", 0).daemon(true).factory(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Check the raw password against a stored hash, or against a placeholder when {@code passwordHash} is null.
+     *
+     * @throws ServiceUnavailableException if the pool and its queue are full
+     */
+    public CompletableFuture<Boolean> matches(String rawPassword, String passwordHash) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                boolean matches = passwordEncoder.matches(rawPassword, passwordHash == null ? unknownUserHash : passwordHash);
+                return passwordHash != null && matches;
+            }, executor);
+        } catch (RejectedExecutionException ex) {
+            log.warn("Password verification rejected: {} checks running, {} queued", executor.getActiveCount(), executor.getQueue().size());
+            throw new ServiceUnavailableException("Too many sign-in attempts in progress, please retry shortly", ex);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
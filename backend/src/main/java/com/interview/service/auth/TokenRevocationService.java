@@ -0,0 +1,108 @@
+package com.interview.service.auth;
+
+import com.interview.entity.RevokedToken;
+import com.interview.repository.RevokedTokenRepository;
+import com.interview.util.BloomFilter;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Revokes JWTs before they expire and answers whether a token is revoked on every authenticated request.
+ *
+ * <p>Revoked token IDs ({@code jti}) are stored in {@code revoked_tokens}. An in-memory Bloom filter of the
+ * unexpired ones answers "certainly not revoked" for almost every token without a query; only a filter hit is
+ * checked against the table, which also weeds out the filter's rare false positives.
+ *
+ * <p>A scheduled job deletes revocations whose tokens have expired and rebuilds the filter from the rest, since a
+ * Bloom filter cannot forget values. The rebuild also picks up revocations made by other instances, which this
+ * instance otherwise only learns about at the next refresh.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter revoked;
+
+    /**
+     * Load the unexpired revocations into a filter sized for {@code expectedRevocations} at {@code falsePositiveRate}.
+     */
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository, TransactionTemplate transactionTemplate,
+                                  @Value("${app.jwt.revocation.expected-revocations:100000}") long expectedRevocations,
+                                  @Value("${app.jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.revoked = load(now());
+    }
+
+    /**
+     * Whether the token with this ID has been revoked; tokens without an ID cannot be revoked.
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !revoked.mightContain(tokenId)) {
+            return false;
+        }
+        return revokedTokenRepository.existsById(tokenId);
+    }
+
+    /**
+     * Revoke the token with this ID until it expires; revoking it again has no effect.
+     */
+    public void revoke(String tokenId, String username, LocalDateTime expiresAt) {
+        log.debug("Revoking token {} of user {} expiring at {}", tokenId, username, expiresAt);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!revokedTokenRepository.existsById(tokenId)) {
+                revokedTokenRepository.save(new RevokedToken(tokenId, username, expiresAt));
+            }
+        });
+        markRevoked(tokenId);
+        log.info("Revoked token {} of user {}", tokenId, username);
+    }
+
+    /**
+     * Delete revocations of expired tokens and rebuild the filter from the remaining ones, returning how many were deleted.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.refresh-interval:PT5M}", initialDelayString = "${app.jwt.revocation.refresh-interval:PT5M}")
+    public synchronized int refresh() {
+        LocalDateTime now = now();
+        int deleted = transactionTemplate.execute(status -> revokedTokenRepository.deleteExpired(now));
+        revoked = load(now);
+
+        log.debug("Pruned {} expired token revocations", deleted);
+        return deleted;
+    }
+
+    private BloomFilter load(LocalDateTime now) {
+        BloomFilter filter = new BloomFilter(expectedRevocations, falsePositiveRate);
+        List<String> tokenIds = revokedTokenRepository.findUnexpiredTokenIds(now);
+        tokenIds.forEach(filter::put);
+        if (tokenIds.size() > expectedRevocations) {
+            log.warn("{} unexpired token revocations exceed the {} the revocation filter is sized for", tokenIds.size(), expectedRevocations);
+        }
+        return filter;
+    }
+
+    /**
+     * Add a committed revocation to the filter; synchronized with {@link #refresh} so a rebuild cannot drop it.
+     */
+    private synchronized void markRevoked(String tokenId) {
+        revoked.put(tokenId);
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now(ZoneOffset.UTC);
+    }
+}
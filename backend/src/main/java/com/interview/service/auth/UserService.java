@@ -1,40 +1,32 @@
 package com.interview.service.auth;
 
 import com.interview.entity.User;
-import com.interview.enums.Role;
-import java.util.List;
+import com.interview.exception.ServiceUnavailableException;
+import com.interview.repository.UserRepository;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 /**
  * Service for managing user authentication and authorization.
  *
- * <p>Uses hardcoded users for demonstration purposes to showcase authentication flow.
+ * <p>Users live in the {@code users} table with BCrypt password hashes. Lookups by username are served from the
+ * second-level cache, and password checks run on the bounded pool of {@link PasswordVerifier}.
  *
  * <p><strong>Production Implementation Options:</strong>
  * <ul>
- *   <li><strong>Database-backed:</strong> JPA repository with BCrypt password encoding</li>
  *   <li><strong>External Identity Providers:</strong> Keycloak, Auth0, AWS Cognito, Azure AD</li>
  * </ul>
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class UserService {
 
-    // Demo users for interview purposes - replace with proper user management in production
-    private static final List<User> USERS = List.of(
-        User.builder()
-            .username("admin")
-            .password("admin123")
-            .role(Role.ADMIN)
-            .build(),
-        User.builder()
-            .username("user")
-            .password("user123")
-            .role(Role.USER)
-            .build()
-    );
+    private final UserRepository userRepository;
+    private final PasswordVerifier passwordVerifier;
 
     /**
      * Find user by username.
@@ -42,27 +34,19 @@ public class UserService {
     public Optional<User> findByUsername(String username) {
         log.debug("Looking up user: {}", username);
 
-        return USERS.stream()
-            .filter(user -> user.getUsername().equals(username))
-            .findFirst();
+        return userRepository.findByUsername(username);
     }
 
     /**
-     * Validate user credentials.
+     * Validate user credentials, completing with the user when the password matches and empty otherwise.
+     *
+     * @throws ServiceUnavailableException if too many password checks are already in progress
      */
-    public boolean validateCredentials(String username, String password) {
+    public CompletableFuture<Optional<User>> verifyCredentials(String username, String password) {
         log.debug("Validating credentials for user: {}", username);
 
-        return findByUsername(username)
-            .map(user -> user.getPassword().equals(password))
-            .orElse(false);
+        Optional<User> user = findByUsername(username);
+        return passwordVerifier.matches(password, user.map(User::getPasswordHash).orElse(null))
+            .thenApply(matches -> matches ? user : Optional.empty());
     }
-
-    /**
-     * Get user role by username.
-     */
-    public Optional<Role> getUserRole(String username) {
-        return findByUsername(username)
-            .map(User::getRole);
-    }
-}
\ No newline at end of file
+}
@@ -3,7 +3,13 @@ package com.interview.specification;
 import com.interview.dto.filter.VehicleFilter;
 import com.interview.entity.Customer;
 import com.interview.entity.Vehicle;
+import com.interview.enums.MatchMode;
+import com.interview.util.SearchTerms;
+import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.springframework.data.jpa.domain.Specification;
@@ -13,57 +19,48 @@ import org.springframework.data.jpa.domain.Specification;
  *
  * <p>Provides type-safe, composable filtering logic for Vehicle queries.
  * All specifications are combined using AND operations and work efficiently
- * with pagination and sorting.
+ * with pagination and sorting. A filter that is not set contributes no predicate at all,
+ * and the customer filters share a single join to customers.
+ *
+ * <p>Text filters compare the pre-uppercased search columns ({@code makeSearch}, {@code emailSearch}, ...)
+ * rather than {@code UPPER(column)}, and default to exact or prefix matching so the indexes on those
+ * columns apply. {@link MatchMode#CONTAINS} is available per filter but always scans.
  */
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class VehicleSpecs {
 
+    public static final MatchMode DEFAULT_MAKE_MATCH = MatchMode.PREFIX;
+    public static final MatchMode DEFAULT_MODEL_MATCH = MatchMode.PREFIX;
+    public static final MatchMode DEFAULT_CUSTOMER_EMAIL_MATCH = MatchMode.EXACT;
+    public static final MatchMode DEFAULT_CUSTOMER_NAME_MATCH = MatchMode.PREFIX;
+
     /**
      * Filter vehicles by customer ID.
      */
     public static Specification<Vehicle> hasCustomerId(Long customerId) {
-        return (root, query, cb) -> {
-            if (customerId == null) {
-                return cb.isTrue(cb.literal(true));
-            }
-            return cb.equal(root.get("customer").get("id"), customerId);
-        };
+        return (root, query, cb) -> customerId == null ? null : cb.equal(root.get("customer").get("id"), customerId);
     }
 
     /**
      * Filter vehicles by VIN (exact match).
+     * VINs are validated as upper case, so the column is compared directly and its unique index applies.
      */
     public static Specification<Vehicle> hasVin(String vin) {
-        return (root, query, cb) -> {
-            if (vin == null || vin.trim().isEmpty()) {
-                return cb.isTrue(cb.literal(true));
-            }
-            return cb.equal(cb.upper(root.get("vin")), vin.trim().toUpperCase());
-        };
+        return (root, query, cb) -> isBlank(vin) ? null : cb.equal(root.get("vin"), SearchTerms.normalize(vin));
     }
 
     /**
-     * Filter vehicles by make (case-insensitive, partial match).
+     * Filter vehicles by make (case-insensitive, prefix match by default).
      */
-    public static Specification<Vehicle> hasMake(String make) {
-        return (root, query, cb) -> {
-            if (make == null || make.trim().isEmpty()) {
-                return cb.isTrue(cb.literal(true));
-            }
-            return cb.like(cb.upper(root.get("make")), "%" + make.trim().toUpperCase() + "%");
-        };
+    public static Specification<Vehicle> hasMake(String make, MatchMode mode) {
+        return (root, query, cb) -> matches(cb, root.get("makeSearch"), make, mode, DEFAULT_MAKE_MATCH);
     }
 
     /**
-     * Filter vehicles by model (case-insensitive, partial match).
+     * Filter vehicles by model (case-insensitive, prefix match by default).
      */
-    public static Specification<Vehicle> hasModel(String model) {
-        return (root, query, cb) -> {
-            if (model == null || model.trim().isEmpty()) {
-                return cb.isTrue(cb.literal(true));
-            }
-            return cb.like(cb.upper(root.get("model")), "%" + model.trim().toUpperCase() + "%");
-        };
+    public static Specification<Vehicle> hasModel(String model, MatchMode mode) {
+        return (root, query, cb) -> matches(cb, root.get("modelSearch"), model, mode, DEFAULT_MODEL_MATCH);
     }
 
     /**
@@ -72,7 +69,7 @@ public final class VehicleSpecs {
     public static Specification<Vehicle> hasYearBetween(Integer minYear, Integer maxYear) {
         return (root, query, cb) -> {
             if (minYear == null && maxYear == null) {
-                return cb.isTrue(cb.literal(true));
+                return null;
             }
 
             if (minYear != null && maxYear != null) {
@@ -86,35 +83,27 @@ public final class VehicleSpecs {
     }
 
     /**
-     * Filter vehicles by customer email (useful for search).
+     * Filter vehicles by customer email (case-insensitive, exact match by default).
      */
-    public static Specification<Vehicle> hasCustomerEmail(String customerEmail) {
-        return (root, query, cb) -> {
-            if (customerEmail == null || customerEmail.trim().isEmpty()) {
-                return cb.isTrue(cb.literal(true));
-            }
-
-            Join<Vehicle, Customer> customerJoin = root.join("customer");
-            return cb.like(cb.upper(customerJoin.get("email")),
-                "%" + customerEmail.trim().toUpperCase() + "%");
-        };
+    public static Specification<Vehicle> hasCustomerEmail(String customerEmail, MatchMode mode) {
+        return (root, query, cb) -> isBlank(customerEmail)
+            ? null
+            : matches(cb, customerJoin(root).get("emailSearch"), customerEmail, mode, DEFAULT_CUSTOMER_EMAIL_MATCH);
     }
 
     /**
-     * Filter vehicles by customer name (firstName or lastName).
+     * Filter vehicles by customer name (firstName or lastName, case-insensitive, prefix match by default).
      */
-    public static Specification<Vehicle> hasCustomerName(String customerName) {
+    public static Specification<Vehicle> hasCustomerName(String customerName, MatchMode mode) {
         return (root, query, cb) -> {
-            if (customerName == null || customerName.trim().isEmpty()) {
-                return cb.isTrue(cb.literal(true));
+            if (isBlank(customerName)) {
+                return null;
             }
 
-            Join<Vehicle, Customer> customerJoin = root.join("customer");
-            String searchTerm = "%" + customerName.trim().toUpperCase() + "%";
-
+            Join<Vehicle, Customer> customerJoin = customerJoin(root);
             return cb.or(
-                cb.like(cb.upper(customerJoin.get("firstName")), searchTerm),
-                cb.like(cb.upper(customerJoin.get("lastName")), searchTerm)
+                matches(cb, customerJoin.get("firstNameSearch"), customerName, mode, DEFAULT_CUSTOMER_NAME_MATCH),
+                matches(cb, customerJoin.get("lastNameSearch"), customerName, mode, DEFAULT_CUSTOMER_NAME_MATCH)
             );
         };
     }
@@ -129,11 +118,44 @@ public final class VehicleSpecs {
         return Specification.allOf(
             hasCustomerId(filter.customerId()),
             hasVin(filter.vin()),
-            hasMake(filter.make()),
-            hasModel(filter.model()),
+            hasMake(filter.make(), filter.makeMatch()),
+            hasModel(filter.model(), filter.modelMatch()),
             hasYearBetween(filter.minYear(), filter.maxYear()),
-            hasCustomerEmail(filter.customerEmail()),
-            hasCustomerName(filter.customerName())
+            hasCustomerEmail(filter.customerEmail(), filter.customerEmailMatch()),
+            hasCustomerName(filter.customerName(), filter.customerNameMatch())
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Whether a text filter is unset; blank filters are ignored like missing ones.
+     */
+    public static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    /**
+     * Match a normalized search column against a term: equality for EXACT, and LIKE otherwise.
+     * Only CONTAINS needs a leading wildcard, which rules out the index.
+     */
+    private static Predicate matches(CriteriaBuilder cb, Path<String> column, String term, MatchMode mode, MatchMode defaultMode) {
+        if (isBlank(term)) {
+            return null;
+        }
+
+        MatchMode effectiveMode = mode == null ? defaultMode : mode;
+        String value = SearchTerms.pattern(term, effectiveMode);
+        return effectiveMode == MatchMode.EXACT ? cb.equal(column, value) : cb.like(column, value, SearchTerms.LIKE_ESCAPE);
+    }
+
+    /**
+     * The customers join already added by another filter of the same query, or a new one.
+     */
+    @SuppressWarnings("unchecked")
+    private static Join<Vehicle, Customer> customerJoin(Root<Vehicle> root) {
+        return root.getJoins().stream()
+            .filter(join -> "customer".equals(join.getAttribute().getName()))
+            .map(join -> (Join<Vehicle, Customer>) join)
+            .findFirst()
+            .orElseGet(() -> root.join("customer"));
+    }
+}
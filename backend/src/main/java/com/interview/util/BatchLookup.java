@@ -0,0 +1,72 @@
+package com.interview.util;
+
+import com.interview.dto.BatchResult;
+import com.interview.exception.BadRequestException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Resolves batch lookups by id with a bounded number of {@code IN (...)} queries.
+ *
+ * <p>Requested ids are deduplicated and split into chunks of {@value #CHUNK_SIZE}, so each query
+ * stays well under database bind-parameter limits and the optimizer keeps using the primary key.
+ * Rows come back in database order and are put back into request order here.
+ */
+@UtilityClass
+public class BatchLookup {
+
+    public static final int MAX_IDS = 1000;
+    public static final int CHUNK_SIZE = 500;
+
+    /**
+     * Fetch rows for the given ids chunk by chunk and map them in request order, reporting ids without a row.
+     *
+     * @throws BadRequestException if no ids are given, an id is null, or more than {@value #MAX_IDS} ids are requested
+     */
+    public static <E, T> BatchResult<T> fetch(List<Long> ids, Function<List<Long>, List<E>> loader,
+                                              Function<E, Long> idOf, Function<List<E>, List<T>> mapper) {
+        List<Long> uniqueIds = validate(ids);
+
+        List<E> rows = new ArrayList<>(uniqueIds.size());
+        for (int from = 0; from < uniqueIds.size(); from += CHUNK_SIZE) {
+            rows.addAll(loader.apply(uniqueIds.subList(from, Math.min(from + CHUNK_SIZE, uniqueIds.size()))));
+        }
+
+        Map<Long, E> rowsById = rows.stream().collect(Collectors.toMap(idOf, Function.identity(), (first, second) -> first));
+        List<E> ordered = new ArrayList<>(rowsById.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : uniqueIds) {
+            E row = rowsById.get(id);
+            if (row != null) {
+                ordered.add(row);
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        return new BatchResult<>(mapper.apply(ordered), missingIds);
+    }
+
+    /**
+     * Validate the requested ids and collapse duplicates, keeping first-occurrence order.
+     */
+    private static List<Long> validate(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new BadRequestException("At least one ID is required");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new BadRequestException("IDs must not be null");
+        }
+        List<Long> uniqueIds = List.copyOf(new LinkedHashSet<>(ids));
+        if (uniqueIds.size() > MAX_IDS) {
+            throw new BadRequestException("At most " + MAX_IDS + " IDs can be requested at once");
+        }
+        return uniqueIds;
+    }
+}
@@ -0,0 +1,90 @@
+package com.interview.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter of strings.
+ *
+ * <p>{@link #mightContain} never misses a value that was {@link #put}, and wrongly reports an absent value with
+ * roughly the false positive rate it was sized for, as long as no more than the expected number of values are
+ * added. Values cannot be removed; rebuild a new filter to drop them.
+ *
+ * <p>Each value sets {@code k} bits derived from two 64-bit hashes by double hashing. Bits are set with
+ * compare-and-set on an {@link AtomicLongArray}, so the filter is safe for concurrent use without locks.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * Size the filter for {@code expectedValues} values at the given false positive rate.
+     */
+    public BloomFilter(long expectedValues, double falsePositiveRate) {
+        if (expectedValues < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("A Bloom filter needs at least one expected value and a false positive rate between 0 and 1");
+        }
+        long bits = (long) Math.ceil(-expectedValues * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = Math.toIntExact(Math.max(1L, (bits + Long.SIZE - 1) / Long.SIZE));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedValues * Math.log(2)));
+    }
+
+    /**
+     * Add a value.
+     */
+    public void put(String value) {
+        long[] hash = hash(value);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = bitIndex(hash, i);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    /**
+     * Whether the value may have been added; false means it certainly was not.
+     */
+    public boolean mightContain(String value) {
+        long[] hash = hash(value);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = bitIndex(hash, i);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long bitIndex(long[] hash, int i) {
+        return Math.floorMod(hash[0] + i * hash[1], bitCount);
+    }
+
+    /**
+     * Two independent 64-bit FNV-1a style hashes of the UTF-8 bytes, each finished with a murmur mix.
+     */
+    private static long[] hash(String value) {
+        long h1 = 0xcbf29ce484222325L;
+        long h2 = 0x84222325cbf29ce4L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h1 = (h1 ^ (b & 0xff)) * 0x100000001b3L;
+            h2 = (h2 ^ (b & 0xff)) * 0x9e3779b97f4a7c15L;
+        }
+        return new long[] {mix(h1), mix(h2) | 1L};
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+}
@@ -0,0 +1,90 @@
+package com.interview.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Utility class for building and matching strong entity tags (RFC 9110).
+ *
+ * <p>Tags are derived from state that changes on every write (the {@code @Version} column, or
+ * {@code updatedDate} for entities without one), so they can be computed from the loaded entity
+ * before it is mapped to a response.
+ */
+@UtilityClass
+public class EntityTags {
+
+    private static final String WEAK_PREFIX = "W/";
+    private static final String ANY = "*";
+
+    /**
+     * Build a strong entity tag from the given parts, e.g. {@code "12"} or {@code "1760523653512000-3"}.
+     * Timestamps are rendered as epoch microseconds (UTC).
+     */
+    public static String of(Object... parts) {
+        String value = Arrays.stream(parts)
+            .map(part -> part instanceof LocalDateTime timestamp ? String.valueOf(toEpochMicros(timestamp)) : String.valueOf(part))
+            .collect(Collectors.joining("-"));
+        return "\"" + value + "\"";
+    }
+
+    /**
+     * Evaluate an If-None-Match header against the current tag (weak comparison).
+     * Returns true when the client's copy is current and a 304 can be sent.
+     */
+    public static boolean matchesNoneMatch(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        return Arrays.stream(ifNoneMatch.split(","))
+            .map(String::trim)
+            .anyMatch(candidate -> ANY.equals(candidate) || stripWeakPrefix(candidate).equals(stripWeakPrefix(etag)));
+    }
+
+    /**
+     * Evaluate an If-Match header against the current tag (strong comparison).
+     * A missing header always matches; weak tags never do.
+     */
+    public static boolean matchesIfMatch(String ifMatch, String etag) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return true;
+        }
+        return Arrays.stream(ifMatch.split(","))
+            .map(String::trim)
+            .anyMatch(candidate -> ANY.equals(candidate) || candidate.equals(etag));
+    }
+
+    /**
+     * Check whether an If-Match header is the {@code *} wildcard, which matches any current representation.
+     */
+    public static boolean isAny(String ifMatch) {
+        return ifMatch != null && ANY.equals(ifMatch.trim());
+    }
+
+    /**
+     * Read the version from a single strong version tag such as {@code "12"}.
+     * Returns null for weak tags, tag lists and tags that do not carry a plain version.
+     */
+    public static Long parseVersion(String ifMatch) {
+        String tag = ifMatch == null ? "" : ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static String stripWeakPrefix(String etag) {
+        return etag.startsWith(WEAK_PREFIX) ? etag.substring(WEAK_PREFIX.length()) : etag;
+    }
+
+    private static long toEpochMicros(LocalDateTime timestamp) {
+        return ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), timestamp);
+    }
+}
@@ -0,0 +1,103 @@
+package com.interview.util;
+
+import com.interview.exception.BadRequestException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Opaque cursor for keyset (seek) pagination.
+ *
+ * <p>Captures the position of the last row returned as a {@code (sortKey value, id)} tuple.
+ * The next page is fetched with {@code WHERE (key, id) > (value, id) ORDER BY key, id LIMIT n},
+ * so every page is an index range scan and costs the same regardless of how deep the client pages.
+ * Rows inserted concurrently never shift already-returned rows into the next page.
+ *
+ * <p>The start position uses an empty value and id 0, which sorts before any stored row
+ * because all supported sort keys are non-empty columns and identifiers start at 1.
+ */
+public record KeysetCursor(String sortKey, String value, long id) {
+
+    public static final String ID_SORT_KEY = "id";
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private static final String SEPARATOR = ":";
+    private static final String INVALID_CURSOR = "Invalid pagination cursor";
+
+    /**
+     * Resolve the cursor for a request: decode {@code after} when present, otherwise start at the beginning of {@code sortBy}.
+     *
+     * @throws BadRequestException if the cursor is malformed, the sort key is unsupported, or it conflicts with the cursor
+     */
+    public static KeysetCursor resolve(String after, String sortBy, Set<String> allowedSortKeys) {
+        String requestedKey = (sortBy == null || sortBy.isBlank()) ? null : sortBy.trim();
+
+        if (requestedKey != null && !allowedSortKeys.contains(requestedKey)) {
+            throw new BadRequestException("Unsupported cursor sort key '" + requestedKey + "'. Supported keys: " + allowedSortKeys);
+        }
+
+        if (after == null || after.isBlank()) {
+            return new KeysetCursor(requestedKey != null ? requestedKey : ID_SORT_KEY, "", 0L);
+        }
+
+        KeysetCursor cursor = decode(after);
+        if (!allowedSortKeys.contains(cursor.sortKey())) {
+            throw new BadRequestException(INVALID_CURSOR);
+        }
+        if (requestedKey != null && !requestedKey.equals(cursor.sortKey())) {
+            throw new BadRequestException("Cursor was issued for sort key '" + cursor.sortKey() + "' and cannot be used with '" + requestedKey + "'");
+        }
+        return cursor;
+    }
+
+    /**
+     * Validate the requested page size.
+     *
+     * @throws BadRequestException if the limit is outside 1..{@value #MAX_LIMIT}
+     */
+    public static int validateLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    /**
+     * Decode an opaque cursor token.
+     */
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 3);
+            if (parts.length != 3) {
+                throw new BadRequestException(INVALID_CURSOR);
+            }
+            return new KeysetCursor(parts[0], parts[2], Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException(INVALID_CURSOR, ex);
+        }
+    }
+
+    /**
+     * Encode this cursor as an opaque, URL-safe token.
+     */
+    public String encode() {
+        String raw = sortKey + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Cursor pointing just after the given row.
+     */
+    public KeysetCursor next(String lastValue, long lastId) {
+        return new KeysetCursor(sortKey, lastValue != null ? lastValue : "", lastId);
+    }
+
+    public boolean isIdSort() {
+        return ID_SORT_KEY.equals(sortKey);
+    }
+}
@@ -0,0 +1,38 @@
+package com.interview.util;
+
+import com.interview.exception.BadRequestException;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Inclusive range of calendar months (UTC) covered by a monthly report.
+ */
+public record MonthRange(YearMonth from, YearMonth to) {
+
+    /**
+     * Resolve the requested range: {@code to} defaults to the current month and {@code from} to the
+     * {@code defaultMonths} months ending at {@code to}.
+     *
+     * @throws BadRequestException unless from &lt;= to &lt;= the current month and the range spans fewer than {@code maxMonths} months
+     */
+    public static MonthRange resolve(YearMonth from, YearMonth to, int defaultMonths, int maxMonths) {
+        YearMonth currentMonth = currentMonth();
+        YearMonth lastMonth = to == null ? currentMonth : to;
+        YearMonth firstMonth = from == null ? lastMonth.minusMonths(defaultMonths - 1L) : from;
+        if (firstMonth.isAfter(lastMonth) || lastMonth.isAfter(currentMonth)) {
+            throw new BadRequestException("Months must satisfy from <= to <= " + currentMonth);
+        }
+        if (ChronoUnit.MONTHS.between(firstMonth, lastMonth) >= maxMonths) {
+            throw new BadRequestException("At most " + maxMonths + " months can be reported at once");
+        }
+        return new MonthRange(firstMonth, lastMonth);
+    }
+
+    /**
+     * The current month in UTC.
+     */
+    public static YearMonth currentMonth() {
+        return YearMonth.now(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,40 @@
+package com.interview.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes records as newline-delimited JSON (NDJSON) to an output stream.
+ *
+ * <p>Each record is serialized on its own and flushed immediately, so the client receives
+ * rows as soon as they are read and the server never holds more than one serialized record.
+ */
+public class NdjsonWriter<T> implements Consumer<T> {
+
+    private static final byte NEWLINE = '\n';
+
+    private final ObjectMapper objectMapper;
+    private final OutputStream outputStream;
+
+    /**
+     * Create a writer that serializes records with the given mapper.
+     */
+    public NdjsonWriter(ObjectMapper objectMapper, OutputStream outputStream) {
+        this.objectMapper = objectMapper;
+        this.outputStream = outputStream;
+    }
+
+    @Override
+    public void accept(T item) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(item));
+            outputStream.write(NEWLINE);
+            outputStream.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to write NDJSON record", ex);
+        }
+    }
+}
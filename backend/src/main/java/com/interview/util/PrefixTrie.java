@@ -0,0 +1,230 @@
+package com.interview.util;
+
+import com.interview.dto.Suggestion;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Compact (radix) prefix trie of distinct values with an occurrence count each, for typeahead suggestions.
+ *
+ * <p>Keys are matched case-insensitively through {@link SearchTerms#normalize}; each key keeps the spelling it
+ * was first added with for display. Chains of single-child nodes are collapsed into one edge label, and nodes
+ * are pruned and merged again when a value's count drops to zero, so the trie stays proportional to the
+ * distinct values it holds.
+ *
+ * <p>Not thread-safe; callers guard concurrent access.
+ */
+public class PrefixTrie {
+
+    private static final Comparator<Suggestion> RANKING = Comparator.comparingLong(Suggestion::count).reversed()
+        .thenComparing(Suggestion::value);
+
+    private final Node root = new Node("");
+    private int size;
+
+    private static final class Node {
+        private String label;
+        private Map<Character, Node> children = new HashMap<>();
+        private String value;
+        private long count;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private boolean isTerminal() {
+            return count > 0;
+        }
+    }
+
+    /**
+     * Add {@code count} occurrences of a value; blank values are ignored.
+     */
+    public void add(String value, long count) {
+        String key = SearchTerms.normalize(value);
+        if (key == null || key.isEmpty() || count <= 0) {
+            return;
+        }
+
+        Node node = insert(key);
+        if (!node.isTerminal()) {
+            node.value = value.trim();
+            size++;
+        }
+        node.count += count;
+    }
+
+    /**
+     * Remove up to {@code count} occurrences of a value, dropping it once none are left.
+     */
+    public void remove(String value, long count) {
+        String key = SearchTerms.normalize(value);
+        if (key == null || key.isEmpty() || count <= 0) {
+            return;
+        }
+
+        Deque<Node> path = find(key);
+        Node node = path == null ? null : path.peek();
+        if (node == null || !node.isTerminal()) {
+            return;
+        }
+
+        node.count = Math.max(0, node.count - count);
+        if (!node.isTerminal()) {
+            node.value = null;
+            size--;
+            prune(path);
+        }
+    }
+
+    /**
+     * The most frequent values starting with {@code prefix} (case-insensitive), most frequent first and by value on ties.
+     * Only leading whitespace is ignored, since a trailing space typed into a typeahead narrows the match.
+     */
+    public List<Suggestion> top(String prefix, int limit) {
+        Node start = prefixNode(prefix == null ? "" : prefix.stripLeading().toUpperCase(Locale.ROOT));
+        if (start == null || limit <= 0) {
+            return List.of();
+        }
+
+        PriorityQueue<Suggestion> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(start);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            if (node.isTerminal()) {
+                best.offer(new Suggestion(node.value, node.count));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            node.children.values().forEach(pending::push);
+        }
+
+        List<Suggestion> suggestions = new ArrayList<>(best);
+        suggestions.sort(RANKING);
+        return suggestions;
+    }
+
+    /**
+     * Number of distinct values held.
+     */
+    public int size() {
+        return size;
+    }
+
+    private Node insert(String key) {
+        Node node = root;
+        int index = 0;
+        while (index < key.length()) {
+            char next = key.charAt(index);
+            Node child = node.children.get(next);
+            if (child == null) {
+                child = new Node(key.substring(index));
+                node.children.put(next, child);
+                return child;
+            }
+
+            int common = commonPrefixLength(child.label, key, index);
+            if (common < child.label.length()) {
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children.put(child.label.charAt(0), child);
+                node.children.put(next, split);
+                child = split;
+            }
+            node = child;
+            index += common;
+        }
+        return node;
+    }
+
+    /**
+     * Nodes from the root to the node holding exactly {@code key}, deepest first, or null if there is none.
+     */
+    private Deque<Node> find(String key) {
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        path.push(node);
+        int index = 0;
+        while (index < key.length()) {
+            Node child = node.children.get(key.charAt(index));
+            if (child == null || commonPrefixLength(child.label, key, index) < child.label.length()) {
+                return null;
+            }
+            node = child;
+            path.push(node);
+            index += child.label.length();
+        }
+        return path;
+    }
+
+    /**
+     * The node whose subtree holds every key starting with {@code prefix}; the prefix may end inside its edge label.
+     */
+    private Node prefixNode(String prefix) {
+        Node node = root;
+        int index = 0;
+        while (index < prefix.length()) {
+            Node child = node.children.get(prefix.charAt(index));
+            if (child == null) {
+                return null;
+            }
+
+            int common = commonPrefixLength(child.label, prefix, index);
+            if (index + common == prefix.length()) {
+                return child;
+            }
+            if (common < child.label.length()) {
+                return null;
+            }
+            node = child;
+            index += common;
+        }
+        return node;
+    }
+
+    /**
+     * Remove the emptied node at the top of {@code path} if it is a leaf, then merge whichever node is left
+     * with a single child into that child.
+     */
+    private void prune(Deque<Node> path) {
+        Node node = path.pop();
+        Node parent = path.peek();
+        if (node.children.isEmpty()) {
+            parent.children.remove(node.label.charAt(0));
+            if (parent != root && !parent.isTerminal()) {
+                mergeWithOnlyChild(parent);
+            }
+        } else {
+            mergeWithOnlyChild(node);
+        }
+    }
+
+    private static void mergeWithOnlyChild(Node node) {
+        if (node.children.size() != 1) {
+            return;
+        }
+        Node child = node.children.values().iterator().next();
+        node.label = node.label + child.label;
+        node.children = child.children;
+        node.value = child.value;
+        node.count = child.count;
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int length = 0;
+        while (length < max && label.charAt(length) == key.charAt(offset + length)) {
+            length++;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,45 @@
+package com.interview.util;
+
+import com.interview.enums.MatchMode;
+import java.util.Locale;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Normalization shared by the pre-uppercased search columns and the search filters that query them.
+ *
+ * <p>Values are stored trimmed and upper-cased, so searches compare the column directly instead of
+ * wrapping it in {@code UPPER()}, which would prevent the database from using its index.
+ */
+@UtilityClass
+public class SearchTerms {
+
+    /** LIKE escape character; not a backslash, which MySQL would also treat as an escape inside the string literal. */
+    public static final char LIKE_ESCAPE = '!';
+
+    /**
+     * Normalize a value for a search column or a search term, or return null for a null value.
+     */
+    public static String normalize(String value) {
+        return value == null ? null : value.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Value to compare a search column with: the normalized term for EXACT, otherwise a LIKE pattern with the term's
+     * own wildcards escaped by {@link #LIKE_ESCAPE}.
+     */
+    public static String pattern(String term, MatchMode mode) {
+        String normalized = normalize(term);
+        return switch (mode) {
+            case EXACT -> normalized;
+            case PREFIX -> escapeLike(normalized) + "%";
+            case CONTAINS -> "%" + escapeLike(normalized) + "%";
+        };
+    }
+
+    private static String escapeLike(String term) {
+        return term
+            .replace(String.valueOf(LIKE_ESCAPE), String.valueOf(LIKE_ESCAPE) + LIKE_ESCAPE)
+            .replace("%", LIKE_ESCAPE + "%")
+            .replace("_", LIKE_ESCAPE + "_");
+    }
+}
@@ -0,0 +1,57 @@
+package com.interview.util;
+
+import com.interview.exception.BadRequestException;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Parses the {@code ?fields=} sparse fieldset parameter.
+ *
+ * <p>Field names are the JSON property names of the response record. The {@code id} field is always
+ * included so clients can correlate rows, whether or not they asked for it.
+ */
+@UtilityClass
+public class SparseFields {
+
+    public static final String ID = "id";
+
+    /**
+     * List the property names of a response record in declaration order.
+     */
+    public static Set<String> fieldsOf(Class<? extends Record> responseType) {
+        Set<String> fields = Arrays.stream(responseType.getRecordComponents())
+            .map(RecordComponent::getName)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        return Collections.unmodifiableSet(fields);
+    }
+
+    /**
+     * Parse a comma separated field list, returning null when no fieldset was requested.
+     *
+     * @throws BadRequestException if a field is not one of {@code allowedFields}
+     */
+    public static Set<String> parse(String fields, Set<String> allowedFields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+
+        Set<String> requested = new LinkedHashSet<>();
+        requested.add(ID);
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowedFields.contains(name)) {
+                throw new BadRequestException("Unknown field '" + name + "'. Supported fields: " + allowedFields);
+            }
+            requested.add(name);
+        }
+        return Collections.unmodifiableSet(requested);
+    }
+}
@@ -0,0 +1,26 @@
+-- V10__Add_search_columns.sql
+-- Pre-uppercased copies of the searchable columns, so vehicle search can compare them directly
+-- and use an index instead of scanning with UPPER(col) LIKE '%x%'
+
+-- Add search columns to vehicles and customers
+ALTER TABLE vehicles ADD COLUMN make_search VARCHAR(50) NOT NULL DEFAULT '';
+ALTER TABLE vehicles ADD COLUMN model_search VARCHAR(50) NOT NULL DEFAULT '';
+
+ALTER TABLE customers ADD COLUMN first_name_search VARCHAR(100) NOT NULL DEFAULT '';
+ALTER TABLE customers ADD COLUMN last_name_search VARCHAR(100) NOT NULL DEFAULT '';
+ALTER TABLE customers ADD COLUMN email_search VARCHAR(255) NOT NULL DEFAULT '';
+
+-- Backfill existing rows; the application maintains the columns on every write from here on
+UPDATE vehicles SET make_search = UPPER(TRIM(make)), model_search = UPPER(TRIM(model));
+
+UPDATE customers
+SET first_name_search = UPPER(TRIM(first_name)),
+    last_name_search  = UPPER(TRIM(last_name)),
+    email_search      = UPPER(TRIM(email));
+
+-- Create indexes for exact and prefix searches
+CREATE INDEX idx_vehicles_make_model_search ON vehicles (make_search, model_search);
+CREATE INDEX idx_vehicles_model_search ON vehicles (model_search);
+CREATE INDEX idx_customers_first_name_search ON customers (first_name_search);
+CREATE INDEX idx_customers_last_name_search ON customers (last_name_search);
+CREATE INDEX idx_customers_email_search ON customers (email_search);
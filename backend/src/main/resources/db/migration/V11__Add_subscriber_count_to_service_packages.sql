@@ -0,0 +1,15 @@
+-- V11__Add_subscriber_count_to_service_packages.sql
+-- Materialized number of subscribers per package, so packages can be sorted and filtered by
+-- popularity without counting customer_service_packages rows
+
+ALTER TABLE service_packages ADD COLUMN subscriber_count INT NOT NULL DEFAULT 0;
+
+-- Backfill existing rows; the application adjusts the column on every subscription change from here on
+UPDATE service_packages
+SET subscriber_count = (SELECT COUNT(*)
+                        FROM customer_service_packages csp
+                        WHERE csp.service_package_id = service_packages.id);
+
+-- Create indexes for sorting by popularity, with and without the active filter
+CREATE INDEX idx_service_packages_subscriber_count ON service_packages (subscriber_count);
+CREATE INDEX idx_service_packages_active_subscriber_count ON service_packages (active, subscriber_count);
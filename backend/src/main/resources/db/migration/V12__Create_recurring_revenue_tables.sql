@@ -0,0 +1,27 @@
+-- V12__Create_recurring_revenue_tables.sql
+-- Incrementally maintained monthly recurring revenue (MRR): one running total over the subscriptions of
+-- active packages, and the value it had at the end of every month in which it changed
+
+-- Single-row running total, adjusted in the same transaction as every change to subscriptions, prices or status
+CREATE TABLE recurring_revenue
+(
+    id            INT            NOT NULL PRIMARY KEY,
+    mrr           DECIMAL(14, 2) NOT NULL,
+    subscriptions BIGINT         NOT NULL,
+    updated_date  TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Running total as of the last change in each month (first day of the month as key)
+CREATE TABLE monthly_recurring_revenue
+(
+    revenue_month DATE           NOT NULL PRIMARY KEY,
+    mrr           DECIMAL(14, 2) NOT NULL,
+    subscriptions BIGINT         NOT NULL
+);
+
+-- Seed the running total from the existing subscriptions; months are recorded from the first change on
+INSERT INTO recurring_revenue (id, mrr, subscriptions)
+SELECT 1, COALESCE(SUM(sp.monthly_price), 0), COUNT(*)
+FROM customer_service_packages csp
+         JOIN service_packages sp ON sp.id = csp.service_package_id
+WHERE sp.active = TRUE;
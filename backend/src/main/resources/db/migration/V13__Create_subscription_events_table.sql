@@ -0,0 +1,31 @@
+-- V13__Create_subscription_events_table.sql
+-- Append-only history of subscriptions and package status changes, since unsubscribing deletes the
+-- customer_service_packages row. Times are UTC. No foreign keys, so history outlives deleted customers.
+
+CREATE TABLE subscription_events
+(
+    id                 BIGINT AUTO_INCREMENT PRIMARY KEY,
+    service_package_id BIGINT       NOT NULL,
+    customer_id        BIGINT,
+    event_type         VARCHAR(30)  NOT NULL,
+    occurred_at        TIMESTAMP(6) NOT NULL,
+    -- For UNSUBSCRIBED: occurred_at of the SUBSCRIBED event the subscription started with
+    subscribed_at      TIMESTAMP(6)
+);
+
+-- Point-in-time membership: subscriptions of one package started up to a moment
+CREATE INDEX idx_subscription_events_package_type_time ON subscription_events (service_package_id, event_type, occurred_at);
+-- Churn: subscriptions started and ended within a time range, over all packages
+CREATE INDEX idx_subscription_events_type_time ON subscription_events (event_type, occurred_at);
+-- Matching an end event to its start for one customer and package
+CREATE INDEX idx_subscription_events_customer_package ON subscription_events (customer_id, service_package_id, occurred_at);
+
+-- Existing subscriptions and inactive packages are recorded as of the migration; earlier history is unknown
+INSERT INTO subscription_events (service_package_id, customer_id, event_type, occurred_at)
+SELECT service_package_id, customer_id, 'SUBSCRIBED', CURRENT_TIMESTAMP
+FROM customer_service_packages;
+
+INSERT INTO subscription_events (service_package_id, event_type, occurred_at)
+SELECT id, 'PACKAGE_DEACTIVATED', CURRENT_TIMESTAMP
+FROM service_packages
+WHERE active = FALSE;
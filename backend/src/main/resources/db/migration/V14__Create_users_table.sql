@@ -0,0 +1,23 @@
+-- V14__Create_users_table.sql
+-- Application users with BCrypt password hashes, replacing the hardcoded demo users.
+
+CREATE TABLE users
+(
+    id            BIGINT AUTO_INCREMENT PRIMARY KEY,
+    username      VARCHAR(50)  NOT NULL,
+    -- BCrypt hash including algorithm version, cost and salt ($2a$10$...)
+    password_hash VARCHAR(100) NOT NULL,
+    role          VARCHAR(20)  NOT NULL,
+    created_date  TIMESTAMP    NOT NULL,
+    updated_date  TIMESTAMP    NOT NULL,
+    created_by    VARCHAR(100),
+    updated_by    VARCHAR(100),
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+-- Demo users (admin/admin123, user/user123), hashed with BCrypt cost 10
+INSERT INTO users (username, password_hash, role, created_date, updated_date, created_by, updated_by)
+VALUES ('admin', '$2a$10$bIE0ROkbjZERLZqdjp812eG0sWxgjbYRF/vTQFcBs4qCW5M54XfNa', 'ADMIN',
+        CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 'SYSTEM', 'SYSTEM'),
+       ('user', '$2a$10$92Q6U/kbg2FR9izS6/qaUeAofp8o3GOhxDCuUvpThDnQ4nRDzb35q', 'USER',
+        CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 'SYSTEM', 'SYSTEM');
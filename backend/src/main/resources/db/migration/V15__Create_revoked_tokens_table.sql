@@ -0,0 +1,17 @@
+-- V15__Create_revoked_tokens_table.sql
+-- JWT IDs (jti) revoked before their expiry. Rows are pruned once the token would have expired anyway.
+
+CREATE TABLE revoked_tokens
+(
+    token_id     VARCHAR(36) PRIMARY KEY,
+    username     VARCHAR(50) NOT NULL,
+    -- UTC expiry of the revoked token; after it the token is rejected as expired and the row is deleted
+    expires_at   TIMESTAMP(6) NOT NULL,
+    created_date TIMESTAMP   NOT NULL,
+    updated_date TIMESTAMP   NOT NULL,
+    created_by   VARCHAR(100),
+    updated_by   VARCHAR(100)
+);
+
+-- Pruning expired revocations and loading the live ones at startup
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
@@ -0,0 +1,10 @@
+-- V16__Add_subscription_events_subscriber_index.sql
+-- Point-in-time membership pages seek on customer_id within one package's SUBSCRIBED events. With customer_id
+-- right after the equality columns, a page is an index range scan in customer order that stops after LIMIT rows;
+-- occurred_at is carried so the time filter is checked in the index. This replaces the V13 index on
+-- (service_package_id, event_type, occurred_at), which made every page scan all of the package's events up to
+-- the moment and sort them. Package status lookups only read a package's few status events either way.
+
+DROP INDEX idx_subscription_events_package_type_time ON subscription_events;
+
+CREATE INDEX idx_subscription_events_package_type_customer ON subscription_events (service_package_id, event_type, customer_id, occurred_at);
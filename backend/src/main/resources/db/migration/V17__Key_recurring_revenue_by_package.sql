@@ -0,0 +1,46 @@
+-- V17__Key_recurring_revenue_by_package.sql
+-- Every subscription, price and status change used to update the single recurring_revenue row and the current
+-- month's row of monthly_recurring_revenue, so all subscription writes in the system serialized on one row lock.
+-- The current MRR is now summed on read from the active packages (monthly_price * subscriber_count), whose rows
+-- those writes already lock, and each month keeps one row per package that changed in it.
+
+-- A package's MRR and subscriptions as of its last change in each month (first day of the month as key)
+CREATE TABLE package_monthly_recurring_revenue
+(
+    revenue_month      DATE           NOT NULL,
+    service_package_id BIGINT         NOT NULL,
+    mrr                DECIMAL(14, 2) NOT NULL,
+    subscriptions      BIGINT         NOT NULL,
+    PRIMARY KEY (revenue_month, service_package_id)
+);
+
+-- Finds each package's last month before a report range
+CREATE INDEX idx_package_monthly_recurring_revenue_package ON package_monthly_recurring_revenue (service_package_id, revenue_month);
+
+-- Months recorded so far only have totals; they are kept under package id 0, which no package has
+INSERT INTO package_monthly_recurring_revenue (revenue_month, service_package_id, mrr, subscriptions)
+SELECT revenue_month, 0, mrr, subscriptions
+FROM monthly_recurring_revenue;
+
+-- From the last recorded month on (this month when none was), the total is split into the packages' current values,
+-- so that every package has a value to carry forward
+UPDATE package_monthly_recurring_revenue
+SET mrr           = 0,
+    subscriptions = 0
+WHERE revenue_month = (SELECT MAX(revenue_month) FROM monthly_recurring_revenue);
+
+INSERT INTO package_monthly_recurring_revenue (revenue_month, service_package_id, mrr, subscriptions)
+SELECT m.revenue_month,
+       sp.id,
+       CASE WHEN sp.active = TRUE THEN sp.monthly_price * sp.subscriber_count ELSE 0 END,
+       CASE WHEN sp.active = TRUE THEN sp.subscriber_count ELSE 0 END
+FROM service_packages sp
+         CROSS JOIN (SELECT COALESCE(MAX(revenue_month),
+                                     CAST(CONCAT(EXTRACT(YEAR FROM CURRENT_DATE), '-',
+                                                 LPAD(CAST(EXTRACT(MONTH FROM CURRENT_DATE) AS CHAR(2)), 2, '0'), '-01') AS DATE))
+                         AS revenue_month
+                     FROM monthly_recurring_revenue) m;
+
+DROP TABLE monthly_recurring_revenue;
+
+DROP TABLE recurring_revenue;
@@ -0,0 +1,7 @@
+-- V18__Add_version_column_to_vehicles_and_service_packages.sql
+-- Add version columns so vehicle and service package ETags no longer depend on updated_date, whose precision
+-- differs between a second-level cached instance and a row reloaded from a second-precision TIMESTAMP column
+
+ALTER TABLE vehicles ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE service_packages ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,24 @@
+-- V19__Key_customer_profiles_by_customer.sql
+-- Key each profile by its customer's id. Customer.customerProfile is the inverse side of the one-to-one, so a
+-- customer read from the second-level cache used to resolve its profile with a query by customer_id; with the
+-- shared key the profile is looked up by id in its own entity cache region instead.
+
+CREATE TABLE customer_profiles_by_customer
+(
+    customer_id              BIGINT NOT NULL PRIMARY KEY,
+    address                  TEXT,
+    date_of_birth            DATE,
+    preferred_contact_method VARCHAR(20) DEFAULT 'EMAIL',
+    CONSTRAINT fk_customer_profiles_customer FOREIGN KEY (customer_id) REFERENCES customers (id) ON DELETE CASCADE
+);
+
+INSERT INTO customer_profiles_by_customer (customer_id, address, date_of_birth, preferred_contact_method)
+SELECT customer_id, address, date_of_birth, preferred_contact_method
+FROM customer_profiles;
+
+DROP TABLE customer_profiles;
+
+ALTER TABLE customer_profiles_by_customer RENAME TO customer_profiles;
+
+-- Profile ids are no longer generated
+DELETE FROM id_generators WHERE sequence_name = 'customer_profiles';
@@ -0,0 +1,15 @@
+-- V20__Add_audit_fields_to_customer_profiles.sql
+-- Add audit fields to customer_profiles, so profile changes record when and by whom they were made like customers do
+
+-- H2 requires separate ALTER statements
+ALTER TABLE customer_profiles ADD COLUMN created_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE customer_profiles ADD COLUMN updated_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE customer_profiles ADD COLUMN created_by VARCHAR(100);
+ALTER TABLE customer_profiles ADD COLUMN updated_by VARCHAR(100);
+
+-- Existing profiles were written together with their customer, so they take over its audit values
+UPDATE customer_profiles
+SET created_date = (SELECT c.created_date FROM customers c WHERE c.id = customer_profiles.customer_id),
+    updated_date = (SELECT c.updated_date FROM customers c WHERE c.id = customer_profiles.customer_id),
+    created_by   = (SELECT c.created_by FROM customers c WHERE c.id = customer_profiles.customer_id),
+    updated_by   = (SELECT c.updated_by FROM customers c WHERE c.id = customer_profiles.customer_id);
@@ -0,0 +1,24 @@
+-- V9__Create_id_generators_table.sql
+-- Table-backed sequences for pooled ID generation, so Hibernate can batch inserts
+-- (IDENTITY keys force one round trip per row to read the generated key)
+
+-- Create id_generators table (one row per entity table)
+CREATE TABLE id_generators
+(
+    sequence_name VARCHAR(64) NOT NULL PRIMARY KEY,
+    next_val      BIGINT      NOT NULL
+);
+
+-- Seed each sequence past the existing rows. next_val is the upper bound of the first
+-- allocated block, so it must be offset by the allocation size (50) used by the entities.
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'customers', COALESCE(MAX(id), 0) + 50 FROM customers;
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'customer_profiles', COALESCE(MAX(id), 0) + 50 FROM customer_profiles;
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'vehicles', COALESCE(MAX(id), 0) + 50 FROM vehicles;
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'service_packages', COALESCE(MAX(id), 0) + 50 FROM service_packages;
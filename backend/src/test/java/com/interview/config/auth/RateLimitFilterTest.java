@@ -0,0 +1,100 @@
+package com.interview.config.auth;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.interview.enums.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RateLimitFilter Unit Tests")
+class RateLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitFilter filter = new RateLimitFilter(
+        new RateLimitProperties(true, 1000, new RateLimitProperties.Tier(2, 0.1), Map.of(Role.USER, new RateLimitProperties.Tier(1, 0.5))),
+        meterRegistry, new ObjectMapper().registerModule(new JavaTimeModule()));
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Nested
+    @DisplayName("Login Tests")
+    class LoginTests {
+
+        @Test
+        @DisplayName("Should refuse logins from one address beyond the burst with 429 and Retry-After")
+        void shouldLimitLoginPerAddress() throws Exception {
+            assertThat(perform(login("10.0.0.1")).getStatus()).isEqualTo(200);
+            assertThat(perform(login("10.0.0.1")).getStatus()).isEqualTo(200);
+
+            MockHttpServletResponse refused = perform(login("10.0.0.1"));
+            assertThat(refused.getStatus()).isEqualTo(429);
+            assertThat(refused.getHeader("Retry-After")).isEqualTo("10");
+            assertThat(refused.getContentAsString()).contains("\"error\":\"TOO_MANY_REQUESTS\"");
+
+            assertThat(perform(login("10.0.0.2")).getStatus()).isEqualTo(200);
+            assertThat(meterRegistry.counter("app.rate_limit.requests", "tier", "login", "outcome", "rejected").count()).isEqualTo(1);
+        }
+
+        private MockHttpServletRequest login(String address) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+            request.setRemoteAddr(address);
+            return request;
+        }
+    }
+
+    @Nested
+    @DisplayName("API Tests")
+    class ApiTests {
+
+        @Test
+        @DisplayName("Should limit API calls per authenticated user by role")
+        void shouldLimitPerUser() throws Exception {
+            authenticate("user", Role.USER);
+            assertThat(perform(new MockHttpServletRequest("GET", "/api/v1/customers")).getStatus()).isEqualTo(200);
+
+            MockHttpServletResponse refused = perform(new MockHttpServletRequest("GET", "/api/v1/vehicles"));
+            assertThat(refused.getStatus()).isEqualTo(429);
+            assertThat(refused.getHeader("Retry-After")).isEqualTo("2");
+        }
+
+        @Test
+        @DisplayName("Should pass anonymous requests and roles without a tier through")
+        void shouldSkipUnlimitedRequests() throws Exception {
+            for (int i = 0; i < 3; i++) {
+                assertThat(perform(new MockHttpServletRequest("GET", "/api/v1/customers")).getStatus()).isEqualTo(200);
+            }
+
+            authenticate("admin", Role.ADMIN);
+            for (int i = 0; i < 3; i++) {
+                assertThat(perform(new MockHttpServletRequest("GET", "/api/v1/customers")).getStatus()).isEqualTo(200);
+            }
+        }
+
+        private void authenticate(String username, Role role) {
+            SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of(new SimpleGrantedAuthority("ROLE_" + role.name()))));
+        }
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
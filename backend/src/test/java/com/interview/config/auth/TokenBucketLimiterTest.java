@@ -0,0 +1,50 @@
+package com.interview.config.auth;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TokenBucketLimiter Unit Tests")
+class TokenBucketLimiterTest {
+
+    private static final RateLimitProperties.Tier THREE_PER_SECOND = new RateLimitProperties.Tier(3, 3);
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+    private final TokenBucketLimiter limiter = new TokenBucketLimiter(100, Duration.ofMinutes(1), clock::get);
+
+    @Test
+    @DisplayName("Should allow a full burst, then refuse until one request has refilled")
+    void shouldLimitBurst() {
+        assertThat(limiter.tryAcquire("user:admin", THREE_PER_SECOND)).isZero();
+        assertThat(limiter.tryAcquire("user:admin", THREE_PER_SECOND)).isZero();
+        assertThat(limiter.tryAcquire("user:admin", THREE_PER_SECOND)).isZero();
+
+        long wait = limiter.tryAcquire("user:admin", THREE_PER_SECOND);
+        assertThat(wait).isEqualTo(THREE_PER_SECOND.emissionIntervalNanos());
+
+        clock.addAndGet(wait);
+        assertThat(limiter.tryAcquire("user:admin", THREE_PER_SECOND)).isZero();
+        assertThat(limiter.tryAcquire("user:admin", THREE_PER_SECOND)).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should keep a separate bucket per key and refill completely when idle")
+    void shouldTrackKeysSeparately() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("ip:10.0.0.1", THREE_PER_SECOND);
+        }
+        assertThat(limiter.tryAcquire("ip:10.0.0.1", THREE_PER_SECOND)).isPositive();
+        assertThat(limiter.tryAcquire("ip:10.0.0.2", THREE_PER_SECOND)).isZero();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("ip:10.0.0.1", THREE_PER_SECOND)).isZero();
+        }
+        assertThat(limiter.tryAcquire("ip:10.0.0.1", THREE_PER_SECOND)).isPositive();
+        assertThat(limiter.size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,120 @@
+package com.interview.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.dto.auth.LoginRequest;
+import com.interview.dto.auth.TokenRevocationRequest;
+import com.interview.service.auth.JwtService;
+import com.interview.service.auth.TokenRevocationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Full‑stack integration tests for {@link AuthController} against the users seeded by the migrations.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+@DisplayName("AuthController ‑ Integration")
+class AuthControllerIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Nested
+    @DisplayName("POST /auth/login")
+    class Login {
+        @Test
+        @DisplayName("should issue a token for valid credentials")
+        void shouldLogin() throws Exception {
+            mockMvc.perform(asyncDispatch(login("admin", "admin123")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("admin"))
+                .andExpect(jsonPath("$.role").value("ADMIN"))
+                .andExpect(jsonPath("$.token").isNotEmpty());
+        }
+
+        @Test
+        @DisplayName("should return 401 for a wrong password or an unknown user")
+        void shouldRejectInvalidCredentials() throws Exception {
+            mockMvc.perform(asyncDispatch(login("user", "admin123")))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error").value("UNAUTHORIZED"));
+            mockMvc.perform(asyncDispatch(login("nobody", "user123")))
+                .andExpect(status().isUnauthorized());
+        }
+    }
+
+    @Nested
+    @DisplayName("Token revocation")
+    class Revocation {
+        @Test
+        @DisplayName("should revoke the caller's token on logout")
+        void shouldLogout() throws Exception {
+            String token = token("user", "user123");
+
+            mockMvc.perform(post("/auth/logout").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isNoContent());
+
+            assertThat(tokenRevocationService.isRevoked(jwtService.verify(token).tokenId())).isTrue();
+            mockMvc.perform(post("/auth/logout"))
+                .andExpect(status().isUnauthorized());
+        }
+
+        @Test
+        @DisplayName("should revoke a given token and reject an invalid one with 400")
+        void shouldRevokeToken() throws Exception {
+            String token = token("admin", "admin123");
+
+            mockMvc.perform(post("/auth/revocations")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new TokenRevocationRequest(token))))
+                .andExpect(status().isNoContent());
+            assertThat(tokenRevocationService.isRevoked(jwtService.verify(token).tokenId())).isTrue();
+
+            mockMvc.perform(post("/auth/revocations")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new TokenRevocationRequest("not-a-token"))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("BAD_REQUEST"));
+        }
+
+        private String token(String username, String password) throws Exception {
+            String body = mockMvc.perform(asyncDispatch(login(username, password)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+            return objectMapper.readTree(body).path("token").asText();
+        }
+    }
+
+    private MvcResult login(String username, String password) throws Exception {
+        return mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest(username, password))))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    }
+}
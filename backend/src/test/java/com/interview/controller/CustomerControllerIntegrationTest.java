@@ -2,13 +2,23 @@ package com.interview.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.interview.dto.CustomerRequest;
+import com.interview.dto.IdsRequest;
 import com.interview.entity.Customer;
 import com.interview.enums.ContactMethod;
 import com.interview.mapper.CustomerMapper;
 import com.interview.repository.CustomerRepository;
+import com.interview.util.BatchLookup;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.LongStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -17,23 +27,33 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -63,6 +83,12 @@ class CustomerControllerIntegrationTest {
     @Autowired
     private CustomerMapper customerMapper;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     void cleanDatabase() {
         customerRepository.deleteAll();
@@ -117,6 +143,22 @@ class CustomerControllerIntegrationTest {
                 .andExpect(jsonPath("$.email", is("john.doe@example.com")));
         }
 
+        @Test
+        @DisplayName("should return version ETag and 304 when If-None-Match matches")
+        void shouldReturn304WhenNotModified() throws Exception {
+            var saved = customerRepository.save(validRequestToEntity());
+
+            mockMvc
+                .perform(get("/api/v1/customers/{id}", saved.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + saved.getVersion() + "\""));
+
+            mockMvc
+                .perform(get("/api/v1/customers/{id}", saved.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"" + saved.getVersion() + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        }
+
         @Test
         @DisplayName("should return 404 when customer is not found")
         void shouldReturn404() throws Exception {
@@ -148,6 +190,129 @@ class CustomerControllerIntegrationTest {
 
             mockMvc.perform(get("/api/v1/customers")).andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(2)));
         }
+
+        @Test
+        @DisplayName("should stream customers as NDJSON when requested")
+        void shouldStreamCustomersAsNdjson() throws Exception {
+            customerRepository.saveAll(List.of(new Customer(null, null, "Alice", "Smith", "alice@example.com", null, null, List.of(), Set.of()),
+                new Customer(null, null, "Bob", "Jones", "bob@example.com", null, null, List.of(), Set.of())));
+
+            MvcResult asyncResult = mockMvc
+                .perform(get("/api/v1/customers").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+            String body = mockMvc
+                .perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+            List<String> lines = body.lines().toList();
+            assertEquals(2, lines.size());
+            assertEquals("alice@example.com", objectMapper.readTree(lines.get(0)).get("email").asText());
+            assertEquals("bob@example.com", objectMapper.readTree(lines.get(1)).get("email").asText());
+        }
+
+        @Test
+        @DisplayName("should return only the requested fields plus id")
+        void shouldReturnSparseFieldset() throws Exception {
+            mockMvc
+                .perform(post("/api/v1/customers").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(validRequest())))
+                .andExpect(status().isCreated());
+
+            mockMvc
+                .perform(get("/api/v1/customers").param("fields", "email,address"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", notNullValue()))
+                .andExpect(jsonPath("$[0].email", is("john.doe@example.com")))
+                .andExpect(jsonPath("$[0].address", is("123 Main St")))
+                .andExpect(jsonPath("$[0].firstName").doesNotExist())
+                .andExpect(jsonPath("$[0].version").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("should return 400 when an unknown field is requested")
+        void shouldRejectUnknownField() throws Exception {
+            mockMvc
+                .perform(get("/api/v1/customers").param("fields", "email,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("password")));
+        }
+
+        @Test
+        @DisplayName("should keep returning a JSON array when no Accept header is sent")
+        void shouldReturnJsonArrayByDefault() throws Exception {
+            mockMvc
+                .perform(get("/api/v1/customers"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(0)));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/customers?ids=")
+    class GetCustomersByIdsTests {
+
+        @Test
+        @DisplayName("should return customers in request order and report missing ids")
+        void shouldReturnCustomersInRequestOrder() throws Exception {
+            Customer alice = customerRepository.save(new Customer(null, null, "Alice", "Smith", "alice@example.com", null, null, List.of(), Set.of()));
+            Customer bob = customerRepository.save(new Customer(null, null, "Bob", "Jones", "bob@example.com", null, null, List.of(), Set.of()));
+
+            mockMvc
+                .perform(get("/api/v1/customers").param("ids", bob.getId() + ",999999," + alice.getId() + "," + bob.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].email", is("bob@example.com")))
+                .andExpect(jsonPath("$.content[1].email", is("alice@example.com")))
+                .andExpect(jsonPath("$.missingIds", hasSize(1)))
+                .andExpect(jsonPath("$.missingIds[0]", is(999999)));
+        }
+
+        @Test
+        @DisplayName("should look up customers from a POST body with profile data")
+        void shouldLookUpCustomersFromBody() throws Exception {
+            MvcResult created = mockMvc
+                .perform(post("/api/v1/customers").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(validRequest())))
+                .andExpect(status().isCreated())
+                .andReturn();
+            long id = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+
+            mockMvc
+                .perform(post("/api/v1/customers/lookup").contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new IdsRequest(List.of(id)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].address", is("123 Main St")))
+                .andExpect(jsonPath("$.missingIds", hasSize(0)));
+        }
+
+        @Test
+        @DisplayName("should return 400 when the POST body has no ids")
+        void shouldRejectEmptyLookup() throws Exception {
+            mockMvc
+                .perform(post("/api/v1/customers/lookup").contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new IdsRequest(List.of()))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("VALIDATION_ERROR")));
+        }
+
+        @Test
+        @DisplayName("should return 400 when more than the maximum number of ids is requested")
+        void shouldRejectTooManyIds() throws Exception {
+            List<Long> ids = LongStream.rangeClosed(1, BatchLookup.MAX_IDS + 1).boxed().toList();
+
+            mockMvc
+                .perform(post("/api/v1/customers/lookup").contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new IdsRequest(ids))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString(String.valueOf(BatchLookup.MAX_IDS))));
+        }
     }
 
     @Nested
@@ -167,6 +332,77 @@ class CustomerControllerIntegrationTest {
                 .andExpect(jsonPath("$.content", hasSize(1)))
                 .andExpect(jsonPath("$.page.totalElements").value(2));
         }
+
+        @Test
+        @DisplayName("should return paginated sparse fieldset")
+        void shouldReturnPaginatedSparseFieldset() throws Exception {
+            customerRepository.save(customerMapper.toEntity(validRequest()));
+            customerRepository.save(
+                customerMapper.toEntity(new CustomerRequest("Alice", null, "Smith", "alice@example.com", "555-0102", null, null, null)));
+
+            mockMvc
+                .perform(get("/api/v1/customers/paginated").param("page", "0").param("size", "1").param("sort", "email,asc")
+                    .param("fields", "email"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].email", is("alice@example.com")))
+                .andExpect(jsonPath("$.content[0].lastName").doesNotExist())
+                .andExpect(jsonPath("$.page.totalElements").value(2));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/customers/paginated?limit=")
+    class GetCustomersCursorTests {
+
+        @BeforeEach
+        void insertCustomers() {
+            customerRepository.saveAll(List.of(new Customer(null, null, "Carol", "White", "carol@example.com", null, null, List.of(), Set.of()),
+                new Customer(null, null, "Alice", "Smith", "alice@example.com", null, null, List.of(), Set.of()),
+                new Customer(null, null, "Bob", "Jones", "bob@example.com", null, null, List.of(), Set.of())));
+        }
+
+        @Test
+        @DisplayName("should walk all pages by email using nextCursor")
+        void shouldWalkPagesByEmail() throws Exception {
+            String body = mockMvc
+                .perform(get("/api/v1/customers/paginated").param("limit", "2").param("sortBy", "email"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].email", is("alice@example.com")))
+                .andExpect(jsonPath("$.content[1].email", is("bob@example.com")))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+            String nextCursor = objectMapper.readTree(body).get("nextCursor").asText();
+
+            mockMvc
+                .perform(get("/api/v1/customers/paginated").param("limit", "2").param("after", nextCursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].email", is("carol@example.com")))
+                .andExpect(jsonPath("$.hasNext", is(false)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("should return 400 for a malformed cursor")
+        void shouldRejectMalformedCursor() throws Exception {
+            mockMvc
+                .perform(get("/api/v1/customers/paginated").param("limit", "2").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("BAD_REQUEST")));
+        }
+
+        @Test
+        @DisplayName("should return 400 for an unsupported sort key")
+        void shouldRejectUnsupportedSortKey() throws Exception {
+            mockMvc
+                .perform(get("/api/v1/customers/paginated").param("limit", "2").param("sortBy", "phone"))
+                .andExpect(status().isBadRequest());
+        }
     }
 
     @Nested
@@ -210,6 +446,78 @@ class CustomerControllerIntegrationTest {
                 .andExpect(jsonPath("$.message", containsString("Version is required")));
         }
 
+        @Test
+        @DisplayName("should accept If-Match instead of body version and return the new ETag – 200")
+        void shouldUpdateWithIfMatch() throws Exception {
+            CustomerRequest updateReq = new CustomerRequest("Johnny", null, "Doe", "johnny.doe@example.com", "555-0109", null, null, null);
+
+            mockMvc
+                .perform(put("/api/v1/customers/{id}", id)
+                    .header(HttpHeaders.IF_MATCH, "\"" + version + "\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(updateReq)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("Johnny"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + (version + 1) + "\""));
+        }
+
+        @Test
+        @DisplayName("should bump the version when only profile fields change, so the old ETag no longer matches")
+        void shouldBumpVersionOnProfileOnlyChange() throws Exception {
+            String oldTag = "\"" + version + "\"";
+            CustomerRequest profileOnly = new CustomerRequest("John", null, "Doe", "john.doe@example.com", "+1-555-0101", "9 Elm St",
+                LocalDate.of(1990, 1, 1), ContactMethod.EMAIL);
+
+            mockMvc
+                .perform(put("/api/v1/customers/{id}", id)
+                    .header(HttpHeaders.IF_MATCH, oldTag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(profileOnly)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.address").value("9 Elm St"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + (version + 1) + "\""));
+
+            mockMvc
+                .perform(get("/api/v1/customers/{id}", id).header(HttpHeaders.IF_NONE_MATCH, oldTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.address").value("9 Elm St"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + (version + 1) + "\""));
+            mockMvc
+                .perform(put("/api/v1/customers/{id}", id)
+                    .header(HttpHeaders.IF_MATCH, oldTag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(profileOnly)))
+                .andExpect(status().isPreconditionFailed());
+        }
+
+        @Test
+        @DisplayName("should bump the version once when customer and profile fields change together")
+        void shouldBumpVersionOnceOnCustomerAndProfileChange() throws Exception {
+            CustomerRequest both = new CustomerRequest("Johnny", version, "Doe", "john.doe@example.com", "+1-555-0101", "9 Elm St",
+                LocalDate.of(1990, 1, 1), ContactMethod.EMAIL);
+
+            mockMvc
+                .perform(put("/api/v1/customers/{id}", id).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(both)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("Johnny"))
+                .andExpect(jsonPath("$.address").value("9 Elm St"));
+            assertEquals(version + 1, customerRepository.findById(id).orElseThrow().getVersion());
+        }
+
+        @Test
+        @DisplayName("should return 412 when If-Match is stale")
+        void shouldReturn412WhenIfMatchIsStale() throws Exception {
+            CustomerRequest updateReq = new CustomerRequest("Johnny", null, "Doe", "johnny.doe@example.com", "555-0109", null, null, null);
+
+            mockMvc
+                .perform(put("/api/v1/customers/{id}", id)
+                    .header(HttpHeaders.IF_MATCH, "\"" + (version + 5) + "\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(updateReq)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.error").value("PRECONDITION_FAILED"));
+        }
+
         @Test
         @DisplayName("should return 409 on optimistic locking conflict")
         void shouldReturn409OnVersionConflict() throws Exception {
@@ -222,6 +530,145 @@ class CustomerControllerIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("PATCH /api/v1/customers/{id}")
+    class PatchCustomerTests {
+        private static final MediaType MERGE_PATCH = MediaType.parseMediaType(CustomerController.MERGE_PATCH_JSON_VALUE);
+
+        private Long id;
+        private Long version;
+
+        @BeforeEach
+        void initCustomer() throws Exception {
+            MvcResult created = mockMvc
+                .perform(post("/api/v1/customers").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(validRequest())))
+                .andExpect(status().isCreated())
+                .andReturn();
+            var body = objectMapper.readTree(created.getResponse().getContentAsString());
+            id = body.get("id").asLong();
+            version = body.get("version").asLong();
+        }
+
+        @Test
+        @DisplayName("should patch only the given fields with a single UPDATE and return the new ETag – 204")
+        void shouldPatchWithSingleUpdate() throws Exception {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            mockMvc
+                .perform(patch("/api/v1/customers/{id}", id)
+                    .header(HttpHeaders.IF_MATCH, "\"" + version + "\"")
+                    .contentType(MERGE_PATCH)
+                    .content("{\"firstName\": \"Johnny\", \"phone\": null}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + (version + 1) + "\""));
+
+            assertEquals(1, statistics.getPrepareStatementCount(), "Patch should be a single UPDATE");
+            assertEquals(0, statistics.getEntityLoadCount(), "Patch should not load the customer");
+
+            mockMvc
+                .perform(get("/api/v1/customers/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName", is("Johnny")))
+                .andExpect(jsonPath("$.lastName", is("Doe")))
+                .andExpect(jsonPath("$.phone").doesNotExist())
+                .andExpect(jsonPath("$.address", is("123 Main St")))
+                .andExpect(jsonPath("$.version", is((int) (version + 1))));
+            assertEquals("JOHNNY", customerRepository.findById(id).orElseThrow().getFirstNameSearch());
+        }
+
+        @Test
+        @DisplayName("should update or insert the profile for profile fields and audit the change")
+        void shouldPatchProfileFields() throws Exception {
+            Customer withoutProfile = customerRepository.save(
+                customerMapper.toEntity(new CustomerRequest("Alice", null, "Smith", "alice@example.com", null, null, null, null)));
+            LocalDateTime backdated = LocalDateTime.of(2020, 1, 1, 0, 0);
+            jdbcTemplate.update("UPDATE customer_profiles SET updated_date = ?, updated_by = 'someone' WHERE customer_id = ?", backdated, id);
+
+            mockMvc
+                .perform(patch("/api/v1/customers/{id}", id)
+                    .contentType(MERGE_PATCH)
+                    .content("{\"version\": " + version + ", \"address\": \"1 New St\"}"))
+                .andExpect(status().isNoContent());
+            mockMvc
+                .perform(patch("/api/v1/customers/{id}", withoutProfile.getId())
+                    .contentType(MERGE_PATCH)
+                    .content("{\"version\": " + withoutProfile.getVersion() + ", \"preferredContactMethod\": \"PHONE\"}"))
+                .andExpect(status().isNoContent());
+
+            mockMvc
+                .perform(get("/api/v1/customers/{id}", id))
+                .andExpect(jsonPath("$.address", is("1 New St")))
+                .andExpect(jsonPath("$.preferredContactMethod", is("EMAIL")));
+            mockMvc
+                .perform(get("/api/v1/customers/{id}", withoutProfile.getId()))
+                .andExpect(jsonPath("$.preferredContactMethod", is("PHONE")));
+
+            Map<String, Object> audit = jdbcTemplate.queryForMap("SELECT updated_date, updated_by FROM customer_profiles WHERE customer_id = ?", id);
+            assertTrue(((Timestamp) audit.get("UPDATED_DATE")).toLocalDateTime().isAfter(backdated), "Patch should set the profile's updated date");
+            assertEquals("SYSTEM", audit.get("UPDATED_BY"));
+            assertEquals("SYSTEM", jdbcTemplate.queryForObject(
+                "SELECT updated_by FROM customer_profiles WHERE customer_id = ?", String.class, withoutProfile.getId()));
+        }
+
+        @Test
+        @DisplayName("should return 409 when the body version is stale")
+        void shouldReturn409WhenVersionIsStale() throws Exception {
+            mockMvc
+                .perform(patch("/api/v1/customers/{id}", id)
+                    .contentType(MERGE_PATCH)
+                    .content("{\"version\": " + (version + 5) + ", \"firstName\": \"Johnny\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error", is("OPTIMISTIC_LOCK_ERROR")));
+        }
+
+        @Test
+        @DisplayName("should return 412 when If-Match is stale and 404 when the customer does not exist")
+        void shouldReturn412And404() throws Exception {
+            mockMvc
+                .perform(patch("/api/v1/customers/{id}", id)
+                    .header(HttpHeaders.IF_MATCH, "\"" + (version + 5) + "\"")
+                    .contentType(MERGE_PATCH)
+                    .content("{\"firstName\": \"Johnny\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+            mockMvc
+                .perform(patch("/api/v1/customers/{id}", 999999L)
+                    .header(HttpHeaders.IF_MATCH, "\"0\"")
+                    .contentType(MERGE_PATCH)
+                    .content("{\"firstName\": \"Johnny\"}"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error", is("CUSTOMER_NOT_FOUND")));
+        }
+
+        @Test
+        @DisplayName("should return 400 with validation errors for invalid values")
+        void shouldReturn400ForInvalidValues() throws Exception {
+            mockMvc
+                .perform(patch("/api/v1/customers/{id}", id)
+                    .header(HttpHeaders.IF_MATCH, "\"" + version + "\"")
+                    .contentType(MERGE_PATCH)
+                    .content("{\"email\": \"not-an-email\", \"lastName\": null}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("VALIDATION_ERROR")))
+                .andExpect(jsonPath("$.validationErrors[*].field", hasItems("email", "lastName")));
+        }
+
+        @Test
+        @DisplayName("should return 409 when the new email belongs to another customer")
+        void shouldReturn409ForDuplicateEmail() throws Exception {
+            customerRepository.save(customerMapper.toEntity(new CustomerRequest("Alice", null, "Smith", "alice@example.com", null, null, null, null)));
+
+            mockMvc
+                .perform(patch("/api/v1/customers/{id}", id)
+                    .header(HttpHeaders.IF_MATCH, "\"" + version + "\"")
+                    .contentType(MERGE_PATCH)
+                    .content("{\"email\": \"alice@example.com\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error", is("CUSTOMER_ALREADY_EXISTS")));
+        }
+    }
+
     @Nested
     @DisplayName("DELETE /api/v1/customers/{id}")
     class DeleteCustomerTests {
@@ -244,4 +691,97 @@ class CustomerControllerIntegrationTest {
                 .andExpect(jsonPath("$.error").value("CUSTOMER_NOT_FOUND"));
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Second-level cache")
+    class SecondLevelCacheTests {
+        private Long id;
+        private Statistics statistics;
+
+        @BeforeEach
+        void initCustomer() throws Exception {
+            MvcResult created = mockMvc
+                .perform(post("/api/v1/customers").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(validRequest())))
+                .andExpect(status().isCreated())
+                .andReturn();
+            id = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+            statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        }
+
+        @Test
+        @DisplayName("should serve repeated lookups by id without querying the database")
+        void shouldServeRepeatedLookupsFromCache() throws Exception {
+            mockMvc.perform(get("/api/v1/customers/{id}", id)).andExpect(status().isOk());
+            long statements = statistics.getPrepareStatementCount();
+
+            mockMvc
+                .perform(get("/api/v1/customers/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email", is("john.doe@example.com")))
+                .andExpect(jsonPath("$.address", is("123 Main St")));
+
+            assertEquals(statements, statistics.getPrepareStatementCount(), "Second lookup should not reach the database");
+        }
+
+        @Test
+        @DisplayName("should keep serving a customer from the cache while other customers are written")
+        void shouldNotInvalidateOnOtherWrites() throws Exception {
+            mockMvc.perform(get("/api/v1/customers/{id}", id)).andExpect(status().isOk());
+            CustomerRequest other = new CustomerRequest("Jane", null, "Roe", "jane.roe+" + System.nanoTime() + "@example.com", null,
+                "9 Elm St", null, null);
+            mockMvc
+                .perform(post("/api/v1/customers").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(other)))
+                .andExpect(status().isCreated());
+            long statements = statistics.getPrepareStatementCount();
+
+            mockMvc
+                .perform(get("/api/v1/customers/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.address", is("123 Main St")));
+
+            assertEquals(statements, statistics.getPrepareStatementCount(), "Another customer's write should not evict this one");
+        }
+
+        @Test
+        @DisplayName("should return fresh data after update and 404 after delete")
+        void shouldNotServeStaleEntries() throws Exception {
+            mockMvc.perform(get("/api/v1/customers/{id}", id)).andExpect(status().isOk());
+            CustomerRequest updateReq = new CustomerRequest("Johnny", 0L, "Doe", "john.doe@example.com", null, "456 Oak Ave", null, null);
+
+            mockMvc
+                .perform(put("/api/v1/customers/{id}", id).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(updateReq)))
+                .andExpect(status().isOk());
+            mockMvc
+                .perform(get("/api/v1/customers/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName", is("Johnny")))
+                .andExpect(jsonPath("$.address", is("456 Oak Ave")));
+
+            mockMvc.perform(delete("/api/v1/customers/{id}", id)).andExpect(status().isNoContent());
+            mockMvc.perform(get("/api/v1/customers/{id}", id)).andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("should return fresh data after patch, which clears the whole customers region")
+        void shouldClearCustomerRegionOnPatch() throws Exception {
+            Long otherId = customerRepository.save(
+                customerMapper.toEntity(new CustomerRequest("Alice", null, "Smith", "alice@example.com", null, null, null, null))).getId();
+            mockMvc.perform(get("/api/v1/customers/{id}", id)).andExpect(status().isOk());
+            mockMvc.perform(get("/api/v1/customers/{id}", otherId)).andExpect(status().isOk());
+            Cache cache = entityManagerFactory.getCache();
+            assertTrue(cache.contains(Customer.class, otherId), "Lookup should cache the other customer");
+
+            mockMvc
+                .perform(patch("/api/v1/customers/{id}", id)
+                    .contentType(CustomerController.MERGE_PATCH_JSON_VALUE)
+                    .content("{\"version\": 0, \"firstName\": \"Johnny\"}"))
+                .andExpect(status().isNoContent());
+
+            assertFalse(cache.contains(Customer.class, otherId), "Bulk UPDATE should clear the region, not only the patched entry");
+            mockMvc
+                .perform(get("/api/v1/customers/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName", is("Johnny")));
+        }
+    }
+}
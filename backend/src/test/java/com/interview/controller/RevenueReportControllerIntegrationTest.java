@@ -0,0 +1,198 @@
+package com.interview.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.dto.ServicePackageRequest;
+import com.interview.dto.StatusUpdateRequest;
+import com.interview.dto.SubscriptionRequest;
+import com.interview.entity.Customer;
+import com.interview.entity.ServicePackage;
+import com.interview.repository.CustomerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Full‑stack integration tests for {@link RevenueReportController}.
+ *
+ * <p>The Spring context and its database are shared with other integration tests, which delete packages
+ * without going through the service, so every test first verifies the subscriber counts and then asserts
+ * on the change its own requests make.</p>
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+@DisplayName("RevenueReportController ‑ Integration")
+class RevenueReportControllerIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mockMvc.perform(post("/api/v1/reports/mrr/verification"))
+            .andExpect(status().isOk());
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/reports/mrr")
+    class GetRecurringRevenue {
+        @Test
+        @DisplayName("should follow subscriptions and package status without drifting from the subscriptions")
+        void shouldMaintainRecurringRevenue() throws Exception {
+            BigDecimal before = mrr(report());
+            long packageId = createPackage(new BigDecimal("25.50"));
+            subscribe(packageId, customer());
+            subscribe(packageId, customer());
+
+            JsonNode afterSubscribing = report();
+            assertThat(mrr(afterSubscribing)).isEqualByComparingTo(before.add(new BigDecimal("51.00")));
+            assertThat(afterSubscribing.path("packages").findValues("servicePackageId")).extracting(JsonNode::asLong).contains(packageId);
+            JsonNode currentMonth = afterSubscribing.path("months").get(afterSubscribing.path("months").size() - 1);
+            assertThat(currentMonth.path("month").asText()).isEqualTo(YearMonth.now(ZoneOffset.UTC).toString());
+            assertThat(currentMonth.path("mrr").decimalValue()).isEqualByComparingTo(mrr(afterSubscribing));
+
+            mockMvc.perform(patch("/api/v1/service-packages/{id}/status", packageId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new StatusUpdateRequest(false))))
+                .andExpect(status().isOk());
+            assertThat(mrr(report())).isEqualByComparingTo(before);
+
+            mockMvc.perform(post("/api/v1/reports/mrr/verification"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.corrected").value(false));
+        }
+
+        @Test
+        @DisplayName("should return 400 when the month range is reversed")
+        void shouldReturn400OnReversedRange() throws Exception {
+            mockMvc.perform(get("/api/v1/reports/mrr").param("from", "2025-06").param("to", "2025-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("BAD_REQUEST"));
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /api/v1/reports/mrr/verification")
+    class VerifyRecurringRevenue {
+        @Test
+        @DisplayName("should recount a drifted subscriber count and report the package as corrected")
+        void shouldCorrectDriftedSubscriberCount() throws Exception {
+            long packageId = createPackage(new BigDecimal("12.00"));
+            subscribe(packageId, customer());
+            BigDecimal consistent = mrr(report());
+            jdbcTemplate.update("UPDATE service_packages SET subscriber_count = 4 WHERE id = ?", packageId);
+            entityManagerFactory.getCache().evict(ServicePackage.class, packageId);
+            assertThat(mrr(report())).isEqualByComparingTo(consistent.add(new BigDecimal("36.00")));
+
+            mockMvc.perform(post("/api/v1/reports/mrr/verification"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.corrected").value(true))
+                .andExpect(jsonPath("$.correctedPackages").value(1))
+                .andExpect(jsonPath("$.stored.mrr").value(consistent.add(new BigDecimal("36.00")).doubleValue()))
+                .andExpect(jsonPath("$.recomputed.mrr").value(consistent.doubleValue()));
+
+            assertThat(mrr(report())).isEqualByComparingTo(consistent);
+            assertThat(jdbcTemplate.queryForObject("SELECT mrr FROM package_monthly_recurring_revenue "
+                + "WHERE service_package_id = ? AND revenue_month = ?", BigDecimal.class, packageId,
+                YearMonth.now(ZoneOffset.UTC).atDay(1))).isEqualByComparingTo("12.00");
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/reports/churn")
+    class GetChurn {
+        @Test
+        @DisplayName("should count this month's subscriptions and cancellations")
+        void shouldCountCurrentMonth() throws Exception {
+            JsonNode before = currentMonthChurn();
+            long packageId = createPackage(new BigDecimal("10.00"));
+            long customerId = customer();
+            subscribe(packageId, customerId);
+            subscribe(packageId, customer());
+            mockMvc.perform(delete("/api/v1/service-packages/{id}/customers/{customerId}", packageId, customerId))
+                .andExpect(status().isNoContent());
+
+            JsonNode after = currentMonthChurn();
+            assertThat(after.path("started").asLong() - before.path("started").asLong()).isEqualTo(2);
+            assertThat(after.path("ended").asLong() - before.path("ended").asLong()).isEqualTo(1);
+            assertThat(after.path("subscriptionsAtEnd").asLong())
+                .isEqualTo(after.path("subscriptionsAtStart").asLong() + after.path("started").asLong() - after.path("ended").asLong());
+        }
+
+        private JsonNode currentMonthChurn() throws Exception {
+            String month = YearMonth.now(ZoneOffset.UTC).toString();
+            String body = mockMvc.perform(get("/api/v1/reports/churn").param("from", month))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andReturn().getResponse().getContentAsString();
+            return objectMapper.readTree(body).get(0);
+        }
+    }
+
+    private JsonNode report() throws Exception {
+        String body = mockMvc.perform(get("/api/v1/reports/mrr"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static BigDecimal mrr(JsonNode report) {
+        return report.path("mrr").decimalValue();
+    }
+
+    private long createPackage(BigDecimal monthlyPrice) throws Exception {
+        ServicePackageRequest request = new ServicePackageRequest("Revenue Wash " + System.nanoTime(), "Report package", monthlyPrice);
+        String body = mockMvc.perform(post("/api/v1/service-packages")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).path("id").asLong();
+    }
+
+    private long customer() {
+        Customer customer = new Customer();
+        customer.setFirstName("Revenue");
+        customer.setLastName("Subscriber");
+        customer.setEmail("revenue.subscriber+" + System.nanoTime() + "@example.com");
+        return customerRepository.save(customer).getId();
+    }
+
+    private void subscribe(long packageId, long customerId) throws Exception {
+        mockMvc.perform(post("/api/v1/service-packages/{id}/subscribe", packageId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new SubscriptionRequest(customerId))))
+            .andExpect(status().isNoContent());
+    }
+}
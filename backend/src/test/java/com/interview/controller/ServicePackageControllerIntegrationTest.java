@@ -2,14 +2,34 @@ package com.interview.controller;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.dto.BatchSubscriptionRequest;
 import com.interview.dto.CustomerRequest;
+import com.interview.dto.IdsRequest;
 import com.interview.dto.ServicePackageRequest;
 import com.interview.dto.StatusUpdateRequest;
 import com.interview.dto.SubscriptionRequest;
 import com.interview.entity.Customer;
+import com.interview.entity.ServicePackage;
+import com.interview.enums.SubscriptionAction;
 import com.interview.repository.CustomerRepository;
 import com.interview.repository.ServicePackageRepository;
+import com.interview.service.ServicePackageCatalog;
+import com.interview.service.ServicePackageService;
+import com.interview.service.SubscriberCountReconciler;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -18,21 +38,31 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -56,12 +86,26 @@ public class ServicePackageControllerIntegrationTest {
     private ServicePackageRepository servicePackageRepository;
     @Autowired
     private CustomerRepository customerRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ServicePackageCatalog servicePackageCatalog;
+
+    @Autowired
+    private SubscriberCountReconciler subscriberCountReconciler;
+    @Autowired
+    private ServicePackageService servicePackageService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
     private ServicePackageRequest validRequest;
 
     @BeforeEach
     void setUp() {
         servicePackageRepository.deleteAll();
+        servicePackageCatalog.invalidate();
         validRequest = new ServicePackageRequest(
             "Premium Wash",
             "Exterior + interior + wax",
@@ -135,6 +179,41 @@ public class ServicePackageControllerIntegrationTest {
                 .andExpect(jsonPath("$.name").value(validRequest.name()));
         }
 
+        @Test
+        @DisplayName("should return 304 when If-None-Match matches and 200 once subscribers change")
+        void shouldHonourIfNoneMatch() throws Exception {
+            MvcResult result = mockMvc.perform(post("/api/v1/service-packages")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+            long id = objectMapper.readTree(result.getResponse().getContentAsString()).path("id").asLong();
+            String etag = mockMvc.perform(get("/api/v1/service-packages/{id}", id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            mockMvc.perform(get("/api/v1/service-packages/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+            // Reloaded from the row instead of the second-level cache, the package must carry the same tag
+            entityManagerFactory.getCache().evict(ServicePackage.class, id);
+            mockMvc.perform(get("/api/v1/service-packages/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+            Customer customer = new Customer();
+            customer.setFirstName("Etag");
+            customer.setLastName("Subscriber");
+            customer.setEmail("etag.subscriber+" + System.nanoTime() + "@example.com");
+            long customerId = customerRepository.save(customer).getId();
+            mockMvc.perform(post("/api/v1/service-packages/{id}/subscribe", id)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new SubscriptionRequest(customerId))))
+                .andExpect(status().isNoContent());
+
+            mockMvc.perform(get("/api/v1/service-packages/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.subscriberCount").value(1));
+        }
+
         @Test
         @DisplayName("should return 404 when not found")
         void shouldReturn404() throws Exception {
@@ -259,6 +338,82 @@ public class ServicePackageControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(1)));
         }
+        @Test
+        @DisplayName("should filter active=false and count subscribers without loading them")
+        void shouldFilterInactiveWithSubscriberCounts() throws Exception {
+            ServicePackage inactive = new ServicePackage();
+            inactive.setName("Retired Wash");
+            inactive.setMonthlyPrice(new BigDecimal("5.00"));
+            inactive.setActive(false);
+            long inactiveId = servicePackageRepository.save(inactive).getId();
+            mockMvc.perform(post("/api/v1/service-packages")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isCreated());
+
+            Customer c = new Customer();
+            c.setFirstName("John");
+            c.setLastName("Doe");
+            c.setEmail("john." + System.nanoTime() + "@example.com");
+            c.addServicePackage(inactive);
+            customerRepository.save(c);
+            // The join row bypasses the subscription paths, so bring the materialized count up to date as the nightly job would
+            subscriberCountReconciler.reconcile();
+
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            long customerLoads = statistics.getEntityStatistics(Customer.class.getName()).getLoadCount();
+
+            mockMvc.perform(get("/api/v1/service-packages")
+                    .param("active", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(inactiveId))
+                .andExpect(jsonPath("$[0].subscriberCount").value(1));
+
+            mockMvc.perform(get("/api/v1/service-packages/paginated")
+                    .param("active", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].subscriberCount").value(1));
+
+            assertEquals(customerLoads, statistics.getEntityStatistics(Customer.class.getName()).getLoadCount());
+        }
+
+        @Test
+        @DisplayName("should serve the cached catalog with ETag and gzip and drop it when a package is created")
+        void shouldServeCachedCatalog() throws Exception {
+            mockMvc.perform(post("/api/v1/service-packages")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isCreated());
+
+            MvcResult first = mockMvc.perform(get("/api/v1/service-packages").param("active", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(jsonPath("$[0].name").value(validRequest.name()))
+                .andReturn();
+            String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+            mockMvc.perform(get("/api/v1/service-packages").param("active", "true").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+            MvcResult gzipped = mockMvc.perform(get("/api/v1/service-packages").param("active", "true")
+                    .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+            try (GZIPInputStream decoded = new GZIPInputStream(new ByteArrayInputStream(gzipped.getResponse().getContentAsByteArray()))) {
+                assertThat(decoded.readAllBytes()).isEqualTo(first.getResponse().getContentAsByteArray());
+            }
+
+            mockMvc.perform(post("/api/v1/service-packages")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new ServicePackageRequest("Basic Wash", "Exterior only", new BigDecimal("9.99")))))
+                .andExpect(status().isCreated());
+
+            mockMvc.perform(get("/api/v1/service-packages").param("active", "true").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+        }
     }
 
     @Nested
@@ -307,6 +462,57 @@ public class ServicePackageControllerIntegrationTest {
                 .andExpect(jsonPath("$.content[0].name").value(validRequest.name()));
         }
 
+        @Test
+        @DisplayName("should sort by the subscriber counter kept by subscribe, unsubscribe and customer delete")
+        void shouldSortBySubscriberCount() throws Exception {
+            long basicId = createPackage(new ServicePackageRequest("Basic Wash", "Exterior only", new BigDecimal("9.99")));
+            long premiumId = createPackage(validRequest);
+            long firstCustomerId = createCustomer();
+            long secondCustomerId = createCustomer();
+            subscribe(premiumId, firstCustomerId);
+            subscribe(premiumId, secondCustomerId);
+            subscribe(basicId, firstCustomerId);
+
+            mockMvc.perform(get("/api/v1/service-packages/paginated")
+                    .param("sort", "subscriberCount,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(premiumId))
+                .andExpect(jsonPath("$.content[0].subscriberCount").value(2))
+                .andExpect(jsonPath("$.content[1].id").value(basicId));
+
+            mockMvc.perform(delete("/api/v1/service-packages/{id}/customers/{customerId}", premiumId, secondCustomerId))
+                .andExpect(status().isNoContent());
+            mockMvc.perform(delete("/api/v1/customers/{id}", firstCustomerId))
+                .andExpect(status().isNoContent());
+
+            assertThat(servicePackageRepository.findAllById(List.of(basicId, premiumId)))
+                .extracting(ServicePackage::getSubscriberCount)
+                .containsOnly(0);
+        }
+
+        private long createPackage(ServicePackageRequest request) throws Exception {
+            MvcResult result = mockMvc.perform(post("/api/v1/service-packages")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated()).andReturn();
+            return objectMapper.readTree(result.getResponse().getContentAsString()).path("id").asLong();
+        }
+
+        private long createCustomer() {
+            Customer customer = new Customer();
+            customer.setFirstName("John");
+            customer.setLastName("Doe");
+            customer.setEmail("john." + System.nanoTime() + "@example.com");
+            return customerRepository.save(customer).getId();
+        }
+
+        private void subscribe(long packageId, long customerId) throws Exception {
+            mockMvc.perform(post("/api/v1/service-packages/{id}/subscribe", packageId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new SubscriptionRequest(customerId))))
+                .andExpect(status().isNoContent());
+        }
+
         @Test
         @DisplayName("should return empty page when no packages exist")
         void shouldReturnEmptyPage() throws Exception {
@@ -319,6 +525,112 @@ public class ServicePackageControllerIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("GET /api/v1/service-packages?ids=")
+    class GetServicePackagesByIds {
+        @Test
+        @DisplayName("should return packages with subscriber counts in request order and report missing ids")
+        void shouldReturnPackagesInRequestOrder() throws Exception {
+            MvcResult res = mockMvc.perform(post("/api/v1/service-packages")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+            long premiumId = objectMapper.readTree(res.getResponse().getContentAsString()).path("id").asLong();
+
+            res = mockMvc.perform(post("/api/v1/service-packages")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new ServicePackageRequest("Basic Wash", "Exterior only", new BigDecimal("9.99")))))
+                .andExpect(status().isCreated())
+                .andReturn();
+            long basicId = objectMapper.readTree(res.getResponse().getContentAsString()).path("id").asLong();
+
+            Customer c = new Customer();
+            c.setFirstName("John");
+            c.setLastName("Doe");
+            c.setEmail("john." + System.nanoTime() + "@example.com");
+            long customerId = customerRepository.save(c).getId();
+            mockMvc.perform(post("/api/v1/service-packages/{id}/subscribe", premiumId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new SubscriptionRequest(customerId))))
+                .andExpect(status().isNoContent());
+
+            mockMvc.perform(get("/api/v1/service-packages")
+                    .param("ids", basicId + ",999999," + premiumId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].name").value("Basic Wash"))
+                .andExpect(jsonPath("$.content[0].subscriberCount").value(0))
+                .andExpect(jsonPath("$.content[1].name").value(validRequest.name()))
+                .andExpect(jsonPath("$.content[1].subscriberCount").value(1))
+                .andExpect(jsonPath("$.missingIds[0]").value(999999));
+
+            mockMvc.perform(post("/api/v1/service-packages/lookup")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new IdsRequest(List.of(premiumId)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(premiumId))
+                .andExpect(jsonPath("$.missingIds", hasSize(0)));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/service-packages/paginated?limit=")
+    class GetServicePackagesCursor {
+        @Test
+        @DisplayName("should page by name with subscriber counts and no total count")
+        void shouldPageByNameWithSubscriberCounts() throws Exception {
+            MvcResult res = mockMvc.perform(post("/api/v1/service-packages")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+            long pkgId = objectMapper.readTree(res.getResponse().getContentAsString()).path("id").asLong();
+
+            mockMvc.perform(post("/api/v1/service-packages")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new ServicePackageRequest("Basic Wash", "Exterior only", new BigDecimal("9.99")))))
+                .andExpect(status().isCreated());
+
+            Customer c = new Customer();
+            c.setFirstName("John");
+            c.setLastName("Doe");
+            c.setEmail("john." + System.nanoTime() + "@example.com");
+            long customerId = customerRepository.save(c).getId();
+            mockMvc.perform(post("/api/v1/service-packages/{id}/subscribe", pkgId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new SubscriptionRequest(customerId))))
+                .andExpect(status().isNoContent());
+
+            MvcResult first = mockMvc.perform(get("/api/v1/service-packages/paginated")
+                    .param("limit", "1")
+                    .param("sortBy", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].name").value("Basic Wash"))
+                .andExpect(jsonPath("$.content[0].subscriberCount").value(0))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn();
+            String nextCursor = objectMapper.readTree(first.getResponse().getContentAsString()).path("nextCursor").asText();
+
+            mockMvc.perform(get("/api/v1/service-packages/paginated")
+                    .param("limit", "1")
+                    .param("after", nextCursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value(validRequest.name()))
+                .andExpect(jsonPath("$.content[0].subscriberCount").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false));
+        }
+
+        @Test
+        @DisplayName("should return 400 when limit is out of range")
+        void shouldRejectLimitOutOfRange() throws Exception {
+            mockMvc.perform(get("/api/v1/service-packages/paginated")
+                    .param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        }
+    }
+
     @Nested
     @DisplayName("PATCH /api/v1/service-packages/{id}/status")
     class UpdateServicePackageStatus {
@@ -409,6 +721,32 @@ public class ServicePackageControllerIntegrationTest {
                 .andExpect(status().isNoContent());
         }
 
+        @Test
+        @DisplayName("should subscribe without loading the package's existing subscribers")
+        void shouldSubscribeWithoutLoadingSubscribers() throws Exception {
+            for (int i = 0; i < 20; i++) {
+                Customer subscriber = new Customer();
+                subscriber.setFirstName("Sub");
+                subscriber.setLastName("Scriber");
+                subscriber.setEmail("subscriber" + i + "." + System.nanoTime() + "@example.com");
+                mockMvc.perform(post("/api/v1/service-packages/{id}/subscribe", packageId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new SubscriptionRequest(customerRepository.save(subscriber).getId()))))
+                    .andExpect(status().isNoContent());
+            }
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            mockMvc.perform(post("/api/v1/service-packages/{id}/subscribe", packageId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new SubscriptionRequest(customerId))))
+                .andExpect(status().isNoContent());
+
+            assertEquals(0, statistics.getEntityLoadCount());
+            assertEquals(0, statistics.getCollectionLoadCount());
+            assertEquals(21, servicePackageRepository.findById(packageId).orElseThrow().getSubscriberCount());
+        }
+
         @Test
         @DisplayName("should return 400 when customer already subscribed")
         void shouldReturn400OnDuplicateSubscription() throws Exception {
@@ -449,6 +787,141 @@ public class ServicePackageControllerIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("POST /api/v1/service-packages/{id}/subscribers:batch")
+    class BatchSubscribers {
+
+        @Test
+        @DisplayName("should subscribe and unsubscribe many customers with per-customer outcomes")
+        void shouldApplyBatch() throws Exception {
+            MvcResult res = mockMvc.perform(post("/api/v1/service-packages")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+            long pkgId = objectMapper.readTree(res.getResponse().getContentAsString()).path("id").asLong();
+            List<Long> customerIds = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                Customer c = new Customer();
+                c.setFirstName("Fleet");
+                c.setLastName("Driver");
+                c.setEmail("fleet" + i + "." + System.nanoTime() + "@example.com");
+                customerIds.add(customerRepository.save(c).getId());
+            }
+            mockMvc.perform(post("/api/v1/service-packages/{id}/subscribe", pkgId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new SubscriptionRequest(customerIds.get(0)))))
+                .andExpect(status().isNoContent());
+
+            List<Long> requested = new ArrayList<>(customerIds);
+            requested.add(999_999L);
+            mockMvc.perform(post("/api/v1/service-packages/{id}/subscribers:batch", pkgId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new BatchSubscriptionRequest(null, requested))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.action").value("SUBSCRIBE"))
+                .andExpect(jsonPath("$.results", hasSize(4)))
+                .andExpect(jsonPath("$.results[0].outcome").value("ALREADY_SUBSCRIBED"))
+                .andExpect(jsonPath("$.results[1].outcome").value("SUBSCRIBED"))
+                .andExpect(jsonPath("$.results[3].customerId").value(999_999))
+                .andExpect(jsonPath("$.results[3].outcome").value("CUSTOMER_NOT_FOUND"))
+                .andExpect(jsonPath("$.totals.SUBSCRIBED").value(2));
+            assertEquals(3, servicePackageRepository.findById(pkgId).orElseThrow().getSubscriberCount());
+
+            mockMvc.perform(post("/api/v1/service-packages/{id}/subscribers:batch", pkgId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new BatchSubscriptionRequest(SubscriptionAction.UNSUBSCRIBE,
+                        customerIds.subList(0, 2)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totals.UNSUBSCRIBED").value(2));
+            assertEquals(1, servicePackageRepository.findById(pkgId).orElseThrow().getSubscriberCount());
+        }
+
+        @Test
+        @DisplayName("should report a row a concurrent single subscribe committed after the state read as already subscribed")
+        void shouldAbsorbConcurrentSubscribe() throws Exception {
+            MvcResult res = mockMvc.perform(post("/api/v1/service-packages")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+            long pkgId = objectMapper.readTree(res.getResponse().getContentAsString()).path("id").asLong();
+            List<Long> customerIds = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                Customer c = new Customer();
+                c.setFirstName("Fleet");
+                c.setLastName("Driver");
+                c.setEmail("race" + i + "." + System.nanoTime() + "@example.com");
+                customerIds.add(customerRepository.save(c).getId());
+            }
+
+            // The single subscribe inserts its row but holds the commit, so the batch reads the customer as unsubscribed,
+            // passes its NOT EXISTS check and waits on the primary key until the twin commits
+            CountDownLatch inserted = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                Future<?> single = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                    servicePackageService.subscribeCustomerToPackage(pkgId, customerIds.get(1));
+                    inserted.countDown();
+                    awaitUninterruptibly(release);
+                }));
+                assertTrue(inserted.await(5, TimeUnit.SECONDS));
+                Future<MvcResult> batch = executor.submit(() -> mockMvc.perform(post("/api/v1/service-packages/{id}/subscribers:batch", pkgId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchSubscriptionRequest(null, customerIds))))
+                    .andReturn());
+                awaitBlockedInsert();
+                release.countDown();
+                single.get(5, TimeUnit.SECONDS);
+
+                MvcResult result = batch.get(5, TimeUnit.SECONDS);
+                assertEquals(200, result.getResponse().getStatus(), result.getResponse().getContentAsString());
+                JsonNode outcomes = objectMapper.readTree(result.getResponse().getContentAsString()).path("results");
+                assertEquals("SUBSCRIBED", outcomes.path(0).path("outcome").asText());
+                assertEquals("ALREADY_SUBSCRIBED", outcomes.path(1).path("outcome").asText());
+                assertEquals("SUBSCRIBED", outcomes.path(2).path("outcome").asText());
+            } finally {
+                release.countDown();
+                executor.shutdownNow();
+            }
+            assertEquals(3, servicePackageRepository.findById(pkgId).orElseThrow().getSubscriberCount());
+        }
+
+        /** The held insert has finished executing, so a session still running one is the batch waiting on its key. */
+        private void awaitBlockedInsert() throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS "
+                + "WHERE EXECUTING_STATEMENT LIKE 'INSERT INTO customer_service_packages%'", Integer.class) == 0) {
+                assertTrue(System.nanoTime() < deadline, "the batch never waited on the concurrent insert");
+                Thread.sleep(10);
+            }
+        }
+
+        private static void awaitUninterruptibly(CountDownLatch latch) {
+            try {
+                latch.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Test
+        @DisplayName("should return 400 without customer IDs and 404 for a missing package")
+        void shouldRejectInvalidRequests() throws Exception {
+            mockMvc.perform(post("/api/v1/service-packages/{id}/subscribers:batch", 1)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new BatchSubscriptionRequest(null, List.of()))))
+                .andExpect(status().isBadRequest());
+
+            mockMvc.perform(post("/api/v1/service-packages/{id}/subscribers:batch", 9999)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new BatchSubscriptionRequest(null, List.of(1L)))))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("SERVICE_PACKAGE_NOT_FOUND"));
+        }
+    }
+
     @Nested
     @DisplayName("DELETE /api/v1/service-packages/{id}/customers/{customerId}")
     class UnsubscribeCustomerFromPackage {
@@ -483,6 +956,40 @@ public class ServicePackageControllerIntegrationTest {
                 .andExpect(status().isNoContent());
         }
 
+        @Test
+        @DisplayName("should still list an unsubscribed customer as a subscriber at a moment before unsubscribing")
+        void shouldKeepSubscriptionHistory() throws Exception {
+            MvcResult res = mockMvc.perform(post("/api/v1/service-packages")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+            long pkgId = objectMapper.readTree(res.getResponse().getContentAsString()).path("id").asLong();
+
+            Customer c = new Customer();
+            c.setFirstName("Hanna");
+            c.setLastName("History");
+            c.setEmail("hanna." + System.nanoTime() + "@example.com");
+            long customerId = customerRepository.save(c).getId();
+
+            mockMvc.perform(post("/api/v1/service-packages/{id}/subscribe", pkgId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new SubscriptionRequest(customerId))))
+                .andExpect(status().isNoContent());
+            Instant whileSubscribed = Instant.now();
+            mockMvc.perform(delete("/api/v1/service-packages/{id}/customers/{customerId}", pkgId, customerId))
+                .andExpect(status().isNoContent());
+
+            mockMvc.perform(get("/api/v1/service-packages/{id}/subscribers/as-of", pkgId).param("at", whileSubscribed.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.packageActive").value(true))
+                .andExpect(jsonPath("$.customerIds.content", hasSize(1)))
+                .andExpect(jsonPath("$.customerIds.content[0]").value(customerId));
+            mockMvc.perform(get("/api/v1/service-packages/{id}/subscribers/as-of", pkgId).param("at", Instant.now().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customerIds.content", hasSize(0)));
+        }
+
         @Test
         @DisplayName("should return 400 when customer not subscribed")
         void shouldReturn400WhenNotSubscribed() throws Exception {
@@ -572,6 +1079,69 @@ public class ServicePackageControllerIntegrationTest {
                 .andExpect(jsonPath("$.totalCount").value(0));
         }
 
+        @Test
+        @DisplayName("should page subscribers with a cursor and stream them as NDJSON")
+        void shouldPageAndStreamSubscribers() throws Exception {
+            MvcResult res = mockMvc.perform(post("/api/v1/service-packages")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+            long pkgId = objectMapper.readTree(res.getResponse().getContentAsString()).path("id").asLong();
+            List<Long> customerIds = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                Customer c = new Customer();
+                c.setFirstName("Cust" + i);
+                c.setLastName("L" + i);
+                c.setEmail("cust" + i + "." + System.nanoTime() + "@example.com");
+                customerIds.add(customerRepository.save(c).getId());
+            }
+            mockMvc.perform(post("/api/v1/service-packages/{id}/subscribers:batch", pkgId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new BatchSubscriptionRequest(null, customerIds))))
+                .andExpect(status().isOk());
+
+            MvcResult firstPage = mockMvc.perform(get("/api/v1/service-packages/{id}/subscribers", pkgId).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].id").value(customerIds.get(0)))
+                .andExpect(jsonPath("$.content[0].name").value("Cust0 L0"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn();
+            String cursor = objectMapper.readTree(firstPage.getResponse().getContentAsString()).path("nextCursor").asText();
+            mockMvc.perform(get("/api/v1/service-packages/{id}/subscribers", pkgId).param("limit", "2").param("after", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id").value(customerIds.get(2)))
+                .andExpect(jsonPath("$.hasNext").value(false));
+
+            MvcResult asyncResult = mockMvc
+                .perform(get("/api/v1/service-packages/{id}/subscribers", pkgId).accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            String body = mockMvc
+                .perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+            List<String> lines = body.lines().toList();
+            assertEquals(3, lines.size());
+            assertEquals(customerIds.get(1).longValue(), objectMapper.readTree(lines.get(1)).get("id").asLong());
+        }
+
+        @Test
+        @DisplayName("should return 404 before streaming when service package not found")
+        void shouldReturn404BeforeStreaming() throws Exception {
+            mockMvc.perform(get("/api/v1/service-packages/{id}/subscribers", 9999)
+                    .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("SERVICE_PACKAGE_NOT_FOUND"));
+            mockMvc.perform(get("/api/v1/service-packages/{id}/subscribers", 9999).param("limit", "10"))
+                .andExpect(status().isNotFound());
+        }
+
         @Test
         @DisplayName("should return 404 when service package not found")
         void shouldReturn404WhenPackageNotFound() throws Exception {
@@ -1,13 +1,19 @@
 package com.interview.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.dto.IdsRequest;
 import com.interview.dto.VehicleRequest;
 import com.interview.entity.Customer;
+import com.interview.entity.CustomerProfile;
 import com.interview.entity.Vehicle;
 import com.interview.mapper.VehicleMapper;
 import com.interview.repository.CustomerRepository;
 import com.interview.repository.VehicleRepository;
+import com.interview.service.VehicleSuggestionService;
+import jakarta.persistence.EntityManagerFactory;
 import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -15,12 +21,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -48,6 +57,10 @@ class VehicleControllerIntegrationTest {
     private VehicleMapper vehicleMapper;
     @Autowired
     private CustomerRepository customerRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private VehicleSuggestionService vehicleSuggestionService;
 
     private Long customerId; // foreign‑key for vehicles
     private VehicleRequest validRequest;
@@ -141,6 +154,65 @@ class VehicleControllerIntegrationTest {
                 .andExpect(jsonPath("$.vin").value(validRequest.vin()));
         }
 
+        @Test
+        @DisplayName("should return 304 when If-None-Match matches the ETag")
+        void shouldReturn304WhenNotModified() throws Exception {
+            String etag = mockMvc.perform(get("/api/v1/vehicles/{id}", savedId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            mockMvc.perform(get("/api/v1/vehicles/{id}", savedId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        }
+
+        @Test
+        @DisplayName("should serve repeated lookups from the entity caches while other vehicles are written")
+        void shouldServeRepeatedLookupsFromCache() throws Exception {
+            Customer owner = new Customer(null, null, "Jane", "Roe", "jane.roe+" + System.nanoTime() + "@example.com", null, null,
+                List.of(), java.util.Set.of());
+            CustomerProfile profile = new CustomerProfile();
+            profile.setAddress("9 Elm St");
+            profile.setCustomer(owner);
+            owner.setCustomerProfile(profile);
+            Long ownerId = customerRepository.save(owner).getId();
+            Vehicle vehicle = vehicleMapper.toEntity(new VehicleRequest(ownerId, "3HGCM82633A004354", "Mazda", "CX-5", 2022));
+            vehicle.setCustomer(customerRepository.getReferenceById(ownerId));
+            Long id = vehicleRepository.save(vehicle).getId();
+            mockMvc.perform(get("/api/v1/vehicles/{id}", id)).andExpect(status().isOk());
+            persistVehicle(new VehicleRequest(customerId, "4HGCM82633A004355", "Honda", "Fit", 2015));
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            long statements = statistics.getPrepareStatementCount();
+
+            mockMvc.perform(get("/api/v1/vehicles/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customerName").value("Jane Roe"));
+
+            assertEquals(statements, statistics.getPrepareStatementCount(), "Lookup should not reach the database");
+        }
+
+        @Test
+        @DisplayName("should keep the ETag when the vehicle is reloaded from the database and change it on update")
+        void shouldTagFromVersion() throws Exception {
+            String etag = mockMvc.perform(get("/api/v1/vehicles/{id}", savedId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            entityManagerFactory.getCache().evict(Vehicle.class, savedId);
+            mockMvc.perform(get("/api/v1/vehicles/{id}", savedId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+            mockMvc.perform(put("/api/v1/vehicles/{id}", savedId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new VehicleRequest(customerId, validRequest.vin(), "Honda", "Civic", 2021))))
+                .andExpect(status().isOk());
+            mockMvc.perform(get("/api/v1/vehicles/{id}", savedId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+        }
+
         @Test
         @DisplayName("should return 404 when not found")
         void shouldReturn404() throws Exception {
@@ -170,6 +242,29 @@ class VehicleControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(1)));
         }
+
+        @Test
+        @DisplayName("should stream vehicles as NDJSON when requested")
+        void shouldStreamVehiclesAsNdjson() throws Exception {
+            persistVehicle(validRequest);
+            persistVehicle(new VehicleRequest(customerId, "2HGCM82633A004353", "Tesla", "Model 3", 2022));
+
+            MvcResult asyncResult = mockMvc.perform(get("/api/v1/vehicles")
+                    .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+            String body = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+            List<String> lines = body.lines().toList();
+            assertEquals(2, lines.size());
+            assertEquals(validRequest.vin(), objectMapper.readTree(lines.get(0)).get("vin").asText());
+            assertEquals("Tesla", objectMapper.readTree(lines.get(1)).get("make").asText());
+            assertEquals("John Doe", objectMapper.readTree(lines.get(1)).get("customerName").asText());
+        }
     }
 
     @Nested
@@ -195,6 +290,88 @@ class VehicleControllerIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("GET /api/v1/vehicles?ids=")
+    class GetVehiclesByIds {
+        @Test
+        @DisplayName("should return vehicles with customer data in request order and report missing ids")
+        void shouldReturnVehiclesInRequestOrder() throws Exception {
+            Vehicle first = persistVehicle(validRequest);
+            Vehicle second = persistVehicle(new VehicleRequest(customerId, "2HGCM82633A004353", "Tesla", "Model 3", 2022));
+
+            mockMvc.perform(get("/api/v1/vehicles")
+                    .param("ids", second.getId() + "," + first.getId() + ",999999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].vin").value("2HGCM82633A004353"))
+                .andExpect(jsonPath("$.content[1].vin").value(validRequest.vin()))
+                .andExpect(jsonPath("$.content[0].customerEmail").isNotEmpty())
+                .andExpect(jsonPath("$.missingIds[0]").value(999999));
+        }
+
+        @Test
+        @DisplayName("should look up vehicles from a POST body")
+        void shouldLookUpVehiclesFromBody() throws Exception {
+            Vehicle saved = persistVehicle(validRequest);
+
+            mockMvc.perform(post("/api/v1/vehicles/lookup")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new IdsRequest(List.of(saved.getId())))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(saved.getId()))
+                .andExpect(jsonPath("$.missingIds", hasSize(0)));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/vehicles/paginated?limit=")
+    class GetVehiclesCursor {
+        @Test
+        @DisplayName("should return next page after cursor ordered by id")
+        void shouldReturnNextPageAfterCursor() throws Exception {
+            Vehicle first = persistVehicle(validRequest);
+            Vehicle second = persistVehicle(new VehicleRequest(
+                customerId,
+                "2HGCM82633A004353",
+                "Tesla",
+                "Model 3",
+                2022));
+
+            String body = mockMvc.perform(get("/api/v1/vehicles/paginated")
+                    .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id").value(first.getId()))
+                .andExpect(jsonPath("$.content[0].customerEmail").isNotEmpty())
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn().getResponse().getContentAsString();
+
+            mockMvc.perform(get("/api/v1/vehicles/paginated")
+                    .param("limit", "1")
+                    .param("after", objectMapper.readTree(body).get("nextCursor").asText()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(second.getId()))
+                .andExpect(jsonPath("$.hasNext").value(false));
+        }
+
+        @Test
+        @DisplayName("should return 400 when cursor sort key conflicts with sortBy")
+        void shouldRejectConflictingSortKey() throws Exception {
+            persistVehicle(validRequest);
+            persistVehicle(new VehicleRequest(customerId, "2HGCM82633A004353", "Tesla", "Model 3", 2022));
+
+            String body = mockMvc.perform(get("/api/v1/vehicles/paginated")
+                    .param("limit", "1"))
+                .andReturn().getResponse().getContentAsString();
+
+            mockMvc.perform(get("/api/v1/vehicles/paginated")
+                    .param("limit", "1")
+                    .param("sortBy", "vin")
+                    .param("after", objectMapper.readTree(body).get("nextCursor").asText()))
+                .andExpect(status().isBadRequest());
+        }
+    }
+
     @Nested
     @DisplayName("PUT /api/v1/vehicles/{id}")
     class UpdateVehicle {
@@ -262,6 +439,91 @@ class VehicleControllerIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("GET /api/v1/vehicles/suggest")
+    class SuggestVehicles {
+        @BeforeEach
+        void seedData() {
+            persistVehicle(validRequest); // Honda Accord
+            persistVehicle(new VehicleRequest(customerId, "2HGCM82633A004353", "Honda", "Civic", 2018));
+            persistVehicle(new VehicleRequest(customerId, "3HGCM82633A004354", "Toyota", "Camry", 2021));
+            persistVehicle(new VehicleRequest(customerId, "4HGCM82633A004355", "Tesla", "Model 3", 2022));
+            vehicleSuggestionService.rebuild();
+        }
+
+        @Test
+        @DisplayName("should suggest makes by case-insensitive prefix, most common first")
+        void shouldSuggestMakesByPrefix() throws Exception {
+            mockMvc.perform(get("/api/v1/vehicles/suggest").param("field", "make"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].value", contains("Honda", "Tesla", "Toyota")))
+                .andExpect(jsonPath("$[0].count").value(2));
+
+            mockMvc.perform(get("/api/v1/vehicles/suggest").param("field", "make").param("prefix", "to"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].value", contains("Toyota")));
+
+            mockMvc.perform(get("/api/v1/vehicles/suggest").param("field", "model").param("prefix", "C").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].value", contains("Camry")));
+        }
+
+        @Test
+        @DisplayName("should answer without querying the database")
+        void shouldNotQueryDatabase() throws Exception {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            long statements = statistics.getPrepareStatementCount();
+
+            mockMvc.perform(get("/api/v1/vehicles/suggest").param("field", "make").param("prefix", "Te"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].value", contains("Tesla")));
+
+            assertEquals(statements, statistics.getPrepareStatementCount());
+        }
+
+        @Test
+        @DisplayName("should follow vehicles created, updated and deleted through the API")
+        void shouldFollowVehicleWrites() throws Exception {
+            VehicleRequest toyota = new VehicleRequest(customerId, "5HGCM82633A004356", "Toyota", "Corolla", 2019);
+            MvcResult created = mockMvc.perform(post("/api/v1/vehicles")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(toyota)))
+                .andExpect(status().isCreated())
+                .andReturn();
+            long id = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+
+            mockMvc.perform(get("/api/v1/vehicles/suggest").param("field", "make").param("prefix", "To"))
+                .andExpect(jsonPath("$[0].count").value(2));
+
+            mockMvc.perform(put("/api/v1/vehicles/{id}", id)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new VehicleRequest(customerId, toyota.vin(), "Tesla", "Model Y", 2019))))
+                .andExpect(status().isOk());
+
+            mockMvc.perform(get("/api/v1/vehicles/suggest").param("field", "make").param("prefix", "T"))
+                .andExpect(jsonPath("$[*].value", contains("Tesla", "Toyota")))
+                .andExpect(jsonPath("$[*].count", contains(2, 1)));
+
+            mockMvc.perform(delete("/api/v1/vehicles/{id}", id))
+                .andExpect(status().isNoContent());
+
+            mockMvc.perform(get("/api/v1/vehicles/suggest").param("field", "model").param("prefix", "model"))
+                .andExpect(jsonPath("$[*].value", contains("Model 3")));
+        }
+
+        @Test
+        @DisplayName("should return 400 for an unknown field or invalid limit")
+        void shouldValidateParameters() throws Exception {
+            mockMvc.perform(get("/api/v1/vehicles/suggest").param("field", "year"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("BAD_REQUEST"));
+
+            mockMvc.perform(get("/api/v1/vehicles/suggest").param("field", "make").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("BAD_REQUEST"));
+        }
+    }
+
     @Nested
     @DisplayName("GET /api/v1/vehicles/search")
     class SearchVehicles {
@@ -282,6 +544,99 @@ class VehicleControllerIntegrationTest {
                 .andExpect(jsonPath("$.content[0].make", anyOf(is("Honda"), is("Honda"))));
         }
 
+        @Test
+        @DisplayName("should match by prefix by default and honour an explicit match mode")
+        void shouldSearchByMatchMode() throws Exception {
+            mockMvc.perform(get("/api/v1/vehicles/search")
+                    .param("make", "hon"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)));
+
+            mockMvc.perform(get("/api/v1/vehicles/search")
+                    .param("model", "ivi"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(0)));
+
+            mockMvc.perform(get("/api/v1/vehicles/search")
+                    .param("model", "ivi")
+                    .param("modelMatch", "CONTAINS"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].model").value("Civic"));
+
+            mockMvc.perform(get("/api/v1/vehicles/search")
+                    .param("make", "tesla")
+                    .param("makeMatch", "EXACT"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)));
+        }
+
+        @Test
+        @DisplayName("should return 400 for an unknown match mode")
+        void shouldRejectUnknownMatchMode() throws Exception {
+            mockMvc.perform(get("/api/v1/vehicles/search")
+                    .param("make", "Honda")
+                    .param("makeMatch", "FUZZY"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("BAD_REQUEST"));
+        }
+
+        @Test
+        @DisplayName("should add make, model and year bucket counts over all matches when facets are requested")
+        void shouldReturnFacets() throws Exception {
+            mockMvc.perform(get("/api/v1/vehicles/search")
+                    .param("make", "hon")
+                    .param("size", "1")
+                    .param("facets", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.page.totalElements").value(2))
+                .andExpect(jsonPath("$.facets.make", hasSize(1)))
+                .andExpect(jsonPath("$.facets.make[0].value").value("Honda"))
+                .andExpect(jsonPath("$.facets.make[0].count").value(2))
+                .andExpect(jsonPath("$.facets.model[*].value", contains("Accord", "Civic")))
+                .andExpect(jsonPath("$.facets.year[*].value", contains("2020-2024", "2015-2019")))
+                .andExpect(jsonPath("$.facets.year[*].count", contains(1, 1)));
+
+            mockMvc.perform(get("/api/v1/vehicles/search")
+                    .param("make", "hon"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.facets").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("should serve repeated facet counts from the query cache until vehicles change")
+        void shouldCacheFacetsPerFilter() throws Exception {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            mockMvc.perform(get("/api/v1/vehicles/search").param("customerId", customerId.toString()).param("facets", "true"))
+                .andExpect(jsonPath("$.facets.make[0].count").value(2));
+            long hits = statistics.getQueryCacheHitCount();
+
+            mockMvc.perform(get("/api/v1/vehicles/search").param("customerId", customerId.toString()).param("facets", "true"))
+                .andExpect(jsonPath("$.facets.make[0].count").value(2));
+            assertEquals(hits + 1, statistics.getQueryCacheHitCount(), "Repeated facets should come from the query cache");
+
+            persistVehicle(new VehicleRequest(customerId, "4HGCM82633A004355", "Honda", "Fit", 2015));
+            mockMvc.perform(get("/api/v1/vehicles/search").param("customerId", customerId.toString()).param("facets", "true"))
+                .andExpect(jsonPath("$.facets.make[0].count").value(3));
+        }
+
+        @Test
+        @DisplayName("should sort by a sortable property and return 400 for any other")
+        void shouldValidateSort() throws Exception {
+            mockMvc.perform(get("/api/v1/vehicles/search")
+                    .param("customerId", customerId.toString())
+                    .param("sort", "year,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].year", contains(2022, 2020, 2018)))
+                .andExpect(jsonPath("$.content[0].customerEmail").isNotEmpty());
+
+            mockMvc.perform(get("/api/v1/vehicles/search")
+                    .param("sort", "customer.firstName"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("BAD_REQUEST"));
+        }
+
         @Test
         @DisplayName("should return empty page when no vehicles match filters")
         void shouldReturnEmptyWhenNoMatch() throws Exception {
@@ -291,5 +646,35 @@ class VehicleControllerIntegrationTest {
                 .andExpect(jsonPath("$.content", hasSize(0)))
                 .andExpect(jsonPath("$.page.totalElements").value(0));
         }
+
+        @Test
+        @DisplayName("should return only the requested fields when filtering on customer columns")
+        void shouldSearchWithSparseFieldset() throws Exception {
+            mockMvc.perform(get("/api/v1/vehicles/search")
+                    .param("make", "Honda")
+                    .param("customerName", "John")
+                    .param("sort", "year,desc")
+                    .param("fields", "vin,year,customerName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].id").isNumber())
+                .andExpect(jsonPath("$.content[0].vin").value(validRequest.vin()))
+                .andExpect(jsonPath("$.content[0].customerName").value("John Doe"))
+                .andExpect(jsonPath("$.content[0].make").doesNotExist())
+                .andExpect(jsonPath("$.content[0].customerEmail").doesNotExist())
+                .andExpect(jsonPath("$.content[1].year").value(2018))
+                .andExpect(jsonPath("$.page.totalElements").value(2));
+        }
+
+        @Test
+        @DisplayName("should return customerId from the foreign key for all vehicles")
+        void shouldListWithSparseFieldset() throws Exception {
+            mockMvc.perform(get("/api/v1/vehicles")
+                    .param("fields", "customerId"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].customerId").value(customerId))
+                .andExpect(jsonPath("$[0].vin").doesNotExist());
+        }
     }
 }
@@ -0,0 +1,52 @@
+package com.interview.dto;
+
+import com.interview.dto.projection.VehicleFacetCount;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("VehicleFacets Unit Tests")
+class VehicleFacetsTest {
+
+    @Test
+    @DisplayName("Should sum grouped rows per make and model, most frequent first and by value on ties")
+    void shouldSumPerMakeAndModel() {
+        VehicleFacets facets = VehicleFacets.of(List.of(
+            new VehicleFacetCount("Honda", "Civic", 2018, 3L),
+            new VehicleFacetCount("Honda", "Accord", 2020, 2L),
+            new VehicleFacetCount("Toyota", "Camry", 2020, 4L),
+            new VehicleFacetCount("Ford", "Focus", 2019, 1L),
+            new VehicleFacetCount("Honda", "Civic", 2021, 1L)));
+
+        assertThat(facets.make()).containsExactly(
+            new FacetCount("Honda", 6), new FacetCount("Toyota", 4), new FacetCount("Ford", 1));
+        assertThat(facets.model()).containsExactly(
+            new FacetCount("Camry", 4), new FacetCount("Civic", 4), new FacetCount("Accord", 2), new FacetCount("Focus", 1));
+    }
+
+    @Test
+    @DisplayName("Should group years into buckets of five, newest first")
+    void shouldBucketYears() {
+        VehicleFacets facets = VehicleFacets.of(List.of(
+            new VehicleFacetCount("Honda", "Civic", 2015, 1L),
+            new VehicleFacetCount("Honda", "Civic", 2019, 2L),
+            new VehicleFacetCount("Honda", "Civic", 2020, 3L),
+            new VehicleFacetCount("Honda", "Civic", 2024, 4L),
+            new VehicleFacetCount("Honda", "Civic", 1998, 5L)));
+
+        assertThat(facets.year()).containsExactly(
+            new FacetCount("2020-2024", 7), new FacetCount("2015-2019", 3), new FacetCount("1995-1999", 5));
+    }
+
+    @Test
+    @DisplayName("Should return empty facets when nothing matches")
+    void shouldReturnEmptyFacets() {
+        VehicleFacets facets = VehicleFacets.of(List.of());
+
+        assertThat(facets.make()).isEmpty();
+        assertThat(facets.model()).isEmpty();
+        assertThat(facets.year()).isEmpty();
+    }
+}
@@ -1,10 +1,12 @@
 package com.interview.repository;
 
 import com.interview.config.TestJpaConfig;
+import com.interview.dto.CustomerResponse;
 import com.interview.entity.Customer;
 import com.interview.entity.CustomerProfile;
 import com.interview.entity.ServicePackage;
 import com.interview.enums.ContactMethod;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -25,6 +27,7 @@ import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -153,9 +156,9 @@ class CustomerRepositoryTest {
         void shouldFindByIdWithProfile() {
             Customer savedCustomer = customerRepository.save(testCustomer);
             entityManager.flush();
-            entityManager.clear(); // Clear persistence context to test fetch join
+            entityManager.clear(); // Clear persistence context to load the profile through the association
 
-            Optional<Customer> result = customerRepository.findByIdWithProfile(savedCustomer.getId());
+            Optional<Customer> result = customerRepository.findById(savedCustomer.getId());
 
             assertThat(result).isPresent();
             Customer foundCustomer = result.get();
@@ -175,7 +178,7 @@ class CustomerRepositoryTest {
             entityManager.flush();
             entityManager.clear();
 
-            Optional<Customer> result = customerRepository.findByIdWithProfile(savedCustomer.getId());
+            Optional<Customer> result = customerRepository.findById(savedCustomer.getId());
 
             assertThat(result).isPresent();
             assertThat(result.get().getCustomerProfile()).isNull();
@@ -184,7 +187,7 @@ class CustomerRepositoryTest {
         @Test
         @DisplayName("Should return empty when customer not found by ID")
         void shouldReturnEmptyWhenNotFound() {
-            Optional<Customer> result = customerRepository.findByIdWithProfile(999L);
+            Optional<Customer> result = customerRepository.findById(999L);
 
             assertThat(result).isEmpty();
         }
@@ -307,6 +310,46 @@ class CustomerRepositoryTest {
         }
     }
 
+    @Nested
+    @DisplayName("Sparse Fieldset Projection Tests")
+    class ProjectionTests {
+
+        @Test
+        @DisplayName("Should select only requested fields without loading entities")
+        void shouldSelectOnlyRequestedFields() {
+            entityManager.persistAndFlush(testCustomer);
+            entityManager.clear();
+
+            List<CustomerResponse> responses = customerRepository.findAllProjected(Set.of("id", "email"));
+
+            assertThat(responses).filteredOn(response -> response.id().equals(testCustomer.getId())).singleElement().satisfies(response -> {
+                assertThat(response.id()).isEqualTo(testCustomer.getId());
+                assertThat(response.email()).isEqualTo(testCustomer.getEmail());
+                assertThat(response.firstName()).isNull();
+                assertThat(response.address()).isNull();
+            });
+            assertThat(entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should join the profile when a profile field is requested")
+        void shouldJoinProfileForProfileFields() {
+            entityManager.persistAndFlush(testCustomer);
+            Customer withoutProfile = new Customer();
+            withoutProfile.setFirstName("Jane");
+            withoutProfile.setLastName("Roe");
+            withoutProfile.setEmail("jane.roe" + customerCounter + "@example.com");
+            entityManager.persistAndFlush(withoutProfile);
+
+            Page<CustomerResponse> page = customerRepository.findAllProjected(Set.of("id", "address"), PageRequest.of(0, 100));
+
+            assertThat(page.getContent())
+                .filteredOn(response -> Set.of(testCustomer.getId(), withoutProfile.getId()).contains(response.id()))
+                .extracting(CustomerResponse::address)
+                .containsExactly("123 Main St", null);
+        }
+    }
+
     @Nested
     @DisplayName("Service Package Relationship Tests")
     class ServicePackageRelationshipTests {
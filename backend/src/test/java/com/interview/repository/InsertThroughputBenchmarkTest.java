@@ -0,0 +1,127 @@
+package com.interview.repository;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares insert throughput of IDENTITY keys against the pooled table generator used by the entities.
+ *
+ * <p>Both runs persist the same rows through Hibernate with JDBC batching enabled, as configured
+ * in the prod profile. The only difference between the two scratch entities is the id strategy:
+ * IDENTITY needs the generated key of every row, so Hibernate sends one INSERT per row, while
+ * pooled ids are reserved in blocks and the inserts go out as batches.
+ *
+ * <p>The scratch entities live in their own session factory and in-memory database, mapped in
+ * {@code benchmark/insert-throughput-orm.xml}, so they never join the application's persistence unit.
+ *
+ * <p>Excluded from the default build; run with {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+@DisplayName("Insert Throughput Benchmark")
+class InsertThroughputBenchmarkTest {
+
+    private static final int ROWS = 5_000;
+    private static final int WARMUP_ROWS = 1_000;
+
+    private StandardServiceRegistry registry;
+    private SessionFactory sessionFactory;
+
+    @BeforeEach
+    void setUp() {
+        registry = new StandardServiceRegistryBuilder()
+            .applySetting(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:insert_benchmark;DB_CLOSE_DELAY=-1")
+            .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+            .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, 50)
+            .applySetting(AvailableSettings.ORDER_INSERTS, true)
+            .applySetting(AvailableSettings.GENERATE_STATISTICS, true)
+            .build();
+        sessionFactory = new MetadataSources(registry)
+            .addResource("benchmark/insert-throughput-orm.xml")
+            .buildMetadata()
+            .buildSessionFactory();
+
+        insertRows(WARMUP_ROWS, IdentityRow::new);
+        insertRows(WARMUP_ROWS, PooledRow::new);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionFactory.close();
+        StandardServiceRegistryBuilder.destroy(registry);
+    }
+
+    @Test
+    @DisplayName("Pooled keys should batch inserts instead of one statement per row")
+    void pooledKeysShouldBatchInserts() {
+        Result identity = insertRows(ROWS, IdentityRow::new);
+        Result pooled = insertRows(ROWS, PooledRow::new);
+
+        log.info("IDENTITY: {} inserts/sec ({} prepared statements)", identity.insertsPerSecond(), identity.statements());
+        log.info("Pooled:   {} inserts/sec ({} prepared statements)", pooled.insertsPerSecond(), pooled.statements());
+
+        assertThat(identity.statements()).isEqualTo(ROWS);
+        assertThat(pooled.statements()).isLessThan(ROWS / 10);
+    }
+
+    private Result insertRows(int rows, Function<String, Object> rowFactory) {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < rows; i++) {
+                session.persist(rowFactory.apply("row-" + i));
+            }
+        });
+        long elapsed = System.nanoTime() - start;
+
+        return new Result(rows, elapsed, statistics.getPrepareStatementCount());
+    }
+
+    private record Result(int rows, long nanos, long statements) {
+
+        long insertsPerSecond() {
+            return rows * TimeUnit.SECONDS.toNanos(1) / Math.max(nanos, 1);
+        }
+    }
+
+    @Getter
+    @NoArgsConstructor
+    static class IdentityRow {
+
+        private Long id;
+        private String name;
+
+        IdentityRow(String name) {
+            this.name = name;
+        }
+    }
+
+    @Getter
+    @NoArgsConstructor
+    static class PooledRow {
+
+        private Long id;
+        private String name;
+
+        PooledRow(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -1,10 +1,30 @@
 package com.interview.repository;
 
 import com.interview.config.TestJpaConfig;
+import com.interview.dto.SubscriberDto;
+import com.interview.dto.projection.MonthlyRecurringRevenue;
+import com.interview.dto.projection.MonthlySubscriptionEvents;
+import com.interview.dto.projection.RecurringRevenue;
 import com.interview.entity.Customer;
 import com.interview.entity.CustomerProfile;
 import com.interview.entity.ServicePackage;
 import com.interview.enums.ContactMethod;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -13,18 +33,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -45,6 +63,9 @@ class ServicePackageRepositoryTest {
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private ServicePackage testServicePackage;
     private Customer testCustomer;
     private CustomerProfile testProfile;
@@ -148,34 +169,8 @@ class ServicePackageRepositoryTest {
         }
 
         @Test
-        @DisplayName("Should find service package by ID with subscribers")
-        void shouldFindByIdWithSubscribers() {
-            entityManager.persist(testServicePackage);
-            testCustomer.addServicePackage(testServicePackage);
-            customerRepository.save(testCustomer);
-            entityManager.flush();
-            entityManager.clear();
-
-            Optional<ServicePackage> result = servicePackageRepository.findByIdWithSubscribers(testServicePackage.getId());
-
-            assertThat(result).isPresent();
-            ServicePackage found = result.get();
-            assertThat(found.getSubscribers()).hasSize(1);
-            Customer subscriber = found.getSubscribers().iterator().next();
-            assertThat(subscriber.getEmail()).isEqualTo(testCustomer.getEmail());
-            assertThat(subscriber.getCustomerProfile()).isNotNull();
-        }
-
-        @Test
-        @DisplayName("Should return empty when service package not found by ID")
-        void shouldReturnEmptyWhenNotFound() {
-            Optional<ServicePackage> result = servicePackageRepository.findByIdWithSubscribers(999L);
-            assertThat(result).isEmpty();
-        }
-
-        @Test
-        @DisplayName("Should find all active service packages with subscribers")
-        void shouldFindAllActiveWithSubscribers() {
+        @DisplayName("Should filter service packages by active status in the query")
+        void shouldFindAllByActive() {
             ServicePackage inactive = new ServicePackage();
             inactive.setName("Inactive " + packageCounter);
             inactive.setDescription("Inactive package");
@@ -187,15 +182,19 @@ class ServicePackageRepositoryTest {
             entityManager.flush();
             entityManager.clear();
 
-            List<ServicePackage> activePackages = servicePackageRepository.findAllActiveWithSubscribers();
+            List<ServicePackage> activePackages = servicePackageRepository.findAllByActive(true);
+            List<ServicePackage> inactivePackages = servicePackageRepository.findAllByActive(false);
+            List<ServicePackage> allPackages = servicePackageRepository.findAllByActive(null);
 
             assertThat(activePackages).anyMatch(p -> p.getName().equals(testServicePackage.getName()));
             assertThat(activePackages).noneMatch(p -> p.getName().equals(inactive.getName()));
+            assertThat(inactivePackages).allMatch(p -> !p.isActive()).anyMatch(p -> p.getName().equals(inactive.getName()));
+            assertThat(allPackages).hasSize(activePackages.size() + inactivePackages.size());
         }
 
         @Test
-        @DisplayName("Should find all active service packages with subscribers using pagination")
-        void shouldFindAllActiveWithSubscribersUsingPagination() {
+        @DisplayName("Should find active service packages using pagination")
+        void shouldFindAllByActiveUsingPagination() {
             ServicePackage extra = new ServicePackage();
             extra.setName("Extra " + packageCounter);
             extra.setDescription("Extra active package");
@@ -208,9 +207,10 @@ class ServicePackageRepositoryTest {
             entityManager.clear();
 
             Pageable pageable = PageRequest.of(0, 1);
-            Page<ServicePackage> page = servicePackageRepository.findAllActiveWithSubscribers(pageable);
+            Page<ServicePackage> page = servicePackageRepository.findAllByActive(true, pageable);
 
             assertThat(page.getContent()).hasSize(1);
+            assertThat(page.getContent().getFirst().isActive()).isTrue();
             assertThat(page.getTotalElements()).isGreaterThanOrEqualTo(2);
             assertThat(page.getSize()).isEqualTo(1);
             assertThat(page.getNumber()).isZero();
@@ -218,52 +218,499 @@ class ServicePackageRepositoryTest {
     }
 
     @Nested
-    @DisplayName("Subscriber Relationship Tests")
-    class SubscriberRelationshipTests {
+    @DisplayName("Subscriber Count Tests")
+    class SubscriberCountTests {
 
         @Test
-        @DisplayName("Should find all service packages with subscribers")
-        void shouldFindAllWithSubscribers() {
+        @DisplayName("Should adjust the subscriber count in place")
+        void shouldAdjustSubscriberCount() {
+            entityManager.persistAndFlush(testServicePackage);
+
+            servicePackageRepository.adjustSubscriberCount(testServicePackage.getId(), 1);
+            servicePackageRepository.adjustSubscriberCount(testServicePackage.getId(), 1);
+            servicePackageRepository.adjustSubscriberCount(testServicePackage.getId(), -1);
+            entityManager.clear();
+
+            assertThat(servicePackageRepository.findById(testServicePackage.getId()))
+                .hasValueSatisfying(found -> assertThat(found.getSubscriberCount()).isEqualTo(1));
+        }
+
+        @Test
+        @DisplayName("Should decrement the count of every package a customer subscribes to")
+        void shouldDecrementSubscriberCountsOfCustomer() {
+            ServicePackage other = new ServicePackage();
+            other.setName("Other " + packageCounter);
+            other.setMonthlyPrice(new BigDecimal("9.99"));
             entityManager.persist(testServicePackage);
+            entityManager.persist(other);
             testCustomer.addServicePackage(testServicePackage);
-            customerRepository.save(testCustomer);
             entityManager.flush();
+            servicePackageRepository.adjustSubscriberCount(testServicePackage.getId(), 1);
+
+            int updated = servicePackageRepository.decrementSubscriberCountsOfCustomer(testCustomer.getId());
             entityManager.clear();
 
-            List<ServicePackage> allPackages = servicePackageRepository.findAllWithSubscribers();
+            assertThat(updated).isEqualTo(1);
+            assertThat(servicePackageRepository.findById(testServicePackage.getId()))
+                .hasValueSatisfying(found -> assertThat(found.getSubscriberCount()).isZero());
+            assertThat(servicePackageRepository.findById(other.getId()))
+                .hasValueSatisfying(found -> assertThat(found.getSubscriberCount()).isZero());
+        }
 
-            List<ServicePackage> testPackages = allPackages.stream()
-                .filter(p -> p.getName().equals(testServicePackage.getName()))
-                .toList();
+        @Test
+        @DisplayName("Should reconcile only the counts that drifted")
+        void shouldReconcileDriftedCounts() {
+            ServicePackage consistent = new ServicePackage();
+            consistent.setName("Consistent " + packageCounter);
+            consistent.setMonthlyPrice(new BigDecimal("9.99"));
+            entityManager.persist(testServicePackage);
+            entityManager.persist(consistent);
+            testCustomer.addServicePackage(testServicePackage);
+            entityManager.flush();
+            servicePackageRepository.adjustSubscriberCount(testServicePackage.getId(), 5);
 
-            assertThat(testPackages).hasSize(1);
-            ServicePackage found = testPackages.getFirst();
-            assertThat(found.getSubscribers()).hasSize(1);
-            Customer subscriber = found.getSubscribers().iterator().next();
-            assertThat(subscriber.getEmail()).isEqualTo(testCustomer.getEmail());
+            int corrected = servicePackageRepository.reconcileSubscriberCounts(List.of(testServicePackage.getId(), consistent.getId()));
+            entityManager.clear();
+
+            assertThat(corrected).isEqualTo(1);
+            assertThat(servicePackageRepository.findById(testServicePackage.getId()))
+                .hasValueSatisfying(found -> assertThat(found.getSubscriberCount()).isEqualTo(1));
         }
 
         @Test
-        @DisplayName("Should find all service packages with subscribers using pagination")
-        void shouldFindAllWithSubscribersUsingPagination() {
-            ServicePackage extra = new ServicePackage();
-            extra.setName("Paginated " + packageCounter);
-            extra.setDescription("Paginated package");
-            extra.setMonthlyPrice(new BigDecimal("59.99"));
-            extra.setActive(true);
+        @DisplayName("Should list package ids after a given id in order")
+        void shouldFindIdsAfter() {
+            entityManager.persistAndFlush(testServicePackage);
 
-            servicePackageRepository.save(testServicePackage);
-            servicePackageRepository.save(extra);
+            List<Long> ids = servicePackageRepository.findIdsAfter(0L, Limit.of(1_000));
+
+            assertThat(ids).isSorted().contains(testServicePackage.getId());
+            assertThat(servicePackageRepository.findIdsAfter(testServicePackage.getId(), Limit.of(1_000))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should sort pages by subscriber count")
+        void shouldSortBySubscriberCount() {
+            ServicePackage popular = new ServicePackage();
+            popular.setName("Popular " + packageCounter);
+            popular.setMonthlyPrice(new BigDecimal("9.99"));
+            entityManager.persist(testServicePackage);
+            entityManager.persist(popular);
             entityManager.flush();
+            servicePackageRepository.adjustSubscriberCount(popular.getId(), 1_000_000);
+            servicePackageRepository.adjustSubscriberCount(testServicePackage.getId(), 999_999);
             entityManager.clear();
 
-            Pageable pageable = PageRequest.of(0, 1);
-            Page<ServicePackage> page = servicePackageRepository.findAllWithSubscribers(pageable);
+            Page<ServicePackage> page = servicePackageRepository.findAllByActive(true,
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "subscriberCount")));
 
-            assertThat(page.getContent()).hasSize(1);
-            assertThat(page.getTotalElements()).isGreaterThanOrEqualTo(2);
-            assertThat(page.getSize()).isEqualTo(1);
-            assertThat(page.getNumber()).isZero();
+            assertThat(page.getContent()).extracting(ServicePackage::getId).containsExactly(popular.getId(), testServicePackage.getId());
+        }
+    }
+
+    @Nested
+    @DisplayName("Subscription Row Tests")
+    class SubscriptionRowTests {
+
+        @Test
+        @DisplayName("Should insert a subscription once and report duplicates without failing")
+        void shouldInsertSubscriptionOnce() {
+            entityManager.persistAndFlush(testServicePackage);
+
+            assertThat(servicePackageRepository.insertSubscription(testCustomer.getId(), testServicePackage.getId())).isEqualTo(1);
+            assertThat(servicePackageRepository.insertSubscription(testCustomer.getId(), testServicePackage.getId())).isZero();
+
+            entityManager.clear();
+            assertThat(entityManager.find(ServicePackage.class, testServicePackage.getId()).getSubscribers()).extracting(Customer::getId)
+                .containsExactly(testCustomer.getId());
+        }
+
+        @Test
+        @DisplayName("Should insert nothing when the customer or package does not exist")
+        void shouldInsertNothingForMissingRows() {
+            entityManager.persistAndFlush(testServicePackage);
+
+            assertThat(servicePackageRepository.insertSubscription(-1L, testServicePackage.getId())).isZero();
+            assertThat(servicePackageRepository.insertSubscription(testCustomer.getId(), -1L)).isZero();
+        }
+
+        @Test
+        @DisplayName("Should delete only the given subscription row")
+        void shouldDeleteSubscription() {
+            entityManager.persistAndFlush(testServicePackage);
+            servicePackageRepository.insertSubscription(testCustomer.getId(), testServicePackage.getId());
+
+            assertThat(servicePackageRepository.deleteSubscription(testCustomer.getId(), testServicePackage.getId())).isEqualTo(1);
+            assertThat(servicePackageRepository.deleteSubscription(testCustomer.getId(), testServicePackage.getId())).isZero();
+        }
+
+        @Test
+        @DisplayName("Should write the row without loading the customer or the package")
+        void shouldNotLoadEntities() {
+            entityManager.persistAndFlush(testServicePackage);
+            entityManager.clear();
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            servicePackageRepository.insertSubscription(testCustomer.getId(), testServicePackage.getId());
+            servicePackageRepository.deleteSubscription(testCustomer.getId(), testServicePackage.getId());
+
+            assertThat(statistics.getEntityLoadCount()).isZero();
+            assertThat(statistics.getCollectionLoadCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should report subscription states and write rows in JDBC batches")
+        void shouldWriteSubscriptionBatches() {
+            entityManager.persistAndFlush(testServicePackage);
+            Long customerId = testCustomer.getId();
+            Long packageId = testServicePackage.getId();
+
+            assertThat(servicePackageRepository.findSubscriptionStates(packageId, List.of(customerId, -1L)))
+                .containsExactly(Map.entry(customerId, false));
+            assertThat(servicePackageRepository.insertSubscriptions(packageId, List.of(customerId, customerId))).containsExactly(1, 0);
+            assertThat(servicePackageRepository.findSubscriptionStates(packageId, List.of(customerId)))
+                .containsExactly(Map.entry(customerId, true));
+            assertThat(servicePackageRepository.deleteSubscriptions(packageId, List.of(customerId))).containsExactly(1);
+            assertThat(servicePackageRepository.insertSubscriptions(packageId, List.of())).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should page and stream subscribers by customer ID without loading entities")
+        void shouldReadSubscribersAsProjections() {
+            entityManager.persist(testServicePackage);
+            Customer other = new Customer(null, null, "Jane", "Roe", "jane.roe" + packageCounter + "@example.com", null, null,
+                List.of(), new HashSet<>());
+            entityManager.persist(other);
+            entityManager.flush();
+            servicePackageRepository.insertSubscription(other.getId(), testServicePackage.getId());
+            servicePackageRepository.insertSubscription(testCustomer.getId(), testServicePackage.getId());
+            entityManager.clear();
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            List<SubscriberDto> first = servicePackageRepository.findSubscribersAfter(testServicePackage.getId(), 0L, 1);
+            List<SubscriberDto> rest = servicePackageRepository.findSubscribersAfter(testServicePackage.getId(), first.getFirst().id(), 10);
+            List<SubscriberDto> streamed;
+            try (Stream<SubscriberDto> subscribers = servicePackageRepository.streamSubscribers(testServicePackage.getId())) {
+                streamed = subscribers.toList();
+            }
+
+            assertThat(first).extracting(SubscriberDto::id).containsExactly(testCustomer.getId());
+            assertThat(rest).containsExactly(new SubscriberDto(other.getId(), "Jane Roe", other.getEmail()));
+            assertThat(streamed).extracting(SubscriberDto::id).containsExactly(testCustomer.getId(), other.getId());
+            assertThat(statistics.getEntityLoadCount()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Recurring Revenue Tests")
+    class RecurringRevenueTests {
+
+        private final YearMonth month = YearMonth.now(ZoneOffset.UTC);
+
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        @Test
+        @DisplayName("Should sum the current total from subscriber counts and record the package's current month")
+        void shouldRecordPackageRevenue() {
+            entityManager.persistAndFlush(testServicePackage);
+            RecurringRevenue before = servicePackageRepository.findRecurringRevenue();
+            RecurringRevenue monthBefore = currentMonthTotal();
+
+            servicePackageRepository.adjustSubscriberCount(testServicePackage.getId(), 2);
+            servicePackageRepository.recordPackageRevenue(testServicePackage.getId());
+            servicePackageRepository.adjustSubscriberCount(testServicePackage.getId(), -1);
+            servicePackageRepository.recordPackageRevenue(testServicePackage.getId());
+
+            RecurringRevenue after = servicePackageRepository.findRecurringRevenue();
+            assertThat(after.mrr().subtract(before.mrr())).isEqualByComparingTo("49.99");
+            assertThat(after.subscriptions() - before.subscriptions()).isEqualTo(1);
+            assertThat(currentMonthTotal().mrr().subtract(monthBefore.mrr())).isEqualByComparingTo("49.99");
+            assertThat(currentMonthTotal().subscriptions() - monthBefore.subscriptions()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should keep one row per package and month, so packages never share a row")
+        void shouldKeepOneRowPerPackage() {
+            ServicePackage other = new ServicePackage();
+            other.setName("Basic Package " + packageCounter);
+            other.setMonthlyPrice(new BigDecimal("9.99"));
+            entityManager.persist(testServicePackage);
+            entityManager.persistAndFlush(other);
+            RecurringRevenue monthBefore = currentMonthTotal();
+
+            servicePackageRepository.adjustSubscriberCount(testServicePackage.getId(), 1);
+            servicePackageRepository.recordPackageRevenue(testServicePackage.getId());
+            servicePackageRepository.adjustSubscriberCount(other.getId(), 2);
+            servicePackageRepository.recordPackageRevenue(other.getId());
+            servicePackageRepository.recordPackageRevenue(other.getId());
+
+            assertThat(jdbcTemplate.queryForList("SELECT service_package_id FROM package_monthly_recurring_revenue "
+                    + "WHERE revenue_month = ? AND service_package_id IN (?, ?)", Long.class,
+                month.atDay(1), testServicePackage.getId(), other.getId()))
+                .containsExactlyInAnyOrder(testServicePackage.getId(), other.getId());
+            assertThat(currentMonthTotal().mrr().subtract(monthBefore.mrr())).isEqualByComparingTo("69.97");
+            assertThat(currentMonthTotal().subscriptions() - monthBefore.subscriptions()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Should carry each package's last recorded month forward when summing months")
+        void shouldSumMonthsAcrossPackages() {
+            entityManager.persistAndFlush(testServicePackage);
+            YearMonth first = month.minusMonths(5);
+            insertMonth(first, testServicePackage.getId(), "10.00", 1);
+            insertMonth(first, -1L, "5.00", 1);
+            insertMonth(first.plusMonths(1), testServicePackage.getId(), "20.00", 2);
+            insertMonth(first.plusMonths(2), -1L, "0.00", 0);
+
+            assertThat(servicePackageRepository.findMonthlyRecurringRevenue(first.plusMonths(1), first.plusMonths(2)))
+                .containsExactly(
+                    new MonthlyRecurringRevenue(first, new BigDecimal("15.00"), 2L),
+                    new MonthlyRecurringRevenue(first.plusMonths(1), new BigDecimal("25.00"), 3L),
+                    new MonthlyRecurringRevenue(first.plusMonths(2), new BigDecimal("20.00"), 2L));
+        }
+
+        @Test
+        @DisplayName("Should not count subscriptions to inactive packages")
+        void shouldIgnoreInactivePackages() {
+            testServicePackage.setActive(false);
+            entityManager.persistAndFlush(testServicePackage);
+            RecurringRevenue before = servicePackageRepository.findRecurringRevenue();
+            RecurringRevenue monthBefore = currentMonthTotal();
+
+            servicePackageRepository.adjustSubscriberCount(testServicePackage.getId(), 1);
+            servicePackageRepository.recordPackageRevenue(testServicePackage.getId());
+
+            assertThat(servicePackageRepository.findRecurringRevenue()).isEqualTo(before);
+            assertThat(currentMonthTotal()).isEqualTo(monthBefore);
+        }
+
+        @Test
+        @DisplayName("Should record a price change for the current subscriber count, not the one loaded with the package")
+        void shouldRecordPriceChangeFromCurrentCount() {
+            entityManager.persistAndFlush(testServicePackage);
+            servicePackageRepository.adjustSubscriberCount(testServicePackage.getId(), 3);
+            servicePackageRepository.recordPackageRevenue(testServicePackage.getId());
+            RecurringRevenue monthBefore = currentMonthTotal();
+
+            testServicePackage.setMonthlyPrice(new BigDecimal("59.99"));
+            entityManager.flush();
+            servicePackageRepository.recordPackageRevenue(testServicePackage.getId());
+
+            assertThat(testServicePackage.getSubscriberCount()).isZero();
+            RecurringRevenue monthAfter = currentMonthTotal();
+            assertThat(monthAfter.mrr().subtract(monthBefore.mrr())).isEqualByComparingTo("30.00");
+            assertThat(monthAfter.subscriptions()).isEqualTo(monthBefore.subscriptions());
+        }
+
+        @Test
+        @DisplayName("Should record the revenue of all subscriptions when a package is deactivated or activated")
+        void shouldRecordStatusChange() {
+            entityManager.persistAndFlush(testServicePackage);
+            servicePackageRepository.adjustSubscriberCount(testServicePackage.getId(), 2);
+            servicePackageRepository.recordPackageRevenue(testServicePackage.getId());
+            RecurringRevenue monthBefore = currentMonthTotal();
+
+            testServicePackage.deactivate();
+            entityManager.flush();
+            servicePackageRepository.recordPackageRevenue(testServicePackage.getId());
+
+            RecurringRevenue monthAfter = currentMonthTotal();
+            assertThat(monthBefore.mrr().subtract(monthAfter.mrr())).isEqualByComparingTo("99.98");
+            assertThat(monthBefore.subscriptions() - monthAfter.subscriptions()).isEqualTo(2);
+
+            testServicePackage.activate();
+            entityManager.flush();
+            servicePackageRepository.recordPackageRevenue(testServicePackage.getId());
+
+            assertThat(currentMonthTotal().mrr()).isEqualByComparingTo(monthBefore.mrr());
+        }
+
+        @Test
+        @DisplayName("Should record the packages of a deleted customer's subscriptions")
+        void shouldRecordCustomerPackagesRevenue() {
+            ServicePackage inactive = new ServicePackage();
+            inactive.setName("Retired " + packageCounter);
+            inactive.setMonthlyPrice(new BigDecimal("9.99"));
+            inactive.setActive(false);
+            entityManager.persist(testServicePackage);
+            entityManager.persist(inactive);
+            testCustomer.addServicePackage(testServicePackage);
+            testCustomer.addServicePackage(inactive);
+            entityManager.flush();
+            servicePackageRepository.adjustSubscriberCount(testServicePackage.getId(), 1);
+            servicePackageRepository.recordPackageRevenue(testServicePackage.getId());
+            RecurringRevenue monthBefore = currentMonthTotal();
+
+            servicePackageRepository.decrementSubscriberCountsOfCustomer(testCustomer.getId());
+            servicePackageRepository.recordCustomerPackagesRevenue(testCustomer.getId());
+
+            RecurringRevenue monthAfter = currentMonthTotal();
+            assertThat(monthBefore.mrr().subtract(monthAfter.mrr())).isEqualByComparingTo("49.99");
+            assertThat(monthBefore.subscriptions() - monthAfter.subscriptions()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should recompute the total from the subscriptions")
+        void shouldRecompute() {
+            entityManager.persist(testServicePackage);
+            RecurringRevenue baseline = servicePackageRepository.recomputeRecurringRevenue();
+            testCustomer.addServicePackage(testServicePackage);
+            entityManager.flush();
+
+            RecurringRevenue recomputed = servicePackageRepository.recomputeRecurringRevenue();
+
+            assertThat(recomputed.mrr().subtract(baseline.mrr())).isEqualByComparingTo("49.99");
+            assertThat(recomputed.subscriptions() - baseline.subscriptions()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should report each active package's revenue from its subscriber count")
+        void shouldFindPackageRecurringRevenue() {
+            entityManager.persistAndFlush(testServicePackage);
+            servicePackageRepository.adjustSubscriberCount(testServicePackage.getId(), 3);
+
+            assertThat(servicePackageRepository.findPackageRecurringRevenue())
+                .filteredOn(revenue -> revenue.servicePackageId().equals(testServicePackage.getId()))
+                .singleElement()
+                .satisfies(revenue -> {
+                    assertThat(revenue.subscribers()).isEqualTo(3);
+                    assertThat(revenue.mrr()).isEqualByComparingTo("149.97");
+                });
+        }
+
+        private RecurringRevenue currentMonthTotal() {
+            return servicePackageRepository.findMonthlyRecurringRevenue(month, month).stream()
+                .filter(recorded -> recorded.month().equals(month))
+                .map(recorded -> new RecurringRevenue(recorded.mrr(), recorded.subscriptions()))
+                .findFirst()
+                .orElse(new RecurringRevenue(BigDecimal.ZERO, 0L));
+        }
+
+        private void insertMonth(YearMonth revenueMonth, Long servicePackageId, String mrr, long subscriptions) {
+            jdbcTemplate.update("INSERT INTO package_monthly_recurring_revenue (revenue_month, service_package_id, mrr, subscriptions) "
+                + "VALUES (?, ?, ?, ?)", revenueMonth.atDay(1), servicePackageId, new BigDecimal(mrr), subscriptions);
+        }
+    }
+
+    @Nested
+    @DisplayName("Subscription History Tests")
+    class SubscriptionHistoryTests {
+
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        private static final LocalDateTime JANUARY = LocalDateTime.of(2001, 1, 10, 9, 0);
+        private static final LocalDateTime FEBRUARY = LocalDateTime.of(2001, 2, 10, 9, 0);
+        private static final LocalDateTime MARCH = LocalDateTime.of(2001, 3, 10, 9, 0);
+
+        @Test
+        @DisplayName("Should answer who was subscribed at a moment across unsubscribing and resubscribing")
+        void shouldFindSubscribersAt() {
+            entityManager.persistAndFlush(testServicePackage);
+            Long packageId = testServicePackage.getId();
+            Long customerId = testCustomer.getId();
+
+            servicePackageRepository.recordSubscribed(packageId, List.of(customerId), JANUARY);
+            servicePackageRepository.recordUnsubscribed(packageId, List.of(customerId), FEBRUARY);
+            servicePackageRepository.recordSubscribed(packageId, List.of(customerId), MARCH);
+
+            assertThat(servicePackageRepository.findSubscriberIdsAt(packageId, JANUARY.minusDays(1), 0L, 10)).isEmpty();
+            assertThat(servicePackageRepository.findSubscriberIdsAt(packageId, JANUARY, 0L, 10)).containsExactly(customerId);
+            assertThat(servicePackageRepository.findSubscriberIdsAt(packageId, FEBRUARY, 0L, 10)).isEmpty();
+            assertThat(servicePackageRepository.findSubscriberIdsAt(packageId, MARCH.plusDays(1), 0L, 10)).containsExactly(customerId);
+            assertThat(servicePackageRepository.findSubscriberIdsAt(packageId, MARCH.plusDays(1), customerId, 10)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should page subscribers at a moment by customer id, reading one page of index entries per page")
+        void shouldPageSubscribersAtWithBoundedScan() {
+            entityManager.persistAndFlush(testServicePackage);
+            Long packageId = testServicePackage.getId();
+            // The history has no foreign keys, so synthetic customer ids stand in for 2000 subscribers
+            List<Long> customerIds = LongStream.rangeClosed(1_000_001, 1_002_000).boxed().toList();
+            servicePackageRepository.recordSubscribed(packageId, customerIds, JANUARY);
+            servicePackageRepository.recordUnsubscribed(packageId, customerIds.stream().filter(id -> id % 10 == 0).toList(), FEBRUARY);
+
+            List<Long> paged = new ArrayList<>();
+            long afterCustomerId = 0L;
+            List<Long> page = servicePackageRepository.findSubscriberIdsAt(packageId, MARCH, afterCustomerId, 100);
+            while (!page.isEmpty()) {
+                assertThat(page).hasSizeLessThanOrEqualTo(100).isSorted();
+                paged.addAll(page);
+                afterCustomerId = page.getLast();
+                page = servicePackageRepository.findSubscriberIdsAt(packageId, MARCH, afterCustomerId, 100);
+            }
+            assertThat(paged).hasSize(1800).doesNotHaveDuplicates().noneMatch(id -> id % 10 == 0);
+
+            String plan = jdbcTemplate.queryForObject("EXPLAIN ANALYZE SELECT s.customer_id FROM subscription_events s "
+                + "WHERE s.service_package_id = " + packageId + " AND s.event_type = 'SUBSCRIBED' AND s.occurred_at <= TIMESTAMP '2001-03-10 09:00:00' "
+                + "AND s.customer_id > 1000500 AND NOT EXISTS (SELECT 1 FROM subscription_events e "
+                + "WHERE e.customer_id = s.customer_id AND e.service_package_id = s.service_package_id AND e.event_type = 'UNSUBSCRIBED' "
+                + "AND e.subscribed_at = s.occurred_at AND e.occurred_at <= TIMESTAMP '2001-03-10 09:00:00') "
+                + "ORDER BY s.service_package_id, s.event_type, s.customer_id FETCH FIRST 100 ROWS ONLY", String.class);
+            // H2 prints the chosen index with its seek condition, "/* index sorted */" when no sort step is needed, and
+            // "/* scanCount: n */" for the rows the outer scan read: 1500 remain past the cursor, but only one page is read
+            assertThat(plan).contains("IDX_SUBSCRIPTION_EVENTS_PACKAGE_TYPE_CUSTOMER").contains("CUSTOMER_ID > ").contains("/* index sorted */");
+            Matcher scanCount = Pattern.compile("scanCount: (\\d+)").matcher(plan);
+            assertThat(scanCount.find()).isTrue();
+            // 100 subscribers plus the 11 unsubscribed ids skipped among them, and the end-of-range probe
+            assertThat(Integer.parseInt(scanCount.group(1))).isLessThanOrEqualTo(120);
+        }
+
+        @Test
+        @DisplayName("Should end every subscription of a deleted customer")
+        void shouldRecordCustomerUnsubscribed() {
+            entityManager.persist(testServicePackage);
+            testCustomer.addServicePackage(testServicePackage);
+            entityManager.flush();
+            Long packageId = testServicePackage.getId();
+
+            servicePackageRepository.recordSubscribed(packageId, List.of(testCustomer.getId()), JANUARY);
+            servicePackageRepository.recordCustomerUnsubscribed(testCustomer.getId(), FEBRUARY);
+
+            assertThat(servicePackageRepository.findSubscriberIdsAt(packageId, JANUARY, 0L, 10)).containsExactly(testCustomer.getId());
+            assertThat(servicePackageRepository.findSubscriberIdsAt(packageId, FEBRUARY, 0L, 10)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should answer whether a package was active at a moment")
+        void shouldFindPackageStatusAt() {
+            entityManager.persistAndFlush(testServicePackage);
+            Long packageId = testServicePackage.getId();
+
+            servicePackageRepository.recordPackageStatus(packageId, false, FEBRUARY);
+            servicePackageRepository.recordPackageStatus(packageId, true, MARCH);
+
+            assertThat(servicePackageRepository.wasPackageActiveAt(packageId, JANUARY)).isTrue();
+            assertThat(servicePackageRepository.wasPackageActiveAt(packageId, FEBRUARY)).isFalse();
+            assertThat(servicePackageRepository.wasPackageActiveAt(packageId, MARCH)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should count running subscriptions and each month's starts and ends")
+        void shouldCountSubscriptionEvents() {
+            entityManager.persistAndFlush(testServicePackage);
+            Long packageId = testServicePackage.getId();
+            Customer other = new Customer();
+            other.setFirstName("Jane");
+            other.setLastName("Roe");
+            other.setEmail("jane.roe" + packageCounter + "@example.com");
+            Long otherId = customerRepository.save(other).getId();
+            long before = servicePackageRepository.countSubscriptionsBefore(JANUARY);
+
+            servicePackageRepository.recordSubscribed(packageId, List.of(testCustomer.getId(), otherId), JANUARY);
+            servicePackageRepository.recordUnsubscribed(packageId, List.of(testCustomer.getId()), FEBRUARY);
+            servicePackageRepository.recordSubscribed(packageId, List.of(testCustomer.getId()), FEBRUARY.plusDays(1));
+            servicePackageRepository.recordUnsubscribed(packageId, List.of(testCustomer.getId()), FEBRUARY.plusDays(2));
+
+            assertThat(servicePackageRepository.countSubscriptionsBefore(MARCH) - before).isEqualTo(1);
+            assertThat(servicePackageRepository.countSubscriptionEventsByMonth(YearMonth.of(2001, 1), YearMonth.of(2001, 3)))
+                .containsExactly(
+                    new MonthlySubscriptionEvents(YearMonth.of(2001, 1), 2L, 0L, 0L),
+                    new MonthlySubscriptionEvents(YearMonth.of(2001, 2), 1L, 2L, 1L));
         }
     }
 }
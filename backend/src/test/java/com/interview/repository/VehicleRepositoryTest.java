@@ -1,10 +1,17 @@
 package com.interview.repository;
 
 import com.interview.config.TestJpaConfig;
+import com.interview.dto.filter.VehicleFilter;
 import com.interview.entity.Customer;
 import com.interview.entity.CustomerProfile;
 import com.interview.entity.Vehicle;
 import com.interview.enums.ContactMethod;
+import com.interview.enums.MatchMode;
+import com.interview.specification.VehicleSpecs;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -16,7 +23,9 @@ import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
@@ -143,9 +152,9 @@ class VehicleRepositoryTest {
         void shouldFindByIdWithCustomer() {
             Vehicle savedVehicle = vehicleRepository.save(testVehicle);
             entityManager.flush();
-            entityManager.clear(); // Clear to test fetch join
+            entityManager.clear(); // Clear to load the customer through the association
 
-            Optional<Vehicle> result = vehicleRepository.findByIdWithCustomer(savedVehicle.getId());
+            Optional<Vehicle> result = vehicleRepository.findById(savedVehicle.getId());
 
             assertThat(result).isPresent();
             Vehicle foundVehicle = result.get();
@@ -163,7 +172,7 @@ class VehicleRepositoryTest {
         @Test
         @DisplayName("Should return empty when vehicle not found by ID")
         void shouldReturnEmptyWhenNotFound() {
-            Optional<Vehicle> result = vehicleRepository.findByIdWithCustomer(999L);
+            Optional<Vehicle> result = vehicleRepository.findById(999L);
 
             assertThat(result).isEmpty();
         }
@@ -395,6 +404,120 @@ class VehicleRepositoryTest {
         }
     }
 
+    @Nested
+    @DisplayName("Search Column Tests")
+    class SearchColumnTests {
+
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        @Test
+        @DisplayName("Should maintain upper-cased search columns on insert and update")
+        void shouldMaintainSearchColumns() {
+            testVehicle.setMake(" Honda ");
+            Vehicle savedVehicle = vehicleRepository.save(testVehicle);
+            entityManager.flush();
+
+            assertThat(savedVehicle.getMakeSearch()).isEqualTo("HONDA");
+            assertThat(savedVehicle.getModelSearch()).isEqualTo("ACCORD");
+            assertThat(testCustomer.getEmailSearch()).isEqualTo(testCustomer.getEmail().toUpperCase());
+
+            savedVehicle.setModel("Civic");
+            entityManager.flush();
+            entityManager.clear();
+
+            assertThat(jdbcTemplate.queryForObject("SELECT model_search FROM vehicles WHERE id = ?", String.class, savedVehicle.getId()))
+                .isEqualTo("CIVIC");
+        }
+
+        @Test
+        @DisplayName("Should match make and customer fields by exact, prefix or contains")
+        void shouldMatchByMode() {
+            vehicleRepository.save(testVehicle);
+            entityManager.flush();
+            entityManager.clear();
+
+            assertThat(search(VehicleFilter.builder().make("hon").build())).hasSize(1);
+            assertThat(search(VehicleFilter.builder().make("hon").makeMatch(MatchMode.EXACT).build())).isEmpty();
+            assertThat(search(VehicleFilter.builder().make("ond").build())).isEmpty();
+            assertThat(search(VehicleFilter.builder().make("ond").makeMatch(MatchMode.CONTAINS).build())).hasSize(1);
+            assertThat(search(VehicleFilter.builder().model("ACC").customerName("do").build())).hasSize(1);
+            assertThat(search(VehicleFilter.builder().customerEmail(testCustomer.getEmail().toUpperCase()).build())).hasSize(1);
+            assertThat(search(VehicleFilter.builder().customerEmail("john.doe").build())).isEmpty();
+            assertThat(search(VehicleFilter.builder().customerEmail("john.doe").customerEmailMatch(MatchMode.PREFIX).build())).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("Should treat LIKE wildcards in search terms literally")
+        void shouldEscapeWildcards() {
+            vehicleRepository.save(testVehicle);
+            entityManager.flush();
+
+            assertThat(search(VehicleFilter.builder().make("H_nda").build())).isEmpty();
+            assertThat(search(VehicleFilter.builder().make("%a").makeMatch(MatchMode.CONTAINS).build())).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should use the search column indexes for exact and prefix matches")
+        void shouldUseIndexesForExactAndPrefix() {
+            // H2 prints the chosen index and the condition it seeks on as "/* INDEX: CONDITION */"
+            assertThat(explain("SELECT id FROM vehicles WHERE make_search = 'HONDA'"))
+                .contains("IDX_VEHICLES_MAKE_MODEL_SEARCH: MAKE_SEARCH = 'HONDA'");
+            assertThat(explain("SELECT id FROM vehicles WHERE make_search LIKE 'HON%' ESCAPE '!'"))
+                .contains("IDX_VEHICLES_MAKE_MODEL_SEARCH: MAKE_SEARCH >= 'HON'");
+            assertThat(explain("SELECT id FROM vehicles WHERE model_search LIKE 'ACC%' ESCAPE '!'"))
+                .contains("IDX_VEHICLES_MODEL_SEARCH: MODEL_SEARCH >= 'ACC'");
+            assertThat(explain("SELECT id FROM customers WHERE email_search = 'JOHN@EXAMPLE.COM'"))
+                .contains("IDX_CUSTOMERS_EMAIL_SEARCH: EMAIL_SEARCH = 'JOHN@EXAMPLE.COM'");
+            assertThat(explain("SELECT id FROM vehicles WHERE UPPER(make) LIKE '%HON%'"))
+                .doesNotContain("IDX_VEHICLES_MAKE_MODEL: ");
+        }
+
+        private List<Vehicle> search(VehicleFilter filter) {
+            return vehicleRepository.findAll(VehicleSpecs.hasCustomerId(testCustomer.getId()).and(VehicleSpecs.getVehiclesByFilters(filter)));
+        }
+
+        private String explain(String sql) {
+            return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Compiled Search Tests")
+    class CompiledSearchTests {
+
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
+        @Test
+        @DisplayName("Should return matches with customer and profile fetched")
+        void shouldFetchCustomerWithMatches() {
+            vehicleRepository.save(testVehicle);
+            entityManager.flush();
+            entityManager.clear();
+
+            Page<Vehicle> result = vehicleRepository.search(
+                VehicleFilter.builder().make("hon").customerEmail(testCustomer.getEmail()).build(), PageRequest.of(0, 10, Sort.by("vin")));
+
+            assertThat(result.getContent()).extracting(Vehicle::getVin).containsExactly(testVehicle.getVin());
+            Vehicle found = result.getContent().getFirst();
+            assertThat(Hibernate.isInitialized(found.getCustomer())).isTrue();
+            assertThat(Hibernate.isInitialized(found.getCustomer().getCustomerProfile())).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should reuse the parsed query for searches of the same shape")
+        void shouldReuseQueryPlanForSameShape() {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            vehicleRepository.search(VehicleFilter.builder().make("Honda").minYear(2010).build(), PageRequest.of(0, 10));
+            long hits = statistics.getQueryPlanCacheHitCount();
+
+            vehicleRepository.search(VehicleFilter.builder().make("Toyota").minYear(2015).build(), PageRequest.of(1, 10));
+
+            assertThat(statistics.getQueryPlanCacheHitCount()).isGreaterThan(hits);
+        }
+    }
+
     @Nested
     @DisplayName("Entity Relationship Tests")
     class EntityRelationshipTests {
@@ -411,7 +534,7 @@ class VehicleRepositoryTest {
             entityManager.flush();
             entityManager.clear();
 
-            Vehicle foundVehicle = vehicleRepository.findByIdWithCustomer(updatedVehicle.getId()).orElseThrow();
+            Vehicle foundVehicle = vehicleRepository.findById(updatedVehicle.getId()).orElseThrow();
             assertThat(foundVehicle.getYear()).isEqualTo(2021);
             assertThat(foundVehicle.getModel()).isEqualTo("Accord Sport");
             assertThat(foundVehicle.getCustomer()).isNotNull();
@@ -439,7 +562,7 @@ class VehicleRepositoryTest {
             entityManager.flush();
             entityManager.clear();
 
-            Vehicle foundVehicle = vehicleRepository.findByIdWithCustomer(savedVehicle.getId()).orElseThrow();
+            Vehicle foundVehicle = vehicleRepository.findById(savedVehicle.getId()).orElseThrow();
             assertThat(foundVehicle.getCustomer()).isNotNull();
             assertThat(foundVehicle.getCustomer().getCustomerProfile()).isNull();
         }
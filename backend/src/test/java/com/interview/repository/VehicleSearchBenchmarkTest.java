@@ -0,0 +1,124 @@
+package com.interview.repository;
+
+import com.interview.config.TestJpaConfig;
+import com.interview.dto.filter.VehicleFilter;
+import com.interview.entity.Customer;
+import com.interview.entity.Vehicle;
+import com.interview.specification.VehicleSpecs;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the per-request CPU cost of vehicle search through Criteria Specifications against the
+ * statements compiled once per filter shape by {@link VehicleSearchQuery}.
+ *
+ * <p>Both paths run the same filters, pages and sort over the same rows and return the same vehicles with
+ * their customers. The Specification path builds and interprets a new Criteria tree on every request; the
+ * compiled path reuses its statement text, so Hibernate serves the parsed query from its plan cache.
+ * CPU time is measured on the calling thread, which with in-memory H2 also covers executing the SQL.
+ *
+ * <p>Excluded from the default build; run with {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(TestJpaConfig.class)
+@DisplayName("Vehicle Search Benchmark")
+class VehicleSearchBenchmarkTest {
+
+    private static final int VEHICLES = 500;
+    private static final int WARMUP_REQUESTS = 2_000;
+    private static final int REQUESTS = 5_000;
+    private static final String[] MAKES = {"Honda", "Toyota", "Ford", "Tesla", "Chevrolet"};
+    private static final Pageable PAGE = PageRequest.of(0, 20, Sort.by("year").descending());
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<VehicleFilter> filters;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = new Customer(null, null, "Bench", "Mark", "bench.mark@example.com", null, null, List.of(), Set.of());
+        entityManager.persist(customer);
+        for (int i = 0; i < VEHICLES; i++) {
+            String vin = String.format("BENCH%012d", i);
+            entityManager.persist(new Vehicle(null, customer, vin, MAKES[i % MAKES.length], "Model" + (i % 7), 2000 + i % 25));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        filters = List.of(
+            VehicleFilter.builder().make("hon").minYear(2010).build(),
+            VehicleFilter.builder().make("toy").minYear(2015).build(),
+            VehicleFilter.builder().model("model3").customerEmail("bench.mark@example.com").build(),
+            VehicleFilter.builder().model("model5").customerEmail("bench.mark@example.com").build(),
+            VehicleFilter.builder().make("ford").customerName("mar").maxYear(2020).build());
+    }
+
+    @Test
+    @DisplayName("Shape-compiled statements should cost less CPU per request than Criteria Specifications")
+    void compiledSearchShouldCostLessCpu() {
+        Consumer<VehicleFilter> specification = filter -> vehicleRepository.findAll(VehicleSpecs.getVehiclesByFilters(filter), PAGE);
+        Consumer<VehicleFilter> compiled = filter -> vehicleRepository.search(filter, PAGE);
+
+        run(WARMUP_REQUESTS, specification);
+        run(WARMUP_REQUESTS, compiled);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long specificationNanos = run(REQUESTS, specification);
+        long specificationPlanHits = statistics.getQueryPlanCacheHitCount();
+
+        statistics.clear();
+        long compiledNanos = run(REQUESTS, compiled);
+        long compiledPlanHits = statistics.getQueryPlanCacheHitCount();
+
+        log.info("Specification: {} us CPU/request ({} query plan cache hits)",
+            TimeUnit.NANOSECONDS.toMicros(specificationNanos / REQUESTS), specificationPlanHits);
+        log.info("Compiled:      {} us CPU/request ({} query plan cache hits)",
+            TimeUnit.NANOSECONDS.toMicros(compiledNanos / REQUESTS), compiledPlanHits);
+
+        assertThat(compiledPlanHits).isGreaterThanOrEqualTo(REQUESTS);
+        assertThat(compiledNanos).isLessThan(specificationNanos);
+    }
+
+    private long run(int requests, Consumer<VehicleFilter> search) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < requests; i++) {
+            search.accept(filters.get(i % filters.size()));
+            entityManager.clear();
+        }
+        return threads.getCurrentThreadCpuTime() - start;
+    }
+}
@@ -0,0 +1,132 @@
+package com.interview.repository;
+
+import com.interview.config.TestJpaConfig;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks with MySQL's EXPLAIN that the vehicle search predicates built by {@code VehicleSpecs} are served by
+ * the search column indexes from V10 rather than a full scan.
+ *
+ * <p>The statements mirror the SQL Hibernate generates for each filter. The tables are seeded with enough
+ * rows that the optimizer prefers an index over scanning, and analyzed so its statistics are current.
+ * Runs against a MySQL container, and is skipped when Docker is not available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(TestJpaConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Vehicle Search Index Usage (MySQL)")
+class VehicleSearchIndexMySqlTest {
+
+    private static final int CUSTOMERS = 500;
+    private static final int VEHICLES_PER_CUSTOMER = 4;
+    private static final String[] MAKES = {"Honda", "Toyota", "Ford", "Tesla", "Chevrolet", "Nissan", "Mazda", "Subaru"};
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void mysqlProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+        registry.add("spring.datasource.driver-class-name", MYSQL::getDriverClassName);
+    }
+
+    @BeforeEach
+    void seedRows() {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM vehicles", Long.class) > CUSTOMERS) {
+            return;
+        }
+
+        List<Object[]> customers = new ArrayList<>();
+        for (int i = 0; i < CUSTOMERS; i++) {
+            String email = "search.customer" + i + "@example.com";
+            customers.add(new Object[] {"First" + i, "Last" + i, email, "FIRST" + i, "LAST" + i, email.toUpperCase()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO customers (first_name, last_name, email, first_name_search, last_name_search, email_search) "
+            + "VALUES (?, ?, ?, ?, ?, ?)", customers);
+
+        List<Object[]> vehicles = new ArrayList<>();
+        List<Long> customerIds = jdbcTemplate.queryForList("SELECT id FROM customers WHERE email LIKE 'search.customer%'", Long.class);
+        for (int i = 0; i < customerIds.size() * VEHICLES_PER_CUSTOMER; i++) {
+            String make = MAKES[i % MAKES.length];
+            String model = "Model" + (i % 97);
+            vehicles.add(new Object[] {customerIds.get(i / VEHICLES_PER_CUSTOMER), String.format("SRCH%013d", i), make, model, 2020,
+                make.toUpperCase(), model.toUpperCase()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO vehicles (customer_id, vin, make, model, vehicle_year, make_search, model_search) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)", vehicles);
+
+        jdbcTemplate.execute("ANALYZE TABLE customers, vehicles");
+    }
+
+    @Test
+    @DisplayName("Exact and prefix make and model filters should use the search column indexes")
+    void makeAndModelFiltersShouldUseIndexes() {
+        assertUsesIndex(explain("SELECT v.id FROM vehicles v WHERE v.make_search = 'HONDA'"), "v", "idx_vehicles_make_model_search");
+        assertUsesIndex(explain("SELECT v.id FROM vehicles v WHERE v.make_search LIKE 'HON%' ESCAPE '!'"), "v", "idx_vehicles_make_model_search");
+        assertUsesIndex(explain("SELECT v.id FROM vehicles v WHERE v.model_search LIKE 'MODEL1%' ESCAPE '!'"), "v", "idx_vehicles_model_search");
+    }
+
+    @Test
+    @DisplayName("Customer email and name filters should use the customer search column indexes")
+    void customerFiltersShouldUseIndexes() {
+        assertUsesIndex(explain("SELECT v.id FROM vehicles v JOIN customers c ON c.id = v.customer_id "
+            + "WHERE c.email_search = 'SEARCH.CUSTOMER7@EXAMPLE.COM'"), "c", "idx_customers_email_search");
+        assertUsesIndex(explain("SELECT v.id FROM vehicles v JOIN customers c ON c.id = v.customer_id "
+            + "WHERE c.first_name_search LIKE 'FIRST42%' ESCAPE '!' OR c.last_name_search LIKE 'FIRST42%' ESCAPE '!'"),
+            "c", "idx_customers_first_name_search");
+    }
+
+    @Test
+    @DisplayName("The previous UPPER(col) LIKE '%x%' predicate should scan the whole table")
+    void upperContainsShouldScan() {
+        Map<String, Object> plan = row(explain("SELECT v.id FROM vehicles v WHERE UPPER(v.make) LIKE '%HON%'"), "v");
+
+        assertThat(plan.get("type")).isIn("ALL", "index");
+    }
+
+    private List<Map<String, Object>> explain(String sql) {
+        return jdbcTemplate.queryForList("EXPLAIN " + sql);
+    }
+
+    private static void assertUsesIndex(List<Map<String, Object>> plan, String table, String index) {
+        Map<String, Object> row = row(plan, table);
+
+        assertThat(row.get("type")).isNotIn("ALL", "index");
+        assertThat((String) row.get("key")).contains(index);
+    }
+
+    private static Map<String, Object> row(List<Map<String, Object>> plan, String table) {
+        return plan.stream()
+            .filter(row -> table.equals(row.get("table")))
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("No plan row for table " + table + ": " + plan));
+    }
+}
@@ -0,0 +1,69 @@
+package com.interview.repository;
+
+import com.interview.dto.filter.VehicleFilter;
+import com.interview.enums.MatchMode;
+import com.interview.exception.BadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+@DisplayName("VehicleSearchQuery Unit Tests")
+class VehicleSearchQueryTest {
+
+    @Test
+    @DisplayName("Should emit no predicates and no customer join for the count when no filter is set")
+    void shouldOmitUnsetFilters() {
+        VehicleSearchQuery query = VehicleSearchQuery.of(VehicleFilter.builder().vin("  ").build(), Sort.unsorted());
+
+        assertThat(query.select()).isEqualTo("SELECT v FROM Vehicle v JOIN FETCH v.customer c LEFT JOIN FETCH c.customerProfile");
+        assertThat(query.count()).isEqualTo("SELECT COUNT(v) FROM Vehicle v");
+        assertThat(VehicleSearchQuery.parameters(VehicleFilter.builder().vin("  ").build())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should filter customers through the fetch join and bind every value as a parameter")
+    void shouldReuseCustomerJoin() {
+        VehicleFilter filter = VehicleFilter.builder()
+            .make("hon")
+            .minYear(2018)
+            .customerEmail("john@example.com")
+            .customerName("do_e")
+            .customerNameMatch(MatchMode.CONTAINS)
+            .build();
+
+        VehicleSearchQuery query = VehicleSearchQuery.of(filter, Sort.by(Sort.Order.desc("year"), Sort.Order.asc("vin")));
+
+        assertThat(query.select()).isEqualTo("SELECT v FROM Vehicle v JOIN FETCH v.customer c LEFT JOIN FETCH c.customerProfile"
+            + " WHERE v.makeSearch LIKE :make ESCAPE '!' AND v.year >= :minYear AND c.emailSearch = :customerEmail"
+            + " AND (c.firstNameSearch LIKE :customerName ESCAPE '!' OR c.lastNameSearch LIKE :customerName ESCAPE '!')"
+            + " ORDER BY v.year DESC, v.vin ASC");
+        assertThat(query.count()).startsWith("SELECT COUNT(v) FROM Vehicle v JOIN v.customer c WHERE ");
+        assertThat(VehicleSearchQuery.parameters(filter)).containsExactly(
+            entry("make", "HON%"), entry("minYear", 2018), entry("customerEmail", "JOHN@EXAMPLE.COM"), entry("customerName", "%DO!_E%"));
+    }
+
+    @Test
+    @DisplayName("Should compile each shape once, whatever the filter values")
+    void shouldCacheByShape() {
+        VehicleSearchQuery first = VehicleSearchQuery.of(VehicleFilter.builder().model("Civic").maxYear(2020).build(), Sort.by("id"));
+        VehicleSearchQuery second = VehicleSearchQuery.of(VehicleFilter.builder().model("Accord").maxYear(2010).build(), Sort.by("id"));
+        VehicleSearchQuery exact = VehicleSearchQuery.of(
+            VehicleFilter.builder().model("Accord").modelMatch(MatchMode.EXACT).maxYear(2010).build(), Sort.by("id"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(exact).isNotSameAs(first);
+        assertThat(exact.select()).contains("v.modelSearch = :model");
+    }
+
+    @Test
+    @DisplayName("Should reject sorting by a property that is not sortable")
+    void shouldRejectUnknownSort() {
+        assertThatThrownBy(() -> VehicleSearchQuery.of(VehicleFilter.builder().build(), Sort.by("customer.password")))
+            .isInstanceOf(BadRequestException.class)
+            .hasMessageContaining("Cannot sort vehicles by 'customer.password'");
+    }
+}
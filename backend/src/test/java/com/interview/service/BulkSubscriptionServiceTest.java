@@ -0,0 +1,164 @@
+package com.interview.service;
+
+import com.interview.dto.BatchSubscriptionResult.CustomerOutcome;
+import com.interview.dto.BatchSubscriptionResult;
+import com.interview.enums.SubscriptionAction;
+import com.interview.enums.SubscriptionOutcome;
+import com.interview.exception.BadRequestException;
+import com.interview.exception.ServicePackageNotFoundException;
+import com.interview.repository.ServicePackageRepository;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BulkSubscriptionService Unit Tests")
+class BulkSubscriptionServiceTest {
+
+    @Mock
+    private ServicePackageRepository servicePackageRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BulkSubscriptionService bulkSubscriptionService;
+
+    @BeforeEach
+    void setUp() {
+        bulkSubscriptionService = new BulkSubscriptionService(servicePackageRepository, new TransactionTemplate(transactionManager));
+    }
+
+    @Nested
+    @DisplayName("Subscribe Tests")
+    class SubscribeTests {
+
+        @Test
+        @DisplayName("Should insert only customers that exist and are not subscribed, in request order")
+        void shouldReportOutcomePerCustomer() {
+            givenPackageAndTransactions();
+            when(servicePackageRepository.findSubscriptionStates(1L, List.of(3L, 1L, 2L, 4L)))
+                .thenReturn(Map.of(1L, false, 2L, true, 4L, false));
+            when(servicePackageRepository.insertSubscriptions(1L, List.of(1L, 4L))).thenReturn(new int[] {1, 0});
+
+            BatchSubscriptionResult result = bulkSubscriptionService.apply(1L, null, List.of(3L, 1L, 2L, 1L, 4L));
+
+            assertThat(result.action()).isEqualTo(SubscriptionAction.SUBSCRIBE);
+            assertThat(result.results()).containsExactly(
+                new CustomerOutcome(3L, SubscriptionOutcome.CUSTOMER_NOT_FOUND),
+                new CustomerOutcome(1L, SubscriptionOutcome.SUBSCRIBED),
+                new CustomerOutcome(2L, SubscriptionOutcome.ALREADY_SUBSCRIBED),
+                new CustomerOutcome(4L, SubscriptionOutcome.ALREADY_SUBSCRIBED));
+            assertThat(result.totals()).containsExactlyInAnyOrderEntriesOf(Map.of(
+                SubscriptionOutcome.CUSTOMER_NOT_FOUND, 1,
+                SubscriptionOutcome.SUBSCRIBED, 1,
+                SubscriptionOutcome.ALREADY_SUBSCRIBED, 2));
+            verify(servicePackageRepository).adjustSubscriberCount(1L, 1);
+            verify(servicePackageRepository).recordPackageRevenue(1L);
+            verify(servicePackageRepository).recordSubscribed(eq(1L), eq(List.of(1L)), any(LocalDateTime.class));
+        }
+
+        @Test
+        @DisplayName("Should process large batches in chunks, each in its own transaction")
+        void shouldProcessInChunks() {
+            givenPackageAndTransactions();
+            List<Long> ids = LongStream.rangeClosed(1, BulkSubscriptionService.CHUNK_SIZE + 1).boxed().toList();
+            when(servicePackageRepository.findSubscriptionStates(eq(1L), anyList())).thenAnswer(invocation -> {
+                List<Long> chunk = invocation.getArgument(1);
+                return chunk.stream().collect(Collectors.toMap(Function.identity(), id -> false));
+            });
+            when(servicePackageRepository.insertSubscriptions(eq(1L), anyList())).thenAnswer(invocation -> {
+                int[] counts = new int[invocation.<List<Long>>getArgument(1).size()];
+                Arrays.fill(counts, 1);
+                return counts;
+            });
+
+            BatchSubscriptionResult result = bulkSubscriptionService.apply(1L, SubscriptionAction.SUBSCRIBE, ids);
+
+            assertThat(result.totals()).containsExactly(Map.entry(SubscriptionOutcome.SUBSCRIBED, ids.size()));
+            verify(servicePackageRepository, times(2)).insertSubscriptions(eq(1L), anyList());
+            verify(servicePackageRepository).adjustSubscriberCount(1L, BulkSubscriptionService.CHUNK_SIZE);
+            verify(servicePackageRepository).adjustSubscriberCount(1L, 1);
+            verify(transactionManager, times(2)).commit(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Unsubscribe Tests")
+    class UnsubscribeTests {
+
+        @Test
+        @DisplayName("Should delete only subscribed customers")
+        void shouldDeleteSubscribedCustomers() {
+            givenPackageAndTransactions();
+            when(servicePackageRepository.findSubscriptionStates(1L, List.of(1L, 2L))).thenReturn(Map.of(1L, true, 2L, false));
+            when(servicePackageRepository.deleteSubscriptions(1L, List.of(1L))).thenReturn(new int[] {1});
+
+            BatchSubscriptionResult result = bulkSubscriptionService.apply(1L, SubscriptionAction.UNSUBSCRIBE, List.of(1L, 2L));
+
+            assertThat(result.results()).containsExactly(
+                new CustomerOutcome(1L, SubscriptionOutcome.UNSUBSCRIBED),
+                new CustomerOutcome(2L, SubscriptionOutcome.NOT_SUBSCRIBED));
+            verify(servicePackageRepository).adjustSubscriberCount(1L, -1);
+            verify(servicePackageRepository).recordPackageRevenue(1L);
+            verify(servicePackageRepository).recordUnsubscribed(eq(1L), eq(List.of(1L)), any(LocalDateTime.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Validation Tests")
+    class ValidationTests {
+
+        @Test
+        @DisplayName("Should reject more than the maximum number of customers")
+        void shouldRejectTooManyIds() {
+            List<Long> ids = LongStream.rangeClosed(1, BulkSubscriptionService.MAX_CUSTOMER_IDS + 1).boxed().toList();
+
+            assertThatThrownBy(() -> bulkSubscriptionService.apply(1L, null, ids))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("At most");
+        }
+
+        @Test
+        @DisplayName("Should throw when the service package does not exist")
+        void shouldThrowWhenPackageMissing() {
+            when(servicePackageRepository.existsById(1L)).thenReturn(false);
+
+            assertThatThrownBy(() -> bulkSubscriptionService.apply(1L, null, List.of(1L)))
+                .isInstanceOf(ServicePackageNotFoundException.class);
+
+            verify(servicePackageRepository, never()).adjustSubscriberCount(anyLong(), anyInt());
+        }
+    }
+
+    private void givenPackageAndTransactions() {
+        when(servicePackageRepository.existsById(1L)).thenReturn(true);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+    }
+}
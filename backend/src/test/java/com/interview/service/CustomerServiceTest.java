@@ -1,28 +1,43 @@
 package com.interview.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.interview.dto.CustomerRequest;
 import com.interview.dto.CustomerResponse;
+import com.interview.dto.Tagged;
 import com.interview.entity.Customer;
 import com.interview.entity.CustomerProfile;
+import com.interview.entity.Vehicle;
 import com.interview.enums.ContactMethod;
 import com.interview.exception.BadRequestException;
 import com.interview.exception.CustomerAlreadyExistsException;
 import com.interview.exception.CustomerNotFoundException;
 import com.interview.exception.OptimisticLockingException;
+import com.interview.exception.PreconditionFailedException;
 import com.interview.mapper.CustomerMapper;
 import com.interview.repository.CustomerRepository;
+import com.interview.repository.ServicePackageRepository;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -32,6 +47,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -46,6 +63,21 @@ class CustomerServiceTest {
     @Mock
     private CustomerMapper customerMapper;
 
+    @Mock
+    private AuditorAware<String> auditorAware;
+
+    @Mock
+    private VehicleSuggestionService vehicleSuggestionService;
+
+    @Mock
+    private ServicePackageRepository servicePackageRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     @InjectMocks
     private CustomerService customerService;
 
@@ -162,20 +194,20 @@ class CustomerServiceTest {
         @Test
         @DisplayName("Should get customer by ID successfully")
         void shouldGetCustomerById() {
-            when(customerRepository.findByIdWithProfile(1L)).thenReturn(Optional.of(testCustomer));
+            when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
             when(customerMapper.toResponse(testCustomer)).thenReturn(testResponse);
 
             CustomerResponse result = customerService.getCustomerById(1L);
 
             assertThat(result).isNotNull();
             assertThat(result.id()).isEqualTo(1L);
-            verify(customerRepository).findByIdWithProfile(1L);
+            verify(customerRepository).findById(1L);
         }
 
         @Test
         @DisplayName("Should throw exception when customer not found")
         void shouldThrowExceptionWhenCustomerNotFound() {
-            when(customerRepository.findByIdWithProfile(1L)).thenReturn(Optional.empty());
+            when(customerRepository.findById(1L)).thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> customerService.getCustomerById(1L))
                 .isInstanceOf(CustomerNotFoundException.class)
@@ -210,6 +242,34 @@ class CustomerServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Conditional Get Customer Tests")
+    class ConditionalGetCustomerTests {
+
+        @Test
+        @DisplayName("Should return body and version ETag when If-None-Match does not match")
+        void shouldReturnBodyWhenModified() {
+            when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+            when(customerMapper.toResponse(testCustomer)).thenReturn(testResponse);
+
+            Tagged<CustomerResponse> result = customerService.getCustomerIfNoneMatch(1L, "\"7\"");
+
+            assertThat(result.etag()).isEqualTo("\"0\"");
+            assertThat(result.body()).isEqualTo(testResponse);
+        }
+
+        @Test
+        @DisplayName("Should skip mapping when If-None-Match matches")
+        void shouldSkipMappingWhenNotModified() {
+            when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+
+            Tagged<CustomerResponse> result = customerService.getCustomerIfNoneMatch(1L, "\"0\"");
+
+            assertThat(result.isNotModified()).isTrue();
+            verify(customerMapper, never()).toResponse(any(Customer.class));
+        }
+    }
+
     @Nested
     @DisplayName("Update Customer Tests")
     class UpdateCustomerTests {
@@ -217,10 +277,10 @@ class CustomerServiceTest {
         @Test
         @DisplayName("Should update customer successfully")
         void shouldUpdateCustomerSuccessfully() {
-            when(customerRepository.findByIdWithProfile(1L)).thenReturn(Optional.of(testCustomer));
+            when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
             when(customerRepository.save(any(Customer.class))).thenReturn(testCustomer);
 
-            customerService.updateCustomer(1L, testRequest);
+            customerService.updateCustomer(1L, testRequest, null);
 
             verify(customerMapper).updateEntity(testCustomer, testRequest);
             verify(customerRepository).save(testCustomer);
@@ -234,19 +294,45 @@ class CustomerServiceTest {
                 "123 Main St", LocalDate.of(1990, 1, 1), ContactMethod.EMAIL
             );
 
-            assertThatThrownBy(() -> customerService.updateCustomer(1L, requestWithoutVersion))
+            assertThatThrownBy(() -> customerService.updateCustomer(1L, requestWithoutVersion, null))
                 .isInstanceOf(BadRequestException.class)
                 .hasMessageContaining("Version is required");
 
-            verify(customerRepository, never()).findByIdWithProfile(anyLong());
+            verify(customerRepository, never()).findById(anyLong());
+        }
+
+        @Test
+        @DisplayName("Should accept If-Match ETag instead of body version")
+        void shouldAcceptIfMatchInsteadOfBodyVersion() {
+            CustomerRequest requestWithoutVersion = new CustomerRequest(
+                "John", null, "Doe", "john.doe@example.com", "+1-555-0101",
+                "123 Main St", LocalDate.of(1990, 1, 1), ContactMethod.EMAIL
+            );
+            when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+            when(customerRepository.save(any(Customer.class))).thenReturn(testCustomer);
+
+            customerService.updateCustomer(1L, requestWithoutVersion, "\"0\"");
+
+            verify(customerRepository).save(testCustomer);
+        }
+
+        @Test
+        @DisplayName("Should throw precondition failed exception when If-Match is stale")
+        void shouldThrowPreconditionFailedWhenIfMatchIsStale() {
+            when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+
+            assertThatThrownBy(() -> customerService.updateCustomer(1L, testRequest, "\"7\""))
+                .isInstanceOf(PreconditionFailedException.class);
+
+            verify(customerRepository, never()).save(any(Customer.class));
         }
 
         @Test
         @DisplayName("Should throw exception when customer not found for update")
         void shouldThrowExceptionWhenCustomerNotFoundForUpdate() {
-            when(customerRepository.findByIdWithProfile(1L)).thenReturn(Optional.empty());
+            when(customerRepository.findById(1L)).thenReturn(Optional.empty());
 
-            assertThatThrownBy(() -> customerService.updateCustomer(1L, testRequest))
+            assertThatThrownBy(() -> customerService.updateCustomer(1L, testRequest, null))
                 .isInstanceOf(CustomerNotFoundException.class);
         }
 
@@ -254,9 +340,9 @@ class CustomerServiceTest {
         @DisplayName("Should throw optimistic locking exception when versions don't match")
         void shouldThrowOptimisticLockingException() {
             testCustomer.setVersion(1L); // Different version
-            when(customerRepository.findByIdWithProfile(1L)).thenReturn(Optional.of(testCustomer));
+            when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
 
-            assertThatThrownBy(() -> customerService.updateCustomer(1L, testRequest))
+            assertThatThrownBy(() -> customerService.updateCustomer(1L, testRequest, null))
                 .isInstanceOf(OptimisticLockingException.class)
                 .hasMessageContaining("modified by another user");
         }
@@ -268,10 +354,10 @@ class CustomerServiceTest {
                 "John", 0L, "Doe", "different@example.com", "+1-555-0101",
                 "123 Main St", LocalDate.of(1990, 1, 1), ContactMethod.EMAIL
             );
-            when(customerRepository.findByIdWithProfile(1L)).thenReturn(Optional.of(testCustomer));
+            when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
             when(customerRepository.existsByEmail("different@example.com")).thenReturn(true);
 
-            assertThatThrownBy(() -> customerService.updateCustomer(1L, requestWithDifferentEmail))
+            assertThatThrownBy(() -> customerService.updateCustomer(1L, requestWithDifferentEmail, null))
                 .isInstanceOf(CustomerAlreadyExistsException.class);
         }
 
@@ -279,17 +365,122 @@ class CustomerServiceTest {
         @DisplayName("Should create profile when customer has no profile but request has profile data")
         void shouldCreateProfileWhenCustomerHasNoProfile() {
             testCustomer.setCustomerProfile(null); // No existing profile
-            when(customerRepository.findByIdWithProfile(1L)).thenReturn(Optional.of(testCustomer));
+            when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
             when(customerMapper.toProfileEntity(testRequest)).thenReturn(testProfile);
             when(customerRepository.save(any(Customer.class))).thenReturn(testCustomer);
 
-            customerService.updateCustomer(1L, testRequest);
+            customerService.updateCustomer(1L, testRequest, null);
 
             verify(customerMapper).toProfileEntity(testRequest);
             verify(customerRepository).save(testCustomer);
         }
     }
 
+    @Nested
+    @DisplayName("Patch Customer Tests")
+    class PatchCustomerTests {
+
+        private JsonNode patch(String json) throws Exception {
+            return objectMapper.readTree(json);
+        }
+
+        @Test
+        @DisplayName("Should apply patch with one conditional update and never load the customer")
+        void shouldApplyPatchWithoutLoadingCustomer() throws Exception {
+            when(auditorAware.getCurrentAuditor()).thenReturn(Optional.of("admin"));
+            when(customerRepository.updateIfVersion(eq(1L), eq(3L), eq(Map.of("phone", "+1-555-0199")), eq("admin"), any(LocalDateTime.class)))
+                .thenReturn(1);
+
+            Long version = customerService.patchCustomer(1L, patch("{\"phone\": \"+1-555-0199\", \"address\": \"1 New St\"}"), "\"3\"");
+
+            assertThat(version).isEqualTo(4L);
+            verify(customerRepository).upsertProfile(eq(1L), eq(Map.of("address", "1 New St")), eq("admin"), any(LocalDateTime.class));
+            verify(customerRepository, never()).findById(anyLong());
+            verify(customerRepository, never()).existsById(anyLong());
+        }
+
+        @Test
+        @DisplayName("Should clear nullable fields set to null in the patch")
+        void shouldClearNullFields() throws Exception {
+            when(auditorAware.getCurrentAuditor()).thenReturn(Optional.of("admin"));
+            Map<String, Object> cleared = new HashMap<>();
+            cleared.put("phone", null);
+            when(customerRepository.updateIfVersion(eq(1L), eq(0L), eq(cleared), eq("admin"), any(LocalDateTime.class))).thenReturn(1);
+
+            customerService.patchCustomer(1L, patch("{\"version\": 0, \"phone\": null}"), null);
+
+            verify(customerRepository, never()).upsertProfile(anyLong(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should require a version in the patch or If-Match")
+        void shouldRequireVersion() {
+            assertThatThrownBy(() -> customerService.patchCustomer(1L, patch("{\"phone\": \"+1-555-0199\"}"), null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage(CustomerService.VERSION_IS_REQUIRED);
+        }
+
+        @Test
+        @DisplayName("Should require the body version with If-Match: * and never update unconditionally")
+        void shouldRequireBodyVersionWithWildcardIfMatch() throws Exception {
+            assertThatThrownBy(() -> customerService.patchCustomer(1L, patch("{\"phone\": \"+1-555-0199\"}"), "*"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage(CustomerService.VERSION_IS_REQUIRED);
+            verify(customerRepository, never()).updateIfVersion(any(), anyLong(), any(), any(), any());
+
+            when(auditorAware.getCurrentAuditor()).thenReturn(Optional.of("admin"));
+            when(customerRepository.updateIfVersion(eq(1L), eq(5L), any(), any(), any())).thenReturn(1);
+
+            assertThat(customerService.patchCustomer(1L, patch("{\"version\": 5, \"phone\": \"+1-555-0199\"}"), "*")).isEqualTo(6L);
+        }
+
+        @Test
+        @DisplayName("Should throw OptimisticLockingException when no row has the expected version")
+        void shouldThrowConflictWhenVersionMovedOn() {
+            when(auditorAware.getCurrentAuditor()).thenReturn(Optional.of("admin"));
+            when(customerRepository.updateIfVersion(eq(1L), eq(2L), any(), any(), any())).thenReturn(0);
+            when(customerRepository.existsById(1L)).thenReturn(true);
+
+            assertThatThrownBy(() -> customerService.patchCustomer(1L, patch("{\"version\": 2, \"lastName\": \"Smith\"}"), null))
+                .isInstanceOf(OptimisticLockingException.class);
+        }
+
+        @Test
+        @DisplayName("Should throw CustomerNotFoundException when the customer does not exist")
+        void shouldThrowNotFound() {
+            when(auditorAware.getCurrentAuditor()).thenReturn(Optional.of("admin"));
+            when(customerRepository.updateIfVersion(eq(999L), eq(2L), any(), any(), any())).thenReturn(0);
+            when(customerRepository.existsById(999L)).thenReturn(false);
+
+            assertThatThrownBy(() -> customerService.patchCustomer(999L, patch("{\"lastName\": \"Smith\"}"), "\"2\""))
+                .isInstanceOf(CustomerNotFoundException.class);
+        }
+
+        @Test
+        @DisplayName("Should reject invalid values and unknown fields before updating")
+        void shouldRejectInvalidPatch() {
+            assertThatThrownBy(() -> customerService.patchCustomer(1L, patch("{\"version\": 0, \"email\": null}"), null))
+                .isInstanceOf(ConstraintViolationException.class);
+            assertThatThrownBy(() -> customerService.patchCustomer(1L, patch("{\"version\": 0, \"email\": \"not-an-email\"}"), null))
+                .isInstanceOf(ConstraintViolationException.class);
+            assertThatThrownBy(() -> customerService.patchCustomer(1L, patch("{\"version\": 0, \"id\": 7}"), null))
+                .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> customerService.patchCustomer(1L, patch("{\"version\": 0, \"dateOfBirth\": \"yesterday\"}"), null))
+                .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> customerService.patchCustomer(1L, patch("{\"version\": 0}"), null))
+                .isInstanceOf(BadRequestException.class);
+
+            verify(customerRepository, never()).updateIfVersion(any(), anyLong(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should fail the If-Match precondition for tags that are not version tags")
+        void shouldRejectNonVersionTag() {
+            assertThatThrownBy(() -> customerService.patchCustomer(1L, patch("{\"lastName\": \"Smith\"}"), "W/\"2\""))
+                .isInstanceOf(PreconditionFailedException.class);
+        }
+    }
+
     @Nested
     @DisplayName("Delete Customer Tests")
     class DeleteCustomerTests {
@@ -297,17 +488,25 @@ class CustomerServiceTest {
         @Test
         @DisplayName("Should delete customer successfully")
         void shouldDeleteCustomerSuccessfully() {
-            when(customerRepository.deleteByCustomerId(1L)).thenReturn(1);
+            Vehicle vehicle = new Vehicle(2L, testCustomer, "1HGCM82633A123456", "Honda", "Accord", 2020);
+            testCustomer.setVehicles(new ArrayList<>(List.of(vehicle)));
+            when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
 
             customerService.deleteCustomer(1L);
 
-            verify(customerRepository).deleteByCustomerId(1L);
+            verify(servicePackageRepository).recordCustomerUnsubscribed(eq(1L), any(LocalDateTime.class));
+            InOrder inOrder = inOrder(servicePackageRepository, customerRepository);
+            inOrder.verify(servicePackageRepository).decrementSubscriberCountsOfCustomer(1L);
+            inOrder.verify(servicePackageRepository).recordCustomerPackagesRevenue(1L);
+            inOrder.verify(customerRepository).delete(testCustomer);
+            verify(customerRepository).delete(testCustomer);
+            verify(vehicleSuggestionService).recordChange("Honda", "Accord", null, null);
         }
 
         @Test
         @DisplayName("Should throw exception when customer not found for deletion")
         void shouldThrowExceptionWhenCustomerNotFoundForDeletion() {
-            when(customerRepository.deleteByCustomerId(1L)).thenReturn(0);
+            when(customerRepository.findById(1L)).thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> customerService.deleteCustomer(1L))
                 .isInstanceOf(CustomerNotFoundException.class)
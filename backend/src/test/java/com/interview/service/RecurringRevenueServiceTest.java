@@ -0,0 +1,131 @@
+package com.interview.service;
+
+import com.interview.dto.RecurringRevenueReport;
+import com.interview.dto.RecurringRevenueVerification;
+import com.interview.dto.projection.MonthlyRecurringRevenue;
+import com.interview.dto.projection.PackageRecurringRevenue;
+import com.interview.dto.projection.RecurringRevenue;
+import com.interview.exception.BadRequestException;
+import com.interview.repository.ServicePackageRepository;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RecurringRevenueService Unit Tests")
+class RecurringRevenueServiceTest {
+
+    private static final YearMonth CURRENT_MONTH = YearMonth.now(ZoneOffset.UTC);
+
+    @Mock
+    private ServicePackageRepository servicePackageRepository;
+
+    @Mock
+    private SubscriberCountReconciler subscriberCountReconciler;
+
+    @InjectMocks
+    private RecurringRevenueService recurringRevenueService;
+
+    @Nested
+    @DisplayName("Report Tests")
+    class ReportTests {
+
+        @Test
+        @DisplayName("Should carry recorded months forward and report the current month as the current total")
+        void shouldFillMonths() {
+            YearMonth from = CURRENT_MONTH.minusMonths(4);
+            RecurringRevenue total = new RecurringRevenue(new BigDecimal("300.00"), 10L);
+            PackageRecurringRevenue premium = new PackageRecurringRevenue(1L, "Premium", new BigDecimal("30.00"), 10, new BigDecimal("300.00"));
+            when(servicePackageRepository.findRecurringRevenue()).thenReturn(total);
+            when(servicePackageRepository.findPackageRecurringRevenue()).thenReturn(List.of(premium));
+            when(servicePackageRepository.findMonthlyRecurringRevenue(from, CURRENT_MONTH)).thenReturn(List.of(
+                new MonthlyRecurringRevenue(from.minusMonths(2), new BigDecimal("100.00"), 4L),
+                new MonthlyRecurringRevenue(from.plusMonths(2), new BigDecimal("250.00"), 8L)));
+
+            RecurringRevenueReport report = recurringRevenueService.getReport(from, null);
+
+            assertThat(report.mrr()).isEqualByComparingTo("300.00");
+            assertThat(report.packages()).containsExactly(premium);
+            assertThat(report.months()).extracting(MonthlyRecurringRevenue::mrr).containsExactly(
+                new BigDecimal("100.00"), new BigDecimal("100.00"), new BigDecimal("250.00"), new BigDecimal("250.00"), new BigDecimal("300.00"));
+            assertThat(report.months().getFirst().month()).isEqualTo(from);
+            assertThat(report.months().getLast().month()).isEqualTo(CURRENT_MONTH);
+        }
+
+        @Test
+        @DisplayName("Should omit months before the first recorded change")
+        void shouldOmitMonthsWithoutHistory() {
+            YearMonth lastMonth = CURRENT_MONTH.minusMonths(1);
+            when(servicePackageRepository.findRecurringRevenue()).thenReturn(new RecurringRevenue(BigDecimal.ZERO, 0L));
+            when(servicePackageRepository.findPackageRecurringRevenue()).thenReturn(List.of());
+            when(servicePackageRepository.findMonthlyRecurringRevenue(lastMonth.minusMonths(11), lastMonth)).thenReturn(List.of(
+                new MonthlyRecurringRevenue(lastMonth, new BigDecimal("50.00"), 2L)));
+
+            RecurringRevenueReport report = recurringRevenueService.getReport(null, lastMonth);
+
+            assertThat(report.months()).containsExactly(new MonthlyRecurringRevenue(lastMonth, new BigDecimal("50.00"), 2L));
+        }
+
+        @Test
+        @DisplayName("Should reject reversed, future and oversized month ranges")
+        void shouldRejectInvalidRanges() {
+            assertThatThrownBy(() -> recurringRevenueService.getReport(CURRENT_MONTH, CURRENT_MONTH.minusMonths(1)))
+                .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> recurringRevenueService.getReport(null, CURRENT_MONTH.plusMonths(1)))
+                .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> recurringRevenueService.getReport(CURRENT_MONTH.minusMonths(RecurringRevenueService.MAX_MONTHS), null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining(String.valueOf(RecurringRevenueService.MAX_MONTHS));
+        }
+    }
+
+    @Nested
+    @DisplayName("Verification Tests")
+    class VerificationTests {
+
+        @Test
+        @DisplayName("Should recount subscriber counts before recomputing and report the corrected packages")
+        void shouldCorrectDrift() {
+            RecurringRevenue stored = new RecurringRevenue(new BigDecimal("120.00"), 4L);
+            RecurringRevenue recomputed = new RecurringRevenue(new BigDecimal("150.00"), 5L);
+            when(servicePackageRepository.findRecurringRevenue()).thenReturn(stored);
+            when(subscriberCountReconciler.reconcile()).thenReturn(1);
+            when(servicePackageRepository.recomputeRecurringRevenue()).thenReturn(recomputed);
+
+            RecurringRevenueVerification verification = recurringRevenueService.verify();
+
+            assertThat(verification).isEqualTo(new RecurringRevenueVerification(stored, recomputed, true, 1));
+            InOrder inOrder = inOrder(servicePackageRepository, subscriberCountReconciler);
+            inOrder.verify(servicePackageRepository).findRecurringRevenue();
+            inOrder.verify(subscriberCountReconciler).reconcile();
+            inOrder.verify(servicePackageRepository).recomputeRecurringRevenue();
+        }
+
+        @Test
+        @DisplayName("Should report a consistent total as uncorrected")
+        void shouldKeepConsistentTotal() {
+            when(servicePackageRepository.findRecurringRevenue()).thenReturn(new RecurringRevenue(new BigDecimal("150.00"), 5L));
+            when(subscriberCountReconciler.reconcile()).thenReturn(0);
+            when(servicePackageRepository.recomputeRecurringRevenue()).thenReturn(new RecurringRevenue(new BigDecimal("150.0"), 5L));
+
+            RecurringRevenueVerification verification = recurringRevenueService.verify();
+
+            assertThat(verification.corrected()).isFalse();
+            assertThat(verification.correctedPackages()).isZero();
+        }
+    }
+}
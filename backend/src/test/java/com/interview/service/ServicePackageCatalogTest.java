@@ -0,0 +1,97 @@
+package com.interview.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.dto.ServicePackageResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ServicePackageCatalog Unit Tests")
+class ServicePackageCatalogTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Mock
+    private ServicePackageService servicePackageService;
+
+    private ServicePackageCatalog catalog;
+
+    private final ServicePackageResponse basic = response(1L, "Basic Wash", true, 3);
+    private final ServicePackageResponse retired = response(2L, "Retired Wash", false, 0);
+
+    @BeforeEach
+    void setUp() {
+        catalog = new ServicePackageCatalog(servicePackageService, objectMapper);
+    }
+
+    @Test
+    @DisplayName("Should serialize every variant from one load and serve later reads from the snapshot")
+    void shouldServeVariantsFromOneLoad() throws IOException {
+        when(servicePackageService.getAllServicePackages(null)).thenReturn(List.of(basic, retired));
+
+        JsonNode all = objectMapper.readTree(catalog.get(null, false).body());
+        JsonNode active = objectMapper.readTree(catalog.get(true, false).body());
+        JsonNode inactive = objectMapper.readTree(catalog.get(false, false).body());
+
+        assertThat(all).hasSize(2);
+        assertThat(active).hasSize(1);
+        assertThat(active.get(0).get("subscriberCount").asInt()).isEqualTo(3);
+        assertThat(inactive.get(0).get("name").asText()).isEqualTo("Retired Wash");
+        verify(servicePackageService, times(1)).getAllServicePackages(null);
+    }
+
+    @Test
+    @DisplayName("Should serve the same JSON gzip-encoded under its own entity tag")
+    void shouldServeGzipVariant() throws IOException {
+        when(servicePackageService.getAllServicePackages(null)).thenReturn(List.of(basic));
+
+        ServicePackageCatalog.Representation json = catalog.get(true, false);
+        ServicePackageCatalog.Representation gzip = catalog.get(true, true);
+
+        try (GZIPInputStream decoded = new GZIPInputStream(new ByteArrayInputStream(gzip.body()))) {
+            assertThat(decoded.readAllBytes()).isEqualTo(json.body());
+        }
+        assertThat(json.etag()).startsWith("\"").endsWith("\"");
+        assertThat(gzip.etag()).isNotEqualTo(json.etag());
+    }
+
+    @Test
+    @DisplayName("Should rebuild after a change and keep the entity tag only while the content is unchanged")
+    void shouldRebuildAfterChange() {
+        ServicePackageResponse renamed = response(1L, "Deluxe Wash", true, 3);
+        when(servicePackageService.getAllServicePackages(null))
+            .thenReturn(List.of(basic))
+            .thenReturn(List.of(basic))
+            .thenReturn(List.of(renamed));
+
+        String first = catalog.get(null, false).etag();
+        catalog.onChanged(new ServicePackageCatalog.Changed(1L));
+        String unchanged = catalog.get(null, false).etag();
+        catalog.invalidate();
+        String changed = catalog.get(null, false).etag();
+
+        assertThat(unchanged).isEqualTo(first);
+        assertThat(changed).isNotEqualTo(first);
+        verify(servicePackageService, times(3)).getAllServicePackages(null);
+    }
+
+    private static ServicePackageResponse response(Long id, String name, boolean active, int subscriberCount) {
+        return new ServicePackageResponse(id, name, name + " package", new BigDecimal("19.99"), active, subscriberCount,
+            null, null, "admin", "admin");
+    }
+}
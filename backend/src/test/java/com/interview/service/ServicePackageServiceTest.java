@@ -1,8 +1,11 @@
 package com.interview.service;
 
+import com.interview.dto.CursorPage;
 import com.interview.dto.ServicePackageRequest;
 import com.interview.dto.ServicePackageResponse;
+import com.interview.dto.SubscriberDto;
 import com.interview.dto.SubscribersResponse;
+import com.interview.dto.Tagged;
 import com.interview.entity.Customer;
 import com.interview.entity.ServicePackage;
 import com.interview.exception.BadRequestException;
@@ -12,31 +15,42 @@ import com.interview.mapper.CustomerMapper;
 import com.interview.mapper.ServicePackageMapper;
 import com.interview.repository.CustomerRepository;
 import com.interview.repository.ServicePackageRepository;
+import com.interview.util.EntityTags;
+import com.interview.util.KeysetCursor;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -56,6 +70,9 @@ class ServicePackageServiceTest {
     @Mock
     private CustomerMapper customerMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ServicePackageService servicePackageService;
 
@@ -125,6 +142,7 @@ class ServicePackageServiceTest {
             assertThat(result.monthlyPrice()).isEqualTo(testRequest.monthlyPrice());
             verify(servicePackageRepository).existsByName(testRequest.name());
             verify(servicePackageRepository).save(any(ServicePackage.class));
+            verify(eventPublisher).publishEvent(new ServicePackageCatalog.Changed(1L));
         }
 
         @Test
@@ -147,20 +165,21 @@ class ServicePackageServiceTest {
         @Test
         @DisplayName("Should get service package by ID successfully")
         void shouldGetServicePackageById() {
-            when(servicePackageRepository.findByIdWithSubscribers(1L)).thenReturn(Optional.of(testPackage));
-            when(servicePackageMapper.toResponse(testPackage)).thenReturn(testResponse);
+            ServicePackage subscribed = spy(testPackage);
+            when(subscribed.getSubscriberCount()).thenReturn(3);
+            when(servicePackageRepository.findById(1L)).thenReturn(Optional.of(subscribed));
+            when(servicePackageMapper.toResponseWithSubscriberCount(subscribed, 3)).thenReturn(testResponse);
 
             ServicePackageResponse result = servicePackageService.getServicePackageById(1L);
 
             assertThat(result).isNotNull();
             assertThat(result.id()).isEqualTo(1L);
-            verify(servicePackageRepository).findByIdWithSubscribers(1L);
         }
 
         @Test
         @DisplayName("Should throw exception when service package not found")
         void shouldThrowExceptionWhenServicePackageNotFound() {
-            when(servicePackageRepository.findByIdWithSubscribers(1L)).thenReturn(Optional.empty());
+            when(servicePackageRepository.findById(1L)).thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> servicePackageService.getServicePackageById(1L))
                 .isInstanceOf(ServicePackageNotFoundException.class)
@@ -168,34 +187,50 @@ class ServicePackageServiceTest {
         }
 
         @Test
-        @DisplayName("Should get all active service packages when active=true")
+        @DisplayName("Should tag the package with its materialized subscriber count without fetching subscribers")
+        void shouldTagWithMaterializedSubscriberCount() {
+            testPackage.setVersion(2L);
+            ServicePackage subscribed = spy(testPackage);
+            when(subscribed.getSubscriberCount()).thenReturn(3);
+            when(servicePackageRepository.findById(1L)).thenReturn(Optional.of(subscribed));
+            String etag = EntityTags.of(2L, 3);
+
+            Tagged<ServicePackageResponse> result = servicePackageService.getServicePackageIfNoneMatch(1L, etag);
+
+            assertThat(result.isNotModified()).isTrue();
+            assertThat(result.etag()).isEqualTo(etag);
+            verify(subscribed, never()).getSubscribers();
+        }
+
+        @Test
+        @DisplayName("Should get all active service packages with their materialized subscriber counts when active=true")
         void shouldGetAllActiveServicePackages() {
-            List<ServicePackage> packages = List.of(testPackage);
-            when(servicePackageRepository.findAllActiveWithSubscribers()).thenReturn(packages);
-            when(servicePackageMapper.toResponseList(packages)).thenReturn(List.of(testResponse));
+            ServicePackage subscribed = spy(testPackage);
+            when(subscribed.getSubscriberCount()).thenReturn(3);
+            when(servicePackageRepository.findAllByActive(true)).thenReturn(List.of(subscribed));
+            when(servicePackageMapper.toResponseWithSubscriberCount(subscribed, 3)).thenReturn(testResponse);
 
             List<ServicePackageResponse> result = servicePackageService.getAllServicePackages(true);
 
-            assertThat(result).hasSize(1);
-            assertThat(result.getFirst().active()).isTrue();
-            verify(servicePackageRepository).findAllActiveWithSubscribers();
+            assertThat(result).containsExactly(testResponse);
+            verify(servicePackageRepository).findAllByActive(true);
         }
 
         @Test
         @DisplayName("Should get all service packages when active=null")
         void shouldGetAllServicePackagesWhenActiveNull() {
             List<ServicePackage> packages = List.of(testPackage);
-            when(servicePackageRepository.findAllWithSubscribers()).thenReturn(packages);
-            when(servicePackageMapper.toResponseList(packages)).thenReturn(List.of(testResponse));
+            when(servicePackageRepository.findAllByActive(null)).thenReturn(packages);
+            when(servicePackageMapper.toResponseWithSubscriberCount(testPackage, 0)).thenReturn(testResponse);
 
             List<ServicePackageResponse> result = servicePackageService.getAllServicePackages(null);
 
             assertThat(result).hasSize(1);
-            verify(servicePackageRepository).findAllWithSubscribers();
+            verify(servicePackageRepository).findAllByActive(null);
         }
 
         @Test
-        @DisplayName("Should get inactive service packages when active=false")
+        @DisplayName("Should get inactive service packages from the database filter when active=false")
         void shouldGetInactiveServicePackages() {
             ServicePackage inactivePackage = new ServicePackage();
             inactivePackage.setId(2L);
@@ -207,15 +242,14 @@ class ServicePackageServiceTest {
                 false, 0, LocalDateTime.now(), LocalDateTime.now(), "admin", "admin"
             );
 
-            List<ServicePackage> packages = List.of(testPackage, inactivePackage);
-            when(servicePackageRepository.findAllWithSubscribers()).thenReturn(packages);
-            when(servicePackageMapper.toResponseList(List.of(inactivePackage))).thenReturn(List.of(inactiveResponse));
+            when(servicePackageRepository.findAllByActive(false)).thenReturn(List.of(inactivePackage));
+            when(servicePackageMapper.toResponseWithSubscriberCount(inactivePackage, 0)).thenReturn(inactiveResponse);
 
             List<ServicePackageResponse> result = servicePackageService.getAllServicePackages(false);
 
             assertThat(result).hasSize(1);
             assertThat(result.getFirst().active()).isFalse();
-            verify(servicePackageRepository).findAllWithSubscribers();
+            verify(servicePackageRepository).findAllByActive(false);
         }
 
         @Test
@@ -223,8 +257,8 @@ class ServicePackageServiceTest {
         void shouldGetServicePackagesWithPagination() {
             Pageable pageable = PageRequest.of(0, 10);
             Page<ServicePackage> packagePage = new PageImpl<>(List.of(testPackage), pageable, 1);
-            when(servicePackageRepository.findAllActiveWithSubscribers(pageable)).thenReturn(packagePage);
-            when(servicePackageMapper.toResponse(testPackage)).thenReturn(testResponse);
+            when(servicePackageRepository.findAllByActive(true, pageable)).thenReturn(packagePage);
+            when(servicePackageMapper.toResponseWithSubscriberCount(testPackage, 0)).thenReturn(testResponse);
 
             Page<ServicePackageResponse> result = servicePackageService.getServicePackagesWithPagination(true, pageable);
 
@@ -249,6 +283,26 @@ class ServicePackageServiceTest {
             assertThat(result).isNotNull();
             verify(servicePackageMapper).updateEntity(testPackage, testRequest);
             verify(servicePackageRepository).save(testPackage);
+            verify(eventPublisher).publishEvent(new ServicePackageCatalog.Changed(1L));
+        }
+
+        @Test
+        @DisplayName("Should flush a price change before recording the package revenue")
+        void shouldRecordRevenueOfPriceChange() {
+            when(servicePackageRepository.findById(1L)).thenReturn(Optional.of(testPackage));
+            doAnswer(invocation -> {
+                testPackage.setMonthlyPrice(new BigDecimal("39.99"));
+                return null;
+            }).when(servicePackageMapper).updateEntity(testPackage, testRequest);
+            when(servicePackageRepository.saveAndFlush(testPackage)).thenReturn(testPackage);
+            when(servicePackageMapper.toResponseWithoutSubscribers(testPackage)).thenReturn(testResponse);
+
+            servicePackageService.updateServicePackage(1L, testRequest);
+
+            InOrder inOrder = inOrder(servicePackageRepository);
+            inOrder.verify(servicePackageRepository).saveAndFlush(testPackage);
+            inOrder.verify(servicePackageRepository).recordPackageRevenue(1L);
+            verify(servicePackageRepository, never()).save(any(ServicePackage.class));
         }
 
         @Test
@@ -293,47 +347,66 @@ class ServicePackageServiceTest {
         @DisplayName("Should activate service package successfully")
         void shouldActivateServicePackage() {
             testPackage.setActive(false); // Currently inactive
-            when(servicePackageRepository.findByIdWithSubscribers(1L)).thenReturn(Optional.of(testPackage));
-            when(servicePackageRepository.save(any(ServicePackage.class))).thenReturn(testPackage);
-            when(servicePackageMapper.toResponse(testPackage)).thenReturn(testResponse);
+            when(servicePackageRepository.findById(1L)).thenReturn(Optional.of(testPackage));
+            when(servicePackageRepository.saveAndFlush(any(ServicePackage.class))).thenReturn(testPackage);
+            when(servicePackageMapper.toResponseWithSubscriberCount(testPackage, 0)).thenReturn(testResponse);
 
             ServicePackageResponse result = servicePackageService.updateServicePackageStatus(1L, true);
 
             assertThat(result).isNotNull();
-            verify(servicePackageRepository).save(testPackage);
+            verify(servicePackageRepository).saveAndFlush(testPackage);
         }
 
         @Test
         @DisplayName("Should deactivate service package successfully")
         void shouldDeactivateServicePackage() {
             testPackage.setActive(true); // Currently active
-            when(servicePackageRepository.findByIdWithSubscribers(1L)).thenReturn(Optional.of(testPackage));
-            when(servicePackageRepository.save(any(ServicePackage.class))).thenReturn(testPackage);
-            when(servicePackageMapper.toResponse(testPackage)).thenReturn(testResponse);
+            when(servicePackageRepository.findById(1L)).thenReturn(Optional.of(testPackage));
+            when(servicePackageRepository.saveAndFlush(any(ServicePackage.class))).thenReturn(testPackage);
+            when(servicePackageMapper.toResponseWithSubscriberCount(testPackage, 0)).thenReturn(testResponse);
 
             ServicePackageResponse result = servicePackageService.updateServicePackageStatus(1L, false);
 
             assertThat(result).isNotNull();
-            verify(servicePackageRepository).save(testPackage);
+            verify(servicePackageRepository).saveAndFlush(testPackage);
+            verify(servicePackageRepository).recordPackageRevenue(1L);
+            verify(eventPublisher).publishEvent(new ServicePackageCatalog.Changed(1L));
+        }
+
+        @Test
+        @DisplayName("Should flush the activation before recording the revenue of the subscribers")
+        void shouldRecordRevenueWhenActivated() {
+            testPackage.setActive(false);
+            when(servicePackageRepository.findById(1L)).thenReturn(Optional.of(testPackage));
+            when(servicePackageRepository.saveAndFlush(testPackage)).thenReturn(testPackage);
+            when(servicePackageMapper.toResponseWithSubscriberCount(testPackage, 0)).thenReturn(testResponse);
+
+            servicePackageService.updateServicePackageStatus(1L, true);
+
+            InOrder inOrder = inOrder(servicePackageRepository);
+            inOrder.verify(servicePackageRepository).saveAndFlush(testPackage);
+            inOrder.verify(servicePackageRepository).recordPackageRevenue(1L);
+            verify(servicePackageRepository).recordPackageStatus(eq(1L), eq(true), any(LocalDateTime.class));
         }
 
         @Test
         @DisplayName("Should not update when status is already the same")
         void shouldNotUpdateWhenStatusSame() {
             testPackage.setActive(true); // Already active
-            when(servicePackageRepository.findByIdWithSubscribers(1L)).thenReturn(Optional.of(testPackage));
-            when(servicePackageMapper.toResponse(testPackage)).thenReturn(testResponse);
+            when(servicePackageRepository.findById(1L)).thenReturn(Optional.of(testPackage));
+            when(servicePackageMapper.toResponseWithSubscriberCount(testPackage, 0)).thenReturn(testResponse);
 
             ServicePackageResponse result = servicePackageService.updateServicePackageStatus(1L, true);
 
             assertThat(result).isNotNull();
-            verify(servicePackageRepository, never()).save(any(ServicePackage.class));
+            verify(servicePackageRepository, never()).saveAndFlush(any(ServicePackage.class));
+            verify(eventPublisher, never()).publishEvent(any(Object.class));
         }
 
         @Test
         @DisplayName("Should throw exception when service package not found for status update")
         void shouldThrowExceptionWhenServicePackageNotFoundForStatusUpdate() {
-            when(servicePackageRepository.findByIdWithSubscribers(1L)).thenReturn(Optional.empty());
+            when(servicePackageRepository.findById(1L)).thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> servicePackageService.updateServicePackageStatus(1L, true))
                 .isInstanceOf(ServicePackageNotFoundException.class);
@@ -345,33 +418,34 @@ class ServicePackageServiceTest {
     class SubscriptionManagementTests {
 
         @Test
-        @DisplayName("Should subscribe customer to package successfully")
+        @DisplayName("Should subscribe customer to package with a single join row insert")
         void shouldSubscribeCustomerToPackage() {
-            when(customerRepository.findByIdWithSubscriptions(1L)).thenReturn(Optional.of(testCustomer));
-            when(servicePackageRepository.findByIdWithSubscribers(1L)).thenReturn(Optional.of(testPackage));
-            when(customerRepository.save(any(Customer.class))).thenReturn(testCustomer);
+            when(servicePackageRepository.insertSubscription(1L, 1L)).thenReturn(1);
 
             servicePackageService.subscribeCustomerToPackage(1L, 1L);
 
-            verify(customerRepository).save(testCustomer);
+            verify(servicePackageRepository).adjustSubscriberCount(1L, 1);
+            verify(servicePackageRepository).recordPackageRevenue(1L);
+            verify(servicePackageRepository).recordSubscribed(eq(1L), eq(List.of(1L)), any(LocalDateTime.class));
+            verify(customerRepository, never()).existsById(anyLong());
         }
 
         @Test
         @DisplayName("Should throw exception when customer not found for subscription")
         void shouldThrowExceptionWhenCustomerNotFoundForSubscription() {
-            when(customerRepository.findByIdWithSubscriptions(1L)).thenReturn(Optional.empty());
+            when(customerRepository.existsById(1L)).thenReturn(false);
 
             assertThatThrownBy(() -> servicePackageService.subscribeCustomerToPackage(1L, 1L))
                 .isInstanceOf(CustomerNotFoundException.class);
 
-            verify(servicePackageRepository, never()).findByIdWithSubscribers(anyLong());
+            verify(servicePackageRepository, never()).existsById(anyLong());
         }
 
         @Test
         @DisplayName("Should throw exception when service package not found for subscription")
         void shouldThrowExceptionWhenServicePackageNotFoundForSubscription() {
-            when(customerRepository.findByIdWithSubscriptions(1L)).thenReturn(Optional.of(testCustomer));
-            when(servicePackageRepository.findByIdWithSubscribers(1L)).thenReturn(Optional.empty());
+            when(customerRepository.existsById(1L)).thenReturn(true);
+            when(servicePackageRepository.existsById(1L)).thenReturn(false);
 
             assertThatThrownBy(() -> servicePackageService.subscribeCustomerToPackage(1L, 1L))
                 .isInstanceOf(ServicePackageNotFoundException.class);
@@ -380,50 +454,50 @@ class ServicePackageServiceTest {
         @Test
         @DisplayName("Should throw exception when customer already subscribed")
         void shouldThrowExceptionWhenCustomerAlreadySubscribed() {
-            testCustomer.getSubscribedPackages().add(testPackage);
-            when(customerRepository.findByIdWithSubscriptions(1L)).thenReturn(Optional.of(testCustomer));
-            when(servicePackageRepository.findByIdWithSubscribers(1L)).thenReturn(Optional.of(testPackage));
+            when(customerRepository.existsById(1L)).thenReturn(true);
+            when(servicePackageRepository.existsById(1L)).thenReturn(true);
 
             assertThatThrownBy(() -> servicePackageService.subscribeCustomerToPackage(1L, 1L))
                 .isInstanceOf(BadRequestException.class)
                 .hasMessageContaining("Customer is already subscribed");
 
-            verify(customerRepository, never()).save(any(Customer.class));
+            verify(servicePackageRepository, never()).adjustSubscriberCount(anyLong(), anyInt());
+            verify(servicePackageRepository, never()).recordPackageRevenue(anyLong());
+            verify(servicePackageRepository, never()).recordSubscribed(anyLong(), anyList(), any(LocalDateTime.class));
         }
 
         @Test
-        @DisplayName("Should unsubscribe customer from package successfully")
+        @DisplayName("Should unsubscribe customer from package with a single join row delete")
         void shouldUnsubscribeCustomerFromPackage() {
-            testCustomer.getSubscribedPackages().add(testPackage);
-            testPackage.getSubscribers().add(testCustomer);
-            when(customerRepository.findByIdWithSubscriptions(1L)).thenReturn(Optional.of(testCustomer));
-            when(servicePackageRepository.findByIdWithSubscribers(1L)).thenReturn(Optional.of(testPackage));
-            when(customerRepository.save(any(Customer.class))).thenReturn(testCustomer);
+            when(servicePackageRepository.deleteSubscription(1L, 1L)).thenReturn(1);
 
             servicePackageService.unsubscribeCustomerFromPackage(1L, 1L);
 
-            verify(customerRepository).save(testCustomer);
+            verify(servicePackageRepository).adjustSubscriberCount(1L, -1);
+            verify(servicePackageRepository).recordPackageRevenue(1L);
+            verify(servicePackageRepository).recordUnsubscribed(eq(1L), eq(List.of(1L)), any(LocalDateTime.class));
+            verify(customerRepository, never()).existsById(anyLong());
         }
 
         @Test
         @DisplayName("Should throw exception when customer not subscribed for unsubscription")
         void shouldThrowExceptionWhenCustomerNotSubscribed() {
-            when(customerRepository.findByIdWithSubscriptions(1L)).thenReturn(Optional.of(testCustomer));
-            when(servicePackageRepository.findByIdWithSubscribers(1L)).thenReturn(Optional.of(testPackage));
+            when(customerRepository.existsById(1L)).thenReturn(true);
+            when(servicePackageRepository.existsById(1L)).thenReturn(true);
 
             assertThatThrownBy(() -> servicePackageService.unsubscribeCustomerFromPackage(1L, 1L))
                 .isInstanceOf(BadRequestException.class)
                 .hasMessageContaining("Customer is not subscribed");
 
-            verify(customerRepository, never()).save(any(Customer.class));
+            verify(servicePackageRepository, never()).adjustSubscriberCount(anyLong(), anyInt());
         }
 
         @Test
-        @DisplayName("Should get service package subscribers successfully")
+        @DisplayName("Should get service package subscribers from the projection query")
         void shouldGetServicePackageSubscribers() {
-            Set<Customer> subscribers = Set.of(testCustomer);
-            testPackage.setSubscribers(subscribers);
-            when(servicePackageRepository.findByIdWithSubscribers(1L)).thenReturn(Optional.of(testPackage));
+            when(servicePackageRepository.existsById(1L)).thenReturn(true);
+            when(servicePackageRepository.streamSubscribers(1L))
+                .thenReturn(Stream.of(SubscriberDto.of(1L, "John", "Doe", testCustomer.getEmail())));
 
             SubscribersResponse result = servicePackageService.getServicePackageSubscribers(1L);
 
@@ -436,10 +510,39 @@ class ServicePackageServiceTest {
         @Test
         @DisplayName("Should throw exception when service package not found for subscribers")
         void shouldThrowExceptionWhenServicePackageNotFoundForSubscribers() {
-            when(servicePackageRepository.findByIdWithSubscribers(1L)).thenReturn(Optional.empty());
+            when(servicePackageRepository.existsById(1L)).thenReturn(false);
 
             assertThatThrownBy(() -> servicePackageService.getServicePackageSubscribers(1L))
                 .isInstanceOf(ServicePackageNotFoundException.class);
         }
+
+        @Test
+        @DisplayName("Should page subscribers by customer ID with a next cursor")
+        void shouldPageSubscribersWithCursor() {
+            when(servicePackageRepository.existsById(1L)).thenReturn(true);
+            when(servicePackageRepository.findSubscribersAfter(1L, 0L, 3)).thenReturn(List.of(
+                SubscriberDto.of(4L, "A", "One", "a@example.com"),
+                SubscriberDto.of(7L, "B", "Two", "b@example.com"),
+                SubscriberDto.of(9L, "C", "Three", "c@example.com")));
+
+            CursorPage<SubscriberDto> page = servicePackageService.getServicePackageSubscribersWithCursor(1L, null, 2);
+
+            assertThat(page.content()).extracting(SubscriberDto::id).containsExactly(4L, 7L);
+            assertThat(page.hasNext()).isTrue();
+            assertThat(KeysetCursor.decode(page.nextCursor()).id()).isEqualTo(7L);
+        }
+
+        @Test
+        @DisplayName("Should stream subscribers to the consumer")
+        void shouldStreamSubscribers() {
+            List<SubscriberDto> subscribers = List.of(SubscriberDto.of(4L, "A", "One", "a@example.com"),
+                SubscriberDto.of(7L, "B", "Two", "b@example.com"));
+            when(servicePackageRepository.streamSubscribers(1L)).thenReturn(subscribers.stream());
+            List<SubscriberDto> received = new ArrayList<>();
+
+            servicePackageService.streamServicePackageSubscribers(1L, received::add);
+
+            assertThat(received).isEqualTo(subscribers);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.interview.service;
+
+import com.interview.repository.ServicePackageRepository;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SubscriberCountReconciler Unit Tests")
+class SubscriberCountReconcilerTest {
+
+    private static final Limit CHUNK = Limit.of(SubscriberCountReconciler.CHUNK_SIZE);
+
+    @Mock
+    private ServicePackageRepository servicePackageRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SubscriberCountReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        reconciler = new SubscriberCountReconciler(servicePackageRepository, new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    @DisplayName("Should recount packages chunk by chunk, each in its own transaction")
+    void shouldReconcileInChunks() {
+        List<Long> firstChunk = LongStream.rangeClosed(1, SubscriberCountReconciler.CHUNK_SIZE).boxed().toList();
+        List<Long> lastChunk = List.of(501L, 502L);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(servicePackageRepository.findIdsAfter(0L, CHUNK)).thenReturn(firstChunk);
+        when(servicePackageRepository.findIdsAfter(500L, CHUNK)).thenReturn(lastChunk);
+        when(servicePackageRepository.findIdsWithStaleSubscriberCount(firstChunk)).thenReturn(List.of(7L, 9L));
+        when(servicePackageRepository.findIdsWithStaleSubscriberCount(lastChunk)).thenReturn(List.of(502L));
+        when(servicePackageRepository.reconcileSubscriberCounts(List.of(7L, 9L))).thenReturn(2);
+        when(servicePackageRepository.reconcileSubscriberCounts(List.of(502L))).thenReturn(1);
+
+        int corrected = reconciler.reconcile();
+
+        assertThat(corrected).isEqualTo(3);
+        verify(transactionManager, times(2)).commit(any());
+        verify(servicePackageRepository, never()).findIdsAfter(502L, CHUNK);
+        verify(servicePackageRepository).recordPackageRevenue(7L);
+        verify(servicePackageRepository).recordPackageRevenue(9L);
+        verify(servicePackageRepository).recordPackageRevenue(502L);
+    }
+
+    @Test
+    @DisplayName("Should write nothing for a chunk without drifted counts")
+    void shouldSkipConsistentChunk() {
+        List<Long> chunk = List.of(1L, 2L);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(servicePackageRepository.findIdsAfter(0L, CHUNK)).thenReturn(chunk);
+        when(servicePackageRepository.findIdsWithStaleSubscriberCount(chunk)).thenReturn(List.of());
+
+        assertThat(reconciler.reconcile()).isZero();
+        verify(servicePackageRepository, never()).reconcileSubscriberCounts(any());
+        verify(servicePackageRepository, never()).recordPackageRevenue(any());
+    }
+
+    @Test
+    @DisplayName("Should do nothing without service packages")
+    void shouldDoNothingWithoutPackages() {
+        when(servicePackageRepository.findIdsAfter(0L, CHUNK)).thenReturn(List.of());
+
+        assertThat(reconciler.reconcile()).isZero();
+        verify(servicePackageRepository, never()).reconcileSubscriberCounts(any());
+    }
+}
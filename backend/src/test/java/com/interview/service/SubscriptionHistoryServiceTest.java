@@ -0,0 +1,115 @@
+package com.interview.service;
+
+import com.interview.dto.MonthlyChurn;
+import com.interview.dto.SubscriptionMembership;
+import com.interview.dto.projection.MonthlySubscriptionEvents;
+import com.interview.exception.BadRequestException;
+import com.interview.exception.ServicePackageNotFoundException;
+import com.interview.repository.ServicePackageRepository;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SubscriptionHistoryService Unit Tests")
+class SubscriptionHistoryServiceTest {
+
+    @Mock
+    private ServicePackageRepository servicePackageRepository;
+
+    @InjectMocks
+    private SubscriptionHistoryService subscriptionHistoryService;
+
+    @Nested
+    @DisplayName("Point-in-time Membership Tests")
+    class MembershipTests {
+
+        private final Instant march = Instant.parse("2026-03-01T00:00:00Z");
+        private final LocalDateTime marchUtc = LocalDateTime.ofInstant(march, ZoneOffset.UTC);
+
+        @Test
+        @DisplayName("Should page the subscribers at a moment by customer ID")
+        void shouldPageSubscribersAt() {
+            when(servicePackageRepository.existsById(1L)).thenReturn(true);
+            when(servicePackageRepository.findSubscriberIdsAt(1L, marchUtc, 0L, 3)).thenReturn(List.of(4L, 7L, 9L));
+            when(servicePackageRepository.wasPackageActiveAt(1L, marchUtc)).thenReturn(false);
+
+            SubscriptionMembership membership = subscriptionHistoryService.getSubscribersAt(1L, march, null, 2);
+
+            assertThat(membership.packageActive()).isFalse();
+            assertThat(membership.customerIds().content()).containsExactly(4L, 7L);
+            assertThat(membership.customerIds().hasNext()).isTrue();
+
+            when(servicePackageRepository.findSubscriberIdsAt(1L, marchUtc, 7L, 3)).thenReturn(List.of(9L));
+            SubscriptionMembership next = subscriptionHistoryService.getSubscribersAt(1L, march, membership.customerIds().nextCursor(), 2);
+            assertThat(next.customerIds().content()).containsExactly(9L);
+        }
+
+        @Test
+        @DisplayName("Should reject a missing or future moment")
+        void shouldRejectFutureMoment() {
+            assertThatThrownBy(() -> subscriptionHistoryService.getSubscribersAt(1L, null, null, null))
+                .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> subscriptionHistoryService.getSubscribersAt(1L, Instant.now().plusSeconds(60), null, null))
+                .isInstanceOf(BadRequestException.class);
+        }
+
+        @Test
+        @DisplayName("Should throw when the package does not exist")
+        void shouldThrowWhenPackageNotFound() {
+            when(servicePackageRepository.existsById(99L)).thenReturn(false);
+
+            assertThatThrownBy(() -> subscriptionHistoryService.getSubscribersAt(99L, march, null, null))
+                .isInstanceOf(ServicePackageNotFoundException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Churn Tests")
+    class ChurnTests {
+
+        @Test
+        @DisplayName("Should carry running subscriptions through the months and rate churn against the month's start")
+        void shouldComputeChurn() {
+            YearMonth january = YearMonth.of(2026, 1);
+            YearMonth march = YearMonth.of(2026, 3);
+            when(servicePackageRepository.countSubscriptionsBefore(january.atDay(1).atStartOfDay())).thenReturn(8L);
+            when(servicePackageRepository.countSubscriptionEventsByMonth(january, march)).thenReturn(List.of(
+                new MonthlySubscriptionEvents(january, 4L, 3L, 2L),
+                new MonthlySubscriptionEvents(march, 0L, 3L, 3L)));
+
+            List<MonthlyChurn> churn = subscriptionHistoryService.getChurn(january, march);
+
+            assertThat(churn).containsExactly(
+                new MonthlyChurn(january, 8L, 4L, 3L, 9L, new BigDecimal("0.2500"), new BigDecimal("0.7500")),
+                new MonthlyChurn(january.plusMonths(1), 9L, 0L, 0L, 9L, new BigDecimal("0.0000"), new BigDecimal("1.0000")),
+                new MonthlyChurn(march, 9L, 0L, 3L, 6L, new BigDecimal("0.3333"), new BigDecimal("0.6667")));
+        }
+
+        @Test
+        @DisplayName("Should leave the rates empty for a month that started without subscriptions")
+        void shouldLeaveRatesEmptyWithoutSubscriptions() {
+            YearMonth month = YearMonth.of(2026, 1);
+            when(servicePackageRepository.countSubscriptionsBefore(month.atDay(1).atStartOfDay())).thenReturn(0L);
+            when(servicePackageRepository.countSubscriptionEventsByMonth(month, month)).thenReturn(List.of(
+                new MonthlySubscriptionEvents(month, 2L, 1L, 0L)));
+
+            assertThat(subscriptionHistoryService.getChurn(month, month))
+                .containsExactly(new MonthlyChurn(month, 0L, 2L, 1L, 1L, null, null));
+        }
+    }
+}
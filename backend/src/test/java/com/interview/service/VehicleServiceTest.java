@@ -11,7 +11,6 @@ import com.interview.exception.VehicleNotFoundException;
 import com.interview.mapper.VehicleMapper;
 import com.interview.repository.CustomerRepository;
 import com.interview.repository.VehicleRepository;
-import com.interview.specification.VehicleSpecs;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -19,13 +18,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -35,7 +32,6 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -53,6 +49,9 @@ class VehicleServiceTest {
     @Mock
     private VehicleMapper vehicleMapper;
 
+    @Mock
+    private VehicleSuggestionService vehicleSuggestionService;
+
     @InjectMocks
     private VehicleService vehicleService;
 
@@ -127,6 +126,7 @@ class VehicleServiceTest {
             verify(vehicleRepository).existsByVin(testRequest.vin());
             verify(customerRepository).existsById(testRequest.customerId());
             verify(vehicleRepository).save(any(Vehicle.class));
+            verify(vehicleSuggestionService).recordChange(null, null, "Honda", "Accord");
         }
 
         @Test
@@ -163,20 +163,20 @@ class VehicleServiceTest {
         @Test
         @DisplayName("Should get vehicle by ID successfully")
         void shouldGetVehicleById() {
-            when(vehicleRepository.findByIdWithCustomer(1L)).thenReturn(Optional.of(testVehicle));
+            when(vehicleRepository.findById(1L)).thenReturn(Optional.of(testVehicle));
             when(vehicleMapper.toResponse(testVehicle)).thenReturn(testResponse);
 
             VehicleResponse result = vehicleService.getVehicleById(1L);
 
             assertThat(result).isNotNull();
             assertThat(result.id()).isEqualTo(1L);
-            verify(vehicleRepository).findByIdWithCustomer(1L);
+            verify(vehicleRepository).findById(1L);
         }
 
         @Test
         @DisplayName("Should throw exception when vehicle not found")
         void shouldThrowExceptionWhenVehicleNotFound() {
-            when(vehicleRepository.findByIdWithCustomer(1L)).thenReturn(Optional.empty());
+            when(vehicleRepository.findById(1L)).thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> vehicleService.getVehicleById(1L))
                 .isInstanceOf(VehicleNotFoundException.class)
@@ -218,20 +218,16 @@ class VehicleServiceTest {
                 .make("Honda")
                 .build();
             Pageable pageable = PageRequest.of(0, 10);
-            Specification<Vehicle> mockSpec = (root, query, criteriaBuilder) -> criteriaBuilder.conjunction();
             Page<Vehicle> vehiclePage = new PageImpl<>(List.of(testVehicle), pageable, 1);
 
-            try (MockedStatic<VehicleSpecs> mockedSpecs = mockStatic(VehicleSpecs.class)) {
-                mockedSpecs.when(() -> VehicleSpecs.getVehiclesByFilters(filter)).thenReturn(mockSpec);
-                when(vehicleRepository.findAll(mockSpec, pageable)).thenReturn(vehiclePage);
-                when(vehicleMapper.toResponse(testVehicle)).thenReturn(testResponse);
+            when(vehicleRepository.search(filter, pageable)).thenReturn(vehiclePage);
+            when(vehicleMapper.toResponse(testVehicle)).thenReturn(testResponse);
 
-                Page<VehicleResponse> result = vehicleService.searchVehicles(filter, pageable);
+            Page<VehicleResponse> result = vehicleService.searchVehicles(filter, pageable);
 
-                assertThat(result.getContent()).hasSize(1);
-                assertThat(result.getTotalElements()).isEqualTo(1);
-                mockedSpecs.verify(() -> VehicleSpecs.getVehiclesByFilters(filter));
-            }
+            assertThat(result.getContent()).hasSize(1);
+            assertThat(result.getTotalElements()).isEqualTo(1);
+            verify(vehicleRepository).search(filter, pageable);
         }
     }
 
@@ -242,7 +238,7 @@ class VehicleServiceTest {
         @Test
         @DisplayName("Should update vehicle successfully")
         void shouldUpdateVehicleSuccessfully() {
-            when(vehicleRepository.findByIdWithCustomer(1L)).thenReturn(Optional.of(testVehicle));
+            when(vehicleRepository.findById(1L)).thenReturn(Optional.of(testVehicle));
             when(vehicleRepository.save(any(Vehicle.class))).thenReturn(testVehicle);
             when(vehicleMapper.toResponse(testVehicle)).thenReturn(testResponse);
 
@@ -251,12 +247,13 @@ class VehicleServiceTest {
             assertThat(result).isNotNull();
             verify(vehicleMapper).updateEntity(testVehicle, testRequest);
             verify(vehicleRepository).save(testVehicle);
+            verify(vehicleSuggestionService).recordChange("Honda", "Accord", "Honda", "Accord");
         }
 
         @Test
         @DisplayName("Should throw exception when vehicle not found for update")
         void shouldThrowExceptionWhenVehicleNotFoundForUpdate() {
-            when(vehicleRepository.findByIdWithCustomer(1L)).thenReturn(Optional.empty());
+            when(vehicleRepository.findById(1L)).thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> vehicleService.updateVehicle(1L, testRequest))
                 .isInstanceOf(VehicleNotFoundException.class);
@@ -266,7 +263,7 @@ class VehicleServiceTest {
         @DisplayName("Should throw exception when new VIN already exists")
         void shouldThrowExceptionWhenNewVinExists() {
             testVehicle.setVin("DIFFERENT_VIN"); // Current VIN is different
-            when(vehicleRepository.findByIdWithCustomer(1L)).thenReturn(Optional.of(testVehicle));
+            when(vehicleRepository.findById(1L)).thenReturn(Optional.of(testVehicle));
             when(vehicleRepository.existsByVin(testRequest.vin())).thenReturn(true);
 
             assertThatThrownBy(() -> vehicleService.updateVehicle(1L, testRequest))
@@ -278,7 +275,7 @@ class VehicleServiceTest {
         @DisplayName("Should throw exception when new customer not found")
         void shouldThrowExceptionWhenNewCustomerNotFound() {
             testVehicle.getCustomer().setId(2L); // Different customer ID
-            when(vehicleRepository.findByIdWithCustomer(1L)).thenReturn(Optional.of(testVehicle));
+            when(vehicleRepository.findById(1L)).thenReturn(Optional.of(testVehicle));
             when(customerRepository.existsById(testRequest.customerId())).thenReturn(false);
 
             assertThatThrownBy(() -> vehicleService.updateVehicle(1L, testRequest))
@@ -289,7 +286,7 @@ class VehicleServiceTest {
         @Test
         @DisplayName("Should not check customer existence when customer ID unchanged")
         void shouldNotCheckCustomerWhenUnchanged() {
-            when(vehicleRepository.findByIdWithCustomer(1L)).thenReturn(Optional.of(testVehicle));
+            when(vehicleRepository.findById(1L)).thenReturn(Optional.of(testVehicle));
             when(vehicleRepository.save(any(Vehicle.class))).thenReturn(testVehicle);
             when(vehicleMapper.toResponse(testVehicle)).thenReturn(testResponse);
 
@@ -306,17 +303,18 @@ class VehicleServiceTest {
         @Test
         @DisplayName("Should delete vehicle successfully")
         void shouldDeleteVehicleSuccessfully() {
-            when(vehicleRepository.deleteByVehicleId(1L)).thenReturn(1);
+            when(vehicleRepository.findById(1L)).thenReturn(Optional.of(testVehicle));
 
             vehicleService.deleteVehicle(1L);
 
-            verify(vehicleRepository).deleteByVehicleId(1L);
+            verify(vehicleRepository).delete(testVehicle);
+            verify(vehicleSuggestionService).recordChange("Honda", "Accord", null, null);
         }
 
         @Test
         @DisplayName("Should throw exception when vehicle not found for deletion")
         void shouldThrowExceptionWhenVehicleNotFoundForDeletion() {
-            when(vehicleRepository.deleteByVehicleId(1L)).thenReturn(0);
+            when(vehicleRepository.findById(1L)).thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> vehicleService.deleteVehicle(1L))
                 .isInstanceOf(VehicleNotFoundException.class)
@@ -0,0 +1,109 @@
+package com.interview.service;
+
+import com.interview.dto.Suggestion;
+import com.interview.dto.projection.VehicleFacetCount;
+import com.interview.exception.BadRequestException;
+import com.interview.repository.VehicleRepository;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("VehicleSuggestionService Unit Tests")
+class VehicleSuggestionServiceTest {
+
+    @Mock
+    private VehicleRepository vehicleRepository;
+
+    @InjectMocks
+    private VehicleSuggestionService vehicleSuggestionService;
+
+    @BeforeEach
+    void setUp() {
+        when(vehicleRepository.countFacets(null)).thenReturn(List.of(
+            new VehicleFacetCount("Honda", "Accord", 2020, 3L),
+            new VehicleFacetCount("Honda", "Civic", 2018, 2L),
+            new VehicleFacetCount("Toyota", "Camry", 2021, 4L)));
+        vehicleSuggestionService.rebuild();
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Nested
+    @DisplayName("Suggest Tests")
+    class SuggestTests {
+
+        @Test
+        @DisplayName("Should sum counts across rows of the same make")
+        void shouldSumCountsPerValue() {
+            assertThat(vehicleSuggestionService.suggest("make", "", 10))
+                .containsExactly(new Suggestion("Honda", 5), new Suggestion("Toyota", 4));
+        }
+
+        @Test
+        @DisplayName("Should reject unknown fields and out of range limits")
+        void shouldRejectInvalidArguments() {
+            assertThatThrownBy(() -> vehicleSuggestionService.suggest("vin", "1", 10))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("vin");
+            assertThatThrownBy(() -> vehicleSuggestionService.suggest("model", "C", VehicleSuggestionService.MAX_LIMIT + 1))
+                .isInstanceOf(BadRequestException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Record Change Tests")
+    class RecordChangeTests {
+
+        @Test
+        @DisplayName("Should apply changes immediately outside a transaction")
+        void shouldApplyImmediatelyWithoutTransaction() {
+            vehicleSuggestionService.recordChange("Honda", "Civic", "Honda", "Clarity");
+
+            assertThat(vehicleSuggestionService.suggest("model", "c", 10))
+                .containsExactly(new Suggestion("Camry", 4), new Suggestion("Civic", 1), new Suggestion("Clarity", 1));
+        }
+
+        @Test
+        @DisplayName("Should apply changes only once the transaction commits")
+        void shouldApplyAfterCommit() {
+            TransactionSynchronizationManager.initSynchronization();
+
+            vehicleSuggestionService.recordChange(null, null, "Mazda", "CX-5");
+
+            assertThat(vehicleSuggestionService.suggest("make", "ma", 10)).isEmpty();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            assertThat(vehicleSuggestionService.suggest("make", "ma", 10)).containsExactly(new Suggestion("Mazda", 1));
+        }
+
+        @Test
+        @DisplayName("Should drop values whose last vehicle is removed")
+        void shouldDropRemovedValues() {
+            vehicleSuggestionService.recordChange("Honda", "Civic", null, null);
+            vehicleSuggestionService.recordChange("Honda", "Civic", null, null);
+
+            assertThat(vehicleSuggestionService.suggest("model", "ci", 10)).isEmpty();
+            assertThat(vehicleSuggestionService.suggest("make", "h", 10)).containsExactly(new Suggestion("Honda", 3));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.interview.service.auth;
+
+import com.interview.enums.Role;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import java.time.Instant;
+import java.util.Date;
+import javax.crypto.SecretKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("JwtService Unit Tests")
+class JwtServiceTest {
+
+    private static final String SECRET = "test-secret-key-123456789012345678901234567890";
+    private static final long ONE_HOUR = 3_600_000L;
+
+    private final JwtService jwtService = new JwtService(SECRET, ONE_HOUR, 100);
+
+    @Nested
+    @DisplayName("Verify Tests")
+    class VerifyTests {
+
+        @Test
+        @DisplayName("Should read subject, role and expiry of a token it issued")
+        void shouldVerifyIssuedToken() {
+            String token = jwtService.generateToken("admin", Role.ADMIN);
+
+            JwtService.VerifiedToken verified = jwtService.verify(token);
+
+            assertThat(verified.tokenId()).isNotBlank();
+            assertThat(verified.username()).isEqualTo("admin");
+            assertThat(verified.role()).isEqualTo(Role.ADMIN);
+            assertThat(verified.expiresAt()).isAfter(Instant.now());
+            assertThat(jwtService.verify(token)).isSameAs(verified);
+            assertThat(jwtService.validateToken(token, "admin")).isTrue();
+            assertThat(jwtService.validateToken(token, "user")).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should reject a token whose signature does not match")
+        void shouldRejectTamperedToken() {
+            String token = jwtService.generateToken("user", Role.USER);
+            String foreign = new JwtService("another-secret-key-12345678901234567890123456", ONE_HOUR, 100).generateToken("user", Role.USER);
+            String tampered = token.substring(0, token.lastIndexOf('.')) + foreign.substring(foreign.lastIndexOf('.'));
+
+            assertThatThrownBy(() -> jwtService.verify(foreign)).isInstanceOf(JwtException.class);
+            assertThatThrownBy(() -> jwtService.verify(tampered)).isInstanceOf(JwtException.class);
+            assertThat(jwtService.validateToken(foreign, "user")).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should reject an expired token")
+        void shouldRejectExpiredToken() {
+            String expired = new JwtService(SECRET, -1_000L, 100).generateToken("user", Role.USER);
+
+            assertThatThrownBy(() -> jwtService.verify(expired)).isInstanceOf(ExpiredJwtException.class);
+        }
+
+        @Test
+        @DisplayName("Should reject a correctly signed token without a known role")
+        void shouldRejectTokenWithoutKnownRole() {
+            SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes());
+            Date expiry = new Date(System.currentTimeMillis() + ONE_HOUR);
+            String noRole = Jwts.builder().subject("user").expiration(expiry).signWith(key).compact();
+            String unknownRole = Jwts.builder().subject("user").claim("role", "ROOT").expiration(expiry).signWith(key).compact();
+
+            assertThatThrownBy(() -> jwtService.verify(noRole)).isInstanceOf(JwtException.class).hasMessageContaining("role");
+            assertThatThrownBy(() -> jwtService.verify(unknownRole)).isInstanceOf(JwtException.class).hasMessageContaining("role");
+            assertThat(jwtService.validateToken(noRole, "user")).isFalse();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.interview.service.auth;
+
+import com.interview.exception.ServiceUnavailableException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("PasswordVerifier Unit Tests")
+class PasswordVerifierTest {
+
+    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+
+    @Test
+    @DisplayName("Should match only the password the hash was made from")
+    void shouldMatchHash() {
+        PasswordVerifier verifier = new PasswordVerifier(encoder, 2, 8);
+        String hash = encoder.encode("admin123");
+
+        assertThat(verifier.matches("admin123", hash).join()).isTrue();
+        assertThat(verifier.matches("admin124", hash).join()).isFalse();
+        assertThat(verifier.matches("admin123", null).join()).isFalse();
+        verifier.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should refuse a check at once when every thread is busy and the queue is full")
+    void shouldRejectWhenSaturated() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordVerifier verifier = new PasswordVerifier(new BlockingEncoder(started, release), 1, 0);
+
+        CompletableFuture<Boolean> running = verifier.matches("user123", "hash");
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> verifier.matches("user123", "hash"))
+            .isInstanceOf(ServiceUnavailableException.class);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        verifier.shutdown();
+    }
+
+    /**
+     * Encoder whose checks block until released, to hold the pool's only thread.
+     */
+    private record BlockingEncoder(CountDownLatch started, CountDownLatch release) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return "hash";
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            started.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+}
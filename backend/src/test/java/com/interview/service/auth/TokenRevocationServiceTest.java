@@ -0,0 +1,86 @@
+package com.interview.service.auth;
+
+import com.interview.entity.RevokedToken;
+import com.interview.repository.RevokedTokenRepository;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenRevocationService Unit Tests")
+class TokenRevocationServiceTest {
+
+    private static final LocalDateTime EXPIRES_AT = LocalDateTime.now(ZoneOffset.UTC).plusHours(1);
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        when(revokedTokenRepository.findUnexpiredTokenIds(any())).thenReturn(List.of("revoked-at-startup"));
+        tokenRevocationService = new TokenRevocationService(revokedTokenRepository, new TransactionTemplate(transactionManager), 1000, 0.001);
+    }
+
+    @Test
+    @DisplayName("Should answer for tokens never revoked without querying the table")
+    void shouldSkipQueryForUnrevokedTokens() {
+        assertThat(tokenRevocationService.isRevoked("never-revoked")).isFalse();
+        assertThat(tokenRevocationService.isRevoked(null)).isFalse();
+        verify(revokedTokenRepository, never()).existsById(anyString());
+    }
+
+    @Test
+    @DisplayName("Should confirm filter hits against the table")
+    void shouldConfirmFilterHits() {
+        when(revokedTokenRepository.existsById("revoked-at-startup")).thenReturn(true);
+
+        assertThat(tokenRevocationService.isRevoked("revoked-at-startup")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should store a revocation once and report the token as revoked")
+    void shouldRevoke() {
+        when(revokedTokenRepository.existsById("jti-1")).thenReturn(false, true);
+
+        tokenRevocationService.revoke("jti-1", "user", EXPIRES_AT);
+
+        ArgumentCaptor<RevokedToken> saved = ArgumentCaptor.forClass(RevokedToken.class);
+        verify(revokedTokenRepository).save(saved.capture());
+        assertThat(saved.getValue().getTokenId()).isEqualTo("jti-1");
+        assertThat(saved.getValue().getUsername()).isEqualTo("user");
+        assertThat(saved.getValue().getExpiresAt()).isEqualTo(EXPIRES_AT);
+        assertThat(tokenRevocationService.isRevoked("jti-1")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should prune expired revocations and rebuild the filter from the rest")
+    void shouldRefresh() {
+        when(revokedTokenRepository.deleteExpired(any())).thenReturn(3);
+        when(revokedTokenRepository.findUnexpiredTokenIds(any())).thenReturn(List.of());
+
+        assertThat(tokenRevocationService.refresh()).isEqualTo(3);
+
+        assertThat(tokenRevocationService.isRevoked("revoked-at-startup")).isFalse();
+        verify(revokedTokenRepository, never()).existsById(anyString());
+    }
+}
@@ -0,0 +1,68 @@
+package com.interview.util;
+
+import com.interview.dto.BatchResult;
+import com.interview.exception.BadRequestException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("BatchLookup Unit Tests")
+class BatchLookupTest {
+
+    private final List<List<Long>> queriedChunks = new ArrayList<>();
+
+    /**
+     * Fake loader that returns only even ids, in reverse order, like a database free to pick any order.
+     */
+    private List<Long> loadEvenIds(List<Long> chunk) {
+        queriedChunks.add(List.copyOf(chunk));
+        return chunk.stream().filter(id -> id % 2 == 0).sorted((a, b) -> Long.compare(b, a)).toList();
+    }
+
+    private BatchResult<String> fetch(List<Long> ids) {
+        return BatchLookup.fetch(ids, this::loadEvenIds, Function.identity(), rows -> rows.stream().map(id -> "row-" + id).toList());
+    }
+
+    @Test
+    @DisplayName("Should restore request order, collapse duplicates and report missing ids")
+    void shouldRestoreRequestOrder() {
+        BatchResult<String> result = fetch(List.of(4L, 3L, 2L, 4L, 6L));
+
+        assertThat(result.content()).containsExactly("row-4", "row-2", "row-6");
+        assertThat(result.missingIds()).containsExactly(3L);
+        assertThat(queriedChunks).containsExactly(List.of(4L, 3L, 2L, 6L));
+    }
+
+    @Test
+    @DisplayName("Should split large requests into chunks")
+    void shouldSplitIntoChunks() {
+        List<Long> ids = LongStream.rangeClosed(1, BatchLookup.MAX_IDS).boxed().toList();
+
+        BatchResult<String> result = fetch(ids);
+
+        assertThat(queriedChunks).hasSize(BatchLookup.MAX_IDS / BatchLookup.CHUNK_SIZE);
+        assertThat(queriedChunks).allSatisfy(chunk -> assertThat(chunk).hasSizeLessThanOrEqualTo(BatchLookup.CHUNK_SIZE));
+        assertThat(result.content()).hasSize(BatchLookup.MAX_IDS / 2).startsWith("row-2", "row-4");
+        assertThat(result.missingIds()).hasSize(BatchLookup.MAX_IDS / 2).startsWith(1L, 3L);
+    }
+
+    @Test
+    @DisplayName("Should reject empty, null and oversized id lists")
+    void shouldRejectInvalidIds() {
+        List<Long> tooMany = LongStream.rangeClosed(1, BatchLookup.MAX_IDS + 1).boxed().toList();
+
+        assertThatThrownBy(() -> fetch(List.of())).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> fetch(null)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> fetch(Arrays.asList(1L, null))).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> fetch(tooMany)).isInstanceOf(BadRequestException.class)
+            .hasMessageContaining(String.valueOf(BatchLookup.MAX_IDS));
+        assertThat(queriedChunks).isEmpty();
+    }
+}
@@ -0,0 +1,35 @@
+package com.interview.util;
+
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("BloomFilter Unit Tests")
+class BloomFilterTest {
+
+    private static final int VALUES = 10_000;
+
+    @Test
+    @DisplayName("Should report every added value and few absent ones")
+    void shouldKeepFalsePositiveRateNearTarget() {
+        BloomFilter filter = new BloomFilter(VALUES, 0.01);
+        IntStream.range(0, VALUES).forEach(i -> filter.put("token-" + i));
+
+        assertThat(IntStream.range(0, VALUES).allMatch(i -> filter.mightContain("token-" + i))).isTrue();
+        long falsePositives = IntStream.range(VALUES, 2 * VALUES).filter(i -> filter.mightContain("token-" + i)).count();
+        assertThat(falsePositives).isLessThan(VALUES / 50);
+    }
+
+    @Test
+    @DisplayName("Should report nothing when empty and reject invalid sizing")
+    void shouldStartEmpty() {
+        BloomFilter filter = new BloomFilter(100, 0.001);
+
+        assertThat(filter.mightContain("token-1")).isFalse();
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(100, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
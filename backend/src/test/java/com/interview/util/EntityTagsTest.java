@@ -0,0 +1,56 @@
+package com.interview.util;
+
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("EntityTags Unit Tests")
+class EntityTagsTest {
+
+    @Nested
+    @DisplayName("Build Tests")
+    class BuildTests {
+
+        @Test
+        @DisplayName("Should quote a version")
+        void shouldQuoteVersion() {
+            assertThat(EntityTags.of(3L)).isEqualTo("\"3\"");
+        }
+
+        @Test
+        @DisplayName("Should change when the timestamp changes by a microsecond")
+        void shouldRenderTimestampsWithMicrosecondPrecision() {
+            LocalDateTime timestamp = LocalDateTime.of(2025, 1, 1, 12, 0, 0, 1_000);
+
+            assertThat(EntityTags.of(timestamp, 2)).isEqualTo("\"1735732800000001-2\"");
+            assertThat(EntityTags.of(timestamp.plusNanos(1_000), 2)).isNotEqualTo(EntityTags.of(timestamp, 2));
+        }
+    }
+
+    @Nested
+    @DisplayName("Match Tests")
+    class MatchTests {
+
+        @Test
+        @DisplayName("If-None-Match should use weak comparison and accept lists and wildcard")
+        void ifNoneMatchShouldUseWeakComparison() {
+            assertThat(EntityTags.matchesNoneMatch("W/\"3\"", "\"3\"")).isTrue();
+            assertThat(EntityTags.matchesNoneMatch("\"1\", \"3\"", "\"3\"")).isTrue();
+            assertThat(EntityTags.matchesNoneMatch("*", "\"3\"")).isTrue();
+            assertThat(EntityTags.matchesNoneMatch("\"4\"", "\"3\"")).isFalse();
+            assertThat(EntityTags.matchesNoneMatch(null, "\"3\"")).isFalse();
+        }
+
+        @Test
+        @DisplayName("If-Match should use strong comparison and pass when absent")
+        void ifMatchShouldUseStrongComparison() {
+            assertThat(EntityTags.matchesIfMatch("\"3\"", "\"3\"")).isTrue();
+            assertThat(EntityTags.matchesIfMatch(null, "\"3\"")).isTrue();
+            assertThat(EntityTags.matchesIfMatch("W/\"3\"", "\"3\"")).isFalse();
+            assertThat(EntityTags.matchesIfMatch("\"4\"", "\"3\"")).isFalse();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.interview.util;
+
+import com.interview.exception.BadRequestException;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("KeysetCursor Unit Tests")
+class KeysetCursorTest {
+
+    private static final Set<String> SORT_KEYS = Set.of("id", "email");
+
+    @Nested
+    @DisplayName("Encode/Decode Tests")
+    class EncodeDecodeTests {
+
+        @Test
+        @DisplayName("Should round-trip values containing the separator")
+        void shouldRoundTripValuesContainingSeparator() {
+            KeysetCursor cursor = new KeysetCursor("email", "a:b@example.com", 42L);
+
+            KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+            assertThat(decoded).isEqualTo(cursor);
+        }
+
+        @Test
+        @DisplayName("Should produce URL-safe tokens")
+        void shouldProduceUrlSafeTokens() {
+            String token = new KeysetCursor("email", "??>>~~", 1L).encode();
+
+            assertThat(token).matches("^[A-Za-z0-9_-]+$");
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"not-a-cursor", "!!!", "aWQ6eDo"})
+        @DisplayName("Should reject malformed tokens")
+        void shouldRejectMalformedTokens(String token) {
+            assertThatThrownBy(() -> KeysetCursor.decode(token)).isInstanceOf(BadRequestException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Resolve Tests")
+    class ResolveTests {
+
+        @Test
+        @DisplayName("Should start at the beginning of the id sort by default")
+        void shouldStartAtBeginningByDefault() {
+            KeysetCursor cursor = KeysetCursor.resolve(null, null, SORT_KEYS);
+
+            assertThat(cursor.sortKey()).isEqualTo("id");
+            assertThat(cursor.value()).isEmpty();
+            assertThat(cursor.id()).isZero();
+            assertThat(cursor.isIdSort()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should keep the sort key carried by the cursor")
+        void shouldKeepCursorSortKey() {
+            String token = new KeysetCursor("email", "bob@example.com", 7L).encode();
+
+            KeysetCursor cursor = KeysetCursor.resolve(token, null, SORT_KEYS);
+
+            assertThat(cursor.sortKey()).isEqualTo("email");
+            assertThat(cursor.next("carol@example.com", 9L).encode())
+                .isEqualTo(new KeysetCursor("email", "carol@example.com", 9L).encode());
+        }
+
+        @Test
+        @DisplayName("Should reject unsupported sort keys")
+        void shouldRejectUnsupportedSortKeys() {
+            assertThatThrownBy(() -> KeysetCursor.resolve(null, "phone", SORT_KEYS))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("phone");
+        }
+
+        @Test
+        @DisplayName("Should reject a cursor issued for another sort key")
+        void shouldRejectConflictingSortKey() {
+            String token = new KeysetCursor("id", "", 7L).encode();
+
+            assertThatThrownBy(() -> KeysetCursor.resolve(token, "email", SORT_KEYS))
+                .isInstanceOf(BadRequestException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Limit Tests")
+    class LimitTests {
+
+        @Test
+        @DisplayName("Should default missing limit")
+        void shouldDefaultMissingLimit() {
+            assertThat(KeysetCursor.validateLimit(null)).isEqualTo(KeysetCursor.DEFAULT_LIMIT);
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {0, -1, 101})
+        @DisplayName("Should reject limits out of range")
+        void shouldRejectLimitsOutOfRange(int limit) {
+            assertThatThrownBy(() -> KeysetCursor.validateLimit(limit)).isInstanceOf(BadRequestException.class);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.interview.util;
+
+import com.interview.dto.Suggestion;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("PrefixTrie Unit Tests")
+class PrefixTrieTest {
+
+    private static PrefixTrie trieOf(String... values) {
+        PrefixTrie trie = new PrefixTrie();
+        for (String value : values) {
+            trie.add(value, 1);
+        }
+        return trie;
+    }
+
+    private static List<String> values(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::value).toList();
+    }
+
+    @Nested
+    @DisplayName("Lookup Tests")
+    class LookupTests {
+
+        @Test
+        @DisplayName("Should match prefixes case-insensitively, including prefixes ending inside a compressed edge")
+        void shouldMatchPrefixes() {
+            PrefixTrie trie = trieOf("Toyota", "Tesla", "Tata", "Honda");
+
+            assertThat(values(trie.top("t", 10))).containsExactly("Tata", "Tesla", "Toyota");
+            assertThat(values(trie.top("TOY", 10))).containsExactly("Toyota");
+            assertThat(values(trie.top(" hon", 10))).containsExactly("Honda");
+            assertThat(trie.top("Toyotas", 10)).isEmpty();
+            assertThat(trie.top("X", 10)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should rank by count, then value, and keep only the top entries")
+        void shouldRankByCount() {
+            PrefixTrie trie = new PrefixTrie();
+            trie.add("Model S", 2);
+            trie.add("Model 3", 5);
+            trie.add("Model X", 2);
+            trie.add("Model Y", 1);
+
+            assertThat(trie.top("model", 3)).containsExactly(
+                new Suggestion("Model 3", 5), new Suggestion("Model S", 2), new Suggestion("Model X", 2));
+        }
+
+        @Test
+        @DisplayName("Should keep the first spelling and count every spelling of a value together")
+        void shouldMergeSpellings() {
+            PrefixTrie trie = trieOf("Honda", "HONDA", "honda ");
+
+            assertThat(trie.size()).isEqualTo(1);
+            assertThat(trie.top("", 10)).containsExactly(new Suggestion("Honda", 3));
+        }
+
+        @Test
+        @DisplayName("Should hold a value that is a prefix of another")
+        void shouldHoldNestedValues() {
+            PrefixTrie trie = trieOf("Mini", "Mini Cooper", "Min");
+
+            assertThat(values(trie.top("min", 10))).containsExactly("Min", "Mini", "Mini Cooper");
+            assertThat(values(trie.top("mini ", 10))).containsExactly("Mini Cooper");
+        }
+    }
+
+    @Nested
+    @DisplayName("Removal Tests")
+    class RemovalTests {
+
+        @Test
+        @DisplayName("Should drop a value once its count reaches zero and keep its neighbours")
+        void shouldDropValue() {
+            PrefixTrie trie = trieOf("Tesla", "Tesla", "Toyota", "Tata");
+
+            trie.remove("tesla", 1);
+            assertThat(trie.top("te", 10)).containsExactly(new Suggestion("Tesla", 1));
+
+            trie.remove("Tesla", 1);
+            assertThat(trie.top("te", 10)).isEmpty();
+            assertThat(values(trie.top("t", 10))).containsExactly("Tata", "Toyota");
+            assertThat(trie.size()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should keep longer values when a value that prefixes them is removed")
+        void shouldKeepLongerValues() {
+            PrefixTrie trie = trieOf("Mini", "Mini Cooper", "Mini Clubman");
+
+            trie.remove("Mini", 1);
+            trie.remove("Mini Clubman", 1);
+
+            assertThat(values(trie.top("m", 10))).containsExactly("Mini Cooper");
+            trie.add("Mini", 1);
+            assertThat(values(trie.top("mini", 10))).containsExactly("Mini", "Mini Cooper");
+        }
+
+        @Test
+        @DisplayName("Should ignore unknown, partial and blank values")
+        void shouldIgnoreUnknownValues() {
+            PrefixTrie trie = trieOf("Toyota");
+
+            trie.remove("Toy", 1);
+            trie.remove("Ford", 1);
+            trie.remove(null, 1);
+            trie.add("  ", 1);
+
+            assertThat(trie.top("", 10)).containsExactly(new Suggestion("Toyota", 1));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.interview.util;
+
+import com.interview.dto.VehicleResponse;
+import com.interview.exception.BadRequestException;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SparseFields Unit Tests")
+class SparseFieldsTest {
+
+    private static final Set<String> FIELDS = SparseFields.fieldsOf(VehicleResponse.class);
+
+    @Test
+    @DisplayName("Should list response properties in declaration order")
+    void shouldListResponseProperties() {
+        assertThat(FIELDS).startsWith("id", "customerId", "customerName", "customerEmail", "vin").contains("updatedBy");
+    }
+
+    @Test
+    @DisplayName("Should return null when no fieldset is requested")
+    void shouldReturnNullWhenAbsent() {
+        assertThat(SparseFields.parse(null, FIELDS)).isNull();
+        assertThat(SparseFields.parse("  ", FIELDS)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should always include id and ignore blanks and duplicates")
+    void shouldAlwaysIncludeId() {
+        assertThat(SparseFields.parse("vin, make,,vin", FIELDS)).containsExactly("id", "vin", "make");
+    }
+
+    @Test
+    @DisplayName("Should reject unknown fields")
+    void shouldRejectUnknownFields() {
+        assertThatThrownBy(() -> SparseFields.parse("vin,customerProfile", FIELDS))
+            .isInstanceOf(BadRequestException.class)
+            .hasMessageContaining("customerProfile");
+    }
+}